@@ -0,0 +1,159 @@
+package benny.accessloganalyzer.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 최근 windowSize 번 호출의 실패율이 임계치를 넘으면 열려서 openDuration 동안 호출을 바로 거절하는 차단기.
+ * 열린 시간이 지나면 반열림(HALF_OPEN)으로 바뀌어 halfOpenProbes 번의 시험 호출만 통과시키고,
+ * 모두 성공하면 닫히고 하나라도 실패하면 다시 열린다.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    private final LongSupplier clock;
+
+    // 최근 호출 결과 링 버퍼 (true = 실패)
+    private final boolean[] window;
+    private int windowCount;
+    private int windowNext;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesIssued;
+    private int probesSucceeded;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRatePercent,
+                          long openMillis, int halfOpenProbes) {
+        this(name, windowSize, minimumCalls, failureRatePercent, openMillis, halfOpenProbes, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRatePercent,
+                   long openMillis, int halfOpenProbes, LongSupplier clock) {
+        this.name = name;
+        this.window = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.clamp(minimumCalls, 1, window.length);
+        this.failureRateThreshold = failureRatePercent / 100.0;
+        this.openNanos = openMillis * 1_000_000;
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+        this.clock = clock;
+    }
+
+    /**
+     * 열리지 않는 차단기.
+     */
+    public static CircuitBreaker disabled() {
+        return new CircuitBreaker("disabled", 1, 1, Double.POSITIVE_INFINITY, 0, 1);
+    }
+
+    /**
+     * 닫혀 있거나 시험 호출 자리가 남아 있으면 true. true 를 받았으면 onSuccess/onFailure/release 중 하나를 반드시 호출한다.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openNanos) {
+                return false;
+            }
+            probesIssued = 0;
+            probesSucceeded = 0;
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (probesIssued >= halfOpenProbes) {
+            return false;
+        }
+        probesIssued++;
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++probesSucceeded >= halfOpenProbes) {
+                resetWindow();
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(true);
+            if (windowCount >= minimumCalls && windowFailures >= failureRateThreshold * windowCount) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * 허가를 받았지만 호출하지 않은 경우 시험 호출 자리를 돌려준다.
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && probesIssued > probesSucceeded) {
+            probesIssued--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowNext] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowNext = (windowNext + 1) % window.length;
+    }
+
+    private void open() {
+        openedAt = clock.getAsLong();
+        resetWindow();
+        transition(State.OPEN);
+    }
+
+    private void resetWindow() {
+        windowCount = 0;
+        windowNext = 0;
+        windowFailures = 0;
+    }
+
+    private void transition(State next) {
+        if (state == next) {
+            return;
+        }
+        if (next == State.OPEN) {
+            log.warn("차단기 열림: {} ({}ms 동안 호출 차단)", name, openNanos / 1_000_000);
+        } else {
+            log.info("차단기 상태 변경: {} {} -> {}", name, state, next);
+        }
+        state = next;
+    }
+}
@@ -0,0 +1,278 @@
+package benny.accessloganalyzer.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * ipinfo 캐시를 로컬 파일에 스냅샷으로 남기고, 시작 시 다시 채워 재시작 후에도 캐시가 비어 있지 않게 한다.
+ * 파일은 IP를 4/16바이트로 압축하고 국가·지역·도시·조직 문자열은 문자열 테이블의 인덱스로만 저장한다.
+ * 항목마다 만료 시각을 함께 저장해, 다시 올릴 때는 남은 TTL만큼만 캐시에 머문다.
+ */
+@Slf4j
+@Component
+public class IpInfoCacheStore {
+
+    static final int MAGIC = 0x49504331; // "IPC1"
+
+    private static final byte KEY_RAW = 0;
+    private static final byte KEY_IPV4 = 4;
+    private static final byte KEY_IPV6 = 16;
+    // 항목 하나가 차지하는 최소 바이트: 키 형식 + 가장 짧은 키(IPv4 주소 또는 빈 문자열 길이) + 만료 시각 + 문자열 인덱스 4개
+    private static final int MIN_ENTRY_BYTES = 1 + Integer.BYTES + Long.BYTES + 4 * Integer.BYTES;
+
+    private final Cache<String, IpInfo> cache;
+    private final Path file;
+    private final Duration defaultTtl;
+    private final Clock clock;
+
+    @Autowired
+    public IpInfoCacheStore(
+            @Qualifier("ipInfoCache") Cache<String, IpInfo> cache,
+            @Value("${ipinfo.cache.persistence.enabled:false}") boolean enabled,
+            @Value("${ipinfo.cache.persistence.path:${java.io.tmpdir}/access-log-analyzer/ipinfo-cache.bin}") String path,
+            @Value("${ipinfo.cache.ttl-seconds:3600}") long ttlSeconds) {
+        this(cache, enabled ? Path.of(path) : null, Duration.ofSeconds(ttlSeconds), Clock.systemUTC());
+    }
+
+    IpInfoCacheStore(Cache<String, IpInfo> cache, Path file, Duration defaultTtl, Clock clock) {
+        this.cache = cache;
+        this.file = file;
+        this.defaultTtl = defaultTtl;
+        this.clock = clock;
+        if (file != null) {
+            load();
+        }
+    }
+
+    public boolean isEnabled() {
+        return file != null;
+    }
+
+    /**
+     * 스냅샷 파일을 메모리 매핑으로 읽어 만료되지 않은 항목만 캐시에 넣는다. 이미 캐시에 있는 IP는 덮어쓰지 않는다.
+     */
+    int load() {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < Integer.BYTES || buffer.getInt() != MAGIC) {
+                log.warn("ipinfo 캐시 스냅샷 형식이 달라 무시: {}", file);
+                return 0;
+            }
+
+            String[] strings = new String[readCount(buffer, Integer.BYTES)];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = readString(buffer);
+            }
+
+            int total = readCount(buffer, MIN_ENTRY_BYTES);
+            int loaded = 0;
+            long now = clock.millis();
+            Optional<Policy.VarExpiration<String, IpInfo>> varExpiration = cache.policy().expireVariably();
+            for (int i = 0; i < total; i++) {
+                String ip = readKey(buffer);
+                long expiresAt = buffer.getLong();
+                IpInfo info = new IpInfo(lookupString(strings, buffer.getInt()), lookupString(strings, buffer.getInt()),
+                        lookupString(strings, buffer.getInt()), lookupString(strings, buffer.getInt()));
+                long remainingMs = expiresAt - now;
+                if (remainingMs <= 0 || cache.getIfPresent(ip) != null) {
+                    continue;
+                }
+                if (varExpiration.isPresent()) {
+                    varExpiration.get().putIfAbsent(ip, info, Duration.ofMillis(remainingMs));
+                } else {
+                    cache.put(ip, info);
+                }
+                loaded++;
+            }
+            log.info("ipinfo 캐시 스냅샷 복원: loaded={}, expired={}, file={}", loaded, total - loaded, file);
+            return loaded;
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException e) {
+            // 기록 도중 종료돼 잘린 파일 등은 버리고 빈 캐시로 시작한다
+            log.warn("ipinfo 캐시 스냅샷 복원 실패, 빈 캐시로 시작: {} - {}", file, e.toString());
+            return 0;
+        }
+    }
+
+    /**
+     * 현재 캐시를 임시 파일에 쓰고 fsync 후 원자적으로 교체한다.
+     */
+    @Scheduled(fixedDelayString = "${ipinfo.cache.persistence.snapshot-interval-ms:300000}",
+            initialDelayString = "${ipinfo.cache.persistence.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            int saved = save();
+            log.debug("ipinfo 캐시 스냅샷 저장: entries={}", saved);
+        } catch (IOException e) {
+            log.warn("ipinfo 캐시 스냅샷 저장 실패: {}", file, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        snapshot();
+    }
+
+    int save() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        long now = clock.millis();
+        Optional<Policy.VarExpiration<String, IpInfo>> varExpiration = cache.policy().expireVariably();
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        List<Map.Entry<String, IpInfo>> entries = new ArrayList<>(cache.asMap().entrySet());
+        List<Long> expiresAt = new ArrayList<>(entries.size());
+        for (Map.Entry<String, IpInfo> entry : entries) {
+            IpInfo info = entry.getValue();
+            for (String value : new String[]{info.country(), info.region(), info.city(), info.org()}) {
+                if (value != null) {
+                    stringIndex.computeIfAbsent(value, key -> {
+                        strings.add(key);
+                        return strings.size() - 1;
+                    });
+                }
+            }
+            Duration remaining = varExpiration
+                    .flatMap(expiration -> expiration.getExpiresAfter(entry.getKey()))
+                    .orElse(defaultTtl);
+            expiresAt.add(now + remaining.toMillis());
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            // 스트림을 닫으면 채널도 닫히므로 flush 후 채널에서 fsync 한다
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(MAGIC);
+            out.writeInt(strings.size());
+            for (String value : strings) {
+                writeString(out, value);
+            }
+            out.writeInt(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                IpInfo info = entries.get(i).getValue();
+                writeKey(out, entries.get(i).getKey());
+                out.writeLong(expiresAt.get(i));
+                out.writeInt(indexOf(stringIndex, info.country()));
+                out.writeInt(indexOf(stringIndex, info.region()));
+                out.writeInt(indexOf(stringIndex, info.city()));
+                out.writeInt(indexOf(stringIndex, info.org()));
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return entries.size();
+    }
+
+    /**
+     * 표준 표기 IP는 주소 바이트로, 그 밖의 키(비표준 표기 등)는 문자열 그대로 쓴다.
+     * 읽을 때 같은 문자열로 돌아오는 경우에만 압축해 캐시 키가 바뀌지 않게 한다.
+     */
+    private static void writeKey(DataOutputStream out, String ip) throws IOException {
+        byte[] packed = pack(ip);
+        if (packed == null) {
+            out.writeByte(KEY_RAW);
+            writeString(out, ip);
+            return;
+        }
+        out.writeByte(packed.length == 4 ? KEY_IPV4 : KEY_IPV6);
+        out.write(packed);
+    }
+
+    private static String readKey(ByteBuffer buffer) throws IOException {
+        byte type = buffer.get();
+        if (type == KEY_RAW) {
+            return readString(buffer);
+        }
+        if (type != KEY_IPV4 && type != KEY_IPV6) {
+            throw new IOException("알 수 없는 키 형식: " + type);
+        }
+        byte[] address = new byte[type];
+        buffer.get(address);
+        return InetAddress.getByAddress(address).getHostAddress();
+    }
+
+    static byte[] pack(String ip) {
+        // 호스트 이름을 DNS 로 조회하지 않도록 IP 리터럴만 변환한다
+        if (ip.isEmpty() || !(ip.indexOf(':') >= 0 || Character.isDigit(ip.charAt(0)))) {
+            return null;
+        }
+        try {
+            InetAddress address = InetAddress.ofLiteral(ip);
+            return address.getHostAddress().equals(ip) ? address.getAddress() : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        byte[] bytes = new byte[readCount(buffer, 1)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 개수·길이 필드를 읽고, 항목마다 최소 minBytesEach 바이트가 필요하다고 보고 남은 바이트로 담을 수 있는지 확인한다.
+     * 손상된 값으로 음수 크기나 파일보다 큰 배열을 잡지 않도록 형식 오류로 처리한다.
+     */
+    private static int readCount(ByteBuffer buffer, int minBytesEach) throws IOException {
+        int count = buffer.getInt();
+        if (count < 0 || (long) count * minBytesEach > buffer.remaining()) {
+            throw new IOException("잘못된 개수·길이 필드: " + count + " (남은 바이트 " + buffer.remaining() + ")");
+        }
+        return count;
+    }
+
+    private static int indexOf(Map<String, Integer> stringIndex, String value) {
+        return value == null ? -1 : stringIndex.get(value);
+    }
+
+    private static String lookupString(String[] strings, int index) {
+        // 같은 문자열은 하나의 인스턴스를 공유해 복원된 캐시도 값 문자열을 중복 보관하지 않는다
+        return index < 0 ? null : strings[index];
+    }
+}
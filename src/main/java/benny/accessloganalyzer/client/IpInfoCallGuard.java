@@ -0,0 +1,149 @@
+package benny.accessloganalyzer.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * ipinfo 호출 한 건을 차단기·토큰 버킷·재시도로 감싼다.
+ * 차단기가 열려 있거나 토큰이 없으면 호출하지 않고 바로 SKIPPED 를 반환해, 장애·한도 초과 중에는 타임아웃을 기다리지 않는다.
+ * 재시도 사이에는 지수 백오프 상한 안에서 무작위로 기다린다(full jitter).
+ */
+@Slf4j
+public class IpInfoCallGuard {
+
+    private final int maxRetries;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final CircuitBreaker breaker;
+    private final TokenBucket rateLimiter;
+    private final LongAdder rejectedByBreaker = new LongAdder();
+    private final LongAdder rejectedByRateLimit = new LongAdder();
+
+    public IpInfoCallGuard(int maxRetries, long backoffBaseMs, long backoffMaxMs,
+                           CircuitBreaker breaker, TokenBucket rateLimiter) {
+        this.maxRetries = maxRetries;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.breaker = breaker;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * 차단기·호출 한도·백오프 없이 즉시 재시도만 한다.
+     */
+    public static IpInfoCallGuard retriesOnly(int maxRetries) {
+        return new IpInfoCallGuard(maxRetries, 0, 0, CircuitBreaker.disabled(), TokenBucket.unlimited());
+    }
+
+    /**
+     * 성공하면 SUCCEEDED 와 결과를, 재시도를 다 쓰면 FAILED 를 반환한다.
+     * 첫 시도 전에 차단기나 호출 한도로 거절되면 ipinfo 를 부르지 않았으므로 SKIPPED 이고, 재시도 중 거절되면 이미 실패한 호출이므로 FAILED 다.
+     * 429 를 뺀 4xx 는 요청 자체의 문제이므로 재시도하지 않고 차단기에도 실패로 세지 않되, 결과는 FAILED 다.
+     */
+    public <T> Result<T> call(String target, Supplier<T> call) {
+        int totalAttempts = 1 + maxRetries;
+        for (int attempt = 1; attempt <= totalAttempts; attempt++) {
+            if (!breaker.tryAcquire()) {
+                rejectedByBreaker.increment();
+                log.debug("ipinfo 차단기 열림, 호출 생략: {}", target);
+                return attempt == 1 ? Result.skipped() : Result.failed();
+            }
+            if (!rateLimiter.tryAcquire()) {
+                breaker.release();
+                rejectedByRateLimit.increment();
+                log.debug("ipinfo 호출 한도 초과, 호출 생략: {}", target);
+                return attempt == 1 ? Result.skipped() : Result.failed();
+            }
+
+            try {
+                T result = call.get();
+                breaker.onSuccess();
+                return Result.succeeded(result);
+            } catch (RestClientResponseException e) {
+                if (e.getStatusCode().is4xxClientError() && e.getStatusCode().value() != 429) {
+                    breaker.onSuccess();
+                    log.warn("ipinfo API 요청 거부: {} - {}", target, e.getStatusCode());
+                    return Result.failed();
+                }
+                breaker.onFailure();
+                logFailure(target, attempt, totalAttempts, e);
+            } catch (Exception e) {
+                breaker.onFailure();
+                logFailure(target, attempt, totalAttempts, e);
+            }
+
+            if (attempt < totalAttempts && !backoff(attempt)) {
+                return Result.failed();
+            }
+        }
+        return Result.failed();
+    }
+
+    public CircuitBreaker.State getBreakerState() {
+        return breaker.getState();
+    }
+
+    public long getRejectedByBreaker() {
+        return rejectedByBreaker.sum();
+    }
+
+    public long getRejectedByRateLimit() {
+        return rejectedByRateLimit.sum();
+    }
+
+    private static void logFailure(String target, int attempt, int totalAttempts, Exception e) {
+        if (attempt < totalAttempts) {
+            log.warn("ipinfo API 호출 실패 (시도 {}/{}): {} - {}", attempt, totalAttempts, target, e.getMessage());
+        } else {
+            log.error("ipinfo API 최대 재시도 초과: {} - {}", target, e.getMessage());
+        }
+    }
+
+    /**
+     * attempt 번째 실패 후 [0, min(max, base * 2^(attempt-1))) 만큼 기다린다. 인터럽트되면 false.
+     */
+    private boolean backoff(int attempt) {
+        if (backoffBaseMs <= 0) {
+            return true;
+        }
+        long ceiling = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt - 1, 20));
+        try {
+            TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 호출 한 건의 결과. SKIPPED 는 ipinfo 를 부르지 않은 경우라 조회 대상의 실패로 기억하면 안 된다.
+     */
+    public record Result<T>(Outcome outcome, T value) {
+
+        public enum Outcome {
+            SUCCEEDED, FAILED, SKIPPED
+        }
+
+        static <T> Result<T> succeeded(T value) {
+            return new Result<>(Outcome.SUCCEEDED, value);
+        }
+
+        static <T> Result<T> failed() {
+            return new Result<>(Outcome.FAILED, null);
+        }
+
+        static <T> Result<T> skipped() {
+            return new Result<>(Outcome.SKIPPED, null);
+        }
+
+        public boolean isSkipped() {
+            return outcome == Outcome.SKIPPED;
+        }
+    }
+}
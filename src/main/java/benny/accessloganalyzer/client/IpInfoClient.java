@@ -1,79 +1,468 @@
 package benny.accessloganalyzer.client;
 
+import benny.accessloganalyzer.model.GeoDistribution;
+import benny.accessloganalyzer.model.SortedCounts;
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
 
 @Slf4j
 @Service
 public class IpInfoClient {
 
+    // 분포 집계에서 병렬 구간 하나가 맡는 최소 IP 수 (작은 분석은 나누지 않는다)
+    private static final int DISTRIBUTION_MIN_SLICE = 16_384;
+
+    private static final IpInfo UNKNOWN = IpInfo.unknown();
+
+    private static final ParameterizedTypeReference<Map<String, Object>> BATCH_RESPONSE_TYPE =
+            new ParameterizedTypeReference<>() {};
+
     private final RestClient restClient;
     private final Cache<String, IpInfo> cache;
+    // 조회에 실패한 IP. 짧은 TTL 동안은 다시 호출하지 않고 UNKNOWN 으로 답한다
+    private final Cache<String, IpInfo> failureCache;
     private final String token;
-    private final int maxRetries;
+    private final IpInfoCallGuard callGuard;
+    private final Executor lookupExecutor;
+    private final long deadlineMs;
+    private final int batchSize;
+    private final LocalGeoDatabase localGeo;
+    // 원격 조회 중인 IP. 같은 IP의 동시 캐시 미스는 먼저 등록한 조회 하나를 함께 기다린다
+    private final ConcurrentHashMap<String, CompletableFuture<IpInfo>> inFlight = new ConcurrentHashMap<>();
+    // lookupTopIps 로 요청된 IP 수와 그중 캐시에서 바로 응답한 수 (미리 조회 효과 관찰용)
+    private final LongAdder topIpRequests = new LongAdder();
+    private final LongAdder topIpCacheHits = new LongAdder();
 
+    @Autowired
     public IpInfoClient(
             @Qualifier("ipInfoRestClient") RestClient restClient,
             @Qualifier("ipInfoCache") Cache<String, IpInfo> cache,
+            @Qualifier("ipInfoFailureCache") Cache<String, IpInfo> failureCache,
             @Value("${ipinfo.token:}") String token,
-            @Value("${ipinfo.retry.max-attempts:2}") int maxRetries) {
+            IpInfoCallGuard callGuard,
+            @Qualifier("ipInfoExecutor") Executor lookupExecutor,
+            @Value("${ipinfo.lookup.deadline-ms:3000}") long deadlineMs,
+            @Value("${ipinfo.batch.size:100}") int batchSize,
+            LocalGeoDatabase localGeo) {
         this.restClient = restClient;
         this.cache = cache;
+        this.failureCache = failureCache;
         this.token = token;
-        this.maxRetries = maxRetries;
+        this.callGuard = callGuard;
+        this.lookupExecutor = lookupExecutor;
+        this.deadlineMs = deadlineMs;
+        this.batchSize = batchSize;
+        this.localGeo = localGeo;
+    }
+
+    IpInfoClient(RestClient restClient, Cache<String, IpInfo> cache, String token, int maxRetries,
+                 Executor lookupExecutor, long deadlineMs, int batchSize, LocalGeoDatabase localGeo) {
+        this(restClient, cache, noFailureCache(), token, IpInfoCallGuard.retriesOnly(maxRetries), lookupExecutor,
+                deadlineMs, batchSize, localGeo);
+    }
+
+    IpInfoClient(RestClient restClient, Cache<String, IpInfo> cache, String token, int maxRetries,
+                 Executor lookupExecutor, long deadlineMs, int batchSize) {
+        this(restClient, cache, token, maxRetries, lookupExecutor, deadlineMs, batchSize, LocalGeoDatabase.empty());
     }
 
+    /**
+     * 호출 스레드에서 IP 하나씩 순서대로 조회한다 (테스트용).
+     */
+    IpInfoClient(RestClient restClient, Cache<String, IpInfo> cache, String token, int maxRetries) {
+        this(restClient, cache, token, maxRetries, Runnable::run, Long.MAX_VALUE, 1);
+    }
+
+    /**
+     * 실패를 기억하지 않는 실패 캐시 (테스트용). 실패한 IP도 다음 조회 때 다시 호출한다.
+     */
+    static Cache<String, IpInfo> noFailureCache() {
+        return Caffeine.newBuilder().expireAfterWrite(Duration.ZERO).build();
+    }
+
+    /**
+     * 로컬 DB와 캐시에 없으면 원격 조회한다. 같은 IP를 이미 다른 스레드가 조회 중이면 새로 호출하지 않고 그 결과를 기다린다.
+     */
     public IpInfo lookup(String ip) {
-        IpInfo cached = cache.getIfPresent(ip);
-        if (cached != null) {
-            log.debug("캐시 히트: {}", ip);
-            return cached;
+        IpInfo known = known(ip);
+        if (known != null) {
+            log.debug("로컬 DB/캐시 히트: {}", ip);
+            return known;
         }
 
-        int attempts = 0;
-        int totalAttempts = 1 + maxRetries;
+        CompletableFuture<IpInfo> flight = new CompletableFuture<>();
+        CompletableFuture<IpInfo> existing = inFlight.putIfAbsent(ip, flight);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            IpInfo info = knownOrFetch(ip);
+            flight.complete(info);
+            return info;
+        } finally {
+            land(ip, flight);
+        }
+    }
+
+    /**
+     * 여러 IP를 배치 API 한 번으로 조회해 캐시에 넣는다. 다른 스레드가 조회 중인 IP는 배치에서 빼고 그 결과를 기다린다.
+     * 응답에 빠졌거나 오류로 온 IP, 또는 배치 호출 자체가 실패한 경우의 IP는 개별 조회로 대신한다.
+     */
+    Map<String, IpInfo> lookupBatch(List<String> ips) {
+        Map<String, IpInfo> resolved = new HashMap<>();
+        Map<String, CompletableFuture<IpInfo>> owned = new LinkedHashMap<>();
+        Map<String, CompletableFuture<IpInfo>> joined = new HashMap<>();
+        for (String ip : ips) {
+            IpInfo known = known(ip);
+            if (known != null) {
+                resolved.put(ip, known);
+                continue;
+            }
+            CompletableFuture<IpInfo> flight = new CompletableFuture<>();
+            CompletableFuture<IpInfo> existing = inFlight.putIfAbsent(ip, flight);
+            if (existing == null) {
+                owned.put(ip, flight);
+            } else {
+                joined.put(ip, existing);
+            }
+        }
+
+        try {
+            resolveOwned(owned, resolved);
+        } finally {
+            owned.forEach(this::land);
+        }
+        joined.forEach((ip, flight) -> resolved.put(ip, flight.join()));
+        return resolved;
+    }
 
-        while (attempts < totalAttempts) {
-            try {
-                IpInfo info = restClient.get()
-                        .uri("/{ip}?token={token}", ip, token)
+    private void resolveOwned(Map<String, CompletableFuture<IpInfo>> owned, Map<String, IpInfo> resolved) {
+        // 캐시를 확인한 뒤 조회를 맡기 전 사이에 다른 조회가 끝났을 수 있다
+        List<String> toFetch = new ArrayList<>();
+        owned.forEach((ip, flight) -> {
+            IpInfo cached = cached(ip);
+            if (cached != null) {
+                flight.complete(cached);
+                resolved.put(ip, cached);
+            } else {
+                toFetch.add(ip);
+            }
+        });
+        if (toFetch.isEmpty()) {
+            return;
+        }
+
+        IpInfoCallGuard.Result<Map<String, Object>> batch = callGuard.call("batch(" + toFetch.size() + ")",
+                () -> restClient.post()
+                        .uri("/batch?token={token}", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(toFetch)
                         .retrieve()
-                        .body(IpInfo.class);
+                        .body(BATCH_RESPONSE_TYPE));
+        if (batch.isSkipped()) {
+            // 차단기·호출 한도로 생략된 배치를 IP마다 다시 부르면 같은 이유로 생략되므로, 실패로 기억하지 않고 UNKNOWN 으로 답한다
+            for (String ip : toFetch) {
+                IpInfo info = IpInfo.unknown();
+                owned.get(ip).complete(info);
+                resolved.put(ip, info);
+            }
+            return;
+        }
 
-                if (info != null) {
-                    cache.put(ip, info);
-                    return info;
-                }
-            } catch (Exception e) {
-                attempts++;
-                if (attempts < totalAttempts) {
-                    log.warn("ipinfo API 호출 실패 (시도 {}/{}): {} - {}", attempts, totalAttempts, ip, e.getMessage());
-                } else {
-                    log.error("ipinfo API 최대 재시도 초과: {} - {}", ip, e.getMessage());
-                }
-                continue;
+        Map<String, Object> body = batch.value();
+        int fallbacks = 0;
+        for (String ip : toFetch) {
+            IpInfo info = body == null ? null : toIpInfo(body.get(ip));
+            if (info != null) {
+                cache.put(ip, info);
+            } else {
+                fallbacks++;
+                info = fetch(ip);
             }
-            break;
+            owned.get(ip).complete(info);
+            resolved.put(ip, info);
         }
+        if (fallbacks > 0) {
+            log.warn("ipinfo 배치 조회 일부 실패: {}/{}개 IP를 개별 조회로 대체", fallbacks, toFetch.size());
+        }
+    }
 
-        return IpInfo.unknown();
+    private IpInfo knownOrFetch(String ip) {
+        IpInfo known = known(ip);
+        return known != null ? known : fetch(ip);
     }
 
-    public Map<String, IpInfo> lookupTopIps(Map<String, Long> ipCounts, int topN) {
-        Map<String, IpInfo> result = new LinkedHashMap<>();
+    /**
+     * 원격 호출 없이 알 수 있는 지리정보. 로컬 DB, 예약 대역(사설망·루프백·CGNAT 등), 캐시, 실패 캐시 순으로 본다.
+     * 로컬 DB가 예약 대역보다 먼저여서 사내 대역에 위치를 붙여 둘 수 있다.
+     */
+    private IpInfo known(String ip) {
+        IpInfo local = localGeo.find(ip);
+        if (local != null) {
+            return local;
+        }
+        IpInfo reserved = ReservedRanges.match(ip);
+        return reserved != null ? reserved : cached(ip);
+    }
+
+    private IpInfo cached(String ip) {
+        IpInfo cached = cache.getIfPresent(ip);
+        return cached != null ? cached : failureCache.getIfPresent(ip);
+    }
+
+    /**
+     * 원격 GET 한 번(재시도 포함). 성공하면 캐시에 넣고, 실패하면 실패 캐시에 넣어 짧은 TTL 동안 다시 호출하지 않는다.
+     * 차단기나 호출 한도로 호출 자체를 생략했으면 IP 의 실패가 아니므로 실패 캐시에 넣지 않는다.
+     */
+    private IpInfo fetch(String ip) {
+        IpInfoCallGuard.Result<IpInfo> result = callGuard.call(ip, () -> restClient.get()
+                .uri("/{ip}?token={token}", ip, token)
+                .retrieve()
+                .body(IpInfo.class));
+        if (result.isSkipped()) {
+            return IpInfo.unknown();
+        }
+        IpInfo info = result.value();
+        if (info == null) {
+            failureCache.put(ip, UNKNOWN);
+            return IpInfo.unknown();
+        }
+        cache.put(ip, info);
+        return info;
+    }
+
+    /**
+     * 조회를 마친다. 예외로 끝나 결과가 없으면 기다리던 스레드에는 UNKNOWN 을 준다.
+     */
+    private void land(String ip, CompletableFuture<IpInfo> flight) {
+        flight.complete(IpInfo.unknown());
+        inFlight.remove(ip, flight);
+    }
+
+    /**
+     * 배치 응답의 값은 정상이면 IP 정보 객체이고, 잘못된 IP는 문자열이나 error 필드로 온다.
+     */
+    private static IpInfo toIpInfo(Object value) {
+        if (!(value instanceof Map<?, ?> fields) || fields.containsKey("error")) {
+            return null;
+        }
+        return new IpInfo(text(fields, "country"), text(fields, "region"), text(fields, "city"), text(fields, "org"));
+    }
 
-        ipCounts.entrySet().stream()
+    private static String text(Map<?, ?> fields, String name) {
+        Object value = fields.get(name);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * 상위 N개 IP 중 로컬 DB와 캐시에 없는 IP를 조회 전용 executor 에서 동시에 조회하고, 전체를 한 번의 마감 시간까지만 기다린다.
+     * 캐시에 없는 IP는 batchSize 개씩 묶어 배치 API 로 조회한다 (batchSize 가 1 이하이면 IP마다 개별 조회).
+     * 마감까지 끝나지 않은 IP는 UNKNOWN 으로 응답하고, 조회는 백그라운드에서 계속되어 끝나면 캐시에 들어간다.
+     */
+    public Map<String, IpInfo> lookupTopIps(Map<String, Long> ipCounts, int topN) {
+        List<String> topIps = ipCounts.entrySet().stream()
                 .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
                 .limit(topN)
-                .forEach(entry -> result.put(entry.getKey(), lookup(entry.getKey())));
+                .map(Map.Entry::getKey)
+                .toList();
 
+        Map<String, IpInfo> result = new LinkedHashMap<>();
+        List<String> uncached = new ArrayList<>();
+        for (String ip : topIps) {
+            IpInfo known = known(ip);
+            // 응답 순서를 유지하기 위해 조회 중인 IP도 자리를 먼저 잡아 둔다
+            result.put(ip, known);
+            if (known == null) {
+                uncached.add(ip);
+            }
+        }
+        topIpRequests.add(topIps.size());
+        topIpCacheHits.add(topIps.size() - uncached.size());
+        if (uncached.isEmpty()) {
+            return result;
+        }
+
+        Map<String, CompletableFuture<IpInfo>> pending = new LinkedHashMap<>();
+        if (batchSize > 1 && uncached.size() > 1) {
+            for (int from = 0; from < uncached.size(); from += batchSize) {
+                List<String> batch = uncached.subList(from, Math.min(from + batchSize, uncached.size()));
+                CompletableFuture<Map<String, IpInfo>> batchFuture = lookupBatchAsync(List.copyOf(batch));
+                for (String ip : batch) {
+                    pending.put(ip, batchFuture.thenApply(resolved -> resolved.getOrDefault(ip, IpInfo.unknown())));
+                }
+            }
+        } else {
+            uncached.forEach(ip -> pending.put(ip, lookupAsync(ip)));
+        }
+
+        awaitDeadline(pending.values());
+        int timedOut = 0;
+        for (Map.Entry<String, CompletableFuture<IpInfo>> entry : pending.entrySet()) {
+            CompletableFuture<IpInfo> future = entry.getValue();
+            if (!future.isDone()) {
+                timedOut++;
+            }
+            result.put(entry.getKey(), future.getNow(IpInfo.unknown()));
+        }
+        if (timedOut > 0) {
+            log.warn("ipinfo 조회 마감 초과: {}/{}개 IP는 UNKNOWN 으로 응답하고 백그라운드에서 계속 조회", timedOut, pending.size());
+        }
         return result;
     }
+
+    /**
+     * 모든 IP를 로컬 DB, 예약 대역, 캐시로만 국가·ASN 에 매핑해 요청 수 가중 분포를 만든다. IP마다 원격 API 를 부를 수 없으므로
+     * 어디에도 없거나 조회에 실패한 IP는 UNKNOWN 으로 센다. IP를 구간으로 나눠 병렬로 센 뒤 합친다.
+     */
+    public GeoDistribution geoDistribution(Map<String, Long> ipCounts) {
+        SortedCounts counts = SortedCounts.of(ipCounts);
+        int size = counts.size();
+        if (size == 0) {
+            return GeoDistribution.empty();
+        }
+        int slices = Math.clamp(size / DISTRIBUTION_MIN_SLICE, 1, Runtime.getRuntime().availableProcessors());
+        DistributionCounter total = IntStream.range(0, slices)
+                .parallel()
+                .mapToObj(slice -> {
+                    DistributionCounter counter = new DistributionCounter();
+                    int to = (int) ((long) size * (slice + 1) / slices);
+                    for (int i = (int) ((long) size * slice / slices); i < to; i++) {
+                        counter.add(known(counts.keyAt(i)), counts.countAt(i));
+                    }
+                    return counter;
+                })
+                .reduce(DistributionCounter::merge)
+                .orElseThrow();
+        return new GeoDistribution(size, total.requests, total.unresolved,
+                SortedCounts.of(total.countries), SortedCounts.of(total.asns));
+    }
+
+    /**
+     * org 앞의 AS 번호("AS4766 Korea Telecom" → "AS4766"). AS 번호로 시작하지 않으면 org 전체를 쓴다.
+     */
+    static String asnOf(String org) {
+        if (org == null || org.isBlank()) {
+            return GeoDistribution.UNKNOWN;
+        }
+        if (org.length() > 2 && org.startsWith("AS") && Character.isDigit(org.charAt(2))) {
+            int end = org.indexOf(' ');
+            return end < 0 ? org : org.substring(0, end);
+        }
+        return org;
+    }
+
+    private static final class DistributionCounter {
+
+        private final Map<String, Long> countries = new HashMap<>();
+        private final Map<String, Long> asns = new HashMap<>();
+        private long requests;
+        private long unresolved;
+
+        void add(IpInfo info, long count) {
+            requests += count;
+            if (info == null || UNKNOWN.equals(info)) {
+                unresolved += count;
+                countries.merge(GeoDistribution.UNKNOWN, count, Long::sum);
+                asns.merge(GeoDistribution.UNKNOWN, count, Long::sum);
+                return;
+            }
+            String country = info.country() == null || info.country().isBlank() ? GeoDistribution.UNKNOWN : info.country();
+            countries.merge(country, count, Long::sum);
+            asns.merge(asnOf(info.org()), count, Long::sum);
+        }
+
+        DistributionCounter merge(DistributionCounter other) {
+            requests += other.requests;
+            unresolved += other.unresolved;
+            other.countries.forEach((key, count) -> countries.merge(key, count, Long::sum));
+            other.asns.forEach((key, count) -> asns.merge(key, count, Long::sum));
+            return this;
+        }
+    }
+
+    /**
+     * 로컬 DB, 예약 대역, 캐시 어디에도 없어 원격 조회가 필요한 IP만 골라낸다. 최근 실패한 IP도 뺀다.
+     */
+    public List<String> uncached(Collection<String> ips) {
+        return ips.stream().filter(ip -> known(ip) == null).toList();
+    }
+
+    /**
+     * 호출 스레드에서 마감 없이 조회해 캐시를 채운다. 배치 크기 단위로 묶어 보낸다.
+     * 실제로 캐시에 들어간 IP 수를 반환한다 (실패해 실패 캐시에 들어갔거나 호출이 생략된 IP는 세지 않는다).
+     */
+    public int prefetch(List<String> ips) {
+        if (batchSize > 1 && ips.size() > 1) {
+            for (int from = 0; from < ips.size(); from += batchSize) {
+                lookupBatch(ips.subList(from, Math.min(from + batchSize, ips.size())));
+            }
+        } else {
+            ips.forEach(this::lookup);
+        }
+        return (int) ips.stream().filter(ip -> cache.getIfPresent(ip) != null).count();
+    }
+
+    public long getTopIpRequests() {
+        return topIpRequests.sum();
+    }
+
+    public long getTopIpCacheHits() {
+        return topIpCacheHits.sum();
+    }
+
+    private CompletableFuture<IpInfo> lookupAsync(String ip) {
+        try {
+            return CompletableFuture.supplyAsync(() -> lookup(ip), lookupExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("ipinfo 조회 대기열 초과: {}", ip);
+            return CompletableFuture.completedFuture(IpInfo.unknown());
+        }
+    }
+
+    private CompletableFuture<Map<String, IpInfo>> lookupBatchAsync(List<String> ips) {
+        try {
+            return CompletableFuture.supplyAsync(() -> lookupBatch(ips), lookupExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("ipinfo 조회 대기열 초과: 배치 {}개 IP", ips.size());
+            return CompletableFuture.completedFuture(Map.of());
+        }
+    }
+
+    private void awaitDeadline(Collection<CompletableFuture<IpInfo>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(deadlineMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 마감까지 끝난 것만 사용한다
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // lookup 은 실패를 UNKNOWN 으로 바꿔 반환하므로 여기까지 오지 않는다
+            log.error("ipinfo 조회 중 예외", e.getCause());
+        }
+    }
 }
@@ -0,0 +1,280 @@
+package benny.accessloganalyzer.client;
+
+import benny.accessloganalyzer.parser.CsvLineParser;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * IPv4 대역 → 지리정보 로컬 DB. 원격 API 를 호출하지 않고 상위 N개 밖의 IP까지 지리정보를 붙일 수 있게 한다.
+ * 대역은 시작 주소 순으로 정렬된 int 배열(시작·끝·값 인덱스)로 들고 이진 탐색으로 찾으며,
+ * 조회 시 IP 문자열을 직접 파싱하고 미리 만들어 둔 IpInfo 를 그대로 반환해 객체를 새로 만들지 않는다.
+ *
+ * <p>CSV 한 줄은 {@code cidr,country,region,city,org} 또는 {@code startIp,endIp,country,region,city,org} 형식이고,
+ * 쉼표가 들어간 값은 큰따옴표로 감싼다 ({@code "AS13335 Cloudflare, Inc."}).
+ * 빈 줄과 {@code #} 주석, 첫 칸이 IP가 아닌 헤더 줄은 건너뛴다.
+ *
+ * <p>다른 대역 안에 들어가는 대역(/16 안의 /24 등)은 가장 구체적인 대역이 이긴다. 바깥 대역을 안쪽 대역 앞뒤로 잘라
+ * 겹치지 않는 구간으로 저장한다. 일부만 겹치는 시작·끝 대역은 파일 순서와 관계없이 시작 주소가 앞선 대역을 남기고
+ * 뒤에서 시작하는 대역을 통째로 버리며, 완전히 같은 대역은 파일에서 먼저 나온 것을 남긴다.
+ */
+@Slf4j
+public class LocalGeoDatabase {
+
+    private static final CsvLineParser CSV = new CsvLineParser();
+
+    private static final LocalGeoDatabase EMPTY = new LocalGeoDatabase(new int[0], new int[0], new int[0], new IpInfo[0]);
+
+    // 부호 있는 int 비교가 부호 없는 주소 순서와 같도록 최상위 비트를 뒤집어 저장한다
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] valueIndexes;
+    private final IpInfo[] values;
+
+    private LocalGeoDatabase(int[] starts, int[] ends, int[] valueIndexes, IpInfo[] values) {
+        this.starts = starts;
+        this.ends = ends;
+        this.valueIndexes = valueIndexes;
+        this.values = values;
+    }
+
+    public static LocalGeoDatabase empty() {
+        return EMPTY;
+    }
+
+    public static LocalGeoDatabase load(Path csv) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            LocalGeoDatabase database = load(reader);
+            log.info("로컬 지리정보 DB 로드: ranges={}, distinctValues={}, file={}",
+                    database.size(), database.values.length, csv);
+            return database;
+        }
+    }
+
+    static LocalGeoDatabase load(BufferedReader reader) throws IOException {
+        record Range(long start, long end, int valueIndex) {}
+
+        List<Range> ranges = new ArrayList<>();
+        Map<IpInfo, Integer> valueIndex = new HashMap<>();
+        Map<String, String> interned = new HashMap<>();
+        int skipped = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = CSV.parse(line);
+            long start;
+            long end;
+            int infoFrom;
+            int slash = fields[0].indexOf('/');
+            if (slash >= 0) {
+                start = parseIpv4(fields[0], 0, slash);
+                int prefix = parsePrefix(fields[0], slash + 1);
+                if (start < 0 || prefix < 0) {
+                    skipped++;
+                    continue;
+                }
+                long size = 1L << (32 - prefix);
+                start &= ~(size - 1);
+                end = start + size - 1;
+                infoFrom = 1;
+            } else {
+                start = parseIpv4(fields[0], 0, fields[0].length());
+                end = fields.length > 1 ? parseIpv4(fields[1], 0, fields[1].length()) : -1;
+                infoFrom = 2;
+            }
+            if (start < 0 || end < start || fields.length < infoFrom + 4) {
+                // 헤더 줄, IPv6 대역 등
+                skipped++;
+                continue;
+            }
+
+            IpInfo info = new IpInfo(
+                    intern(interned, fields[infoFrom]),
+                    intern(interned, fields[infoFrom + 1]),
+                    intern(interned, fields[infoFrom + 2]),
+                    intern(interned, fields[infoFrom + 3]));
+            Integer index = valueIndex.computeIfAbsent(info, key -> valueIndex.size());
+            ranges.add(new Range(start, end, index));
+        }
+
+        // 시작 주소 순, 같은 시작이면 넓은 대역 먼저. 정렬이 안정적이라 같은 대역끼리는 파일 순서가 유지된다
+        ranges.sort(Comparator.comparingLong(Range::start).thenComparing(Comparator.comparingLong(Range::end).reversed()));
+        Segments segments = new Segments(ranges.size());
+        // 아직 끝나지 않은 바깥 대역들 (맨 위가 가장 안쪽)
+        Deque<Range> open = new ArrayDeque<>();
+        long cursor = 0;
+        int overlapped = 0;
+        for (Range range : ranges) {
+            while (!open.isEmpty() && open.peek().end() < range.start()) {
+                Range closed = open.pop();
+                segments.add(cursor, closed.end(), closed.valueIndex());
+                cursor = closed.end() + 1;
+            }
+            Range parent = open.peek();
+            if (parent != null) {
+                // 바깥 대역 끝을 넘어가는(일부만 겹치는) 대역과 같은 대역은 나중에 정렬된 쪽을 버린다
+                if (range.end() > parent.end() || (range.start() == parent.start() && range.end() == parent.end())) {
+                    overlapped++;
+                    continue;
+                }
+                segments.add(cursor, range.start() - 1, parent.valueIndex());
+            }
+            open.push(range);
+            cursor = range.start();
+        }
+        while (!open.isEmpty()) {
+            Range closed = open.pop();
+            segments.add(cursor, closed.end(), closed.valueIndex());
+            cursor = closed.end() + 1;
+        }
+        if (skipped > 0 || overlapped > 0) {
+            log.warn("로컬 지리정보 DB 일부 줄 무시: 형식 불일치={}, 대역 겹침·중복={}", skipped, overlapped);
+        }
+
+        IpInfo[] values = new IpInfo[valueIndex.size()];
+        valueIndex.forEach((info, index) -> values[index] = info);
+        return segments.toDatabase(values);
+    }
+
+    /**
+     * 겹치지 않는 구간을 시작 주소 순으로 모은다. 바깥 대역을 자르면 구간 수가 입력 대역 수보다 늘어날 수 있다.
+     */
+    private static final class Segments {
+
+        private int[] starts;
+        private int[] ends;
+        private int[] indexes;
+        private int size;
+
+        Segments(int capacity) {
+            starts = new int[Math.max(16, capacity)];
+            ends = new int[starts.length];
+            indexes = new int[starts.length];
+        }
+
+        void add(long start, long end, int valueIndex) {
+            if (start > end) {
+                return;
+            }
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                indexes = Arrays.copyOf(indexes, size * 2);
+            }
+            starts[size] = flip(start);
+            ends[size] = flip(end);
+            indexes[size] = valueIndex;
+            size++;
+        }
+
+        LocalGeoDatabase toDatabase(IpInfo[] values) {
+            return new LocalGeoDatabase(Arrays.copyOf(starts, size), Arrays.copyOf(ends, size),
+                    Arrays.copyOf(indexes, size), values);
+        }
+    }
+
+    /**
+     * IP가 속한 대역의 지리정보. IPv4 가 아니거나 어느 대역에도 없으면 null.
+     */
+    public IpInfo find(String ip) {
+        if (starts.length == 0 || ip == null) {
+            return null;
+        }
+        long address = parseIpv4(ip, 0, ip.length());
+        if (address < 0) {
+            return null;
+        }
+        int key = flip(address);
+
+        // key 이하인 시작 주소 중 가장 큰 것
+        int low = 0;
+        int high = starts.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= key) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (found < 0 || ends[found] < key) {
+            return null;
+        }
+        return values[valueIndexes[found]];
+    }
+
+    /**
+     * 저장된 구간 수. 안쪽 대역으로 잘린 바깥 대역은 여러 구간으로 센다.
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * 점으로 구분된 IPv4 표기를 부호 없는 32비트 값으로 바꾼다. 형식이 맞지 않으면 -1.
+     */
+    static long parseIpv4(String text, int from, int to) {
+        long address = 0;
+        int octets = 0;
+        int value = -1;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = (value < 0 ? 0 : value * 10) + (c - '0');
+                if (value > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && value >= 0 && octets < 3) {
+                address = (address << 8) | value;
+                octets++;
+                value = -1;
+            } else {
+                return -1;
+            }
+        }
+        if (value < 0 || octets != 3) {
+            return -1;
+        }
+        return (address << 8) | value;
+    }
+
+    private static int parsePrefix(String text, int from) {
+        if (from >= text.length() || text.length() - from > 2) {
+            return -1;
+        }
+        int prefix = 0;
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            prefix = prefix * 10 + (c - '0');
+        }
+        return prefix <= 32 ? prefix : -1;
+    }
+
+    private static int flip(long address) {
+        return (int) address ^ Integer.MIN_VALUE;
+    }
+
+    private static String intern(Map<String, String> interned, String value) {
+        String trimmed = value.strip();
+        return interned.computeIfAbsent(trimmed, key -> key);
+    }
+}
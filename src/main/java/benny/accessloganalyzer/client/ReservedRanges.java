@@ -0,0 +1,115 @@
+package benny.accessloganalyzer.client;
+
+/**
+ * 사설망·루프백·CGNAT 등 공인 지리정보가 없는 예약 대역. ipinfo 에 보내지 않고 여기서 바로 답한다.
+ * IPv4 대역은 시작 주소 순 배열로 미리 만들어 두고 이진 탐색하며, 조회 중에는 객체를 만들지 않는다.
+ */
+final class ReservedRanges {
+
+    static final String RESERVED = "RESERVED";
+
+    private static final IpInfo THIS_NETWORK = reserved("This network (RFC 1122)");
+    private static final IpInfo PRIVATE = reserved("Private network (RFC 1918)");
+    private static final IpInfo SHARED = reserved("Carrier-grade NAT (RFC 6598)");
+    private static final IpInfo LOOPBACK = reserved("Loopback");
+    private static final IpInfo LINK_LOCAL = reserved("Link-local");
+    private static final IpInfo PROTOCOL = reserved("IETF protocol assignments (RFC 6890)");
+    private static final IpInfo DOCUMENTATION = reserved("Documentation (RFC 5737)");
+    private static final IpInfo BENCHMARK = reserved("Benchmarking (RFC 2544)");
+    private static final IpInfo MULTICAST = reserved("Multicast");
+    private static final IpInfo FUTURE_USE = reserved("Reserved (RFC 1112)");
+    private static final IpInfo UNIQUE_LOCAL = reserved("Unique local (RFC 4193)");
+
+    // 시작 주소 순. 부호 있는 int 비교가 주소 순서와 같도록 최상위 비트를 뒤집어 둔다
+    private static final String[] CIDRS = {
+            "0.0.0.0/8", "10.0.0.0/8", "100.64.0.0/10", "127.0.0.0/8", "169.254.0.0/16", "172.16.0.0/12",
+            "192.0.0.0/24", "192.0.2.0/24", "192.168.0.0/16", "198.18.0.0/15", "198.51.100.0/24",
+            "203.0.113.0/24", "224.0.0.0/4", "240.0.0.0/4"
+    };
+    private static final IpInfo[] VALUES = {
+            THIS_NETWORK, PRIVATE, SHARED, LOOPBACK, LINK_LOCAL, PRIVATE,
+            PROTOCOL, DOCUMENTATION, PRIVATE, BENCHMARK, DOCUMENTATION,
+            DOCUMENTATION, MULTICAST, FUTURE_USE
+    };
+    private static final int[] STARTS = new int[CIDRS.length];
+    private static final int[] ENDS = new int[CIDRS.length];
+
+    static {
+        for (int i = 0; i < CIDRS.length; i++) {
+            int slash = CIDRS[i].indexOf('/');
+            long start = LocalGeoDatabase.parseIpv4(CIDRS[i], 0, slash);
+            long size = 1L << (32 - Integer.parseInt(CIDRS[i].substring(slash + 1)));
+            STARTS[i] = (int) start ^ Integer.MIN_VALUE;
+            ENDS[i] = (int) (start + size - 1) ^ Integer.MIN_VALUE;
+        }
+    }
+
+    private ReservedRanges() {
+    }
+
+    /**
+     * 예약 대역이면 그 대역의 지리정보, 공인 주소이거나 IP 형식이 아니면 null.
+     */
+    static IpInfo match(String ip) {
+        if (ip == null || ip.isEmpty()) {
+            return null;
+        }
+        if (ip.indexOf(':') >= 0) {
+            return matchIpv6(ip);
+        }
+        return matchIpv4(ip, 0);
+    }
+
+    private static IpInfo matchIpv4(String ip, int from) {
+        long address = LocalGeoDatabase.parseIpv4(ip, from, ip.length());
+        if (address < 0) {
+            return null;
+        }
+        int key = (int) address ^ Integer.MIN_VALUE;
+        int low = 0;
+        int high = STARTS.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (key < STARTS[mid]) {
+                high = mid - 1;
+            } else if (key > ENDS[mid]) {
+                low = mid + 1;
+            } else {
+                return VALUES[mid];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 루프백(::1), 미지정(::), 고유 로컬(fc00::/7), 링크 로컬(fe80::/10), IPv4 매핑(::ffff:a.b.c.d) 주소만 본다.
+     */
+    private static IpInfo matchIpv6(String ip) {
+        if (ip.equals("::1")) {
+            return LOOPBACK;
+        }
+        if (ip.equals("::")) {
+            return THIS_NETWORK;
+        }
+        if (ip.regionMatches(true, 0, "::ffff:", 0, 7) && ip.indexOf('.') > 0) {
+            return matchIpv4(ip, 7);
+        }
+        if (ip.length() < 4 || ip.indexOf(':') < 4) {
+            return null;
+        }
+        char first = Character.toLowerCase(ip.charAt(0));
+        char second = Character.toLowerCase(ip.charAt(1));
+        char third = Character.toLowerCase(ip.charAt(2));
+        if (first == 'f' && (second == 'c' || second == 'd')) {
+            return UNIQUE_LOCAL;
+        }
+        if (first == 'f' && second == 'e' && third >= '8' && third <= 'b') {
+            return LINK_LOCAL;
+        }
+        return null;
+    }
+
+    private static IpInfo reserved(String org) {
+        return new IpInfo(RESERVED, RESERVED, RESERVED, org);
+    }
+}
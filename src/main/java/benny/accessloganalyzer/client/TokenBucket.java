@@ -0,0 +1,48 @@
+package benny.accessloganalyzer.client;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 초당 permitsPerSecond 개씩 채워지고 최대 burst 개까지 쌓이는 토큰 버킷. 토큰이 없으면 기다리지 않고 거절한다.
+ */
+public class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private final LongSupplier clock;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucket(double permitsPerSecond, int burst, LongSupplier clock) {
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000.0;
+        this.capacity = Math.max(1, burst);
+        this.clock = clock;
+        this.tokens = capacity;
+        this.refilledAt = clock.getAsLong();
+    }
+
+    /**
+     * 제한 없는 버킷.
+     */
+    public static TokenBucket unlimited() {
+        return new TokenBucket(Double.POSITIVE_INFINITY, Integer.MAX_VALUE);
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (Double.isInfinite(permitsPerNano)) {
+            return true;
+        }
+        long now = clock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
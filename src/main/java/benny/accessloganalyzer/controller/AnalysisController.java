@@ -2,12 +2,20 @@ package benny.accessloganalyzer.controller;
 
 import benny.accessloganalyzer.client.IpInfo;
 import benny.accessloganalyzer.client.IpInfoClient;
+import benny.accessloganalyzer.dto.AnalysisDiffResponse;
+import benny.accessloganalyzer.dto.AnalysisMergeResponse;
 import benny.accessloganalyzer.dto.AnalysisResponse;
 import benny.accessloganalyzer.dto.AnalysisResultResponse;
 import benny.accessloganalyzer.global.exception.BusinessException;
 import benny.accessloganalyzer.global.exception.ErrorResponse;
 import benny.accessloganalyzer.model.AnalysisEntry;
+import benny.accessloganalyzer.model.AnalysisStatus;
+import benny.accessloganalyzer.model.MergedAnalysis;
+import benny.accessloganalyzer.service.AnalysisComparisonService;
+import benny.accessloganalyzer.service.AnalysisEventService;
 import benny.accessloganalyzer.service.AnalysisService;
+import benny.accessloganalyzer.service.StreamingAnalysisService;
+import benny.accessloganalyzer.service.SyncAnalysisService;
 import lombok.extern.slf4j.Slf4j;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,35 +23,66 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @Tag(name = "Analysis", description = "로그 분석 API")
 @RestController
 public class AnalysisController {
 
+    static final String API_KEY_HEADER = "X-API-Key";
+
     private final AnalysisService analysisService;
+    private final AnalysisComparisonService comparisonService;
+    private final StreamingAnalysisService streamingAnalysisService;
+    private final AnalysisEventService eventService;
     private final IpInfoClient ipInfoClient;
+    private final CompletedResultCache completedResultCache;
+    private final SyncAnalysisService syncAnalysisService;
 
-    public AnalysisController(AnalysisService analysisService, IpInfoClient ipInfoClient) {
+    public AnalysisController(AnalysisService analysisService,
+                              AnalysisComparisonService comparisonService,
+                              StreamingAnalysisService streamingAnalysisService,
+                              AnalysisEventService eventService,
+                              IpInfoClient ipInfoClient,
+                              CompletedResultCache completedResultCache,
+                              SyncAnalysisService syncAnalysisService) {
         this.analysisService = analysisService;
+        this.comparisonService = comparisonService;
+        this.streamingAnalysisService = streamingAnalysisService;
+        this.eventService = eventService;
         this.ipInfoClient = ipInfoClient;
+        this.completedResultCache = completedResultCache;
+        this.syncAnalysisService = syncAnalysisService;
     }
 
-    @Operation(summary = "로그 파일 업로드 및 분석", description = "CSV 형식의 접속 로그 파일을 업로드하여 비동기 분석을 실행합니다")
+    @Operation(summary = "로그 파일 업로드 및 분석",
+            description = "CSV 형식의 접속 로그 파일을 업로드하여 비동기 분석을 실행합니다. "
+                    + "mode=sync 이면 작은 파일은 요청 스레드에서 바로 분석해 결과를 반환하고, "
+                    + "크기 상한을 넘거나 동기 레인이 가득 차면 비동기로 접수합니다")
     @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "동기 분석 완료"),
             @ApiResponse(responseCode = "202", description = "분석 접수 완료"),
             @ApiResponse(responseCode = "400", description = "잘못된 파일 형식 또는 빈 파일",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
@@ -51,16 +90,33 @@ public class AnalysisController {
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @PostMapping(value = "/analysis", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<AnalysisResponse> uploadAndAnalyze(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> uploadAndAnalyze(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "async") String mode,
+            @RequestParam(defaultValue = "10") int top,
+            @RequestHeader(value = API_KEY_HEADER, required = false) String apiKey,
+            HttpServletRequest request) {
         if (file.isEmpty()) {
             throw BusinessException.invalidLogFile("업로드된 파일이 비어 있습니다");
         }
+        if (!mode.equals("async") && !mode.equals("sync")) {
+            throw BusinessException.invalidParameter("mode 파라미터는 async 또는 sync 이어야 합니다.");
+        }
+        validateTop(top);
+
+        if (mode.equals("sync")) {
+            // multipart 로 이미 받은 파일을 임시 파일 복사 없이 바로 읽는다
+            Optional<AnalysisEntry> completed = syncAnalysisService.tryAnalyze(file.getSize(), file);
+            if (completed.isPresent()) {
+                return renderCompleted(completed.get(), top, null);
+            }
+        }
 
         Path tempFile = null;
         try {
             tempFile = Files.createTempFile("access-log-", ".csv");
             file.transferTo(tempFile);
-            String analysisId = analysisService.submitAnalysis(tempFile);
+            String analysisId = analysisService.submitAnalysis(tempFile, clientKey(apiKey, request));
             AnalysisEntry entry = analysisService.getEntry(analysisId);
             int queuePosition = analysisService.getQueuePosition(entry);
             return ResponseEntity.status(202).body(AnalysisResponse.queued(analysisId, queuePosition));
@@ -70,19 +126,41 @@ public class AnalysisController {
         }
     }
 
-    @Operation(summary = "분석 결과 조회", description = "분석 ID로 분석 상태 및 결과를 조회합니다")
+    @Operation(summary = "로그 스트리밍 분석",
+            description = "요청 본문(CSV)을 임시 파일 없이 수신과 동시에 파싱하여, 업로드가 끝나면 분석 결과를 바로 반환합니다")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "분석 완료"),
+            @ApiResponse(responseCode = "400", description = "잘못된 파일 형식, 빈 본문 또는 크기 초과",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "동시 스트리밍 분석 수 초과",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping(value = "/analysis", consumes = {"text/csv", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<AnalysisResultResponse> streamAndAnalyze(
+            InputStream body,
+            @RequestParam(defaultValue = "10") int top) {
+        validateTop(top);
+
+        AnalysisEntry entry = streamingAnalysisService.analyze(body);
+        Map<String, IpInfo> ipInfoMap = ipInfoClient.lookupTopIps(entry.getResult().ipCounts(), top);
+        return ResponseEntity.ok(AnalysisResultResponse.from(entry.getResult(), top, ipInfoMap,
+                ipInfoClient.geoDistribution(entry.getResult().ipCounts())));
+    }
+
+    @Operation(summary = "분석 결과 조회",
+            description = "분석 ID로 분석 상태 및 결과를 조회합니다. 완료된 결과는 ETag를 내려주며 If-None-Match가 일치하면 304를 반환합니다")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "조회 성공"),
+            @ApiResponse(responseCode = "304", description = "완료된 결과가 변경되지 않음"),
             @ApiResponse(responseCode = "404", description = "분석 결과를 찾을 수 없음",
                     content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/analysis/{analysisId}")
     public ResponseEntity<?> getAnalysisResult(
             @PathVariable String analysisId,
-            @RequestParam(defaultValue = "10") int top) {
-        if (top < 1) {
-            throw BusinessException.invalidParameter("top 파라미터는 1 이상이어야 합니다.");
-        }
+            @RequestParam(defaultValue = "10") int top,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        validateTop(top);
 
         AnalysisEntry entry = analysisService.getEntry(analysisId);
 
@@ -92,14 +170,127 @@ public class AnalysisController {
                 yield ResponseEntity.ok(AnalysisResponse.queued(analysisId, position));
             }
             case IN_PROGRESS -> ResponseEntity.ok(AnalysisResponse.inProgress(analysisId));
-            case COMPLETED -> {
-                Map<String, IpInfo> ipInfoMap = ipInfoClient.lookupTopIps(entry.getResult().ipCounts(), top);
-                yield ResponseEntity.ok(AnalysisResultResponse.from(entry.getResult(), top, ipInfoMap));
-            }
+            case COMPLETED -> renderCompleted(entry, top, ifNoneMatch);
             case FAILED -> ResponseEntity.ok(AnalysisResponse.failed(analysisId, entry.getErrorMessage()));
+            case CANCELLED -> ResponseEntity.ok(AnalysisResponse.cancelled(analysisId));
         };
     }
 
+    @Operation(summary = "분석 취소",
+            description = "대기 중인 분석은 큐에서 즉시 제거하고, 실행 중인 분석은 파서가 다음 확인 지점에서 멈추도록 취소를 요청합니다. "
+                    + "실행 중인 분석은 202를 반환하며 곧 CANCELLED 상태가 됩니다")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "취소 완료"),
+            @ApiResponse(responseCode = "202", description = "실행 중인 분석에 취소 요청됨"),
+            @ApiResponse(responseCode = "404", description = "분석 결과를 찾을 수 없음",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "이미 완료되었거나 실패한 분석",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @DeleteMapping("/analysis/{analysisId}")
+    public ResponseEntity<AnalysisResponse> cancelAnalysis(@PathVariable String analysisId) {
+        AnalysisEntry entry = analysisService.cancelAnalysis(analysisId);
+        if (entry.getStatus() == AnalysisStatus.CANCELLED) {
+            return ResponseEntity.ok(AnalysisResponse.cancelled(analysisId));
+        }
+        return ResponseEntity.accepted().body(AnalysisResponse.inProgress(analysisId));
+    }
+
+    private ResponseEntity<?> renderCompleted(AnalysisEntry entry, int top, String ifNoneMatch) {
+        CompletedResultCache.Rendered rendered = completedResultCache.render(entry.getResult(), top);
+        if (matchesEtag(ifNoneMatch, rendered.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(rendered.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(rendered.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(rendered.body());
+    }
+
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            // If-None-Match 는 약한 비교를 사용하므로 W/ 접두어는 무시한다
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals("*") || trimmed.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Operation(summary = "분석 진행 상황 구독",
+            description = "큐 위치, 처리 바이트/라인, 처리 속도, 예상 남은 시간, 부분 Top-N을 SSE로 푸시합니다. 완료/실패 이벤트 후 스트림이 닫힙니다")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "구독 시작"),
+            @ApiResponse(responseCode = "404", description = "분석 결과를 찾을 수 없음",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "구독 수 초과",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/analysis/{analysisId}/events")
+    public SseEmitter streamAnalysisEvents(@PathVariable String analysisId) {
+        return eventService.subscribe(analysisId);
+    }
+
+    @Operation(summary = "분석 결과 병합", description = "완료된 여러 분석을 하나의 결과로 합쳐 Top-N 통계를 조회합니다")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "병합 성공"),
+            @ApiResponse(responseCode = "404", description = "분석 결과를 찾을 수 없음",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "완료되지 않은 분석 포함",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/analysis/merge")
+    public ResponseEntity<AnalysisMergeResponse> mergeAnalyses(
+            @RequestParam List<String> ids,
+            @RequestParam(defaultValue = "10") int top) {
+        validateTop(top);
+
+        MergedAnalysis merged = comparisonService.merge(ids, top);
+        Map<String, IpInfo> ipInfoMap = ipInfoClient.lookupTopIps(merged.topIpCounts(), top);
+        return ResponseEntity.ok(AnalysisMergeResponse.from(merged, ipInfoMap));
+    }
+
+    @Operation(summary = "분석 결과 비교", description = "두 분석의 경로/상태코드/IP별 카운트 차이와 변동 상위 항목을 조회합니다")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "비교 성공"),
+            @ApiResponse(responseCode = "404", description = "분석 결과를 찾을 수 없음",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "완료되지 않은 분석 포함",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/analysis/diff")
+    public ResponseEntity<AnalysisDiffResponse> diffAnalyses(
+            @RequestParam String base,
+            @RequestParam String target,
+            @RequestParam(defaultValue = "10") int top) {
+        validateTop(top);
+
+        return ResponseEntity.ok(AnalysisDiffResponse.from(comparisonService.diff(base, target, top)));
+    }
+
+    /**
+     * 스케줄러의 공정성 단위. API 키가 있으면 키, 없으면 원격 주소 기준이다.
+     */
+    private static String clientKey(String apiKey, HttpServletRequest request) {
+        if (apiKey != null && !apiKey.isBlank()) {
+            return "key:" + apiKey;
+        }
+        return "addr:" + request.getRemoteAddr();
+    }
+
+    private void validateTop(int top) {
+        if (top < 1) {
+            throw BusinessException.invalidParameter("top 파라미터는 1 이상이어야 합니다.");
+        }
+    }
+
     private void deleteTempFile(Path tempFile) {
         if (tempFile != null) {
             try {
@@ -0,0 +1,86 @@
+package benny.accessloganalyzer.controller;
+
+import benny.accessloganalyzer.global.exception.ErrorResponse;
+import benny.accessloganalyzer.model.ExportPage;
+import benny.accessloganalyzer.model.SortedCounts;
+import benny.accessloganalyzer.service.AnalysisExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+
+@Tag(name = "Analysis Export", description = "분석 결과 전체 내보내기 API")
+@RestController
+public class AnalysisExportController {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final AnalysisExportService exportService;
+    private final ObjectWriter ndjsonWriter;
+
+    public AnalysisExportController(AnalysisExportService exportService, JsonMapper jsonMapper) {
+        this.exportService = exportService;
+        this.ndjsonWriter = jsonMapper.writer().withRootValueSeparator("\n");
+    }
+
+    @Operation(summary = "전체 카운트 내보내기",
+            description = "경로(paths)/IP(ips)/상태코드(status-codes)별 전체 카운트를 순위 순서의 NDJSON으로 스트리밍합니다. "
+                    + "다음 페이지가 있으면 X-Next-Cursor 헤더로 커서를 내려줍니다")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "내보내기 시작"),
+            @ApiResponse(responseCode = "400", description = "잘못된 항목, cursor 또는 limit",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "분석 결과를 찾을 수 없음",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "완료되지 않은 분석",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/analysis/{analysisId}/export/{dimension}")
+    public ResponseEntity<StreamingResponseBody> exportCounts(
+            @PathVariable String analysisId,
+            @PathVariable String dimension,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100000") int limit) {
+        ExportPage page = exportService.page(analysisId, dimension, cursor, limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON);
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(out -> writeNdjson(page, out));
+    }
+
+    /**
+     * 보관 중인 정렬 배열에서 바로 한 줄씩 쓴다. 중간 DTO 리스트를 만들지 않아 키 수와 무관하게 메모리가 일정하다.
+     */
+    private void writeNdjson(ExportPage page, OutputStream out) {
+        SortedCounts counts = page.counts();
+        JsonGenerator generator = ndjsonWriter.createGenerator(out);
+        for (int rank = page.fromRank(); rank < page.toRank(); rank++) {
+            int index = counts.indexAtRank(rank);
+            generator.writeStartObject();
+            generator.writeNumberProperty("rank", rank + 1);
+            generator.writeStringProperty("key", counts.keyAt(index));
+            generator.writeNumberProperty("count", counts.countAt(index));
+            generator.writeEndObject();
+        }
+        if (page.toRank() > page.fromRank()) {
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+}
@@ -0,0 +1,106 @@
+package benny.accessloganalyzer.controller;
+
+import benny.accessloganalyzer.client.IpInfo;
+import benny.accessloganalyzer.client.IpInfoClient;
+import benny.accessloganalyzer.dto.AnalysisResultResponse;
+import benny.accessloganalyzer.dto.UploadSessionResponse;
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.global.exception.ErrorResponse;
+import benny.accessloganalyzer.model.AnalysisEntry;
+import benny.accessloganalyzer.service.ChunkedUploadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+import java.util.Map;
+
+@Tag(name = "Chunked Upload", description = "대용량 로그 청크 업로드 API")
+@RestController
+public class ChunkedUploadController {
+
+    private final ChunkedUploadService chunkedUploadService;
+    private final IpInfoClient ipInfoClient;
+
+    public ChunkedUploadController(ChunkedUploadService chunkedUploadService, IpInfoClient ipInfoClient) {
+        this.chunkedUploadService = chunkedUploadService;
+        this.ipInfoClient = ipInfoClient;
+    }
+
+    @Operation(summary = "업로드 세션 생성", description = "청크 업로드 세션을 만들고 분석 ID를 발급합니다")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "세션 생성"),
+            @ApiResponse(responseCode = "503", description = "동시 업로드 세션 수 초과",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/analysis/uploads")
+    public ResponseEntity<UploadSessionResponse> createUpload() {
+        return ResponseEntity.status(201).body(UploadSessionResponse.from(chunkedUploadService.createSession()));
+    }
+
+    @Operation(summary = "업로드 상태 조회", description = "재개 시 보내야 할 다음 청크 인덱스를 조회합니다")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "조회 성공"),
+            @ApiResponse(responseCode = "404", description = "업로드 세션을 찾을 수 없음",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/analysis/uploads/{uploadId}")
+    public ResponseEntity<UploadSessionResponse> getUpload(@PathVariable String uploadId) {
+        return ResponseEntity.ok(UploadSessionResponse.from(chunkedUploadService.getStatus(uploadId)));
+    }
+
+    @Operation(summary = "청크 업로드", description = "0부터 시작하는 순서대로 청크를 전송합니다. 이미 받은 인덱스의 재전송은 무시됩니다")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "청크 반영"),
+            @ApiResponse(responseCode = "400", description = "청크 크기 초과 또는 잘못된 데이터",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "업로드 세션을 찾을 수 없음",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "청크 순서 불일치",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PutMapping(value = "/analysis/uploads/{uploadId}/chunks/{chunkIndex}",
+            consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE, "text/csv"})
+    public ResponseEntity<UploadSessionResponse> putChunk(
+            @PathVariable String uploadId,
+            @PathVariable int chunkIndex,
+            InputStream body) {
+        if (chunkIndex < 0) {
+            throw BusinessException.invalidParameter("청크 인덱스는 0 이상이어야 합니다.");
+        }
+        return ResponseEntity.ok(UploadSessionResponse.from(chunkedUploadService.putChunk(uploadId, chunkIndex, body)));
+    }
+
+    @Operation(summary = "업로드 완료", description = "마지막 라인을 처리하고 분석 결과를 반환합니다")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "분석 완료"),
+            @ApiResponse(responseCode = "400", description = "유효한 로그 데이터 없음",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "업로드 세션을 찾을 수 없음",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/analysis/uploads/{uploadId}/complete")
+    public ResponseEntity<AnalysisResultResponse> completeUpload(
+            @PathVariable String uploadId,
+            @RequestParam(defaultValue = "10") int top) {
+        if (top < 1) {
+            throw BusinessException.invalidParameter("top 파라미터는 1 이상이어야 합니다.");
+        }
+
+        AnalysisEntry entry = chunkedUploadService.complete(uploadId);
+        Map<String, IpInfo> ipInfoMap = ipInfoClient.lookupTopIps(entry.getResult().ipCounts(), top);
+        return ResponseEntity.ok(AnalysisResultResponse.from(entry.getResult(), top, ipInfoMap,
+                ipInfoClient.geoDistribution(entry.getResult().ipCounts())));
+    }
+}
@@ -0,0 +1,97 @@
+package benny.accessloganalyzer.controller;
+
+import benny.accessloganalyzer.client.IpInfo;
+import benny.accessloganalyzer.client.IpInfoClient;
+import benny.accessloganalyzer.dto.AnalysisResultResponse;
+import benny.accessloganalyzer.model.AnalysisResult;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * 완료된 분석의 직렬화된 응답 바이트를 (analysisId, top) 단위로 보관한다.
+ * 완료된 결과는 바뀌지 않으므로 반복 조회는 DTO 변환/ipinfo 조회/JSON 직렬화 없이 해시 조회로 끝난다.
+ * ipinfo 조회가 일부 실패한 응답은 짧게만 보관해 곧 다시 조회되도록 한다.
+ */
+@Component
+public class CompletedResultCache {
+
+    public record Rendered(AnalysisResult source, byte[] body, String etag, boolean degraded) {}
+
+    private record Key(String analysisId, int top) {}
+
+    private final IpInfoClient ipInfoClient;
+    private final JsonMapper jsonMapper;
+    private final Cache<Key, Rendered> cache;
+
+    public CompletedResultCache(
+            IpInfoClient ipInfoClient,
+            JsonMapper jsonMapper,
+            @Value("${analysis.result-cache.max-bytes:67108864}") long maxBytes,
+            @Value("${analysis.result-cache.ttl-seconds:600}") long ttlSeconds,
+            @Value("${analysis.result-cache.degraded-ttl-seconds:30}") long degradedTtlSeconds) {
+        this.ipInfoClient = ipInfoClient;
+        this.jsonMapper = jsonMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Rendered rendered) -> rendered.body().length)
+                .expireAfter(new RenderedExpiry(Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(degradedTtlSeconds)))
+                .build();
+    }
+
+    /**
+     * 캐시된 응답을 반환하거나, 없거나 원본 결과가 교체되었으면 새로 렌더링한다.
+     */
+    public Rendered render(AnalysisResult result, int top) {
+        Key key = new Key(result.analysisId(), top);
+        Rendered cached = cache.getIfPresent(key);
+        if (cached != null && cached.source() == result) {
+            return cached;
+        }
+
+        Map<String, IpInfo> ipInfoMap = ipInfoClient.lookupTopIps(result.ipCounts(), top);
+        byte[] body = jsonMapper.writeValueAsBytes(AnalysisResultResponse.from(result, top, ipInfoMap,
+                ipInfoClient.geoDistribution(result.ipCounts())));
+        boolean degraded = ipInfoMap.containsValue(IpInfo.unknown());
+        Rendered rendered = new Rendered(result, body, etag(body), degraded);
+        cache.put(key, rendered);
+        return rendered;
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record RenderedExpiry(Duration ttl, Duration degradedTtl) implements Expiry<Key, Rendered> {
+
+        @Override
+        public long expireAfterCreate(Key key, Rendered rendered, long currentTime) {
+            return (rendered.degraded() ? degradedTtl : ttl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, Rendered rendered, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, rendered, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, Rendered rendered, long currentTime, long currentDuration) {
+            // 정상 응답은 조회될 때마다 만료를 연장한다
+            return rendered.degraded() ? currentDuration : ttl.toNanos();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package benny.accessloganalyzer.controller;
+
+import benny.accessloganalyzer.global.exception.ErrorResponse;
+import benny.accessloganalyzer.model.GeoPrefetchProgress;
+import benny.accessloganalyzer.model.GeoPrefetchStats;
+import benny.accessloganalyzer.service.GeoPrefetchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Geo Prefetch", description = "분석 완료 후 상위 IP 지리정보 미리 조회 상태 API")
+@RestController
+public class GeoPrefetchController {
+
+    private final GeoPrefetchService geoPrefetchService;
+
+    public GeoPrefetchController(GeoPrefetchService geoPrefetchService) {
+        this.geoPrefetchService = geoPrefetchService;
+    }
+
+    @Operation(summary = "미리 조회 누적 통계",
+            description = "미리 조회 작업 수, 조회한 IP 수와 결과 응답의 상위 IP 캐시 적중률을 조회합니다")
+    @GetMapping("/analysis/geo-prefetch")
+    public ResponseEntity<GeoPrefetchStats> getStats() {
+        return ResponseEntity.ok(geoPrefetchService.getStats());
+    }
+
+    @Operation(summary = "분석별 미리 조회 진행 상황", description = "분석 한 건의 상위 IP 미리 조회 상태와 조회한 IP 수를 조회합니다")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "조회 성공"),
+            @ApiResponse(responseCode = "404", description = "미리 조회 기록 없음",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/analysis/{analysisId}/geo-prefetch")
+    public ResponseEntity<GeoPrefetchProgress> getProgress(@PathVariable String analysisId) {
+        return ResponseEntity.ok(geoPrefetchService.getProgress(analysisId));
+    }
+}
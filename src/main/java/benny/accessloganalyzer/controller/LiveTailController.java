@@ -0,0 +1,46 @@
+package benny.accessloganalyzer.controller;
+
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.global.exception.ErrorResponse;
+import benny.accessloganalyzer.model.TailWindow;
+import benny.accessloganalyzer.service.LiveTailService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Live Tail", description = "기록 중인 로그 파일의 최근 구간 집계 API")
+@RestController
+public class LiveTailController {
+
+    private final LiveTailService liveTailService;
+
+    public LiveTailController(LiveTailService liveTailService) {
+        this.liveTailService = liveTailService;
+    }
+
+    @Operation(summary = "최근 구간 집계 조회",
+            description = "추적 중인 파일의 최근 window분(1~60, 보통 5/15/60) 상태코드 분포와 상위 경로/IP를 조회합니다")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "조회 성공"),
+            @ApiResponse(responseCode = "400", description = "잘못된 window 또는 top",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "실시간 추적이 설정되지 않음",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/analysis/tail")
+    public ResponseEntity<TailWindow> getTailWindow(
+            @RequestParam(defaultValue = "5") int window,
+            @RequestParam(defaultValue = "10") int top) {
+        if (top < 1) {
+            throw BusinessException.invalidParameter("top 파라미터는 1 이상이어야 합니다.");
+        }
+        return ResponseEntity.ok(liveTailService.window(window, top));
+    }
+}
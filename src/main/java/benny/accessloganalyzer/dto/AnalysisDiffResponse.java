@@ -0,0 +1,40 @@
+package benny.accessloganalyzer.dto;
+
+import benny.accessloganalyzer.model.AnalysisDiff;
+
+import java.util.List;
+
+public record AnalysisDiffResponse(
+        String baseAnalysisId,
+        String targetAnalysisId,
+        long baseTotalRequests,
+        long targetTotalRequests,
+        long totalRequestsDelta,
+        DimensionDelta paths,
+        DimensionDelta statusCodes,
+        DimensionDelta ips
+) {
+
+    public record DimensionDelta(int addedKeys, int removedKeys, int changedKeys, List<CountDelta> topMovers) {}
+    public record CountDelta(String key, long baseCount, long targetCount, long delta) {}
+
+    public static AnalysisDiffResponse from(AnalysisDiff diff) {
+        return new AnalysisDiffResponse(
+                diff.baseAnalysisId(),
+                diff.targetAnalysisId(),
+                diff.baseTotalRequests(),
+                diff.targetTotalRequests(),
+                diff.targetTotalRequests() - diff.baseTotalRequests(),
+                toDelta(diff.paths()),
+                toDelta(diff.statusCodes()),
+                toDelta(diff.ips())
+        );
+    }
+
+    private static DimensionDelta toDelta(AnalysisDiff.DimensionDiff dimension) {
+        List<CountDelta> movers = dimension.topMovers().stream()
+                .map(d -> new CountDelta(d.key(), d.baseCount(), d.targetCount(), d.delta()))
+                .toList();
+        return new DimensionDelta(dimension.addedKeys(), dimension.removedKeys(), dimension.changedKeys(), movers);
+    }
+}
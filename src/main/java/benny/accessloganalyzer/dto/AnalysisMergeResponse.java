@@ -0,0 +1,56 @@
+package benny.accessloganalyzer.dto;
+
+import benny.accessloganalyzer.client.IpInfo;
+import benny.accessloganalyzer.dto.AnalysisResultResponse.IpCount;
+import benny.accessloganalyzer.dto.AnalysisResultResponse.PathCount;
+import benny.accessloganalyzer.dto.AnalysisResultResponse.StatusCodeCount;
+import benny.accessloganalyzer.model.MergedAnalysis;
+
+import java.util.List;
+import java.util.Map;
+
+public record AnalysisMergeResponse(
+        List<String> analysisIds,
+        long totalRequests,
+        long totalLines,
+        long errorCount,
+        Map<String, Double> statusGroupRatios,
+        List<PathCount> topPaths,
+        List<StatusCodeCount> topStatusCodes,
+        List<IpCount> topIps
+) {
+
+    public static AnalysisMergeResponse from(MergedAnalysis merged, Map<String, IpInfo> ipInfoMap) {
+        long total = merged.totalRequests();
+
+        List<PathCount> topPaths = merged.topPathCounts().entrySet().stream()
+                .map(e -> new PathCount(e.getKey(), e.getValue(),
+                        AnalysisResultResponse.percentage(e.getValue(), total)))
+                .toList();
+
+        List<StatusCodeCount> topStatusCodes = merged.topStatusCodeCounts().entrySet().stream()
+                .map(e -> new StatusCodeCount(e.getKey(), e.getValue(),
+                        AnalysisResultResponse.percentage(e.getValue(), total)))
+                .toList();
+
+        List<IpCount> topIps = merged.topIpCounts().entrySet().stream()
+                .map(e -> {
+                    IpInfo info = ipInfoMap.getOrDefault(e.getKey(), IpInfo.unknown());
+                    return new IpCount(e.getKey(), e.getValue(),
+                            AnalysisResultResponse.percentage(e.getValue(), total),
+                            info.country(), info.region(), info.city(), info.org());
+                })
+                .toList();
+
+        return new AnalysisMergeResponse(
+                merged.analysisIds(),
+                total,
+                merged.totalLines(),
+                merged.errorCount(),
+                AnalysisResultResponse.buildStatusGroupRatios(merged.statusGroupCounts(), total),
+                topPaths,
+                topStatusCodes,
+                topIps
+        );
+    }
+}
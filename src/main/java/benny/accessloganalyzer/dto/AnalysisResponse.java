@@ -19,6 +19,10 @@ public record AnalysisResponse(
         return new AnalysisResponse(analysisId, AnalysisStatus.IN_PROGRESS, null, null);
     }
 
+    public static AnalysisResponse cancelled(String analysisId) {
+        return new AnalysisResponse(analysisId, AnalysisStatus.CANCELLED, null, null);
+    }
+
     public static AnalysisResponse failed(String analysisId, String errorMessage) {
         return new AnalysisResponse(analysisId, AnalysisStatus.FAILED, null, errorMessage);
     }
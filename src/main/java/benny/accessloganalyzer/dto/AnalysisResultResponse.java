@@ -3,6 +3,7 @@ package benny.accessloganalyzer.dto;
 import benny.accessloganalyzer.client.IpInfo;
 import benny.accessloganalyzer.model.AnalysisResult;
 import benny.accessloganalyzer.model.AnalysisStatus;
+import benny.accessloganalyzer.model.GeoDistribution;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -21,6 +22,7 @@ public record AnalysisResultResponse(
         List<PathCount> topPaths,
         List<StatusCodeCount> topStatusCodes,
         List<IpCount> topIps,
+        GeoDistributionInfo geoDistribution,
         ErrorInfo errorInfo
 ) {
 
@@ -28,9 +30,17 @@ public record AnalysisResultResponse(
     public record StatusCodeCount(String statusCode, long count, double percentage) {}
     public record IpCount(String ip, long count, double percentage,
                           String country, String region, String city, String org) {}
+    public record GeoShare(String key, long count, double percentage) {}
+    public record GeoDistributionInfo(int distinctIps, long unresolvedRequests, double resolvedPercentage,
+                                      List<GeoShare> countries, List<GeoShare> asns) {}
     public record ErrorInfo(int errorCount, List<String> errorSamples) {}
 
     public static AnalysisResultResponse from(AnalysisResult result, int topN, Map<String, IpInfo> ipInfoMap) {
+        return from(result, topN, ipInfoMap, GeoDistribution.empty());
+    }
+
+    public static AnalysisResultResponse from(AnalysisResult result, int topN, Map<String, IpInfo> ipInfoMap,
+                                              GeoDistribution distribution) {
         int total = result.totalRequests();
 
         Map<String, Double> statusGroupRatios = buildStatusGroupRatios(result.statusGroupCounts(), total);
@@ -58,6 +68,8 @@ public record AnalysisResultResponse(
                 .toList();
 
         ErrorInfo errorInfo = new ErrorInfo(result.errorCount(), result.errorSamples());
+        GeoDistributionInfo geoDistribution = buildGeoDistribution(
+                distribution == null ? GeoDistribution.empty() : distribution, topN);
 
         return new AnalysisResultResponse(
                 result.analysisId(),
@@ -69,11 +81,30 @@ public record AnalysisResultResponse(
                 topPaths,
                 topStatusCodes,
                 topIps,
+                geoDistribution,
                 errorInfo
         );
     }
 
-    private static Map<String, Double> buildStatusGroupRatios(Map<String, Long> statusGroupCounts, int total) {
+    static GeoDistributionInfo buildGeoDistribution(GeoDistribution distribution, int topN) {
+        long total = distribution.totalRequests();
+        return new GeoDistributionInfo(
+                distribution.distinctIps(),
+                distribution.unresolvedRequests(),
+                percentage(total - distribution.unresolvedRequests(), total),
+                topShares(distribution.countryCounts(), topN, total),
+                topShares(distribution.asnCounts(), topN, total));
+    }
+
+    private static List<GeoShare> topShares(Map<String, Long> counts, int topN, long total) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(topN)
+                .map(e -> new GeoShare(e.getKey(), e.getValue(), percentage(e.getValue(), total)))
+                .toList();
+    }
+
+    static Map<String, Double> buildStatusGroupRatios(Map<String, Long> statusGroupCounts, long total) {
         Map<String, Double> ratios = new LinkedHashMap<>();
         for (String group : List.of("2xx", "3xx", "4xx", "5xx")) {
             long count = statusGroupCounts.getOrDefault(group, 0L);
@@ -82,7 +113,7 @@ public record AnalysisResultResponse(
         return ratios;
     }
 
-    private static double percentage(long count, int total) {
+    static double percentage(long count, long total) {
         if (total == 0) return 0.0;
         return BigDecimal.valueOf(count * 100.0 / total)
                 .setScale(1, RoundingMode.HALF_UP)
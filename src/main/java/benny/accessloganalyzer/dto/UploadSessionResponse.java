@@ -0,0 +1,22 @@
+package benny.accessloganalyzer.dto;
+
+import benny.accessloganalyzer.model.UploadStatus;
+
+public record UploadSessionResponse(
+        String uploadId,
+        String analysisId,
+        int nextChunkIndex,
+        long receivedBytes,
+        int maxChunkBytes
+) {
+
+    public static UploadSessionResponse from(UploadStatus status) {
+        return new UploadSessionResponse(
+                status.uploadId(),
+                status.analysisId(),
+                status.nextChunkIndex(),
+                status.receivedBytes(),
+                status.maxChunkBytes()
+        );
+    }
+}
@@ -0,0 +1,26 @@
+package benny.accessloganalyzer.global.config;
+
+import benny.accessloganalyzer.service.AnalysisJournal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class AnalysisJournalConfig {
+
+    @Bean
+    public AnalysisJournal analysisJournal(
+            @Value("${analysis.journal.enabled:false}") boolean enabled,
+            @Value("${analysis.journal.path:${java.io.tmpdir}/access-log-analyzer/analysis-journal.log}") String path,
+            @Value("${analysis.journal.max-batch-size:256}") int maxBatchSize,
+            @Value("${analysis.journal.compact-threshold-bytes:4194304}") long compactThresholdBytes,
+            @Value("${analysis.execution.virtual-threads:false}") boolean virtualThreads) throws IOException {
+        if (!enabled) {
+            return AnalysisJournal.disabled();
+        }
+        return AnalysisJournal.open(Path.of(path), maxBatchSize, compactThresholdBytes, virtualThreads);
+    }
+}
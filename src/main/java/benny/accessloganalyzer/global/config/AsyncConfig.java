@@ -3,27 +3,34 @@ package benny.accessloganalyzer.global.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
-import java.util.concurrent.RejectedExecutionHandler;
-import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 public class AsyncConfig {
 
+    /**
+     * 분석은 CPU 위주이므로 가상 스레드 모드에서도 플랫폼 스레드 풀에서 실행한다. 가상 스레드는 시분할되지 않아
+     * 파싱이 캐리어를 붙잡으면 같은 캐리어를 쓰는 요청 스레드가 멈추기 때문이다. 풀 크기가 동시 파싱 수의 상한이다.
+     * 접수 여부는 AnalysisService 의 힙 예산이 정하고, queue-capacity 는 작업 수의 안전 상한으로만 쓴다.
+     */
     @Bean
     public Executor analysisExecutor(
             @Value("${analysis.async.core-pool-size:2}") int corePoolSize,
             @Value("${analysis.async.max-pool-size:4}") int maxPoolSize,
-            @Value("${analysis.async.queue-capacity:10}") int queueCapacity) {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(corePoolSize);
-        executor.setMaxPoolSize(maxPoolSize);
-        executor.setQueueCapacity(queueCapacity);
-        executor.setThreadNamePrefix("analysis-");
-        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
-        executor.initialize();
-        return executor;
+            @Value("${analysis.async.queue-capacity:1000}") int queueCapacity) {
+        return TaskExecutors.platformPool("analysis", corePoolSize, maxPoolSize, queueCapacity);
+    }
+
+    /**
+     * 큐를 거치지 않는 분석(동기 레인·스트리밍·청크 업로드)의 파싱용. 가상 스레드 모드에서는 요청 스레드가 가상 스레드이므로
+     * 파싱만 이 플랫폼 스레드 풀로 넘기고 요청 스레드는 결과를 기다리며 캐리어를 내놓는다. 플랫폼 스레드 모드에서는 요청 스레드에서 바로 파싱한다.
+     */
+    @Bean
+    public Executor inlineAnalysisExecutor(
+            @Value("${analysis.inline.threads:4}") int threads,
+            @Value("${analysis.inline.queue-capacity:100}") int queueCapacity,
+            @Value("${analysis.execution.virtual-threads:false}") boolean virtualThreads) {
+        return TaskExecutors.cpuExecutor("inline-analysis", threads, queueCapacity, virtualThreads);
     }
 }
@@ -1,25 +1,38 @@
 package benny.accessloganalyzer.global.config;
 
+import benny.accessloganalyzer.client.CircuitBreaker;
 import benny.accessloganalyzer.client.IpInfo;
+import benny.accessloganalyzer.client.IpInfoCallGuard;
+import benny.accessloganalyzer.client.LocalGeoDatabase;
+import benny.accessloganalyzer.client.TokenBucket;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.concurrent.Executor;
 
 @Configuration
 public class IpInfoConfig {
 
+    /**
+     * JDK HttpClient 요청 팩토리. ipinfo 응답 대기 상한은 ipinfo.timeout 이다.
+     */
     @Bean
     public RestClient ipInfoRestClient(
             @Value("${ipinfo.base-url:https://ipinfo.io}") String baseUrl,
-            @Value("${ipinfo.timeout:5000}") int timeoutMs) {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(Duration.ofMillis(timeoutMs));
+            @Value("${ipinfo.timeout:5000}") int timeoutMs,
+            @Qualifier("ipInfoHttpClient") HttpClient httpClient) {
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
         factory.setReadTimeout(Duration.ofMillis(timeoutMs));
 
         return RestClient.builder()
@@ -28,13 +41,133 @@ public class IpInfoConfig {
                 .build();
     }
 
+    /**
+     * ipinfo 연결을 재사용하는 HttpClient. HTTP/2 는 TLS ALPN 으로 협상되어 한 연결에서 요청을 다중화하고,
+     * 서버가 HTTP/1.1 만 지원하면 호스트별 keep-alive 연결 풀로 재사용한다 (유휴 연결 유지 시간은 JVM 옵션
+     * -Djdk.httpclient.keepalive.timeout). 종료 시 close 로 진행 중인 요청을 마치고 연결을 닫는다.
+     */
+    @Bean
+    public HttpClient ipInfoHttpClient(
+            @Value("${ipinfo.http.version:HTTP_2}") HttpClient.Version version,
+            @Value("${ipinfo.http.connect-timeout-ms:${ipinfo.timeout:5000}}") long connectTimeoutMs,
+            @Qualifier("ipInfoHttpExecutor") Executor executor) {
+        return ipInfoHttpClientBuilder(version, connectTimeoutMs, executor).build();
+    }
+
+    /**
+     * ipInfoHttpClient 와 같은 설정의 빌더. 벤치마크처럼 TLS 설정만 바꿔 같은 클라이언트를 만들 때 쓴다.
+     */
+    public static HttpClient.Builder ipInfoHttpClientBuilder(HttpClient.Version version, long connectTimeoutMs,
+                                                             Executor executor) {
+        return HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(executor);
+    }
+
+    /**
+     * HttpClient 의 비동기 송수신·응답 처리용. HttpClient 내부 작업이 거절되면 요청이 멈추므로 대기열은 제한하지 않는다.
+     */
+    @Bean
+    public Executor ipInfoHttpExecutor(
+            @Value("${ipinfo.http.executor-threads:4}") int threads,
+            @Value("${analysis.execution.virtual-threads:false}") boolean virtualThreads) {
+        return TaskExecutors.ioExecutor("ipinfo-http", threads, Integer.MAX_VALUE, virtualThreads);
+    }
+
+    /**
+     * 상위 IP 조회 전용. 동시 실행 수가 ipinfo 동시 호출 수의 상한이며, 마감을 넘긴 조회도 여기서 끝까지 실행된다.
+     */
+    @Bean
+    public Executor ipInfoExecutor(
+            @Value("${ipinfo.lookup.parallelism:8}") int parallelism,
+            @Value("${ipinfo.lookup.queue-capacity:1000}") int queueCapacity,
+            @Value("${analysis.execution.virtual-threads:false}") boolean virtualThreads) {
+        return TaskExecutors.ioExecutor("ipinfo", parallelism, queueCapacity, virtualThreads);
+    }
+
+    /**
+     * 분석 완료 후 상위 IP 미리 조회용. 한 번에 하나씩 실행하고, 대기열이 차면 미리 조회를 건너뛰고 첫 조회 때 채운다.
+     */
+    @Bean
+    public Executor geoPrefetchExecutor(
+            @Value("${ipinfo.prefetch.queue-capacity:100}") int queueCapacity,
+            @Value("${analysis.execution.virtual-threads:false}") boolean virtualThreads) {
+        return TaskExecutors.ioExecutor("geo-prefetch", 1, queueCapacity, virtualThreads);
+    }
+
+    /**
+     * ipinfo 호출 보호: 최근 호출 실패율로 여닫는 차단기, 요금제 한도를 넘지 않게 하는 토큰 버킷, 지터를 넣은 지수 백오프 재시도.
+     */
+    @Bean
+    public IpInfoCallGuard ipInfoCallGuard(
+            @Value("${ipinfo.retry.max-attempts:2}") int maxRetries,
+            @Value("${ipinfo.retry.backoff-base-ms:100}") long backoffBaseMs,
+            @Value("${ipinfo.retry.backoff-max-ms:2000}") long backoffMaxMs,
+            @Value("${ipinfo.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${ipinfo.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${ipinfo.circuit-breaker.failure-rate-threshold:50}") double failureRatePercent,
+            @Value("${ipinfo.circuit-breaker.open-duration-ms:30000}") long openDurationMs,
+            @Value("${ipinfo.circuit-breaker.half-open-probes:3}") int halfOpenProbes,
+            @Value("${ipinfo.rate-limit.requests-per-second:10}") double requestsPerSecond,
+            @Value("${ipinfo.rate-limit.burst:20}") int burst) {
+        CircuitBreaker breaker = new CircuitBreaker("ipinfo", windowSize, minimumCalls, failureRatePercent,
+                openDurationMs, halfOpenProbes);
+        TokenBucket rateLimiter = requestsPerSecond > 0 ? new TokenBucket(requestsPerSecond, burst) : TokenBucket.unlimited();
+        return new IpInfoCallGuard(maxRetries, backoffBaseMs, backoffMaxMs, breaker, rateLimiter);
+    }
+
+    /**
+     * 대역별 지리정보 CSV. 경로가 비어 있으면 로컬 DB 없이 원격 API만 사용한다.
+     */
+    @Bean
+    public LocalGeoDatabase localGeoDatabase(@Value("${ipinfo.local-db.path:}") String path) throws IOException {
+        if (path.isBlank()) {
+            return LocalGeoDatabase.empty();
+        }
+        return LocalGeoDatabase.load(Path.of(path));
+    }
+
+    /**
+     * 쓰기 후 TTL 만료. 스냅샷에서 복원한 항목은 남은 TTL로 넣을 수 있도록 항목별 만료(Expiry)로 구성한다.
+     */
     @Bean
     public Cache<String, IpInfo> ipInfoCache(
             @Value("${ipinfo.cache.max-size:10000}") long maxSize,
             @Value("${ipinfo.cache.ttl-seconds:3600}") long ttlSeconds) {
+        long ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, IpInfo>() {
+                    @Override
+                    public long expireAfterCreate(String ip, IpInfo info, long currentTime) {
+                        return ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String ip, IpInfo info, long currentTime, long currentDuration) {
+                        return ttlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String ip, IpInfo info, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 조회 실패 캐시. ipinfo 가 실패한 IP는 짧은 TTL 동안 다시 호출하지 않고 UNKNOWN 으로 답한다.
+     */
+    @Bean
+    public Cache<String, IpInfo> ipInfoFailureCache(
+            @Value("${ipinfo.cache.max-size:10000}") long maxSize,
+            @Value("${ipinfo.cache.failure-ttl-seconds:60}") long failureTtlSeconds) {
         return Caffeine.newBuilder()
                 .maximumSize(maxSize)
-                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .expireAfterWrite(Duration.ofSeconds(failureTtlSeconds))
                 .build();
     }
 }
@@ -0,0 +1,114 @@
+package benny.accessloganalyzer.global.config;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 설정 클래스들이 함께 쓰는 executor 생성기. 크기 제한과 대기열 초과 시 거절(RejectedExecutionException) 동작은 두 모드가 같다.
+ */
+final class TaskExecutors {
+
+    private TaskExecutors() {
+    }
+
+    /**
+     * 플랫폼 스레드 고정 풀. CPU 위주 작업은 가상 스레드 모드에서도 이 풀을 써서 가상 스레드 캐리어를 점유하지 않는다.
+     */
+    static ThreadPoolTaskExecutor platformPool(String name, int threads, int queueCapacity) {
+        return platformPool(name, threads, threads, queueCapacity);
+    }
+
+    /**
+     * 대기열이 가득 찼을 때만 coreThreads 를 넘어 maxThreads 까지 늘어나는 플랫폼 스레드 풀.
+     */
+    static ThreadPoolTaskExecutor platformPool(String name, int coreThreads, int maxThreads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreThreads);
+        executor.setMaxPoolSize(maxThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(name + "-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * I/O 대기 위주 작업용. 가상 스레드 모드면 작업마다 가상 스레드를 만들고 동시 실행 수만 제한하며(풀링하지 않음),
+     * 아니면 같은 크기의 플랫폼 스레드 풀을 쓴다.
+     */
+    static Executor ioExecutor(String name, int concurrency, int queueCapacity, boolean virtualThreads) {
+        if (!virtualThreads) {
+            return platformPool(name, concurrency, queueCapacity);
+        }
+        return new BoundedVirtualThreadExecutor(name + "-vt-", concurrency, queueCapacity);
+    }
+
+    /**
+     * 요청 스레드에서 시작되는 CPU 위주 작업(동기·스트리밍·청크 업로드 파싱)용. 가상 스레드 모드면 요청 스레드가 가상 스레드이므로
+     * 플랫폼 스레드 풀로 넘겨 캐리어를 붙잡지 않게 하고, 아니면 요청 스레드(플랫폼)에서 그대로 실행한다.
+     */
+    static Executor cpuExecutor(String name, int threads, int queueCapacity, boolean virtualThreads) {
+        if (!virtualThreads) {
+            return Runnable::run;
+        }
+        return platformPool(name, threads, queueCapacity);
+    }
+
+    /**
+     * 실행 중 concurrency 개, 대기 queueCapacity 개까지 받는 작업당 가상 스레드 executor.
+     * 대기 중인 작업은 가상 스레드가 실행 허가를 기다리는 형태라 플랫폼 스레드를 점유하지 않는다.
+     */
+    static final class BoundedVirtualThreadExecutor implements Executor, AutoCloseable {
+
+        private final ExecutorService threads;
+        private final Semaphore admitted;
+        private final Semaphore running;
+
+        BoundedVirtualThreadExecutor(String namePrefix, int concurrency, int queueCapacity) {
+            this.threads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory());
+            this.admitted = new Semaphore((int) Math.min(Integer.MAX_VALUE, (long) concurrency + queueCapacity));
+            this.running = new Semaphore(concurrency, true);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (!admitted.tryAcquire()) {
+                throw new RejectedExecutionException("대기열 초과");
+            }
+            try {
+                threads.execute(() -> {
+                    try {
+                        running.acquire();
+                        try {
+                            task.run();
+                        } finally {
+                            running.release();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        admitted.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                admitted.release();
+                throw e;
+            }
+        }
+
+        /**
+         * 새 작업을 받지 않고 실행·대기 중인 작업에 인터럽트를 보낸 뒤 끝나기를 기다린다.
+         */
+        @Override
+        public void close() {
+            threads.shutdownNow();
+            threads.close();
+        }
+    }
+}
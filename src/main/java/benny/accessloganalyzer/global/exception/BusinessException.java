@@ -8,11 +8,18 @@ public class BusinessException extends RuntimeException {
 
     private final HttpStatus status;
     private final String code;
+    // 다시 시도해도 되는 시점 (Retry-After 헤더, 초). 없으면 null
+    private final Long retryAfterSeconds;
 
     private BusinessException(HttpStatus status, String code, String message) {
+        this(status, code, message, null);
+    }
+
+    private BusinessException(HttpStatus status, String code, String message, Long retryAfterSeconds) {
         super(message);
         this.status = status;
         this.code = code;
+        this.retryAfterSeconds = retryAfterSeconds;
     }
 
     public static BusinessException analysisNotFound(String message) {
@@ -31,7 +38,35 @@ public class BusinessException extends RuntimeException {
         return new BusinessException(HttpStatus.SERVICE_UNAVAILABLE, "ANALYSIS_QUEUE_FULL", message);
     }
 
+    public static BusinessException analysisQueueFull(String message, long retryAfterSeconds) {
+        return new BusinessException(HttpStatus.SERVICE_UNAVAILABLE, "ANALYSIS_QUEUE_FULL", message, retryAfterSeconds);
+    }
+
     public static BusinessException invalidParameter(String message) {
         return new BusinessException(HttpStatus.BAD_REQUEST, "INVALID_PARAMETER", message);
     }
+
+    public static BusinessException analysisNotCompleted(String message) {
+        return new BusinessException(HttpStatus.CONFLICT, "ANALYSIS_NOT_COMPLETED", message);
+    }
+
+    public static BusinessException analysisNotCancellable(String message) {
+        return new BusinessException(HttpStatus.CONFLICT, "ANALYSIS_NOT_CANCELLABLE", message);
+    }
+
+    public static BusinessException analysisCancelled(String message) {
+        return new BusinessException(HttpStatus.CONFLICT, "ANALYSIS_CANCELLED", message);
+    }
+
+    public static BusinessException uploadNotFound(String message) {
+        return new BusinessException(HttpStatus.NOT_FOUND, "UPLOAD_NOT_FOUND", message);
+    }
+
+    public static BusinessException chunkOutOfOrder(String message) {
+        return new BusinessException(HttpStatus.CONFLICT, "CHUNK_OUT_OF_ORDER", message);
+    }
+
+    public static BusinessException tailNotEnabled(String message) {
+        return new BusinessException(HttpStatus.NOT_FOUND, "TAIL_NOT_ENABLED", message);
+    }
 }
@@ -0,0 +1,23 @@
+package benny.accessloganalyzer.model;
+
+import java.util.List;
+
+public record AnalysisDiff(
+        String baseAnalysisId,
+        String targetAnalysisId,
+        long baseTotalRequests,
+        long targetTotalRequests,
+        DimensionDiff paths,
+        DimensionDiff statusCodes,
+        DimensionDiff ips
+) {
+
+    public record DimensionDiff(int addedKeys, int removedKeys, int changedKeys, List<CountDelta> topMovers) {}
+
+    public record CountDelta(String key, long baseCount, long targetCount) {
+
+        public long delta() {
+            return targetCount - baseCount;
+        }
+    }
+}
@@ -10,6 +10,7 @@ public class AnalysisEntry {
     private volatile AnalysisStatus status;
     private volatile AnalysisResult result;
     private volatile String errorMessage;
+    private volatile boolean cancelRequested;
 
     public AnalysisEntry(String analysisId) {
         this(analysisId, 0);
@@ -36,6 +37,21 @@ public class AnalysisEntry {
         this.status = AnalysisStatus.FAILED;
     }
 
+    /**
+     * 취소 요청을 기록한다. 실행 중인 분석은 파서가 이 요청을 보고 멈춘 뒤 cancel() 로 상태를 바꾼다.
+     */
+    public void requestCancel() {
+        this.cancelRequested = true;
+    }
+
+    public void cancel() {
+        this.status = AnalysisStatus.CANCELLED;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
     public String getAnalysisId() {
         return analysisId;
     }
@@ -0,0 +1,28 @@
+package benny.accessloganalyzer.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AnalysisProgressSnapshot(
+        String analysisId,
+        AnalysisStatus status,
+        Integer queuePosition,
+        Long bytesRead,
+        Long totalBytes,
+        Long linesProcessed,
+        Long linesPerSecond,
+        Long etaSeconds,
+        PartialResult partial,
+        String errorMessage
+) {
+
+    public static AnalysisProgressSnapshot queued(String analysisId, int queuePosition) {
+        return new AnalysisProgressSnapshot(analysisId, AnalysisStatus.QUEUED, queuePosition,
+                null, null, null, null, null, null, null);
+    }
+
+    public static AnalysisProgressSnapshot finished(AnalysisEntry entry) {
+        return new AnalysisProgressSnapshot(entry.getAnalysisId(), entry.getStatus(), null,
+                null, null, null, null, null, null, entry.getErrorMessage());
+    }
+}
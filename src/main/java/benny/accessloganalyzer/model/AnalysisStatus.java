@@ -4,5 +4,6 @@ public enum AnalysisStatus {
     QUEUED,
     IN_PROGRESS,
     COMPLETED,
-    FAILED
+    FAILED,
+    CANCELLED
 }
@@ -0,0 +1,33 @@
+package benny.accessloganalyzer.model;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+public enum ExportDimension {
+
+    PATHS("paths", AnalysisResult::pathCounts),
+    IPS("ips", AnalysisResult::ipCounts),
+    STATUS_CODES("status-codes", AnalysisResult::statusCodeCounts);
+
+    private final String pathName;
+    private final Function<AnalysisResult, Map<String, Long>> extractor;
+
+    ExportDimension(String pathName, Function<AnalysisResult, Map<String, Long>> extractor) {
+        this.pathName = pathName;
+        this.extractor = extractor;
+    }
+
+    public Map<String, Long> countsOf(AnalysisResult result) {
+        return extractor.apply(result);
+    }
+
+    public static Optional<ExportDimension> fromPathName(String pathName) {
+        for (ExportDimension dimension : values()) {
+            if (dimension.pathName.equals(pathName)) {
+                return Optional.of(dimension);
+            }
+        }
+        return Optional.empty();
+    }
+}
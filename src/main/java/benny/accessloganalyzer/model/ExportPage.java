@@ -0,0 +1,12 @@
+package benny.accessloganalyzer.model;
+
+/**
+ * 순위 구간 [fromRank, toRank) 의 내보내기 대상. nextCursor 가 null 이면 마지막 페이지다.
+ */
+public record ExportPage(
+        SortedCounts counts,
+        int fromRank,
+        int toRank,
+        String nextCursor
+) {
+}
@@ -0,0 +1,22 @@
+package benny.accessloganalyzer.model;
+
+import java.util.Map;
+
+/**
+ * 전체 클라이언트 IP의 국가·ASN 별 요청 수. 로컬 DB와 캐시로 알 수 없는 IP는 UNKNOWN 으로 묶이고
+ * 그 요청 수는 unresolvedRequests 에도 따로 센다.
+ */
+public record GeoDistribution(
+        int distinctIps,
+        long totalRequests,
+        long unresolvedRequests,
+        Map<String, Long> countryCounts,
+        Map<String, Long> asnCounts
+) {
+
+    public static final String UNKNOWN = "UNKNOWN";
+
+    public static GeoDistribution empty() {
+        return new GeoDistribution(0, 0, 0, Map.of(), Map.of());
+    }
+}
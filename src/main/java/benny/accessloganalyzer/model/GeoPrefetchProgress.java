@@ -0,0 +1,20 @@
+package benny.accessloganalyzer.model;
+
+/**
+ * 분석 한 건의 상위 IP 지리정보 미리 조회 진행 상황.
+ * requestedIps 중 alreadyCachedIps 는 이미 캐시에 있었고, 나머지 중 fetchedIps 개를 조회해 캐시에 넣었다 (실패한 IP는 빠진다).
+ */
+public record GeoPrefetchProgress(
+        String analysisId,
+        State state,
+        int requestedIps,
+        int alreadyCachedIps,
+        int fetchedIps
+) {
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        DONE
+    }
+}
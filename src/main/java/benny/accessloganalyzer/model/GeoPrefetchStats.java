@@ -0,0 +1,17 @@
+package benny.accessloganalyzer.model;
+
+/**
+ * 지리정보 미리 조회의 누적 통계. topIpCacheHitRate 는 결과 응답에서 요청된 상위 IP 중 캐시에서 바로 응답한 비율(%)이다.
+ */
+public record GeoPrefetchStats(
+        int topK,
+        long queuedJobs,
+        long completedJobs,
+        long droppedJobs,
+        long prefetchedIps,
+        long alreadyCachedIps,
+        long topIpRequests,
+        long topIpCacheHits,
+        double topIpCacheHitRate
+) {
+}
@@ -0,0 +1,16 @@
+package benny.accessloganalyzer.model;
+
+import java.util.List;
+import java.util.Map;
+
+public record MergedAnalysis(
+        List<String> analysisIds,
+        long totalRequests,
+        long totalLines,
+        long errorCount,
+        Map<String, Long> statusGroupCounts,
+        Map<String, Long> topPathCounts,
+        Map<String, Long> topStatusCodeCounts,
+        Map<String, Long> topIpCounts
+) {
+}
@@ -0,0 +1,14 @@
+package benny.accessloganalyzer.model;
+
+import java.util.Map;
+
+/**
+ * 분석 도중 주기적으로 찍는 Top-N 스냅샷. 각 맵은 순위 순서를 유지한다.
+ */
+public record PartialResult(
+        long processedRequests,
+        Map<String, Long> topPaths,
+        Map<String, Long> topStatusCodes,
+        Map<String, Long> topIps
+) {
+}
@@ -0,0 +1,152 @@
+package benny.accessloganalyzer.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 키 오름차순으로 정렬된 배열 기반의 불변 카운트 맵.
+ * 분석 완료 시 HashMap 집계 결과를 이 형태로 고정해 두면 노드/박싱 오버헤드 없이 보관되고,
+ * 여러 분석의 병합·비교를 정렬 병합(merge walk)으로 처리할 수 있다.
+ */
+public final class SortedCounts extends AbstractMap<String, Long> {
+
+    private static final SortedCounts EMPTY = new SortedCounts(new String[0], new long[0]);
+
+    private final String[] keys;
+    private final long[] counts;
+    // 카운트 내림차순(동률은 키 오름차순) 순위 -> 인덱스. 내보내기 시 처음 필요할 때 만든다.
+    private volatile int[] rankOrder;
+
+    private SortedCounts(String[] keys, long[] counts) {
+        this.keys = keys;
+        this.counts = counts;
+    }
+
+    public static SortedCounts of(Map<String, Long> source) {
+        if (source instanceof SortedCounts sorted) {
+            return sorted;
+        }
+        if (source.isEmpty()) {
+            return EMPTY;
+        }
+
+        String[] keys = source.keySet().toArray(String[]::new);
+        Arrays.sort(keys);
+        long[] counts = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            counts[i] = source.get(keys[i]);
+        }
+        return new SortedCounts(keys, counts);
+    }
+
+    public String keyAt(int index) {
+        return keys[index];
+    }
+
+    public long countAt(int index) {
+        return counts[index];
+    }
+
+    /**
+     * rank 번째(0부터) 순위 항목의 인덱스. 순위는 카운트 내림차순, 동률이면 키 오름차순이다.
+     */
+    public int indexAtRank(int rank) {
+        int[] order = rankOrder;
+        if (order == null) {
+            order = buildRankOrder();
+            rankOrder = order;
+        }
+        return order[rank];
+    }
+
+    private int[] buildRankOrder() {
+        int[] order = new int[keys.length];
+        long maxCount = 0;
+        for (long count : counts) {
+            maxCount = Math.max(maxCount, count);
+        }
+
+        if (maxCount <= Integer.MAX_VALUE) {
+            // (반전된 카운트, 인덱스)를 long 하나에 담아 박싱 없이 기본형 정렬. 키가 정렬돼 있어 인덱스 순 = 키 순이다.
+            long[] packed = new long[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                packed[i] = ((Integer.MAX_VALUE - counts[i]) << 32) | i;
+            }
+            Arrays.sort(packed);
+            for (int i = 0; i < packed.length; i++) {
+                order[i] = (int) packed[i];
+            }
+            return order;
+        }
+
+        Integer[] boxed = new Integer[keys.length];
+        for (int i = 0; i < boxed.length; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, (a, b) -> counts[a] != counts[b] ? Long.compare(counts[b], counts[a]) : Integer.compare(a, b));
+        for (int i = 0; i < boxed.length; i++) {
+            order[i] = boxed[i];
+        }
+        return order;
+    }
+
+    public int indexOf(String key) {
+        return Arrays.binarySearch(keys, key);
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String k && indexOf(k) >= 0;
+    }
+
+    @Override
+    public Long get(Object key) {
+        if (!(key instanceof String k)) {
+            return null;
+        }
+        int index = indexOf(k);
+        return index >= 0 ? counts[index] : null;
+    }
+
+    @Override
+    public Set<Entry<String, Long>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Long>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < keys.length;
+                    }
+
+                    @Override
+                    public Entry<String, Long> next() {
+                        if (next >= keys.length) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, Long> entry = new SimpleImmutableEntry<>(keys[next], counts[next]);
+                        next++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package benny.accessloganalyzer.model;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 실시간 추적 중인 파일의 최근 windowMinutes 분 집계. 구간은 [from, to) 이고 분 단위로 정렬된다.
+ */
+public record TailWindow(
+        String file,
+        int windowMinutes,
+        LocalDateTime from,
+        LocalDateTime to,
+        long totalRequests,
+        Map<String, Long> statusGroupCounts,
+        Map<String, Long> topStatusCodes,
+        Map<String, Long> topPaths,
+        Map<String, Long> topIps
+) {
+}
@@ -0,0 +1,10 @@
+package benny.accessloganalyzer.model;
+
+public record UploadStatus(
+        String uploadId,
+        String analysisId,
+        int nextChunkIndex,
+        long receivedBytes,
+        int maxChunkBytes
+) {
+}
@@ -1,7 +1,6 @@
 package benny.accessloganalyzer.parser;
 
 import benny.accessloganalyzer.model.AccessLogEntry;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.io.BufferedReader;
@@ -9,67 +8,57 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.function.Consumer;
 
-@Slf4j
 @Component
 public class AccessLogCsvParser {
 
     private static final int EXPECTED_FIELD_COUNT = 12;
-    private static final int MAX_ERROR_SAMPLES = 10;
 
     private final CsvLineParser csvLineParser = new CsvLineParser();
 
     public ParseResult parse(InputStream inputStream, Consumer<AccessLogEntry> entryConsumer) {
-        int successCount = 0;
-        int totalLines = 0;
-        int errorCount = 0;
-        List<String> errorSamples = new ArrayList<>();
-
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+        return parse(inputStream, entryConsumer, new ParseMonitor());
+    }
 
-            // 첫 줄(헤더) 스킵
-            String headerLine = reader.readLine();
-            if (headerLine == null) {
-                return new ParseResult(0, 0, 0, errorSamples);
-            }
+    /**
+     * 읽은 바이트 수와 처리한 라인 수를 monitor 로 공개하면서 파싱한다.
+     */
+    public ParseResult parse(InputStream inputStream, Consumer<AccessLogEntry> entryConsumer, ParseMonitor monitor) {
+        ParseSession session = newSession(entryConsumer, monitor);
 
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new MonitoredInputStream(inputStream, monitor), StandardCharsets.UTF_8))) {
             String line;
             while ((line = reader.readLine()) != null) {
-                // 빈 라인 스킵 (에러 카운트에 포함하지 않음)
-                if (line.isBlank()) {
-                    continue;
-                }
-
-                totalLines++;
-
-                try {
-                    AccessLogEntry entry = parseLine(line);
-                    entryConsumer.accept(entry);
-                    successCount++;
-                } catch (Exception e) {
-                    errorCount++;
-                    if (errorSamples.size() < MAX_ERROR_SAMPLES) {
-                        errorSamples.add(line);
-                    }
-                }
+                session.acceptLine(line);
             }
         } catch (IOException e) {
             throw new RuntimeException("CSV 파일 읽기 실패", e);
         }
 
-        log.info("CSV 파싱 완료: totalLines={}, successCount={}, errorCount={}", totalLines, successCount, errorCount);
-        if (errorCount > 0) {
-            log.warn("파싱 오류 발생: errorCount={}, samples={}", errorCount, errorSamples);
-        }
+        return session.finish();
+    }
+
+    /**
+     * 라인을 직접 넣어 파싱하는 증분 세션을 만든다.
+     */
+    public ParseSession newSession(Consumer<AccessLogEntry> entryConsumer) {
+        return newSession(entryConsumer, new ParseMonitor());
+    }
+
+    public ParseSession newSession(Consumer<AccessLogEntry> entryConsumer, ParseMonitor monitor) {
+        return new ParseSession(this, entryConsumer, monitor, true);
+    }
 
-        return new ParseResult(successCount, totalLines, errorCount, errorSamples);
+    /**
+     * 헤더 없이 첫 라인부터 데이터로 보는 세션. 파일 중간부터 따라 읽을 때 쓴다.
+     */
+    public ParseSession newHeaderlessSession(Consumer<AccessLogEntry> entryConsumer) {
+        return new ParseSession(this, entryConsumer, new ParseMonitor(), false);
     }
 
-    private AccessLogEntry parseLine(String line) {
+    AccessLogEntry parseLine(String line) {
         String[] fields = csvLineParser.parse(line);
 
         if (fields.length != EXPECTED_FIELD_COUNT) {
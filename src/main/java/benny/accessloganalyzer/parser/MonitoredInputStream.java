@@ -0,0 +1,43 @@
+package benny.accessloganalyzer.parser;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 읽은 바이트 수를 ParseMonitor 에 누적한다. BufferedReader 가 버퍼 단위로 읽으므로 갱신 비용은 무시할 만하다.
+ */
+final class MonitoredInputStream extends FilterInputStream {
+
+    private final ParseMonitor monitor;
+
+    MonitoredInputStream(InputStream in, ParseMonitor monitor) {
+        super(in);
+        this.monitor = monitor;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            monitor.addBytesRead(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = super.read(buffer, offset, length);
+        if (n > 0) {
+            monitor.addBytesRead(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        monitor.addBytesRead(skipped);
+        return skipped;
+    }
+}
@@ -0,0 +1,37 @@
+package benny.accessloganalyzer.parser;
+
+/**
+ * 파싱 진행 상황을 다른 스레드에서 읽을 수 있도록 공개하는 카운터.
+ * 파서 스레드만 쓰고 조회 스레드는 읽기만 하므로 volatile 필드로 충분하다.
+ * 반대 방향으로는 취소 플래그 하나만 다른 스레드가 쓰고, 파서는 진행 카운터를 공개할 때마다 이를 확인한다.
+ */
+public class ParseMonitor {
+
+    private volatile long bytesRead;
+    private volatile long linesProcessed;
+    private volatile boolean cancelled;
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getLinesProcessed() {
+        return linesProcessed;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    void addBytesRead(long bytes) {
+        bytesRead += bytes;
+    }
+
+    void setLinesProcessed(long lines) {
+        linesProcessed = lines;
+    }
+}
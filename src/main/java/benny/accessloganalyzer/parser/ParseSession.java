@@ -0,0 +1,94 @@
+package benny.accessloganalyzer.parser;
+
+import benny.accessloganalyzer.model.AccessLogEntry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * 라인 단위로 입력을 받아 파싱하는 증분 파서 상태. 헤더가 있는 세션은 첫 라인을 건너뛴다.
+ * 입력이 한 스트림으로 오지 않는 경우(청크 업로드 등)에도 같은 규칙으로 집계할 수 있다.
+ * monitor 가 취소되면 다음 공개 시점에 CancellationException 을 던진다. 스레드 안전하지 않다.
+ */
+@Slf4j
+public class ParseSession {
+
+    private static final int MAX_ERROR_SAMPLES = 10;
+    // 진행 카운터 공개와 취소 확인은 매 라인이 아니라 이 간격마다 한다
+    private static final int MONITOR_UPDATE_INTERVAL = 256;
+
+    private final AccessLogCsvParser parser;
+    private final Consumer<AccessLogEntry> entryConsumer;
+    private final ParseMonitor monitor;
+    private final List<String> errorSamples = new ArrayList<>();
+    private boolean headerSkipped;
+    private int successCount;
+    private int totalLines;
+    private int errorCount;
+
+    ParseSession(AccessLogCsvParser parser, Consumer<AccessLogEntry> entryConsumer, ParseMonitor monitor,
+                 boolean hasHeader) {
+        this.parser = parser;
+        this.entryConsumer = entryConsumer;
+        this.monitor = monitor;
+        this.headerSkipped = !hasHeader;
+    }
+
+    public void acceptLine(String line) {
+        // 첫 줄(헤더) 스킵
+        if (!headerSkipped) {
+            headerSkipped = true;
+            return;
+        }
+        // 빈 라인 스킵 (에러 카운트에 포함하지 않음)
+        if (line.isBlank()) {
+            return;
+        }
+
+        totalLines++;
+        if (totalLines % MONITOR_UPDATE_INTERVAL == 0) {
+            monitor.setLinesProcessed(totalLines);
+            if (monitor.isCancelled()) {
+                throw new CancellationException("분석이 취소되었습니다");
+            }
+        }
+
+        try {
+            AccessLogEntry entry = parser.parseLine(line);
+            entryConsumer.accept(entry);
+            successCount++;
+        } catch (Exception e) {
+            errorCount++;
+            if (errorSamples.size() < MAX_ERROR_SAMPLES) {
+                errorSamples.add(line);
+            }
+        }
+    }
+
+    public int getTotalLines() {
+        return totalLines;
+    }
+
+    /**
+     * 입력을 계속 받는 중에 지금까지의 집계를 본다 (파일 감시처럼 끝이 없는 입력용).
+     */
+    public ParseResult currentResult() {
+        return new ParseResult(successCount, totalLines, errorCount, List.copyOf(errorSamples));
+    }
+
+    public ParseResult finish() {
+        monitor.setLinesProcessed(totalLines);
+        if (monitor.isCancelled()) {
+            throw new CancellationException("분석이 취소되었습니다");
+        }
+        log.info("CSV 파싱 완료: totalLines={}, successCount={}, errorCount={}", totalLines, successCount, errorCount);
+        if (errorCount > 0) {
+            log.warn("파싱 오류 발생: errorCount={}, samples={}", errorCount, errorSamples);
+        }
+
+        return currentResult();
+    }
+}
@@ -0,0 +1,133 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.model.AnalysisDiff;
+import benny.accessloganalyzer.model.AnalysisDiff.CountDelta;
+import benny.accessloganalyzer.model.AnalysisDiff.DimensionDiff;
+import benny.accessloganalyzer.model.AnalysisEntry;
+import benny.accessloganalyzer.model.AnalysisResult;
+import benny.accessloganalyzer.model.AnalysisStatus;
+import benny.accessloganalyzer.model.MergedAnalysis;
+import benny.accessloganalyzer.model.SortedCounts;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+@Service
+public class AnalysisComparisonService {
+
+    private static final Comparator<CountDelta> BY_ABS_DELTA_DESC =
+            Comparator.comparingLong((CountDelta d) -> Math.abs(d.delta())).reversed()
+                    .thenComparing(CountDelta::key);
+
+    private final AnalysisService analysisService;
+
+    public AnalysisComparisonService(AnalysisService analysisService) {
+        this.analysisService = analysisService;
+    }
+
+    public MergedAnalysis merge(List<String> analysisIds, int topN) {
+        if (analysisIds == null || analysisIds.isEmpty()) {
+            throw BusinessException.invalidParameter("병합할 분석 ID를 1개 이상 지정해야 합니다.");
+        }
+
+        List<String> ids = List.copyOf(new LinkedHashSet<>(analysisIds));
+        List<AnalysisResult> results = ids.stream().map(this::getCompletedResult).toList();
+
+        long totalRequests = 0;
+        long totalLines = 0;
+        long errorCount = 0;
+        for (AnalysisResult result : results) {
+            totalRequests += result.totalRequests();
+            totalLines += result.totalLines();
+            errorCount += result.errorCount();
+        }
+
+        Map<String, Long> statusGroupCounts = new LinkedHashMap<>();
+        CountMerger.merge(sources(results, AnalysisResult::statusGroupCounts), statusGroupCounts::put);
+
+        return new MergedAnalysis(
+                ids,
+                totalRequests,
+                totalLines,
+                errorCount,
+                statusGroupCounts,
+                mergeTop(sources(results, AnalysisResult::pathCounts), topN),
+                mergeTop(sources(results, AnalysisResult::statusCodeCounts), topN),
+                mergeTop(sources(results, AnalysisResult::ipCounts), topN)
+        );
+    }
+
+    public AnalysisDiff diff(String baseAnalysisId, String targetAnalysisId, int topN) {
+        AnalysisResult base = getCompletedResult(baseAnalysisId);
+        AnalysisResult target = getCompletedResult(targetAnalysisId);
+
+        return new AnalysisDiff(
+                baseAnalysisId,
+                targetAnalysisId,
+                base.totalRequests(),
+                target.totalRequests(),
+                diffDimension(base.pathCounts(), target.pathCounts(), topN),
+                diffDimension(base.statusCodeCounts(), target.statusCodeCounts(), topN),
+                diffDimension(base.ipCounts(), target.ipCounts(), topN)
+        );
+    }
+
+    private AnalysisResult getCompletedResult(String analysisId) {
+        AnalysisEntry entry = analysisService.getEntry(analysisId);
+        if (entry.getStatus() != AnalysisStatus.COMPLETED) {
+            throw BusinessException.analysisNotCompleted(
+                    "완료되지 않은 분석입니다: " + analysisId + " (" + entry.getStatus() + ")");
+        }
+        return entry.getResult();
+    }
+
+    private static List<SortedCounts> sources(List<AnalysisResult> results,
+                                              Function<AnalysisResult, Map<String, Long>> dimension) {
+        List<SortedCounts> sources = new ArrayList<>(results.size());
+        for (AnalysisResult result : results) {
+            sources.add(SortedCounts.of(dimension.apply(result)));
+        }
+        return sources;
+    }
+
+    private static Map<String, Long> mergeTop(List<SortedCounts> sources, int topN) {
+        TopN<Map.Entry<String, Long>> top = new TopN<>(topN, TopN.BY_COUNT_DESC);
+        CountMerger.merge(sources, (key, count) -> top.offer(Map.entry(key, count)));
+
+        Map<String, Long> ranked = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : top.toList()) {
+            ranked.put(entry.getKey(), entry.getValue());
+        }
+        return ranked;
+    }
+
+    private static DimensionDiff diffDimension(Map<String, Long> base, Map<String, Long> target, int topN) {
+        TopN<CountDelta> movers = new TopN<>(topN, BY_ABS_DELTA_DESC);
+        int[] added = new int[1];
+        int[] removed = new int[1];
+        int[] changed = new int[1];
+
+        CountMerger.diff(SortedCounts.of(base), SortedCounts.of(target), (key, baseCount, targetCount) -> {
+            if (baseCount == targetCount) {
+                return;
+            }
+            if (baseCount == 0) {
+                added[0]++;
+            } else if (targetCount == 0) {
+                removed[0]++;
+            } else {
+                changed[0]++;
+            }
+            movers.offer(new CountDelta(key, baseCount, targetCount));
+        });
+
+        return new DimensionDiff(added[0], removed[0], changed[0], movers.toList());
+    }
+}
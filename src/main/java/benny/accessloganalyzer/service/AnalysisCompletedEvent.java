@@ -0,0 +1,9 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.model.AnalysisResult;
+
+/**
+ * 큐를 거친 분석이 COMPLETED 가 되었을 때 분석 워커 스레드에서 발행된다. 리스너는 오래 걸리는 일을 직접 하지 않는다.
+ */
+public record AnalysisCompletedEvent(String analysisId, AnalysisResult result) {
+}
@@ -0,0 +1,139 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.model.AnalysisEntry;
+import benny.accessloganalyzer.model.AnalysisProgressSnapshot;
+import benny.accessloganalyzer.model.AnalysisStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 분석 진행 상황을 SSE 로 푸시한다. 구독자마다 폴링하는 대신 하나의 스케줄러가 주기적으로 스냅샷을 만들어,
+ * 직전에 보낸 것과 달라졌을 때만 전송한다. 완료/실패 이벤트를 보내면 스트림을 닫는다.
+ */
+@Slf4j
+@Service
+public class AnalysisEventService {
+
+    private final AnalysisService analysisService;
+    private final long timeoutMs;
+    private final int maxSubscribers;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    public AnalysisEventService(
+            AnalysisService analysisService,
+            @Value("${analysis.events.timeout-ms:1800000}") long timeoutMs,
+            @Value("${analysis.events.max-subscribers:256}") int maxSubscribers) {
+        this.analysisService = analysisService;
+        this.timeoutMs = timeoutMs;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    public SseEmitter subscribe(String analysisId) {
+        AnalysisEntry entry = analysisService.getEntry(analysisId);
+        if (subscriptions.size() >= maxSubscribers) {
+            throw BusinessException.analysisQueueFull("진행 상황 구독 수를 초과했습니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscription subscription = new Subscription(entry, emitter);
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(e -> subscriptions.remove(subscription));
+        subscriptions.add(subscription);
+
+        push(subscription);
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${analysis.events.interval-ms:1000}")
+    public void broadcast() {
+        for (Subscription subscription : subscriptions) {
+            push(subscription);
+        }
+    }
+
+    int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    AnalysisProgressSnapshot snapshot(AnalysisEntry entry) {
+        return switch (entry.getStatus()) {
+            case QUEUED -> AnalysisProgressSnapshot.queued(entry.getAnalysisId(), analysisService.getQueuePosition(entry));
+            case IN_PROGRESS -> {
+                AnalysisProgress progress = analysisService.getProgress(entry.getAnalysisId());
+                // 진행 정보가 아직 등록되지 않았거나 막 제거된 경우 상태만 보낸다
+                yield progress != null ? progress.snapshot() : new AnalysisProgressSnapshot(
+                        entry.getAnalysisId(), AnalysisStatus.IN_PROGRESS, null, null, null, null, null, null, null, null);
+            }
+            case COMPLETED, FAILED, CANCELLED -> AnalysisProgressSnapshot.finished(entry);
+        };
+    }
+
+    private void push(Subscription subscription) {
+        synchronized (subscription) {
+            if (subscription.closed) {
+                return;
+            }
+
+            AnalysisProgressSnapshot snapshot = snapshot(subscription.entry);
+            if (snapshot.equals(subscription.lastSent)) {
+                return;
+            }
+
+            boolean finished = snapshot.status() == AnalysisStatus.COMPLETED || snapshot.status() == AnalysisStatus.FAILED
+                    || snapshot.status() == AnalysisStatus.CANCELLED;
+            try {
+                subscription.emitter.send(SseEmitter.event()
+                        .name(eventName(snapshot.status()))
+                        .data(snapshot, MediaType.APPLICATION_JSON));
+                subscription.lastSent = snapshot;
+            } catch (IOException | IllegalStateException e) {
+                log.debug("진행 상황 전송 실패, 구독 해제: analysisId={}", subscription.entry.getAnalysisId());
+                close(subscription);
+                return;
+            }
+
+            if (finished) {
+                close(subscription);
+                subscription.emitter.complete();
+            }
+        }
+    }
+
+    private void close(Subscription subscription) {
+        subscription.closed = true;
+        subscriptions.remove(subscription);
+    }
+
+    private static String eventName(AnalysisStatus status) {
+        return switch (status) {
+            case QUEUED -> "queued";
+            case IN_PROGRESS -> "progress";
+            case COMPLETED -> "completed";
+            case FAILED -> "failed";
+            case CANCELLED -> "cancelled";
+        };
+    }
+
+    private static final class Subscription {
+
+        private final AnalysisEntry entry;
+        private final SseEmitter emitter;
+        private AnalysisProgressSnapshot lastSent;
+        private boolean closed;
+
+        private Subscription(AnalysisEntry entry, SseEmitter emitter) {
+            this.entry = entry;
+            this.emitter = emitter;
+        }
+    }
+}
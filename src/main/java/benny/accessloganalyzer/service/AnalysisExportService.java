@@ -0,0 +1,62 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.model.AnalysisEntry;
+import benny.accessloganalyzer.model.AnalysisStatus;
+import benny.accessloganalyzer.model.ExportDimension;
+import benny.accessloganalyzer.model.ExportPage;
+import benny.accessloganalyzer.model.SortedCounts;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 완료된 분석의 전체 카운트를 순위 순서로 잘라 내보낸다. 커서는 다음 페이지가 시작할 순위다.
+ */
+@Service
+public class AnalysisExportService {
+
+    private final AnalysisService analysisService;
+    private final int maxLimit;
+
+    public AnalysisExportService(
+            AnalysisService analysisService,
+            @Value("${analysis.export.max-limit:1000000}") int maxLimit) {
+        this.analysisService = analysisService;
+        this.maxLimit = maxLimit;
+    }
+
+    public ExportPage page(String analysisId, String dimensionName, String cursor, int limit) {
+        ExportDimension dimension = ExportDimension.fromPathName(dimensionName)
+                .orElseThrow(() -> BusinessException.invalidParameter(
+                        "지원하지 않는 내보내기 항목입니다: " + dimensionName + " (paths, ips, status-codes)"));
+        if (limit < 1 || limit > maxLimit) {
+            throw BusinessException.invalidParameter("limit 파라미터는 1 이상 " + maxLimit + " 이하여야 합니다.");
+        }
+
+        AnalysisEntry entry = analysisService.getEntry(analysisId);
+        if (entry.getStatus() != AnalysisStatus.COMPLETED) {
+            throw BusinessException.analysisNotCompleted(
+                    "완료되지 않은 분석입니다: " + analysisId + " (" + entry.getStatus() + ")");
+        }
+
+        SortedCounts counts = SortedCounts.of(dimension.countsOf(entry.getResult()));
+        int from = parseCursor(cursor, counts.size());
+        int to = (int) Math.min(counts.size(), (long) from + limit);
+        return new ExportPage(counts, from, to, to < counts.size() ? Integer.toString(to) : null);
+    }
+
+    private static int parseCursor(String cursor, int size) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        try {
+            int from = Integer.parseInt(cursor);
+            if (from >= 0 && from <= size) {
+                return from;
+            }
+        } catch (NumberFormatException ignored) {
+            // 아래에서 처리
+        }
+        throw BusinessException.invalidParameter("잘못된 cursor 값입니다: " + cursor);
+    }
+}
@@ -0,0 +1,279 @@
+package benny.accessloganalyzer.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 분석 작업의 제출/시작/완료/실패 이벤트를 기록하는 append-only 로컬 저널.
+ * 단일 writer 스레드가 큐에 쌓인 레코드를 한 번에 쓰고 fsync 하는 group commit 방식이라,
+ * 동시 업로드가 많아도 fsync 횟수는 배치 수만큼만 발생한다.
+ */
+@Slf4j
+public class AnalysisJournal implements AutoCloseable {
+
+    private static final String SEPARATOR = "\t";
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    enum EventType {
+        SUBMIT, START, COMPLETE, FAIL
+    }
+
+    public record PendingJob(String analysisId, long submittedOrder, Path tempFile) {}
+
+    private record Write(EventType type, String analysisId, String line, CompletableFuture<Void> done) {}
+
+    private final Path journalFile;
+    private final int maxBatchSize;
+    private final long compactThresholdBytes;
+    private final List<PendingJob> recoveredJobs;
+    private final BlockingQueue<Write> queue = new LinkedBlockingQueue<>();
+    // 끝나지 않은 작업의 SUBMIT 레코드. writer 스레드에서만 접근한다.
+    private final Map<String, String> pendingSubmits = new LinkedHashMap<>();
+    private final Thread writer;
+    private FileChannel channel;
+    private volatile boolean closed;
+
+    private AnalysisJournal() {
+        this.journalFile = null;
+        this.maxBatchSize = 0;
+        this.compactThresholdBytes = 0;
+        this.recoveredJobs = List.of();
+        this.writer = null;
+    }
+
+    private AnalysisJournal(Path journalFile, int maxBatchSize, long compactThresholdBytes,
+                            boolean virtualThread) throws IOException {
+        this.journalFile = journalFile;
+        this.maxBatchSize = maxBatchSize;
+        this.compactThresholdBytes = compactThresholdBytes;
+
+        Path parent = journalFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.recoveredJobs = replay();
+        compact();
+
+        // 쓰기 스레드는 대부분 fsync 대기이므로 가상 스레드 모드에서는 플랫폼 스레드를 점유하지 않게 한다
+        Thread.Builder builder = virtualThread ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        this.writer = builder.name("analysis-journal").unstarted(this::writeLoop);
+        this.writer.start();
+    }
+
+    public static AnalysisJournal open(Path journalFile, int maxBatchSize, long compactThresholdBytes) throws IOException {
+        return open(journalFile, maxBatchSize, compactThresholdBytes, false);
+    }
+
+    public static AnalysisJournal open(Path journalFile, int maxBatchSize, long compactThresholdBytes,
+                                       boolean virtualThread) throws IOException {
+        return new AnalysisJournal(journalFile, maxBatchSize, compactThresholdBytes, virtualThread);
+    }
+
+    public static AnalysisJournal disabled() {
+        return new AnalysisJournal();
+    }
+
+    public boolean isEnabled() {
+        return journalFile != null;
+    }
+
+    /**
+     * 이전 실행에서 끝나지 않은 작업을 원래 제출 순서대로 반환한다.
+     */
+    public List<PendingJob> recoveredJobs() {
+        return recoveredJobs;
+    }
+
+    public CompletableFuture<Void> submitted(String analysisId, long submittedOrder, Path tempFile) {
+        return append(EventType.SUBMIT, analysisId,
+                String.join(SEPARATOR, EventType.SUBMIT.name(), analysisId,
+                        Long.toString(submittedOrder), tempFile.toAbsolutePath().toString()));
+    }
+
+    public CompletableFuture<Void> started(String analysisId) {
+        return append(EventType.START, analysisId, EventType.START.name() + SEPARATOR + analysisId);
+    }
+
+    public CompletableFuture<Void> completed(String analysisId) {
+        return append(EventType.COMPLETE, analysisId, EventType.COMPLETE.name() + SEPARATOR + analysisId);
+    }
+
+    public CompletableFuture<Void> failed(String analysisId) {
+        return append(EventType.FAIL, analysisId, EventType.FAIL.name() + SEPARATOR + analysisId);
+    }
+
+    private CompletableFuture<Void> append(EventType type, String analysisId, String line) {
+        if (!isEnabled() || closed) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        queue.add(new Write(type, analysisId, line, done));
+        return done;
+    }
+
+    private List<PendingJob> replay() throws IOException {
+        if (!Files.exists(journalFile)) {
+            return List.of();
+        }
+
+        Map<String, PendingJob> submitted = new LinkedHashMap<>();
+        List<Path> finishedFiles = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(SEPARATOR, -1);
+                try {
+                    switch (EventType.valueOf(fields[0])) {
+                        case SUBMIT -> submitted.put(fields[1],
+                                new PendingJob(fields[1], Long.parseLong(fields[2]), Path.of(fields[3])));
+                        case COMPLETE, FAIL -> {
+                            PendingJob finished = submitted.remove(fields[1]);
+                            if (finished != null) {
+                                finishedFiles.add(finished.tempFile());
+                            }
+                        }
+                        case START -> {
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    // 비정상 종료로 잘린 마지막 레코드 등은 무시
+                    log.warn("손상된 저널 레코드 무시: {}", line);
+                }
+            }
+        }
+
+        // 완료 기록 후 임시 파일 삭제 전에 종료된 경우 남은 파일 정리
+        for (Path file : finishedFiles) {
+            Files.deleteIfExists(file);
+        }
+
+        List<PendingJob> pending = new ArrayList<>(submitted.values());
+        pending.sort(Comparator.comparingLong(PendingJob::submittedOrder));
+        for (PendingJob job : pending) {
+            pendingSubmits.put(job.analysisId(), String.join(SEPARATOR, EventType.SUBMIT.name(),
+                    job.analysisId(), Long.toString(job.submittedOrder()), job.tempFile().toString()));
+        }
+        log.info("분석 저널 복구: pendingJobs={}, cleanedFiles={}", pending.size(), finishedFiles.size());
+        return List.copyOf(pending);
+    }
+
+    /**
+     * 끝나지 않은 작업의 SUBMIT 레코드만 남기고 저널을 다시 쓴다.
+     */
+    private void compact() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+
+        Path compacted = journalFile.resolveSibling(journalFile.getFileName() + ".compact");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            StringBuilder sb = new StringBuilder();
+            for (String line : pendingSubmits.values()) {
+                sb.append(line).append('\n');
+            }
+            writeFully(out, ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8)));
+            out.force(true);
+        }
+        Files.move(compacted, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        channel = FileChannel.open(journalFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void writeLoop() {
+        List<Write> batch = new ArrayList<>(maxBatchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Write first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Write> batch) {
+        StringBuilder sb = new StringBuilder(batch.size() * 64);
+        for (Write write : batch) {
+            sb.append(write.line()).append('\n');
+        }
+
+        try {
+            writeFully(channel, ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8)));
+            channel.force(false);
+        } catch (IOException e) {
+            log.error("분석 저널 기록 실패: batchSize={}", batch.size(), e);
+            batch.forEach(write -> write.done().completeExceptionally(e));
+            return;
+        }
+
+        for (Write write : batch) {
+            switch (write.type()) {
+                case SUBMIT -> pendingSubmits.put(write.analysisId(), write.line());
+                case COMPLETE, FAIL -> pendingSubmits.remove(write.analysisId());
+                case START -> {
+                }
+            }
+            write.done().complete(null);
+        }
+
+        try {
+            if (channel.size() > compactThresholdBytes) {
+                compact();
+            }
+        } catch (IOException e) {
+            log.warn("분석 저널 압축 실패", e);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!isEnabled() || closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 종료 직전에 들어온 레코드는 기록하지 않고 대기자만 풀어준다 (재시작 시 해당 작업은 다시 실행됨)
+        List<Write> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(write -> write.done().complete(null));
+        channel.close();
+    }
+}
@@ -0,0 +1,82 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.model.AnalysisProgressSnapshot;
+import benny.accessloganalyzer.model.AnalysisStatus;
+import benny.accessloganalyzer.model.PartialResult;
+import benny.accessloganalyzer.parser.ParseMonitor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 실행 중인 분석 한 건의 진행 상황. 파서 카운터는 ParseMonitor 로, 부분 Top-N 은 주기적으로 교체되는 스냅샷으로 공개한다.
+ */
+final class AnalysisProgress {
+
+    private static final int PARTIAL_TOP_N = 10;
+    private static final int PUBLISH_CHECK_INTERVAL = 4096;
+    private static final long PUBLISH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String analysisId;
+    private final ParseMonitor monitor = new ParseMonitor();
+    private final long totalBytes;
+    private final long startedNanos = System.nanoTime();
+    private volatile PartialResult partial;
+
+    // 아래 필드는 파서 스레드에서만 접근한다
+    private int sinceCheck;
+    private long lastPublishedNanos = startedNanos;
+
+    AnalysisProgress(String analysisId, long totalBytes) {
+        this.analysisId = analysisId;
+        this.totalBytes = totalBytes;
+    }
+
+    String getAnalysisId() {
+        return analysisId;
+    }
+
+    ParseMonitor getMonitor() {
+        return monitor;
+    }
+
+    /**
+     * 일정 항목 수마다 시각을 확인해 발행 주기가 지났으면 부분 Top-N 을 새로 찍는다.
+     */
+    void maybePublish(LogAggregator aggregator) {
+        if (++sinceCheck < PUBLISH_CHECK_INTERVAL) {
+            return;
+        }
+        sinceCheck = 0;
+        long now = System.nanoTime();
+        if (now - lastPublishedNanos >= PUBLISH_INTERVAL_NANOS) {
+            partial = aggregator.snapshot(PARTIAL_TOP_N);
+            lastPublishedNanos = now;
+        }
+    }
+
+    AnalysisProgressSnapshot snapshot() {
+        long bytesRead = monitor.getBytesRead();
+        long lines = monitor.getLinesProcessed();
+        long elapsedNanos = Math.max(1, System.nanoTime() - startedNanos);
+        long linesPerSecond = lines * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+
+        Long etaSeconds = null;
+        if (totalBytes > 0 && bytesRead > 0) {
+            long remainingBytes = Math.max(0, totalBytes - bytesRead);
+            etaSeconds = TimeUnit.NANOSECONDS.toSeconds((long) ((double) remainingBytes / bytesRead * elapsedNanos));
+        }
+
+        return new AnalysisProgressSnapshot(
+                analysisId,
+                AnalysisStatus.IN_PROGRESS,
+                null,
+                bytesRead,
+                totalBytes > 0 ? totalBytes : null,
+                lines,
+                linesPerSecond,
+                etaSeconds,
+                partial,
+                null
+        );
+    }
+}
@@ -0,0 +1,115 @@
+package benny.accessloganalyzer.service;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * 대기 중인 분석 작업의 실행 순서를 정한다.
+ * 작업마다 가상 마감 시각 = max(도착 시각, 같은 클라이언트의 직전 작업 마감) + 크기 비례 비용 을 매기고 작은 순서로 꺼낸다.
+ * <ul>
+ *     <li>작은 파일일수록 마감이 일러 먼저 실행된다 (크기 기반 SJF).</li>
+ *     <li>마감은 도착 시 고정되므로 나중에 온 작은 작업도 결국 큰 작업보다 마감이 늦어진다 (aging, 기아 없음).</li>
+ *     <li>한 클라이언트의 작업은 자기 직전 작업 뒤에 쌓이므로 여러 클라이언트가 번갈아 실행된다.</li>
+ * </ul>
+ * 키가 도착 시 고정되어 큐 위치는 순위 트리에서 O(log n)으로 정확히 계산된다. 모든 메서드는 이 객체로 동기화된다.
+ */
+final class AnalysisScheduler {
+
+    static final String DEFAULT_CLIENT = "anonymous";
+    private static final int CLIENT_PRUNE_THRESHOLD = 4096;
+    private static final long BYTES_PER_MB = 1024 * 1024;
+
+    // 바이트당으로 미리 나누면 1MB 당 1ms 이하 설정이 0이 되므로 MB 단위로 들고 있다가 제출 시 계산한다
+    private final long costNanosPerMb;
+    private final long baseCostNanos;
+    private final LongSupplier clock;
+    private final OrderStatisticTree<Key> order = new OrderStatisticTree<>();
+    private final Map<Key, Job> jobs = new HashMap<>();
+    private final Map<String, Key> keysById = new HashMap<>();
+    // 클라이언트별 마지막으로 배정한 가상 마감 시각
+    private final Map<String, Long> clientTails = new HashMap<>();
+
+    AnalysisScheduler(long agingMsPerMb, long baseCostMs, LongSupplier clock) {
+        this.costNanosPerMb = agingMsPerMb * 1_000_000L;
+        this.baseCostNanos = baseCostMs * 1_000_000L;
+        this.clock = clock;
+    }
+
+    synchronized Job offer(String analysisId, long submittedOrder, Path tempFile, String clientKey, long sizeBytes) {
+        long now = clock.getAsLong();
+        if (clientTails.size() > CLIENT_PRUNE_THRESHOLD) {
+            clientTails.values().removeIf(tail -> tail - now <= 0);
+        }
+
+        long start = Math.max(now, clientTails.getOrDefault(clientKey, now));
+        long deadline = start + baseCostNanos + sizeCost(sizeBytes);
+        clientTails.put(clientKey, deadline);
+
+        Key key = new Key(deadline, submittedOrder);
+        Job job = new Job(analysisId, tempFile, clientKey, sizeBytes);
+        order.add(key);
+        jobs.put(key, job);
+        keysById.put(analysisId, key);
+        return job;
+    }
+
+    /**
+     * 크기 비례 비용. 몫과 나머지로 나눠 곱해 큰 파일에서도 long 범위를 넘지 않게 한다.
+     */
+    private long sizeCost(long sizeBytes) {
+        return sizeBytes / BYTES_PER_MB * costNanosPerMb + sizeBytes % BYTES_PER_MB * costNanosPerMb / BYTES_PER_MB;
+    }
+
+    /**
+     * 가장 먼저 실행할 작업을 꺼낸다. 대기 중인 작업이 없으면 null.
+     */
+    synchronized Job poll() {
+        Key first = order.first();
+        if (first == null) {
+            return null;
+        }
+        order.remove(first);
+        Job job = jobs.remove(first);
+        keysById.remove(job.analysisId());
+        return job;
+    }
+
+    /**
+     * 대기 중인 작업을 큐에서 뺀다. 대기 중이 아니면(이미 꺼내졌거나 없는 ID) null.
+     */
+    synchronized Job remove(String analysisId) {
+        Key key = keysById.remove(analysisId);
+        if (key == null) {
+            return null;
+        }
+        order.remove(key);
+        return jobs.remove(key);
+    }
+
+    /**
+     * 1부터 시작하는 실행 예정 순서. 대기 중이 아니면 0.
+     */
+    synchronized int position(String analysisId) {
+        Key key = keysById.get(analysisId);
+        return key == null ? 0 : order.rank(key);
+    }
+
+    synchronized int size() {
+        return jobs.size();
+    }
+
+    record Job(String analysisId, Path tempFile, String clientKey, long sizeBytes) {
+    }
+
+    private record Key(long deadline, long submittedOrder) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            // nanoTime 은 부호가 넘어갈 수 있어 차이로 비교한다
+            int byDeadline = Long.signum(deadline - other.deadline);
+            return byDeadline != 0 ? byDeadline : Long.compare(submittedOrder, other.submittedOrder);
+        }
+    }
+}
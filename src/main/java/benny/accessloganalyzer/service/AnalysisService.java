@@ -3,84 +3,454 @@ package benny.accessloganalyzer.service;
 import benny.accessloganalyzer.global.exception.BusinessException;
 import benny.accessloganalyzer.model.AnalysisEntry;
 import benny.accessloganalyzer.model.AnalysisResult;
-import benny.accessloganalyzer.model.AnalysisStatus;
 import benny.accessloganalyzer.parser.AccessLogCsvParser;
 import benny.accessloganalyzer.parser.ParseResult;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
 public class AnalysisService {
 
     private static final int DEFAULT_MAX_LINES = 200_000;
+    private static final long JOURNAL_WRITE_TIMEOUT_SECONDS = 5;
+    private static final long DEFAULT_AGING_MS_PER_MB = 1000;
+    private static final long DEFAULT_BASE_COST_MS = 100;
+    // 복구 작업은 원래 제출 순서를 지키도록 한 클라이언트로 묶는다
+    private static final String RECOVERED_CLIENT = "journal-recovery";
 
     private final AccessLogCsvParser parser;
     private final int maxLines;
     private final Executor executor;
+    // 큐를 거치지 않는 분석의 파싱을 실행한다 (가상 스레드 모드에서만 플랫폼 스레드 풀, 아니면 호출 스레드)
+    private final Executor inlineExecutor;
+    private final AnalysisJournal journal;
     private final ConcurrentHashMap<String, AnalysisEntry> store = new ConcurrentHashMap<>();
     private final AtomicLong orderSequence = new AtomicLong();
+    // QUEUED 상태인 분석의 실행 순서 (완료된 분석 수와 무관하게 O(log n) 조회)
+    private final AnalysisScheduler scheduler;
+    // 대기·실행 중인 분석이 예약한 힙 (큐 길이 대신 메모리로 접수 여부를 정한다)
+    private final HeapBudget heapBudget;
+    private final HeapEstimator heapEstimator;
+    // 큐를 거친 분석의 완료 알림 (지리정보 미리 조회 등)
+    private final ApplicationEventPublisher eventPublisher;
+    // IN_PROGRESS 상태인 분석의 진행 상황 (완료 시 제거)
+    private final ConcurrentHashMap<String, AnalysisProgress> running = new ConcurrentHashMap<>();
+    // 복구 때 executor 가 가득 차 실행 토큰을 넣지 못한 작업 수. 스케줄러에 남겨 두고 분석이 끝날 때마다 다시 넣는다
+    private final AtomicInteger deferredTokens = new AtomicInteger();
+    // 외부에서 입력을 공급하는 분석(청크 업로드)을 취소할 때 공급을 끊는 콜백. 입력이 끝나면 endInline 으로 제거한다
+    private final ConcurrentHashMap<String, Runnable> inlineCancellers = new ConcurrentHashMap<>();
+    // 고정 ID 로 계속 갱신되는 분석. 멈출 작업 단위가 없어 취소할 수 없다
+    private final Set<String> namedIds = ConcurrentHashMap.newKeySet();
 
     @Autowired
-    public AnalysisService(AccessLogCsvParser parser, Executor analysisExecutor) {
-        this(parser, DEFAULT_MAX_LINES, analysisExecutor);
+    public AnalysisService(
+            AccessLogCsvParser parser,
+            Executor analysisExecutor,
+            @Qualifier("inlineAnalysisExecutor") Executor inlineExecutor,
+            AnalysisJournal analysisJournal,
+            @Value("${analysis.scheduler.aging-ms-per-mb:1000}") long agingMsPerMb,
+            @Value("${analysis.scheduler.base-cost-ms:100}") long baseCostMs,
+            @Value("${analysis.admission.heap-fraction:0.5}") double heapFraction,
+            ApplicationEventPublisher eventPublisher) {
+        this(parser, DEFAULT_MAX_LINES, analysisExecutor, analysisJournal,
+                new AnalysisScheduler(agingMsPerMb, baseCostMs, System::nanoTime),
+                HeapBudget.ofMaxHeap(heapFraction), eventPublisher, inlineExecutor);
     }
 
     AnalysisService(AccessLogCsvParser parser, int maxLines, Executor executor) {
+        this(parser, maxLines, executor, AnalysisJournal.disabled());
+    }
+
+    AnalysisService(AccessLogCsvParser parser, int maxLines, Executor executor, AnalysisJournal journal) {
+        this(parser, maxLines, executor, journal,
+                new AnalysisScheduler(DEFAULT_AGING_MS_PER_MB, DEFAULT_BASE_COST_MS, System::nanoTime),
+                HeapBudget.unlimited());
+    }
+
+    AnalysisService(AccessLogCsvParser parser, int maxLines, Executor executor, AnalysisJournal journal,
+                    AnalysisScheduler scheduler, HeapBudget heapBudget) {
+        this(parser, maxLines, executor, journal, scheduler, heapBudget, event -> {});
+    }
+
+    AnalysisService(AccessLogCsvParser parser, int maxLines, Executor executor, AnalysisJournal journal,
+                    AnalysisScheduler scheduler, HeapBudget heapBudget, ApplicationEventPublisher eventPublisher) {
+        this(parser, maxLines, executor, journal, scheduler, heapBudget, eventPublisher, Runnable::run);
+    }
+
+    AnalysisService(AccessLogCsvParser parser, int maxLines, Executor executor, AnalysisJournal journal,
+                    AnalysisScheduler scheduler, HeapBudget heapBudget, ApplicationEventPublisher eventPublisher,
+                    Executor inlineExecutor) {
         this.parser = parser;
         this.maxLines = maxLines;
         this.executor = executor;
+        this.inlineExecutor = inlineExecutor;
+        this.journal = journal;
+        this.scheduler = scheduler;
+        this.heapBudget = heapBudget;
+        this.heapEstimator = new HeapEstimator(parser);
+        this.eventPublisher = eventPublisher;
+        // 재시작 후에도 복구 대상 작업보다 뒤에 제출 순번이 매겨지도록 이어서 증가
+        journal.recoveredJobs().stream()
+                .mapToLong(AnalysisJournal.PendingJob::submittedOrder)
+                .max()
+                .ifPresent(orderSequence::set);
     }
 
     public String submitAnalysis(Path tempFile) {
+        return submitAnalysis(tempFile, AnalysisScheduler.DEFAULT_CLIENT);
+    }
+
+    /**
+     * clientKey 는 클라이언트 간 공정 스케줄링 단위다 (API 키 또는 원격 주소).
+     */
+    public String submitAnalysis(Path tempFile, String clientKey) {
+        String analysisId = UUID.randomUUID().toString();
+        admit(analysisId, tempFile);
+        AnalysisEntry entry = new AnalysisEntry(analysisId, orderSequence.incrementAndGet());
+        awaitDurable(journal.submitted(analysisId, entry.getSubmittedOrder(), tempFile));
+        enqueue(entry, tempFile, clientKey);
+        return analysisId;
+    }
+
+    /**
+     * 큐를 거치지 않고 바로 분석한다. 파싱은 inlineExecutor 에서 하고 호출 스레드는 끝날 때까지 기다린다.
+     * 실패 시 FAILED 로, 파싱 중 취소되면 CANCELLED 로 기록한 뒤 예외를 던진다.
+     */
+    public AnalysisEntry analyzeInline(InputStream inputStream) {
+        AnalysisEntry entry = startInline();
+        String analysisId = entry.getAnalysisId();
+
+        log.info("분석 시작 (인라인): analysisId={}", analysisId);
+        long startNanos = System.nanoTime();
+        try {
+            AnalysisResult result = parseInline(() -> analyze(inputStream, new AnalysisProgress(analysisId, -1)));
+            entry.complete(result);
+
+            long durationMs = (System.nanoTime() - startNanos) / 1_000_000;
+            log.info("분석 완료 (인라인): analysisId={}, totalLines={}, errorCount={}, duration={}ms",
+                    analysisId, result.totalLines(), result.errorCount(), durationMs);
+            return entry;
+        } catch (BusinessException e) {
+            entry.fail(e.getMessage());
+            throw e;
+        } catch (CancellationException e) {
+            // CancellationException 은 IllegalStateException 이라 아래 RuntimeException 보다 먼저 받아야 한다
+            log.info("분석 취소됨 (인라인): analysisId={}", analysisId);
+            entry.cancel();
+            throw BusinessException.analysisCancelled("분석이 취소되었습니다: " + analysisId);
+        } catch (RuntimeException e) {
+            log.error("분석 실패 (인라인): analysisId={}", analysisId, e);
+            entry.fail(e.getMessage());
+            throw BusinessException.invalidLogFile("업로드 본문을 읽을 수 없습니다: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 인라인 분석의 CPU 위주 구간을 inlineExecutor 에서 실행하고 결과를 기다린다. 작업이 던진 예외는 그대로 다시 던진다.
+     */
+    <T> T parseInline(Supplier<T> task) {
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(task, inlineExecutor);
+        } catch (RejectedExecutionException e) {
+            throw BusinessException.analysisQueueFull("동시 분석 수를 초과했습니다. 잠시 후 다시 시도해주세요.");
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 큐를 거치지 않고 외부에서 입력을 공급하는 분석의 엔트리를 IN_PROGRESS 상태로 등록한다.
+     */
+    AnalysisEntry startInline() {
         String analysisId = UUID.randomUUID().toString();
         AnalysisEntry entry = new AnalysisEntry(analysisId, orderSequence.incrementAndGet());
+        entry.startProcessing();
         store.put(analysisId, entry);
+        return entry;
+    }
+
+    /**
+     * startInline 과 같고, cancelAnalysis 가 불리면 onCancel 로 입력 공급을 끊는다.
+     * onCancel 은 엔트리를 CANCELLED 로 바꿀 책임을 지며, 공급이 끝나면 endInline 으로 해제해야 한다.
+     */
+    AnalysisEntry startInline(Runnable onCancel) {
+        AnalysisEntry entry = startInline();
+        inlineCancellers.put(entry.getAnalysisId(), onCancel);
+        return entry;
+    }
+
+    void endInline(String analysisId) {
+        inlineCancellers.remove(analysisId);
+    }
+
+    /**
+     * 고정 ID 로 계속 갱신되는 분석(디렉터리 감시 등)의 엔트리를 등록한다. 이미 있으면 기존 엔트리를 돌려준다.
+     */
+    AnalysisEntry registerNamed(String analysisId) {
+        namedIds.add(analysisId);
+        return store.computeIfAbsent(analysisId, id -> {
+            AnalysisEntry entry = new AnalysisEntry(id, orderSequence.incrementAndGet());
+            entry.startProcessing();
+            return entry;
+        });
+    }
+
+    /**
+     * 이전 실행에서 큐에 남아 있던 작업을 원래 제출 순서대로 다시 큐에 넣는다.
+     * 이미 접수된 작업이므로 executor 가 가득 차도 버리지 않고, 저널 기록과 임시 파일을 그대로 둔 채 자리가 날 때 실행한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverJournaledAnalyses() {
+        for (AnalysisJournal.PendingJob job : journal.recoveredJobs()) {
+            AnalysisEntry entry = new AnalysisEntry(job.analysisId(), job.submittedOrder());
+            if (!Files.exists(job.tempFile())) {
+                log.warn("복구 대상 임시 파일 없음: analysisId={}, file={}", job.analysisId(), job.tempFile());
+                entry.fail("서버 재시작 중 분석 파일이 유실되었습니다");
+                store.put(job.analysisId(), entry);
+                journal.failed(job.analysisId());
+                continue;
+            }
+
+            if (heapBudget.isLimited()) {
+                heapBudget.forceReserve(job.analysisId(), estimateHeap(job.tempFile()));
+            }
+            store.put(job.analysisId(), entry);
+            scheduler.offer(job.analysisId(), entry.getSubmittedOrder(), job.tempFile(), RECOVERED_CLIENT,
+                    sizeOf(job.tempFile()));
+            try {
+                executor.execute(this::runNext);
+                log.info("분석 작업 복구: analysisId={}", job.analysisId());
+            } catch (RejectedExecutionException e) {
+                deferredTokens.incrementAndGet();
+                log.warn("분석 작업 복구 지연 (큐 초과, 앞선 분석이 끝나면 실행): analysisId={}", job.analysisId());
+            }
+        }
+    }
+
+    private void enqueue(AnalysisEntry entry, Path tempFile, String clientKey) {
+        String analysisId = entry.getAnalysisId();
+        store.put(analysisId, entry);
+        scheduler.offer(analysisId, entry.getSubmittedOrder(), tempFile, clientKey, sizeOf(tempFile));
 
         try {
-            executor.execute(() -> executeAnalysis(analysisId, tempFile));
+            // executor 에는 "다음 작업 하나 실행" 토큰만 넣고, 어떤 작업을 실행할지는 워커가 꺼낼 때 스케줄러가 정한다
+            executor.execute(this::runNext);
         } catch (RejectedExecutionException e) {
+            scheduler.remove(analysisId);
+            heapBudget.release(analysisId);
             store.remove(analysisId);
+            journal.failed(analysisId);
             deleteTempFile(tempFile);
             throw BusinessException.analysisQueueFull("분석 큐가 가득 찼습니다. 잠시 후 다시 시도해주세요.");
         }
+    }
 
-        return analysisId;
+    /**
+     * 분석에 필요한 힙 추정치를 예산에서 예약한다. 들어가지 않으면 관찰된 반납 속도로 계산한 Retry-After 와 함께 거절한다.
+     */
+    private void admit(String analysisId, Path tempFile) {
+        if (!heapBudget.isLimited()) {
+            return;
+        }
+        long estimate = estimateHeap(tempFile);
+        if (heapBudget.tryReserve(analysisId, estimate)) {
+            return;
+        }
+
+        long retryAfter = heapBudget.retryAfterSeconds(estimate);
+        log.warn("분석 접수 거절 (메모리 예산 초과): estimate={}MB, reserved={}MB, budget={}MB, retryAfter={}s",
+                estimate >> 20, heapBudget.reservedBytes() >> 20, heapBudget.budgetBytes() >> 20, retryAfter);
+        deleteTempFile(tempFile);
+        throw BusinessException.analysisQueueFull(
+                "분석에 필요한 메모리 여유가 없습니다. " + retryAfter + "초 후 다시 시도해주세요.", retryAfter);
+    }
+
+    private long estimateHeap(Path tempFile) {
+        try {
+            return heapEstimator.estimate(tempFile);
+        } catch (IOException e) {
+            return HeapEstimator.BASE_BYTES;
+        }
+    }
+
+    private void runNext() {
+        try {
+            AnalysisScheduler.Job job = scheduler.poll();
+            if (job != null) {
+                executeAnalysis(job.analysisId(), job.tempFile());
+            }
+        } finally {
+            dispatchDeferred();
+        }
+    }
+
+    /**
+     * 복구 때 넣지 못한 실행 토큰 하나를 다시 넣는다. 또 거절되면 다음 분석이 끝날 때 다시 시도하고,
+     * 끝내 실행되지 못해도 저널에 남아 있으므로 다음 재시작 때 복구된다.
+     */
+    private void dispatchDeferred() {
+        if (deferredTokens.getAndUpdate(count -> Math.max(0, count - 1)) == 0) {
+            return;
+        }
+        try {
+            executor.execute(this::runNext);
+        } catch (RejectedExecutionException e) {
+            deferredTokens.incrementAndGet();
+        }
+    }
+
+    private static long sizeOf(Path tempFile) {
+        try {
+            return Files.size(tempFile);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 대기 중인 분석은 큐에서 빼고, 실행 중인 분석은 파서에 취소를 알린다.
+     * 실행 중인 분석은 파서가 다음 확인 지점(수백 라인 이내)에서 멈추며, 그 뒤 워커가 CANCELLED 로 바꾸고 예약과 임시 파일을 정리한다.
+     * 청크 업로드는 세션을 닫아 바로 CANCELLED 가 되고, 디렉터리 감시처럼 계속 갱신되는 분석은 취소할 수 없다.
+     */
+    public AnalysisEntry cancelAnalysis(String analysisId) {
+        AnalysisEntry entry = getEntry(analysisId);
+        if (namedIds.contains(analysisId)) {
+            throw BusinessException.analysisNotCancellable("계속 갱신되는 분석은 취소할 수 없습니다: " + analysisId);
+        }
+        switch (entry.getStatus()) {
+            case CANCELLED -> {
+                return entry;
+            }
+            case COMPLETED, FAILED -> throw BusinessException.analysisNotCancellable(
+                    "이미 종료된 분석은 취소할 수 없습니다: " + analysisId);
+            default -> {
+            }
+        }
+
+        entry.requestCancel();
+        AnalysisScheduler.Job queued = scheduler.remove(analysisId);
+        if (queued != null) {
+            entry.cancel();
+            heapBudget.release(analysisId);
+            journal.failed(analysisId);
+            deleteTempFile(queued.tempFile());
+            log.info("분석 취소 (대기 중): analysisId={}", analysisId);
+            return entry;
+        }
+
+        Runnable canceller = inlineCancellers.remove(analysisId);
+        if (canceller != null) {
+            canceller.run();
+            log.info("분석 취소 (입력 수신 중): analysisId={}", analysisId);
+            return entry;
+        }
+
+        AnalysisProgress progress = running.get(analysisId);
+        if (progress != null) {
+            progress.getMonitor().cancel();
+            log.info("분석 취소 요청 (실행 중): analysisId={}", analysisId);
+        }
+        return entry;
     }
 
     private void executeAnalysis(String analysisId, Path tempFile) {
         AnalysisEntry entry = store.get(analysisId);
         entry.startProcessing();
+        journal.started(analysisId);
 
         log.info("분석 시작: analysisId={}", analysisId);
         long startNanos = System.nanoTime();
+        boolean keepForRecovery = false;
 
         try (InputStream inputStream = Files.newInputStream(tempFile)) {
-            AnalysisResult result = analyze(inputStream, analysisId);
+            AnalysisResult result = analyze(inputStream, new AnalysisProgress(analysisId, Files.size(tempFile)));
             entry.complete(result);
+            journal.completed(analysisId);
 
             long durationMs = (System.nanoTime() - startNanos) / 1_000_000;
             log.info("분석 완료: analysisId={}, totalLines={}, errorCount={}, duration={}ms",
                     analysisId, result.totalLines(), result.errorCount(), durationMs);
+            publishCompleted(analysisId, result);
+        } catch (CancellationException e) {
+            log.info("분석 취소됨: analysisId={}", analysisId);
+            entry.cancel();
+            // 취소는 재시작 후 다시 실행하지 않도록 종료로 기록한다
+            journal.failed(analysisId);
         } catch (Exception e) {
+            if (journal.isEnabled() && Thread.currentThread().isInterrupted()) {
+                // 서버 종료로 워커가 인터럽트된 경우다. 이 엔트리는 종료와 함께 사라지므로 IN_PROGRESS 로 두고,
+                // 저널에는 SUBMIT·START 만 남겨 재시작 시 recoverJournaledAnalyses 가 같은 ID로 다시 실행하게 한다.
+                // 여기서 fail 로 바꾸거나 journal.failed 를 쓰면 복구 대상에서 빠지므로 엔트리는 저널 재실행에 맡긴다.
+                log.warn("분석 중단 (서버 종료, 재시작 후 저널에서 다시 실행): analysisId={}, tempFile={}, cause={}",
+                        analysisId, tempFile, e.toString());
+                keepForRecovery = true;
+                return;
+            }
             log.error("분석 실패: analysisId={}", analysisId, e);
             entry.fail(e.getMessage());
+            journal.failed(analysisId);
         } finally {
-            deleteTempFile(tempFile);
+            heapBudget.release(analysisId);
+            if (!keepForRecovery) {
+                deleteTempFile(tempFile);
+            }
+        }
+    }
+
+    /**
+     * 리스너 오류가 이미 완료된 분석을 실패로 바꾸지 않도록 여기서 끊는다.
+     */
+    private void publishCompleted(String analysisId, AnalysisResult result) {
+        try {
+            eventPublisher.publishEvent(new AnalysisCompletedEvent(analysisId, result));
+        } catch (RuntimeException e) {
+            log.warn("분석 완료 이벤트 처리 실패: analysisId={}", analysisId, e);
+        }
+    }
+
+    private void awaitDurable(CompletableFuture<Void> journalWrite) {
+        try {
+            journalWrite.get(JOURNAL_WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.error("분석 저널 기록 실패: 재시작 시 이 작업은 복구되지 않습니다", e);
         }
     }
 
@@ -92,33 +462,32 @@ public class AnalysisService {
         }
     }
 
-    private AnalysisResult analyze(InputStream inputStream, String analysisId) {
-        Map<String, Long> statusCodeCounts = new HashMap<>();
-        Map<String, Long> statusGroupCounts = new HashMap<>();
-        Map<String, Long> pathCounts = new HashMap<>();
-        Map<String, Long> ipCounts = new HashMap<>();
-
-        ParseResult parseResult = parser.parse(inputStream, entry -> {
-            statusCodeCounts.merge(String.valueOf(entry.httpStatus()), 1L, Long::sum);
-            statusGroupCounts.merge((entry.httpStatus() / 100) + "xx", 1L, Long::sum);
-            pathCounts.merge(entry.requestUri(), 1L, Long::sum);
-            ipCounts.merge(entry.clientIp(), 1L, Long::sum);
-        });
-
-        validate(parseResult);
+    private AnalysisResult analyze(InputStream inputStream, AnalysisProgress progress) {
+        String analysisId = progress.getAnalysisId();
+        LogAggregator aggregator = new LogAggregator();
+        running.put(analysisId, progress);
+        // 취소 요청이 등록 직전에 들어왔으면 여기서 이어받는다 (요청 쪽은 running 을 보고, 이쪽은 요청 플래그를 본다)
+        AnalysisEntry entry = store.get(analysisId);
+        if (entry != null && entry.isCancelRequested()) {
+            progress.getMonitor().cancel();
+        }
+        try {
+            ParseResult parseResult = parser.parse(inputStream, logEntry -> {
+                aggregator.accept(logEntry);
+                progress.maybePublish(aggregator);
+            }, progress.getMonitor());
+            return toResult(analysisId, aggregator, parseResult, maxLines);
+        } finally {
+            running.remove(analysisId);
+        }
+    }
 
-        return new AnalysisResult(
-                analysisId,
-                LocalDateTime.now(),
-                parseResult.successCount(),
-                statusCodeCounts,
-                statusGroupCounts,
-                pathCounts,
-                ipCounts,
-                parseResult.totalLines(),
-                parseResult.errorCount(),
-                parseResult.errorSamples()
-        );
+    /**
+     * 집계를 검증한 뒤 결과로 고정한다. 라인 수 상한은 입력 경로마다 다를 수 있어 인자로 받는다.
+     */
+    AnalysisResult toResult(String analysisId, LogAggregator aggregator, ParseResult parseResult, int lineLimit) {
+        validate(parseResult, lineLimit);
+        return aggregator.toResult(analysisId, parseResult);
     }
 
     public AnalysisEntry getEntry(String analysisId) {
@@ -129,18 +498,24 @@ public class AnalysisService {
         return entry;
     }
 
+    /**
+     * 실행 중인 분석의 진행 상황. 실행 중이 아니면 null.
+     */
+    AnalysisProgress getProgress(String analysisId) {
+        return running.get(analysisId);
+    }
+
+    /**
+     * 스케줄러가 실제로 실행할 순서 기준의 큐 위치 (1부터). 대기 중이 아니면 0.
+     */
     public int getQueuePosition(AnalysisEntry targetEntry) {
-        long position = store.values().stream()
-                .filter(e -> e.getStatus() == AnalysisStatus.QUEUED)
-                .filter(e -> e.getSubmittedOrder() <= targetEntry.getSubmittedOrder())
-                .count();
-        return (int) position;
+        return scheduler.position(targetEntry.getAnalysisId());
     }
 
-    private void validate(ParseResult parseResult) {
-        if (parseResult.totalLines() > maxLines) {
+    private void validate(ParseResult parseResult, int lineLimit) {
+        if (parseResult.totalLines() > lineLimit) {
             throw BusinessException.invalidLogFile(
-                    "최대 라인 수(" + maxLines + ")를 초과했습니다: " + parseResult.totalLines());
+                    "최대 라인 수(" + lineLimit + ")를 초과했습니다: " + parseResult.totalLines());
         }
         if (parseResult.successCount() == 0) {
             throw BusinessException.invalidLogFile("유효한 로그 데이터가 없습니다");
@@ -0,0 +1,236 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.model.AnalysisEntry;
+import benny.accessloganalyzer.model.AnalysisResult;
+import benny.accessloganalyzer.model.AnalysisStatus;
+import benny.accessloganalyzer.model.UploadStatus;
+import benny.accessloganalyzer.parser.AccessLogCsvParser;
+import benny.accessloganalyzer.parser.ParseResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * multipart 크기 제한을 넘는 로그를 청크 단위로 받아 도착하는 즉시 증분 파싱한다.
+ * 세션당 메모리는 청크 하나와 잘린 라인 carry, 집계 맵뿐이라 전체 파일 크기와 무관하다.
+ * 청크는 전부 수신한 뒤에만 적용하므로 전송 중 연결이 끊기면 같은 인덱스로 다시 보내면 된다.
+ */
+@Slf4j
+@Service
+public class ChunkedUploadService {
+
+    // 청크 경계를 넘어 이어 붙일 수 있는 한 라인의 최대 길이
+    private static final int MAX_LINE_BYTES = 1024 * 1024;
+
+    private final AnalysisService analysisService;
+    private final AccessLogCsvParser parser;
+    private final int maxChunkBytes;
+    private final int maxSessions;
+    private final int maxLines;
+    private final long sessionTtlNanos;
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ChunkedUploadService(
+            AnalysisService analysisService,
+            AccessLogCsvParser parser,
+            @Value("${analysis.upload.max-chunk-bytes:8388608}") int maxChunkBytes,
+            @Value("${analysis.upload.max-sessions:16}") int maxSessions,
+            @Value("${analysis.upload.max-lines:50000000}") int maxLines,
+            @Value("${analysis.upload.session-ttl-minutes:30}") long sessionTtlMinutes) {
+        this(analysisService, parser, maxChunkBytes, maxSessions, maxLines, Duration.ofMinutes(sessionTtlMinutes));
+    }
+
+    ChunkedUploadService(AnalysisService analysisService, AccessLogCsvParser parser,
+                         int maxChunkBytes, int maxSessions, int maxLines, Duration sessionTtl) {
+        this.analysisService = analysisService;
+        this.parser = parser;
+        this.maxChunkBytes = maxChunkBytes;
+        this.maxSessions = maxSessions;
+        this.maxLines = maxLines;
+        this.sessionTtlNanos = sessionTtl.toNanos();
+    }
+
+    public UploadStatus createSession() {
+        if (sessions.size() >= maxSessions) {
+            throw BusinessException.analysisQueueFull("동시 업로드 세션 수를 초과했습니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        String uploadId = UUID.randomUUID().toString();
+        AnalysisEntry entry = analysisService.startInline(() -> cancel(uploadId));
+        LogAggregator aggregator = new LogAggregator();
+        UploadSession session = new UploadSession(uploadId, entry, aggregator,
+                parser.newSession(aggregator), MAX_LINE_BYTES);
+        sessions.put(session.getUploadId(), session);
+
+        log.info("청크 업로드 세션 생성: uploadId={}, analysisId={}", session.getUploadId(), entry.getAnalysisId());
+        return toStatus(session);
+    }
+
+    public UploadStatus getStatus(String uploadId) {
+        UploadSession session = getSession(uploadId);
+        synchronized (session) {
+            return toStatus(session);
+        }
+    }
+
+    /**
+     * 이미 적용된 인덱스는 무시하고(재전송), 다음 순서가 아닌 인덱스는 거부한다.
+     */
+    public UploadStatus putChunk(String uploadId, int chunkIndex, InputStream body) {
+        UploadSession session = getSession(uploadId);
+        byte[] chunk = readChunk(body);
+
+        synchronized (session) {
+            ensureActive(session);
+            session.touch();
+
+            if (chunkIndex < session.getNextChunkIndex()) {
+                log.debug("중복 청크 무시: uploadId={}, chunkIndex={}", uploadId, chunkIndex);
+                return toStatus(session);
+            }
+            if (chunkIndex > session.getNextChunkIndex()) {
+                throw BusinessException.chunkOutOfOrder(
+                        "청크 순서가 올바르지 않습니다: expected=" + session.getNextChunkIndex() + ", actual=" + chunkIndex);
+            }
+
+            try {
+                analysisService.parseInline(() -> {
+                    session.applyChunk(chunk);
+                    return null;
+                });
+            } catch (IllegalStateException e) {
+                throw abort(session, e.getMessage());
+            }
+            if (session.getParseSession().getTotalLines() > maxLines) {
+                throw abort(session, "최대 라인 수(" + maxLines + ")를 초과했습니다");
+            }
+            return toStatus(session);
+        }
+    }
+
+    public AnalysisEntry complete(String uploadId) {
+        UploadSession session = getSession(uploadId);
+
+        synchronized (session) {
+            ensureActive(session);
+            close(session);
+
+            AnalysisEntry entry = session.getEntry();
+            try {
+                AnalysisResult result = analysisService.parseInline(() -> {
+                    session.flush();
+                    ParseResult parseResult = session.getParseSession().finish();
+                    return analysisService.toResult(entry.getAnalysisId(), session.getAggregator(), parseResult, maxLines);
+                });
+                entry.complete(result);
+            } catch (BusinessException e) {
+                entry.fail(e.getMessage());
+                throw e;
+            }
+
+            log.info("청크 업로드 분석 완료: uploadId={}, analysisId={}, chunks={}, bytes={}",
+                    uploadId, entry.getAnalysisId(), session.getNextChunkIndex(), session.getReceivedBytes());
+            return entry;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analysis.upload.sweep-interval-ms:60000}")
+    public void expireIdleSessions() {
+        for (UploadSession session : sessions.values()) {
+            if (session.isIdleFor(sessionTtlNanos)) {
+                synchronized (session) {
+                    if (close(session)) {
+                        session.getEntry().fail("업로드 세션이 만료되었습니다");
+                        log.info("청크 업로드 세션 만료: uploadId={}", session.getUploadId());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 분석 취소(DELETE /analysis/{analysisId}) 때 AnalysisService 가 부른다. 적용 중인 청크가 있으면 끝날 때까지 기다린 뒤 세션을 닫는다.
+     */
+    private void cancel(String uploadId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null) {
+            return;
+        }
+        synchronized (session) {
+            if (close(session)) {
+                session.getEntry().cancel();
+                log.info("청크 업로드 취소: uploadId={}, analysisId={}", uploadId, session.getEntry().getAnalysisId());
+            }
+        }
+    }
+
+    /**
+     * 세션을 목록에서 빼고 취소 콜백을 해제한다. 이미 완료·만료·취소되어 빠져 있으면 false 를 반환한다.
+     */
+    private boolean close(UploadSession session) {
+        if (!sessions.remove(session.getUploadId(), session)) {
+            return false;
+        }
+        analysisService.endInline(session.getEntry().getAnalysisId());
+        return true;
+    }
+
+    private UploadSession getSession(String uploadId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null) {
+            throw BusinessException.uploadNotFound("업로드 세션을 찾을 수 없습니다: " + uploadId);
+        }
+        return session;
+    }
+
+    private void ensureActive(UploadSession session) {
+        // 락을 기다리는 사이 완료/만료/취소되었을 수 있다
+        if (sessions.get(session.getUploadId()) != session) {
+            if (session.getEntry().getStatus() == AnalysisStatus.CANCELLED) {
+                throw BusinessException.analysisCancelled("취소된 업로드입니다: " + session.getUploadId());
+            }
+            throw BusinessException.uploadNotFound("업로드 세션을 찾을 수 없습니다: " + session.getUploadId());
+        }
+    }
+
+    private byte[] readChunk(InputStream body) {
+        byte[] chunk;
+        try {
+            chunk = body.readNBytes(maxChunkBytes + 1);
+        } catch (IOException e) {
+            throw BusinessException.invalidLogFile("청크를 읽을 수 없습니다: " + e.getMessage());
+        }
+        if (chunk.length > maxChunkBytes) {
+            throw BusinessException.invalidLogFile(
+                    "청크 크기가 허용 범위를 초과했습니다 (최대 " + maxChunkBytes + "바이트)");
+        }
+        return chunk;
+    }
+
+    private BusinessException abort(UploadSession session, String message) {
+        close(session);
+        session.getEntry().fail(message);
+        return BusinessException.invalidLogFile(message);
+    }
+
+    private UploadStatus toStatus(UploadSession session) {
+        return new UploadStatus(
+                session.getUploadId(),
+                session.getEntry().getAnalysisId(),
+                session.getNextChunkIndex(),
+                session.getReceivedBytes(),
+                maxChunkBytes
+        );
+    }
+}
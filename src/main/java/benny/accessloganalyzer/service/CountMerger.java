@@ -0,0 +1,103 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.model.SortedCounts;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 키 정렬된 {@link SortedCounts}들을 복사 없이 한 번의 병합 순회로 합치거나 비교한다.
+ */
+final class CountMerger {
+
+    @FunctionalInterface
+    interface MergedCountConsumer {
+        void accept(String key, long count);
+    }
+
+    @FunctionalInterface
+    interface DeltaConsumer {
+        void accept(String key, long baseCount, long targetCount);
+    }
+
+    private CountMerger() {
+    }
+
+    static void merge(List<SortedCounts> sources, MergedCountConsumer consumer) {
+        PriorityQueue<Cursor> heap = new PriorityQueue<>(
+                Math.max(1, sources.size()), Comparator.comparing(Cursor::key));
+        for (SortedCounts source : sources) {
+            if (!source.isEmpty()) {
+                heap.add(new Cursor(source));
+            }
+        }
+
+        while (!heap.isEmpty()) {
+            Cursor head = heap.poll();
+            String key = head.key();
+            long sum = head.count();
+            if (head.advance()) {
+                heap.add(head);
+            }
+            while (!heap.isEmpty() && heap.peek().key().equals(key)) {
+                Cursor same = heap.poll();
+                sum += same.count();
+                if (same.advance()) {
+                    heap.add(same);
+                }
+            }
+            consumer.accept(key, sum);
+        }
+    }
+
+    static void diff(SortedCounts base, SortedCounts target, DeltaConsumer consumer) {
+        int i = 0;
+        int j = 0;
+        while (i < base.size() || j < target.size()) {
+            int cmp;
+            if (i >= base.size()) {
+                cmp = 1;
+            } else if (j >= target.size()) {
+                cmp = -1;
+            } else {
+                cmp = base.keyAt(i).compareTo(target.keyAt(j));
+            }
+
+            if (cmp < 0) {
+                consumer.accept(base.keyAt(i), base.countAt(i), 0);
+                i++;
+            } else if (cmp > 0) {
+                consumer.accept(target.keyAt(j), 0, target.countAt(j));
+                j++;
+            } else {
+                consumer.accept(base.keyAt(i), base.countAt(i), target.countAt(j));
+                i++;
+                j++;
+            }
+        }
+    }
+
+    private static final class Cursor {
+
+        private final SortedCounts source;
+        private int index;
+
+        private Cursor(SortedCounts source) {
+            this.source = source;
+        }
+
+        private String key() {
+            return source.keyAt(index);
+        }
+
+        private long count() {
+            return source.countAt(index);
+        }
+
+        private boolean advance() {
+            index++;
+            return index < source.size();
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.model.AnalysisEntry;
+import benny.accessloganalyzer.parser.AccessLogCsvParser;
+import benny.accessloganalyzer.parser.ParseResult;
+import benny.accessloganalyzer.parser.ParseSession;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+/**
+ * 설정된 디렉터리에 떨어지는 CSV 를 복사 없이 제자리에서 읽어 하나의 롤링 분석으로 누적한다.
+ * 파일마다 읽은 바이트 오프셋을 기억해 커지는 파일은 늘어난 부분만 파싱한다.
+ * 파일은 경로가 아니라 fileKey(inode) 로 식별하므로, 이름만 바뀐 로테이션 파일은 다시 세지 않는다.
+ */
+@Slf4j
+@Service
+public class DirectoryWatchService {
+
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_LINE_BYTES = 1024 * 1024;
+    private static final int MAX_ERROR_SAMPLES = 10;
+
+    private final AnalysisService analysisService;
+    private final AccessLogCsvParser parser;
+    private final boolean enabled;
+    private final Path directory;
+    private final String pattern;
+    private final String analysisId;
+    private final long rescanIntervalMs;
+
+    // 감시 스레드에서만 접근한다
+    private final LogAggregator aggregator = new LogAggregator();
+    private final Map<Object, FileCursor> cursors = new HashMap<>();
+    private final RetiredCounts retired = new RetiredCounts();
+
+    private volatile WatchService watchService;
+    private Thread watcher;
+
+    @Autowired
+    public DirectoryWatchService(
+            AnalysisService analysisService,
+            AccessLogCsvParser parser,
+            @Value("${analysis.watch.enabled:false}") boolean enabled,
+            @Value("${analysis.watch.directory:${java.io.tmpdir}/access-log-analyzer/watch}") String directory,
+            @Value("${analysis.watch.pattern:*.csv}") String pattern,
+            @Value("${analysis.watch.analysis-id:watch-rolling}") String analysisId,
+            @Value("${analysis.watch.rescan-interval-ms:5000}") long rescanIntervalMs) {
+        this.analysisService = analysisService;
+        this.parser = parser;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.pattern = pattern;
+        this.analysisId = analysisId;
+        this.rescanIntervalMs = rescanIntervalMs;
+    }
+
+    DirectoryWatchService(AnalysisService analysisService, AccessLogCsvParser parser,
+                          Path directory, String pattern, String analysisId) {
+        this.analysisService = analysisService;
+        this.parser = parser;
+        this.enabled = true;
+        this.directory = directory;
+        this.pattern = pattern;
+        this.analysisId = analysisId;
+        this.rescanIntervalMs = 0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        } catch (IOException e) {
+            log.error("디렉터리 감시 시작 실패: directory={}", directory, e);
+            return;
+        }
+
+        analysisService.registerNamed(analysisId);
+        watcher = Thread.ofPlatform().name("log-watch").daemon().unstarted(this::watchLoop);
+        watcher.start();
+        log.info("디렉터리 감시 시작: directory={}, pattern={}, analysisId={}", directory, pattern, analysisId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        WatchService service = watchService;
+        if (service == null) {
+            return;
+        }
+        try {
+            service.close();
+        } catch (IOException e) {
+            log.warn("디렉터리 감시 종료 실패", e);
+        }
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+    }
+
+    private void watchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                // 이벤트는 깨우는 용도로만 쓰고, 실제 변경 판단은 매번 디렉터리 스캔으로 한다 (OVERFLOW 로 이벤트가 유실돼도 안전)
+                WatchKey key = watchService.poll(rescanIntervalMs, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+                scanOnce();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.error("디렉터리 스캔 실패: directory={}", directory, e);
+            }
+        }
+    }
+
+    /**
+     * 디렉터리를 한 번 훑어 새로 추가된 바이트를 파싱하고, 변경이 있으면 롤링 분석 결과를 갱신한다.
+     *
+     * @return 이번 스캔에서 새로 읽은 바이트 수
+     */
+    long scanOnce() {
+        long readBytes = 0;
+        Set<Object> seen = new HashSet<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, pattern)) {
+            for (Path file : files) {
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                } catch (IOException e) {
+                    // 스캔 중 삭제되거나 이름이 바뀐 파일
+                    continue;
+                }
+                if (!attributes.isRegularFile()) {
+                    continue;
+                }
+
+                Object key = fileKey(file, attributes);
+                seen.add(key);
+                FileCursor cursor = cursors.computeIfAbsent(key, k -> new FileCursor(file));
+                cursor.path = file;
+                readBytes += readNewBytes(cursor, attributes.size());
+            }
+        } catch (IOException e) {
+            log.warn("감시 디렉터리 읽기 실패: directory={}", directory, e);
+            return 0;
+        }
+
+        boolean retiredAny = retireMissing(seen);
+        if (readBytes > 0 || retiredAny) {
+            publish();
+        }
+        return readBytes;
+    }
+
+    private long readNewBytes(FileCursor cursor, long size) {
+        if (size < cursor.offset) {
+            // copytruncate 방식 로테이션: 이미 센 내용은 유지하고 처음부터 다시 읽는다
+            log.info("감시 파일 잘림 감지: file={}, offset={}, size={}", cursor.path, cursor.offset, size);
+            retired.add(cursor.session.currentResult());
+            cursor.restart();
+        }
+        if (size == cursor.offset) {
+            return 0;
+        }
+
+        long before = cursor.offset;
+        try (FileChannel channel = FileChannel.open(cursor.path, StandardOpenOption.READ)) {
+            channel.position(cursor.offset);
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+            int read;
+            while ((read = channel.read(buffer)) > 0) {
+                cursor.lines.feed(buffer.array(), 0, read);
+                cursor.offset += read;
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            log.warn("감시 파일 읽기 실패: file={}", cursor.path, e);
+        } catch (IllegalStateException e) {
+            // 개행 없이 너무 긴 입력: 이 파일은 여기까지로 보고 남은 부분은 건너뛴다
+            log.warn("감시 파일 라인 길이 초과: file={}", cursor.path);
+            cursor.lines.reset();
+            cursor.offset = size;
+        }
+        return cursor.offset - before;
+    }
+
+    /**
+     * 디렉터리에서 사라진 파일의 남은 라인을 마저 처리하고 집계를 은퇴 카운트로 옮긴다.
+     */
+    private boolean retireMissing(Set<Object> seen) {
+        boolean retiredAny = false;
+        Iterator<Map.Entry<Object, FileCursor>> it = cursors.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Object, FileCursor> tracked = it.next();
+            if (seen.contains(tracked.getKey())) {
+                continue;
+            }
+            FileCursor cursor = tracked.getValue();
+            cursor.lines.flush();
+            retired.add(cursor.session.currentResult());
+            it.remove();
+            retiredAny = true;
+        }
+        return retiredAny;
+    }
+
+    private void publish() {
+        RetiredCounts combined = retired.copy();
+        for (FileCursor cursor : cursors.values()) {
+            combined.add(cursor.session.currentResult());
+        }
+        ParseResult parseResult = combined.toParseResult();
+        if (parseResult.successCount() == 0) {
+            return;
+        }
+
+        AnalysisEntry entry = analysisService.registerNamed(analysisId);
+        entry.complete(aggregator.toResult(analysisId, parseResult));
+        log.debug("롤링 분석 갱신: analysisId={}, totalLines={}, files={}", analysisId, parseResult.totalLines(), cursors.size());
+    }
+
+    private static Object fileKey(Path file, BasicFileAttributes attributes) {
+        Object key = attributes.fileKey();
+        // fileKey 를 제공하지 않는 파일시스템은 경로와 생성 시각으로 대신한다
+        return key != null ? key : file.toAbsolutePath() + "@" + attributes.creationTime().toMillis();
+    }
+
+    private final class FileCursor {
+
+        private Path path;
+        private long offset;
+        private ParseSession session;
+        private LineAssembler lines;
+
+        private FileCursor(Path path) {
+            this.path = path;
+            restart();
+        }
+
+        private void restart() {
+            offset = 0;
+            // 파일마다 첫 줄이 헤더이므로 세션을 새로 만든다
+            session = parser.newSession(aggregator);
+            lines = new LineAssembler(session::acceptLine, MAX_LINE_BYTES);
+        }
+    }
+
+    private static final class RetiredCounts {
+
+        private long successCount;
+        private long totalLines;
+        private long errorCount;
+        private final List<String> errorSamples = new ArrayList<>();
+
+        private void add(ParseResult result) {
+            successCount += result.successCount();
+            totalLines += result.totalLines();
+            errorCount += result.errorCount();
+            for (String sample : result.errorSamples()) {
+                if (errorSamples.size() >= MAX_ERROR_SAMPLES) {
+                    break;
+                }
+                errorSamples.add(sample);
+            }
+        }
+
+        private RetiredCounts copy() {
+            RetiredCounts copy = new RetiredCounts();
+            copy.successCount = successCount;
+            copy.totalLines = totalLines;
+            copy.errorCount = errorCount;
+            copy.errorSamples.addAll(errorSamples);
+            return copy;
+        }
+
+        private ParseResult toParseResult() {
+            return new ParseResult(saturate(successCount), saturate(totalLines), saturate(errorCount),
+                    List.copyOf(errorSamples));
+        }
+
+        private static int saturate(long value) {
+            return (int) Math.min(value, Integer.MAX_VALUE);
+        }
+    }
+}
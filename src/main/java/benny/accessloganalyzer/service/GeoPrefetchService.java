@@ -0,0 +1,154 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.client.IpInfoClient;
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.model.GeoPrefetchProgress;
+import benny.accessloganalyzer.model.GeoPrefetchStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 분석이 끝나면 첫 조회를 기다리지 않고 상위 K개 IP의 지리정보를 미리 캐시에 채운다.
+ * 전용 단일 스레드에서 초당 maxIpsPerSecond 개 이하로 나눠 조회해, 요청 경로의 ipinfo 조회와 호출 한도를 다투지 않는다.
+ */
+@Slf4j
+@Service
+public class GeoPrefetchService {
+
+    private static final int MAX_TRACKED_ANALYSES = 1000;
+    private static final long ROUND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final IpInfoClient ipInfoClient;
+    private final Executor executor;
+    private final int topK;
+    private final int maxIpsPerSecond;
+
+    // 최근 분석의 진행 상황. 오래된 것부터 버린다
+    private final Map<String, GeoPrefetchProgress> progress = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, GeoPrefetchProgress> eldest) {
+            return size() > MAX_TRACKED_ANALYSES;
+        }
+    };
+    private final AtomicLong queuedJobs = new AtomicLong();
+    private final AtomicLong completedJobs = new AtomicLong();
+    private final AtomicLong droppedJobs = new AtomicLong();
+    private final AtomicLong prefetchedIps = new AtomicLong();
+    private final AtomicLong alreadyCachedIps = new AtomicLong();
+
+    @Autowired
+    public GeoPrefetchService(
+            IpInfoClient ipInfoClient,
+            @Qualifier("geoPrefetchExecutor") Executor executor,
+            @Value("${ipinfo.prefetch.top-k:50}") int topK,
+            @Value("${ipinfo.prefetch.max-ips-per-second:50}") int maxIpsPerSecond) {
+        this.ipInfoClient = ipInfoClient;
+        this.executor = executor;
+        this.topK = topK;
+        this.maxIpsPerSecond = Math.max(1, maxIpsPerSecond);
+    }
+
+    @EventListener
+    public void onAnalysisCompleted(AnalysisCompletedEvent event) {
+        if (topK <= 0) {
+            return;
+        }
+        String analysisId = event.analysisId();
+        Map<String, Long> ipCounts = event.result().ipCounts();
+        update(new GeoPrefetchProgress(analysisId, GeoPrefetchProgress.State.QUEUED, 0, 0, 0));
+        try {
+            executor.execute(() -> prefetch(analysisId, ipCounts));
+            queuedJobs.incrementAndGet();
+        } catch (RejectedExecutionException e) {
+            droppedJobs.incrementAndGet();
+            remove(analysisId);
+            log.warn("지리정보 미리 조회 대기열 초과, 건너뜀: analysisId={}", analysisId);
+        }
+    }
+
+    public GeoPrefetchProgress getProgress(String analysisId) {
+        GeoPrefetchProgress current;
+        synchronized (progress) {
+            current = progress.get(analysisId);
+        }
+        if (current == null) {
+            throw BusinessException.analysisNotFound("지리정보 미리 조회 기록이 없습니다: " + analysisId);
+        }
+        return current;
+    }
+
+    public GeoPrefetchStats getStats() {
+        long requests = ipInfoClient.getTopIpRequests();
+        long hits = ipInfoClient.getTopIpCacheHits();
+        double hitRate = requests == 0 ? 0.0 : BigDecimal.valueOf(hits * 100.0 / requests)
+                .setScale(1, RoundingMode.HALF_UP)
+                .doubleValue();
+        return new GeoPrefetchStats(topK, queuedJobs.get(), completedJobs.get(), droppedJobs.get(),
+                prefetchedIps.get(), alreadyCachedIps.get(), requests, hits, hitRate);
+    }
+
+    private void prefetch(String analysisId, Map<String, Long> ipCounts) {
+        TopN<Map.Entry<String, Long>> top = new TopN<>(topK, TopN.BY_COUNT_DESC);
+        ipCounts.entrySet().forEach(top::offer);
+        List<String> topIps = top.toList().stream().map(Map.Entry::getKey).toList();
+        List<String> uncached = ipInfoClient.uncached(topIps);
+        int cached = topIps.size() - uncached.size();
+        alreadyCachedIps.addAndGet(cached);
+
+        int fetched = 0;
+        update(new GeoPrefetchProgress(analysisId, GeoPrefetchProgress.State.RUNNING, topIps.size(), cached, 0));
+        try {
+            for (int from = 0; from < uncached.size(); from += maxIpsPerSecond) {
+                long roundStart = System.nanoTime();
+                List<String> round = uncached.subList(from, Math.min(from + maxIpsPerSecond, uncached.size()));
+                // 실패하거나 호출 한도로 생략된 IP는 조회한 수에 넣지 않는다
+                int cachedInRound = ipInfoClient.prefetch(round);
+                fetched += cachedInRound;
+                prefetchedIps.addAndGet(cachedInRound);
+                update(new GeoPrefetchProgress(analysisId, GeoPrefetchProgress.State.RUNNING,
+                        topIps.size(), cached, fetched));
+
+                long remaining = ROUND_NANOS - (System.nanoTime() - roundStart);
+                if (from + maxIpsPerSecond < uncached.size() && remaining > 0) {
+                    // 한 라운드가 1초보다 빨리 끝났으면 남은 시간만큼 쉰다
+                    TimeUnit.NANOSECONDS.sleep(remaining);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("지리정보 미리 조회 실패: analysisId={} - {}", analysisId, e.getMessage());
+        } finally {
+            update(new GeoPrefetchProgress(analysisId, GeoPrefetchProgress.State.DONE, topIps.size(), cached, fetched));
+            completedJobs.incrementAndGet();
+        }
+        log.info("지리정보 미리 조회 완료: analysisId={}, topIps={}, alreadyCached={}, fetched={}",
+                analysisId, topIps.size(), cached, fetched);
+    }
+
+    private void update(GeoPrefetchProgress current) {
+        synchronized (progress) {
+            progress.put(current.analysisId(), current);
+        }
+    }
+
+    private void remove(String analysisId) {
+        synchronized (progress) {
+            progress.remove(analysisId);
+        }
+    }
+}
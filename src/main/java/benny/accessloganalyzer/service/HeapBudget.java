@@ -0,0 +1,115 @@
+package benny.accessloganalyzer.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * 대기·실행 중인 분석이 함께 쓸 수 있는 힙 예산. 제출 시 추정치를 예약하고 분석이 끝나면 반납한다.
+ * 반납 속도(바이트/초)를 지수 이동 평균으로 관찰해, 예약에 실패한 요청이 언제 다시 시도하면 되는지 계산한다.
+ * 모든 메서드는 이 객체로 동기화된다.
+ */
+final class HeapBudget {
+
+    private static final double DRAIN_RATE_ALPHA = 0.3;
+    private static final long DEFAULT_RETRY_AFTER_SECONDS = 5;
+    private static final long MAX_RETRY_AFTER_SECONDS = 300;
+
+    private final long budgetBytes;
+    private final LongSupplier clock;
+    private final Map<String, Long> reservations = new HashMap<>();
+    private long reservedBytes;
+    // 관찰 전에는 0
+    private double drainBytesPerSecond;
+    private long lastDrainNanos;
+
+    HeapBudget(long budgetBytes, LongSupplier clock) {
+        this.budgetBytes = budgetBytes;
+        this.clock = clock;
+    }
+
+    static HeapBudget unlimited() {
+        return new HeapBudget(Long.MAX_VALUE, System::nanoTime);
+    }
+
+    /**
+     * 최대 힙의 fraction 만큼을 예산으로 쓴다. fraction 이 0 이하이면 제한하지 않는다.
+     */
+    static HeapBudget ofMaxHeap(double fraction) {
+        if (fraction <= 0) {
+            return unlimited();
+        }
+        return new HeapBudget((long) (Runtime.getRuntime().maxMemory() * fraction), System::nanoTime);
+    }
+
+    boolean isLimited() {
+        return budgetBytes != Long.MAX_VALUE;
+    }
+
+    /**
+     * 예산 안에 들어가면 예약한다. 예산보다 큰 단일 작업은 예산 전체로 보고, 다른 작업이 없을 때 단독으로 받는다.
+     */
+    synchronized boolean tryReserve(String analysisId, long bytes) {
+        long need = Math.min(bytes, budgetBytes);
+        if (reservedBytes + need > budgetBytes) {
+            return false;
+        }
+        reserve(analysisId, need);
+        return true;
+    }
+
+    /**
+     * 예산과 무관하게 예약한다 (재시작 전에 이미 받은 작업의 복구용).
+     */
+    synchronized void forceReserve(String analysisId, long bytes) {
+        reserve(analysisId, Math.min(bytes, budgetBytes));
+    }
+
+    synchronized void release(String analysisId) {
+        Long bytes = reservations.remove(analysisId);
+        if (bytes == null) {
+            return;
+        }
+        reservedBytes -= bytes;
+
+        long now = clock.getAsLong();
+        double elapsedSeconds = Math.max(1_000_000L, now - lastDrainNanos) / 1e9;
+        double sample = bytes / elapsedSeconds;
+        drainBytesPerSecond = drainBytesPerSecond == 0
+                ? sample
+                : DRAIN_RATE_ALPHA * sample + (1 - DRAIN_RATE_ALPHA) * drainBytesPerSecond;
+        lastDrainNanos = now;
+    }
+
+    /**
+     * bytes 를 예약할 수 있을 만큼 반납되기까지 걸릴 것으로 보이는 시간(초).
+     */
+    synchronized long retryAfterSeconds(long bytes) {
+        long shortfall = reservedBytes + Math.min(bytes, budgetBytes) - budgetBytes;
+        if (shortfall <= 0) {
+            return 1;
+        }
+        if (drainBytesPerSecond == 0) {
+            return DEFAULT_RETRY_AFTER_SECONDS;
+        }
+        long seconds = (long) Math.ceil(shortfall / drainBytesPerSecond);
+        return Math.clamp(seconds, 1, MAX_RETRY_AFTER_SECONDS);
+    }
+
+    synchronized long reservedBytes() {
+        return reservedBytes;
+    }
+
+    long budgetBytes() {
+        return budgetBytes;
+    }
+
+    private void reserve(String analysisId, long bytes) {
+        if (reservations.isEmpty()) {
+            // 쉬고 있던 시간은 반납 속도 계산에서 뺀다
+            lastDrainNanos = clock.getAsLong();
+        }
+        reservations.merge(analysisId, bytes, Long::sum);
+        reservedBytes += bytes;
+    }
+}
@@ -0,0 +1,99 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.model.AccessLogEntry;
+import benny.accessloganalyzer.parser.AccessLogCsvParser;
+import benny.accessloganalyzer.parser.ParseSession;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 파일 앞부분을 표본으로 파싱해 분석 한 건이 쓸 힙을 추정한다.
+ * 집계 메모리는 라인 수가 아니라 경로/IP의 고유 키 수에 비례하므로, 표본의 고유 키 비율로 전체 고유 키 수를 외삽한다.
+ */
+final class HeapEstimator {
+
+    static final int SAMPLE_BYTES = 256 * 1024;
+    // 파서 버퍼, 상태코드 맵 등 키 수와 무관한 고정 비용
+    static final long BASE_BYTES = 2L * 1024 * 1024;
+    // HashMap 노드 + 테이블 슬롯 + Long + String/byte[] 헤더
+    private static final int PER_KEY_OVERHEAD_BYTES = 96;
+    // 완료 시 SortedCounts 로 옮기는 동안 HashMap 과 정렬 배열이 잠시 함께 존재한다
+    private static final int RESULT_CONVERSION_FACTOR = 2;
+
+    private final AccessLogCsvParser parser;
+
+    HeapEstimator(AccessLogCsvParser parser) {
+        this.parser = parser;
+    }
+
+    long estimate(Path file) throws IOException {
+        long fileSize = Files.size(file);
+        Sample sample = new Sample();
+        ParseSession session = parser.newSession(sample);
+
+        long sampledBytes = 0;
+        // 본 파싱과 같이 잘못된 바이트는 대체 문자로 읽는다 (newBufferedReader 는 예외를 던진다)
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while (sampledBytes < SAMPLE_BYTES && (line = reader.readLine()) != null) {
+                sampledBytes += line.getBytes(StandardCharsets.UTF_8).length + 1;
+                session.acceptLine(line);
+            }
+        }
+        return estimate(fileSize, sampledBytes, sample);
+    }
+
+    private static long estimate(long fileSize, long sampledBytes, Sample sample) {
+        if (sample.lines == 0 || sampledBytes == 0) {
+            return BASE_BYTES;
+        }
+        double scale = Math.max(1.0, (double) fileSize / sampledBytes);
+        long keyBytes = projectedKeyBytes(sample.paths, sample.pathChars, sample.lines, scale)
+                + projectedKeyBytes(sample.ips, sample.ipChars, sample.lines, scale);
+        return BASE_BYTES + keyBytes * RESULT_CONVERSION_FACTOR;
+    }
+
+    /**
+     * 고유 키 수는 표본의 고유 비율을 지수로 삼아 외삽한다.
+     * 모두 고유하면(비율 1) 파일 크기에 선형으로, 같은 키가 반복되면 거의 늘지 않는다.
+     */
+    private static long projectedKeyBytes(Set<String> keys, long keyChars, long lines, double scale) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        double distinctRatio = (double) keys.size() / lines;
+        double exponent = Math.max(0.5, distinctRatio);
+        double projectedKeys = Math.min(lines * scale, keys.size() * Math.pow(scale, exponent));
+        double avgKeyBytes = (double) keyChars / keys.size();
+        return (long) (projectedKeys * (PER_KEY_OVERHEAD_BYTES + avgKeyBytes));
+    }
+
+    private static final class Sample implements Consumer<AccessLogEntry> {
+
+        private final Set<String> paths = new HashSet<>();
+        private final Set<String> ips = new HashSet<>();
+        private long pathChars;
+        private long ipChars;
+        private long lines;
+
+        @Override
+        public void accept(AccessLogEntry entry) {
+            lines++;
+            if (paths.add(entry.requestUri())) {
+                pathChars += entry.requestUri().length();
+            }
+            if (ips.add(entry.clientIp())) {
+                ipChars += entry.clientIp().length();
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package benny.accessloganalyzer.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * 임의의 위치에서 잘린 바이트 조각들을 받아 개행 단위의 라인으로 조립한다.
+ * 마지막 개행 이후 바이트는 carry 로 남겨 다음 조각 앞에 붙이므로, 멀티바이트 문자나 CRLF 가 경계에 걸려도 안전하다.
+ * 스레드 안전하지 않다.
+ */
+final class LineAssembler {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Consumer<String> lineConsumer;
+    private final int maxCarryBytes;
+    private byte[] carry = EMPTY;
+
+    LineAssembler(Consumer<String> lineConsumer, int maxCarryBytes) {
+        this.lineConsumer = lineConsumer;
+        this.maxCarryBytes = maxCarryBytes;
+    }
+
+    /**
+     * 완결된 라인을 넘기고 남은 바이트는 carry 에 보관한다.
+     *
+     * @throws IllegalStateException 한 라인이 maxCarryBytes 를 넘는 경우
+     */
+    void feed(byte[] bytes, int offset, int length) {
+        int end = offset + length;
+        int lineStart = offset;
+        for (int i = offset; i < end; i++) {
+            if (bytes[i] != '\n') {
+                continue;
+            }
+            if (carry.length > 0) {
+                byte[] joined = Arrays.copyOf(carry, carry.length + (i - lineStart));
+                System.arraycopy(bytes, lineStart, joined, carry.length, i - lineStart);
+                carry = EMPTY;
+                emit(joined, 0, joined.length);
+            } else {
+                emit(bytes, lineStart, i - lineStart);
+            }
+            lineStart = i + 1;
+        }
+
+        int remaining = end - lineStart;
+        if (carry.length + remaining > maxCarryBytes) {
+            throw new IllegalStateException("라인 길이가 허용 범위를 초과했습니다 (최대 " + maxCarryBytes + "바이트)");
+        }
+        if (remaining > 0) {
+            byte[] next = Arrays.copyOf(carry, carry.length + remaining);
+            System.arraycopy(bytes, lineStart, next, carry.length, remaining);
+            carry = next;
+        }
+    }
+
+    /**
+     * 남은 carry 를 마지막 라인으로 넘긴다.
+     */
+    void flush() {
+        if (carry.length > 0) {
+            byte[] last = carry;
+            carry = EMPTY;
+            emit(last, 0, last.length);
+        }
+    }
+
+    void reset() {
+        carry = EMPTY;
+    }
+
+    private void emit(byte[] bytes, int offset, int length) {
+        if (length > 0 && bytes[offset + length - 1] == '\r') {
+            length--;
+        }
+        lineConsumer.accept(new String(bytes, offset, length, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,287 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.model.PartialResult;
+import benny.accessloganalyzer.model.TailWindow;
+import benny.accessloganalyzer.parser.AccessLogCsvParser;
+import benny.accessloganalyzer.parser.ParseSession;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * 기록 중인 로그 파일 하나를 tail -F 처럼 따라 읽어 최근 5/15/60분 집계를 유지한다.
+ * 로테이션(같은 경로에 다른 파일)이면 이전 파일의 남은 부분을 마저 읽고 새 파일의 처음으로 넘어가고,
+ * 잘림(copytruncate)이면 같은 파일의 처음부터 다시 읽는다. 읽기 오류가 나면 파일을 닫되 파일 식별자와 읽은 위치는 남겨 두어,
+ * 다시 열었을 때 같은 파일이면 그 위치부터 이어 읽는다 (중복 집계도 누락도 없이).
+ * 집계 시각은 로그의 타임스탬프가 아니라 라인을 읽은 시각 기준이다.
+ */
+@Slf4j
+@Service
+public class LiveTailService {
+
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_LINE_BYTES = 1024 * 1024;
+
+    private final AccessLogCsvParser parser;
+    private final Path file;
+    private final long pollIntervalMs;
+    private final boolean fromStart;
+    private final Clock clock;
+    private final MinuteWindowAggregator windows = new MinuteWindowAggregator();
+
+    // 추적 스레드에서만 접근한다. fileKey 와 offset 은 읽기 오류로 channel 을 닫은 뒤에도 이어 읽기 위해 남긴다
+    private FileChannel channel;
+    private Object fileKey;
+    private long offset;
+    private LineAssembler lines;
+
+    private Thread tailer;
+
+    @Autowired
+    public LiveTailService(
+            AccessLogCsvParser parser,
+            @Value("${analysis.tail.file:}") String file,
+            @Value("${analysis.tail.poll-interval-ms:1000}") long pollIntervalMs,
+            @Value("${analysis.tail.from-start:false}") boolean fromStart) {
+        this(parser, file.isBlank() ? null : Path.of(file), pollIntervalMs, fromStart, Clock.systemDefaultZone());
+    }
+
+    LiveTailService(AccessLogCsvParser parser, Path file, long pollIntervalMs, boolean fromStart, Clock clock) {
+        this.parser = parser;
+        this.file = file;
+        this.pollIntervalMs = pollIntervalMs;
+        this.fromStart = fromStart;
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return file != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        tailer = Thread.ofPlatform().name("log-tail").daemon().unstarted(this::tailLoop);
+        tailer.start();
+        log.info("실시간 추적 시작: file={}, fromStart={}", file, fromStart);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (tailer != null) {
+            tailer.interrupt();
+        }
+    }
+
+    private void tailLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                poll();
+                Thread.sleep(pollIntervalMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeChannel();
+        }
+    }
+
+    /**
+     * pollOnce 를 한 번 실행하고, 읽기 오류가 나면 파일만 닫는다. 다음 poll 에서 같은 파일을 다시 열어 읽던 위치부터 이어 읽는다.
+     */
+    void poll() {
+        try {
+            pollOnce();
+        } catch (IOException | RuntimeException e) {
+            log.warn("실시간 추적 읽기 실패, 다음 주기에 이어 읽습니다: file={}, offset={}", file, offset, e);
+            closeChannel();
+        }
+    }
+
+    /**
+     * 현재 파일에 새로 쓰인 바이트를 읽고, 로테이션·잘림을 확인한다.
+     *
+     * @return 이번에 읽은 바이트 수
+     */
+    long pollOnce() throws IOException {
+        long read = channel != null ? drain() : 0;
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            // 로테이션 도중이면 새 파일이 생길 때까지 기다린다
+            return read;
+        }
+        Object currentKey = keyOf(attributes);
+
+        if (channel == null) {
+            if (fileKey == null) {
+                open(attributes, currentKey, !fromStart);
+            } else {
+                reopen(attributes, currentKey);
+            }
+            return read + drain();
+        }
+        if (!currentKey.equals(fileKey)) {
+            // 이전 파일은 위에서 끝까지 읽었으므로 남은 carry 를 마지막 라인으로 처리하고 새 파일로 넘어간다
+            log.info("실시간 추적 로테이션 감지: file={}", file);
+            lines.flush();
+            closeChannel();
+            open(attributes, currentKey, false);
+            return read + drain();
+        }
+        if (channel.size() < offset) {
+            log.info("실시간 추적 잘림 감지: file={}, offset={}, size={}", file, offset, channel.size());
+            offset = 0;
+            lines = newLines(true);
+            return read + drain();
+        }
+        return read;
+    }
+
+    /**
+     * 최근 minutes 분 집계를 조회한다. 현재 분(진행 중)을 포함한다.
+     */
+    public TailWindow window(int minutes, int topN) {
+        if (!isEnabled()) {
+            throw BusinessException.tailNotEnabled("실시간 추적 파일이 설정되지 않았습니다 (analysis.tail.file)");
+        }
+        if (minutes < 1 || minutes > MinuteWindowAggregator.MAX_WINDOW_MINUTES) {
+            throw BusinessException.invalidParameter(
+                    "window 파라미터는 1에서 " + MinuteWindowAggregator.MAX_WINDOW_MINUTES + " 사이여야 합니다.");
+        }
+
+        long nowMinute = currentMinute();
+        LogAggregator merged = windows.window(minutes, nowMinute);
+        PartialResult top = merged.snapshot(topN);
+        return new TailWindow(
+                file.toString(),
+                minutes,
+                toDateTime(nowMinute - minutes + 1),
+                toDateTime(nowMinute + 1),
+                top.processedRequests(),
+                merged.statusGroupCounts(),
+                top.topStatusCodes(),
+                top.topPaths(),
+                top.topIps()
+        );
+    }
+
+    private void open(BasicFileAttributes attributes, Object key, boolean atEnd) throws IOException {
+        channel = openChannel();
+        long start = atEnd ? lastLineStart(attributes.size()) : 0;
+        // 위치를 다 구한 뒤에 기록해, 여는 도중 실패하면 다음 poll 이 처음 여는 것처럼 다시 시작한다
+        fileKey = key;
+        offset = start;
+        // 파일 처음부터 읽을 때만 첫 줄이 헤더다
+        lines = newLines(offset == 0);
+    }
+
+    /**
+     * 읽기 오류로 닫았던 파일을 다시 연다. 같은 파일이고 읽던 위치보다 짧지 않으면 그 위치와 조립 중이던 라인을 그대로 이어 가고,
+     * 그사이 잘렸으면 처음부터, 로테이션됐으면 이전 파일의 남은 부분은 읽을 수 없으므로 새 파일의 처음부터 읽는다.
+     */
+    private void reopen(BasicFileAttributes attributes, Object key) throws IOException {
+        if (!key.equals(fileKey)) {
+            log.info("실시간 추적 로테이션 감지 (읽기 오류 복구 중): file={}", file);
+            lines.flush();
+            open(attributes, key, false);
+            return;
+        }
+        channel = openChannel();
+        if (attributes.size() < offset) {
+            log.info("실시간 추적 잘림 감지 (읽기 오류 복구 중): file={}, offset={}, size={}", file, offset, attributes.size());
+            offset = 0;
+            lines = newLines(true);
+        }
+    }
+
+    FileChannel openChannel() throws IOException {
+        return FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    private LineAssembler newLines(boolean hasHeader) {
+        ParseSession session = hasHeader
+                ? parser.newSession(entry -> windows.accept(entry, currentMinute()))
+                : parser.newHeaderlessSession(entry -> windows.accept(entry, currentMinute()));
+        return new LineAssembler(session::acceptLine, MAX_LINE_BYTES);
+    }
+
+    /**
+     * 끝에서부터 붙는 경우, 아직 개행이 오지 않은 마지막 라인은 완성되면 통째로 읽도록 그 시작 위치에서 출발한다.
+     */
+    private long lastLineStart(long size) throws IOException {
+        long searchFrom = Math.max(0, size - MAX_LINE_BYTES);
+        ByteBuffer buffer = ByteBuffer.allocate((int) (size - searchFrom));
+        channel.read(buffer, searchFrom);
+        byte[] bytes = buffer.array();
+        for (int i = buffer.position() - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') {
+                return searchFrom + i + 1;
+            }
+        }
+        return searchFrom;
+    }
+
+    private long drain() throws IOException {
+        long before = offset;
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        int read;
+        while ((read = channel.read(buffer, offset)) > 0) {
+            try {
+                lines.feed(buffer.array(), 0, read);
+            } catch (IllegalStateException e) {
+                log.warn("실시간 추적 라인 길이 초과, 해당 라인을 건너뜁니다: file={}", file);
+                lines.reset();
+            }
+            offset += read;
+            buffer.clear();
+        }
+        return offset - before;
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("실시간 추적 파일 닫기 실패: file={}", file, e);
+        }
+        channel = null;
+    }
+
+    private long currentMinute() {
+        return Math.floorDiv(clock.millis(), 60_000L);
+    }
+
+    private LocalDateTime toDateTime(long epochMinute) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochMinute * 60), clock.getZone());
+    }
+
+    private Object keyOf(BasicFileAttributes attributes) {
+        Object key = attributes.fileKey();
+        return key != null ? key : attributes.creationTime();
+    }
+}
@@ -0,0 +1,84 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.model.AccessLogEntry;
+import benny.accessloganalyzer.model.AnalysisResult;
+import benny.accessloganalyzer.model.PartialResult;
+import benny.accessloganalyzer.model.SortedCounts;
+import benny.accessloganalyzer.parser.ParseResult;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 파싱된 로그 항목을 상태코드/상태그룹/경로/IP별로 단일 패스 집계한다. 스레드 안전하지 않다.
+ */
+class LogAggregator implements Consumer<AccessLogEntry> {
+
+    private final Map<String, Long> statusCodeCounts = new HashMap<>();
+    private final Map<String, Long> statusGroupCounts = new HashMap<>();
+    private final Map<String, Long> pathCounts = new HashMap<>();
+    private final Map<String, Long> ipCounts = new HashMap<>();
+    private long entries;
+
+    @Override
+    public void accept(AccessLogEntry entry) {
+        entries++;
+        statusCodeCounts.merge(String.valueOf(entry.httpStatus()), 1L, Long::sum);
+        statusGroupCounts.merge((entry.httpStatus() / 100) + "xx", 1L, Long::sum);
+        pathCounts.merge(entry.requestUri(), 1L, Long::sum);
+        ipCounts.merge(entry.clientIp(), 1L, Long::sum);
+    }
+
+    /**
+     * 다른 집계를 이 집계에 더한다. 구간별 부분 집계를 합칠 때 쓴다.
+     */
+    void addAll(LogAggregator other) {
+        entries += other.entries;
+        other.statusCodeCounts.forEach((key, count) -> statusCodeCounts.merge(key, count, Long::sum));
+        other.statusGroupCounts.forEach((key, count) -> statusGroupCounts.merge(key, count, Long::sum));
+        other.pathCounts.forEach((key, count) -> pathCounts.merge(key, count, Long::sum));
+        other.ipCounts.forEach((key, count) -> ipCounts.merge(key, count, Long::sum));
+    }
+
+    Map<String, Long> statusGroupCounts() {
+        return SortedCounts.of(statusGroupCounts);
+    }
+
+    /**
+     * 현재까지의 집계에서 차원별 상위 topN 을 뽑는다. 집계 스레드에서 호출해야 한다.
+     */
+    PartialResult snapshot(int topN) {
+        return new PartialResult(entries, top(pathCounts, topN), top(statusCodeCounts, topN), top(ipCounts, topN));
+    }
+
+    private static Map<String, Long> top(Map<String, Long> counts, int topN) {
+        TopN<Map.Entry<String, Long>> top = new TopN<>(topN, TopN.BY_COUNT_DESC);
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            top.offer(entry);
+        }
+
+        Map<String, Long> ranked = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : top.toList()) {
+            ranked.put(entry.getKey(), entry.getValue());
+        }
+        return ranked;
+    }
+
+    AnalysisResult toResult(String analysisId, ParseResult parseResult) {
+        return new AnalysisResult(
+                analysisId,
+                LocalDateTime.now(),
+                parseResult.successCount(),
+                SortedCounts.of(statusCodeCounts),
+                SortedCounts.of(statusGroupCounts),
+                SortedCounts.of(pathCounts),
+                SortedCounts.of(ipCounts),
+                parseResult.totalLines(),
+                parseResult.errorCount(),
+                parseResult.errorSamples()
+        );
+    }
+}
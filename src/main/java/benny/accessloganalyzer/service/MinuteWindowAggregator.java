@@ -0,0 +1,49 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.model.AccessLogEntry;
+
+/**
+ * 최근 60분을 분 단위 부분 집계의 링 버퍼로 보관한다.
+ * 윈도 조회는 원본을 다시 훑지 않고 해당 구간의 부분 집계(최대 60개)만 합친다.
+ * 쓰기(추적 스레드)와 조회(요청 스레드)는 이 객체의 모니터로 직렬화한다.
+ */
+final class MinuteWindowAggregator {
+
+    static final int MAX_WINDOW_MINUTES = 60;
+
+    private final MinuteBucket[] ring = new MinuteBucket[MAX_WINDOW_MINUTES];
+
+    synchronized void accept(AccessLogEntry entry, long epochMinute) {
+        int slot = (int) Math.floorMod(epochMinute, (long) MAX_WINDOW_MINUTES);
+        MinuteBucket bucket = ring[slot];
+        if (bucket == null || bucket.epochMinute != epochMinute) {
+            // 한 바퀴 돈 슬롯은 60분 이전 집계이므로 버린다
+            bucket = new MinuteBucket(epochMinute);
+            ring[slot] = bucket;
+        }
+        bucket.counts.accept(entry);
+    }
+
+    /**
+     * (nowMinute - minutes, nowMinute] 구간의 부분 집계를 합친다.
+     */
+    synchronized LogAggregator window(int minutes, long nowMinute) {
+        LogAggregator merged = new LogAggregator();
+        for (MinuteBucket bucket : ring) {
+            if (bucket != null && bucket.epochMinute <= nowMinute && bucket.epochMinute > nowMinute - minutes) {
+                merged.addAll(bucket.counts);
+            }
+        }
+        return merged;
+    }
+
+    private static final class MinuteBucket {
+
+        private final long epochMinute;
+        private final LogAggregator counts = new LogAggregator();
+
+        private MinuteBucket(long epochMinute) {
+            this.epochMinute = epochMinute;
+        }
+    }
+}
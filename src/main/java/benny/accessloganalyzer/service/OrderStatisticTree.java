@@ -0,0 +1,131 @@
+package benny.accessloganalyzer.service;
+
+import java.util.SplittableRandom;
+
+/**
+ * 서브트리 크기를 유지하는 트립(treap). 삽입/삭제/순위 조회가 모두 기대 O(log n)이다.
+ * 스레드 안전하지 않으므로 호출 측에서 동기화해야 한다.
+ */
+final class OrderStatisticTree<K extends Comparable<? super K>> {
+
+    private final SplittableRandom random = new SplittableRandom();
+    private Node<K> root;
+
+    boolean add(K key) {
+        if (contains(key)) {
+            return false;
+        }
+        Split<K> split = split(root, key, false);
+        root = merge(merge(split.left(), new Node<>(key, random.nextInt())), split.right());
+        return true;
+    }
+
+    boolean remove(K key) {
+        Split<K> lower = split(root, key, false);
+        Split<K> upper = split(lower.right(), key, true);
+        root = merge(lower.left(), upper.right());
+        return upper.left() != null;
+    }
+
+    boolean contains(K key) {
+        Node<K> node = root;
+        while (node != null) {
+            int cmp = key.compareTo(node.key);
+            if (cmp == 0) {
+                return true;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    /**
+     * key 이하인 원소의 개수 (1-based 순위와 같다).
+     */
+    int rank(K key) {
+        int rank = 0;
+        Node<K> node = root;
+        while (node != null) {
+            if (node.key.compareTo(key) <= 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return rank;
+    }
+
+    K first() {
+        Node<K> node = root;
+        if (node == null) {
+            return null;
+        }
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.key;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    private Split<K> split(Node<K> node, K key, boolean inclusive) {
+        if (node == null) {
+            return new Split<>(null, null);
+        }
+        int cmp = node.key.compareTo(key);
+        if (inclusive ? cmp <= 0 : cmp < 0) {
+            Split<K> split = split(node.right, key, inclusive);
+            node.right = split.left();
+            node.update();
+            return new Split<>(node, split.right());
+        }
+        Split<K> split = split(node.left, key, inclusive);
+        node.left = split.right();
+        node.update();
+        return new Split<>(split.left(), node);
+    }
+
+    private Node<K> merge(Node<K> left, Node<K> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private record Split<K>(Node<K> left, Node<K> right) {}
+
+    private static final class Node<K> {
+
+        private final K key;
+        private final int priority;
+        private int size = 1;
+        private Node<K> left;
+        private Node<K> right;
+
+        private Node(K key, int priority) {
+            this.key = key;
+            this.priority = priority;
+        }
+
+        private void update() {
+            size = 1 + OrderStatisticTree.size(left) + OrderStatisticTree.size(right);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.model.AnalysisEntry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 업로드 본문을 임시 파일에 쓰지 않고 받는 대로 바로 파싱하는 스트리밍 분석.
+ * 요청을 분석 시간만큼 붙잡으므로 동시 실행 수를 세마포어로 제한한다. 가상 스레드 모드에서는 파싱(본문 읽기 포함)을 플랫폼 스레드 풀에서 한다.
+ */
+@Slf4j
+@Service
+public class StreamingAnalysisService {
+
+    private final AnalysisService analysisService;
+    private final Semaphore slots;
+    private final long maxBytes;
+    private final Path copyDir;
+
+    @Autowired
+    public StreamingAnalysisService(
+            AnalysisService analysisService,
+            @Value("${analysis.stream.max-concurrent:2}") int maxConcurrent,
+            @Value("${analysis.stream.max-bytes:52428800}") long maxBytes,
+            @Value("${analysis.stream.keep-copy:false}") boolean keepCopy,
+            @Value("${analysis.stream.copy-dir:${java.io.tmpdir}/access-log-analyzer/stream}") String copyDir) {
+        this(analysisService, maxConcurrent, maxBytes, keepCopy ? Path.of(copyDir) : null);
+    }
+
+    StreamingAnalysisService(AnalysisService analysisService, int maxConcurrent, long maxBytes, Path copyDir) {
+        this.analysisService = analysisService;
+        this.slots = new Semaphore(maxConcurrent);
+        this.maxBytes = maxBytes;
+        this.copyDir = copyDir;
+    }
+
+    public AnalysisEntry analyze(InputStream body) {
+        if (!slots.tryAcquire()) {
+            throw BusinessException.analysisQueueFull("동시 스트리밍 분석 수를 초과했습니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        try {
+            if (copyDir == null) {
+                return analysisService.analyzeInline(new StreamingUploadInputStream(body, maxBytes, null));
+            }
+            return analyzeWithCopy(body);
+        } finally {
+            slots.release();
+        }
+    }
+
+    private AnalysisEntry analyzeWithCopy(InputStream body) {
+        Path copyFile;
+        try {
+            Files.createDirectories(copyDir);
+            copyFile = Files.createTempFile(copyDir, "access-log-", ".csv");
+        } catch (IOException e) {
+            throw BusinessException.invalidLogFile("업로드 사본 파일을 만들 수 없습니다: " + e.getMessage());
+        }
+
+        boolean completed = false;
+        try (OutputStream copy = new BufferedOutputStream(Files.newOutputStream(copyFile))) {
+            AnalysisEntry entry = analysisService.analyzeInline(new StreamingUploadInputStream(body, maxBytes, copy));
+            completed = true;
+            log.info("스트리밍 업로드 사본 저장: analysisId={}, file={}", entry.getAnalysisId(), copyFile);
+            return entry;
+        } catch (IOException e) {
+            throw BusinessException.invalidLogFile("업로드 사본 파일을 쓸 수 없습니다: " + e.getMessage());
+        } finally {
+            if (!completed) {
+                deleteCopy(copyFile);
+            }
+        }
+    }
+
+    private void deleteCopy(Path copyFile) {
+        try {
+            Files.deleteIfExists(copyFile);
+        } catch (IOException e) {
+            log.warn("업로드 사본 삭제 실패: {}", copyFile, e);
+        }
+    }
+}
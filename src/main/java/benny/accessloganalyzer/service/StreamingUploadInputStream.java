@@ -0,0 +1,84 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.global.exception.BusinessException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 요청 본문을 파서로 넘기면서 읽은 바이트 수를 제한하고, 필요하면 같은 바이트를 디스크 사본에도 기록한다.
+ * 파서가 읽는 만큼만 소켓에서 읽으므로 파서가 느리면 업로드도 TCP 수준에서 느려진다 (본문을 메모리에 쌓지 않음).
+ */
+final class StreamingUploadInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+    private final OutputStream copy;
+    private long bytesRead;
+
+    StreamingUploadInputStream(InputStream in, long maxBytes, OutputStream copy) {
+        super(in);
+        this.maxBytes = maxBytes;
+        this.copy = copy;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            onRead(1);
+            if (copy != null) {
+                copy.write(b);
+            }
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = super.read(buffer, offset, length);
+        if (n > 0) {
+            onRead(n);
+            if (copy != null) {
+                copy.write(buffer, offset, n);
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        if (n <= 0) {
+            return 0;
+        }
+        // 사본과 바이트 수가 어긋나지 않도록 skip 도 read 로 처리
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    long getBytesRead() {
+        return bytesRead;
+    }
+
+    private void onRead(int n) {
+        bytesRead += n;
+        if (bytesRead > maxBytes) {
+            throw BusinessException.invalidLogFile(
+                    "파일 크기가 허용 범위를 초과했습니다 (최대 " + maxBytes / (1024 * 1024) + "MB)");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.model.AnalysisEntry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 작은 파일을 큐를 거치지 않고 요청 안에서 바로 분석하는 전용 레인. 가상 스레드 모드에서는 파싱만 플랫폼 스레드 풀에서 한다.
+ * 크기 상한을 넘는 파일은 레인에 들어오지 못하고, 레인이 가득 차면 호출 측이 비동기 큐로 넘긴다.
+ */
+@Slf4j
+@Service
+public class SyncAnalysisService {
+
+    private final AnalysisService analysisService;
+    private final long maxBytes;
+    private final Semaphore lane;
+
+    public SyncAnalysisService(
+            AnalysisService analysisService,
+            @Value("${analysis.sync.max-bytes:1048576}") long maxBytes,
+            @Value("${analysis.sync.max-concurrent:4}") int maxConcurrent) {
+        this.analysisService = analysisService;
+        this.maxBytes = maxBytes;
+        this.lane = new Semaphore(maxConcurrent);
+    }
+
+    public boolean isEligible(long size) {
+        return size <= maxBytes;
+    }
+
+    /**
+     * 크기 상한 이하이고 레인에 자리가 있으면 바로 분석한다. 그렇지 않으면 빈 값을 반환한다.
+     */
+    public Optional<AnalysisEntry> tryAnalyze(long size, InputStreamSource source) {
+        if (!isEligible(size)) {
+            return Optional.empty();
+        }
+        if (!lane.tryAcquire()) {
+            log.debug("동기 분석 레인 포화, 비동기 큐로 전환: size={}", size);
+            return Optional.empty();
+        }
+
+        try (InputStream inputStream = source.getInputStream()) {
+            return Optional.of(analysisService.analyzeInline(inputStream));
+        } catch (IOException e) {
+            throw BusinessException.invalidLogFile("파일을 읽을 수 없습니다: " + e.getMessage());
+        } finally {
+            lane.release();
+        }
+    }
+}
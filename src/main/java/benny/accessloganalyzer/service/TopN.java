@@ -0,0 +1,46 @@
+package benny.accessloganalyzer.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 상위 N개만 유지하는 고정 크기 힙. 전체 정렬 없이 O(n log N)으로 순위를 뽑는다.
+ */
+final class TopN<T> {
+
+    static final Comparator<Map.Entry<String, Long>> BY_COUNT_DESC =
+            Map.Entry.<String, Long>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey());
+
+    private final int limit;
+    private final Comparator<? super T> rank;
+    // 힙의 head가 현재 상위 N개 중 가장 순위가 낮은 원소
+    private final PriorityQueue<T> heap;
+
+    TopN(int limit, Comparator<? super T> rank) {
+        this.limit = limit;
+        this.rank = rank;
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(limit, 1024)), rank.reversed());
+    }
+
+    void offer(T candidate) {
+        if (limit <= 0) {
+            return;
+        }
+        if (heap.size() < limit) {
+            heap.add(candidate);
+        } else if (rank.compare(candidate, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(candidate);
+        }
+    }
+
+    List<T> toList() {
+        List<T> result = new ArrayList<>(heap);
+        result.sort(rank);
+        return result;
+    }
+}
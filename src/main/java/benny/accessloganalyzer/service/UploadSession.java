@@ -0,0 +1,77 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.model.AnalysisEntry;
+import benny.accessloganalyzer.parser.ParseSession;
+
+/**
+ * 청크 업로드 한 건의 진행 상태. 청크 경계에서 잘린 라인은 LineAssembler 가 다음 청크와 이어 붙인다.
+ * 청크 적용은 세션 단위로 직렬화된다.
+ */
+class UploadSession {
+
+    private final String uploadId;
+    private final AnalysisEntry entry;
+    private final LogAggregator aggregator;
+    private final ParseSession parseSession;
+    private final LineAssembler lines;
+    private int nextChunkIndex;
+    private long receivedBytes;
+    private volatile long lastAccessNanos = System.nanoTime();
+
+    UploadSession(String uploadId, AnalysisEntry entry, LogAggregator aggregator, ParseSession parseSession,
+                  int maxCarryBytes) {
+        this.uploadId = uploadId;
+        this.entry = entry;
+        this.aggregator = aggregator;
+        this.parseSession = parseSession;
+        this.lines = new LineAssembler(parseSession::acceptLine, maxCarryBytes);
+    }
+
+    /**
+     * 청크의 완결된 라인을 파서에 넣고, 마지막 개행 이후 바이트는 다음 청크로 넘긴다.
+     */
+    void applyChunk(byte[] chunk) {
+        lines.feed(chunk, 0, chunk.length);
+        nextChunkIndex++;
+        receivedBytes += chunk.length;
+    }
+
+    /**
+     * 남은 carry 를 마지막 라인으로 처리한다.
+     */
+    void flush() {
+        lines.flush();
+    }
+
+    void touch() {
+        lastAccessNanos = System.nanoTime();
+    }
+
+    boolean isIdleFor(long nanos) {
+        return System.nanoTime() - lastAccessNanos >= nanos;
+    }
+
+    String getUploadId() {
+        return uploadId;
+    }
+
+    AnalysisEntry getEntry() {
+        return entry;
+    }
+
+    LogAggregator getAggregator() {
+        return aggregator;
+    }
+
+    ParseSession getParseSession() {
+        return parseSession;
+    }
+
+    int getNextChunkIndex() {
+        return nextChunkIndex;
+    }
+
+    long getReceivedBytes() {
+        return receivedBytes;
+    }
+}
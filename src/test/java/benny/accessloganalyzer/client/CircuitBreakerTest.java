@@ -0,0 +1,144 @@
+package benny.accessloganalyzer.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private final long[] now = {0};
+    // 최근 10번 중 최소 4번 호출, 실패율 50% 이상이면 1초 동안 열림, 시험 호출 2번
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 10, 4, 50, 1000, 2, () -> now[0]);
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onFailure();
+        }
+    }
+
+    private void succeed(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onSuccess();
+        }
+    }
+
+    private void advanceMillis(long millis) {
+        now[0] += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @DisplayName("최소 호출 수를 채우기 전에는 모두 실패해도 열리지 않는다")
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        fail(3);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @DisplayName("실패율이 임계치를 넘으면 열려서 호출을 바로 거절한다")
+    @Test
+    void opensWhenFailureRateCrossesThreshold() {
+        succeed(3);
+        fail(2);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        fail(1);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @DisplayName("오래된 성공은 창에서 밀려나 최근 호출만으로 실패율을 계산한다")
+    @Test
+    void slidingWindowForgetsOldResults() {
+        CircuitBreaker narrow = new CircuitBreaker("narrow", 4, 4, 50, 1000, 1, () -> now[0]);
+        for (int i = 0; i < 4; i++) {
+            narrow.tryAcquire();
+            narrow.onSuccess();
+        }
+        narrow.tryAcquire();
+        narrow.onFailure();
+        assertThat(narrow.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        // 전체로는 6번 중 2번(33%)이지만 최근 4번 중 2번(50%)
+        narrow.tryAcquire();
+        narrow.onFailure();
+
+        assertThat(narrow.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @DisplayName("열린 뒤에 돌아온 응답은 집계하지 않는다")
+    @Test
+    void ignoresLateResultsWhileOpen() {
+        fail(4);
+        breaker.onSuccess();
+        breaker.onFailure();
+        advanceMillis(1000);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+
+    @DisplayName("열린 시간이 지나면 시험 호출만 통과시키고, 모두 성공하면 닫힌다")
+    @Test
+    void halfOpenProbesCloseOnSuccess() {
+        fail(4);
+        advanceMillis(999);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        advanceMillis(1);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        breaker.onSuccess();
+        breaker.onSuccess();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @DisplayName("시험 호출이 실패하면 다시 열린다")
+    @Test
+    void halfOpenFailureReopens() {
+        fail(4);
+        advanceMillis(1000);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @DisplayName("허가를 받고 호출하지 않으면 시험 호출 자리를 돌려받는다")
+    @Test
+    void releaseReturnsProbe() {
+        fail(4);
+        advanceMillis(1000);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.release();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @DisplayName("disabled 차단기는 실패만 있어도 열리지 않는다")
+    @Test
+    void disabledNeverOpens() {
+        CircuitBreaker disabled = CircuitBreaker.disabled();
+        for (int i = 0; i < 100; i++) {
+            assertThat(disabled.tryAcquire()).isTrue();
+            disabled.onFailure();
+        }
+
+        assertThat(disabled.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+}
@@ -0,0 +1,176 @@
+package benny.accessloganalyzer.client;
+
+import benny.accessloganalyzer.global.config.IpInfoConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IpInfoCacheStoreTest {
+
+    private static final Duration TTL = Duration.ofHours(1);
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    private Cache<String, IpInfo> newCache() {
+        return new IpInfoConfig().ipInfoCache(100, TTL.toSeconds());
+    }
+
+    private IpInfoCacheStore store(Cache<String, IpInfo> cache, Instant now) {
+        return new IpInfoCacheStore(cache, dir.resolve("ipinfo-cache.bin"), TTL, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    @DisplayName("저장한 스냅샷을 새 캐시로 복원하면 IPv4·IPv6·비표준 키가 모두 그대로 돌아온다")
+    @Test
+    void roundTripsEntries() throws Exception {
+        Cache<String, IpInfo> cache = newCache();
+        cache.put("203.0.113.7", new IpInfo("KR", "Seoul", "Seoul", "AS4766 Korea Telecom"));
+        cache.put("2001:db8:0:0:0:0:0:1", new IpInfo("US", "California", "San Jose", "AS15169 Google LLC"));
+        cache.put("::1", new IpInfo("UNKNOWN", null, null, null));
+        assertThat(store(cache, T0).save()).isEqualTo(3);
+
+        Cache<String, IpInfo> restored = newCache();
+        store(restored, T0);
+
+        assertThat(restored.asMap()).containsExactlyInAnyOrderEntriesOf(cache.asMap());
+    }
+
+    @DisplayName("복원한 항목은 저장 시점에 남아 있던 TTL만큼만 유지된다")
+    @Test
+    void preservesRemainingTtl() throws Exception {
+        Cache<String, IpInfo> cache = newCache();
+        cache.put("203.0.113.7", new IpInfo("KR", "Seoul", "Seoul", "KT"));
+        store(cache, T0).save();
+
+        Cache<String, IpInfo> restored = newCache();
+        store(restored, T0.plus(Duration.ofMinutes(50)));
+
+        Duration remaining = restored.policy().expireVariably().orElseThrow()
+                .getExpiresAfter("203.0.113.7").orElseThrow();
+        assertThat(remaining).isPositive().isLessThanOrEqualTo(Duration.ofMinutes(10));
+    }
+
+    @DisplayName("스냅샷 이후 TTL이 지난 항목은 복원하지 않는다")
+    @Test
+    void skipsExpiredEntries() throws Exception {
+        Cache<String, IpInfo> cache = newCache();
+        cache.put("203.0.113.7", new IpInfo("KR", "Seoul", "Seoul", "KT"));
+        store(cache, T0).save();
+
+        Cache<String, IpInfo> restored = newCache();
+        store(restored, T0.plus(Duration.ofHours(2)));
+
+        assertThat(restored.asMap()).isEmpty();
+    }
+
+    @DisplayName("같은 값 문자열은 파일에 한 번만 쓰고 복원 시 같은 인스턴스를 공유한다")
+    @Test
+    void internsRepeatedStrings() throws Exception {
+        Cache<String, IpInfo> cache = newCache();
+        for (int i = 0; i < 50; i++) {
+            cache.put("10.0.0." + i, new IpInfo("KR", "Seoul", "Seoul", "AS4766 Korea Telecom"));
+        }
+        store(cache, T0).save();
+
+        Cache<String, IpInfo> restored = newCache();
+        store(restored, T0);
+
+        assertThat(restored.getIfPresent("10.0.0.1").org()).isSameAs(restored.getIfPresent("10.0.0.2").org());
+        // 헤더 + 문자열 3개 + 항목당 (키 1+4바이트, 만료 8바이트, 인덱스 16바이트)
+        assertThat(Files.size(dir.resolve("ipinfo-cache.bin"))).isLessThan(50 * 29 + 100);
+    }
+
+    @DisplayName("복원 시 이미 캐시에 있는 IP는 스냅샷 값으로 덮어쓰지 않는다")
+    @Test
+    void keepsFresherEntries() throws Exception {
+        Cache<String, IpInfo> cache = newCache();
+        cache.put("203.0.113.7", new IpInfo("KR", "Seoul", "Seoul", "KT"));
+        store(cache, T0).save();
+
+        Cache<String, IpInfo> restored = newCache();
+        restored.put("203.0.113.7", new IpInfo("JP", "Tokyo", "Tokyo", "NTT"));
+        store(restored, T0);
+
+        assertThat(restored.getIfPresent("203.0.113.7").country()).isEqualTo("JP");
+    }
+
+    @DisplayName("잘리거나 형식이 다른 스냅샷은 무시하고 빈 캐시로 시작한다")
+    @Test
+    void ignoresCorruptSnapshot() throws Exception {
+        Cache<String, IpInfo> cache = newCache();
+        cache.put("203.0.113.7", new IpInfo("KR", "Seoul", "Seoul", "KT"));
+        store(cache, T0).save();
+        Path file = dir.resolve("ipinfo-cache.bin");
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+
+        Cache<String, IpInfo> truncated = newCache();
+        store(truncated, T0);
+        Files.writeString(file, "not a snapshot");
+        Cache<String, IpInfo> garbage = newCache();
+        store(garbage, T0);
+
+        assertThat(truncated.asMap()).isEmpty();
+        assertThat(garbage.asMap()).isEmpty();
+    }
+
+    @DisplayName("개수·길이 필드가 음수이거나 파일보다 크면 배열을 잡지 않고 빈 캐시로 시작한다")
+    @Test
+    void ignoresCorruptLengthFields() throws Exception {
+        Cache<String, IpInfo> cache = newCache();
+        cache.put("203.0.113.7", new IpInfo("KR", "Seoul", "Seoul", "KT"));
+        store(cache, T0).save();
+        Path file = dir.resolve("ipinfo-cache.bin");
+        byte[] original = Files.readAllBytes(file);
+
+        // 매직 다음이 문자열 개수, 그다음이 첫 문자열의 바이트 길이다
+        for (int offset : new int[]{4, 8}) {
+            for (int corrupted : new int[]{-1, Integer.MIN_VALUE, Integer.MAX_VALUE}) {
+                byte[] bytes = original.clone();
+                ByteBuffer.wrap(bytes).putInt(offset, corrupted);
+                Files.write(file, bytes);
+
+                Cache<String, IpInfo> restored = newCache();
+                assertThat(store(restored, T0).load()).isZero();
+                assertThat(restored.asMap()).isEmpty();
+            }
+        }
+    }
+
+    @DisplayName("비활성화하면 스냅샷 파일을 만들지 않는다")
+    @Test
+    void disabledStoreWritesNothing() {
+        Cache<String, IpInfo> cache = newCache();
+        cache.put("203.0.113.7", new IpInfo("KR", "Seoul", "Seoul", "KT"));
+        IpInfoCacheStore store = new IpInfoCacheStore(cache, null, TTL, Clock.systemUTC());
+
+        store.close();
+
+        assertThat(store.isEnabled()).isFalse();
+        assertThat(dir).isEmptyDirectory();
+    }
+
+    @DisplayName("표준 표기 IP만 주소 바이트로 압축하고 호스트 이름이나 비표준 표기는 그대로 둔다")
+    @Test
+    void packsOnlyCanonicalLiterals() {
+        assertThat(IpInfoCacheStore.pack("203.0.113.7")).hasSize(4);
+        assertThat(IpInfoCacheStore.pack("2001:db8:0:0:0:0:0:1")).hasSize(16);
+        assertThat(IpInfoCacheStore.pack("::1")).isNull();
+        assertThat(IpInfoCacheStore.pack("010.0.0.1")).isNull();
+        assertThat(IpInfoCacheStore.pack("example.com")).isNull();
+        assertThat(IpInfoCacheStore.pack("")).isNull();
+    }
+}
@@ -0,0 +1,131 @@
+package benny.accessloganalyzer.client;
+
+import benny.accessloganalyzer.client.IpInfoCallGuard.Result.Outcome;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IpInfoCallGuardTest {
+
+    private final long[] now = {0};
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private Supplier<String> failing() {
+        return () -> {
+            calls.incrementAndGet();
+            throw new ResourceAccessException("Read timed out");
+        };
+    }
+
+    private Supplier<String> throwing(HttpStatus status) {
+        return () -> {
+            calls.incrementAndGet();
+            throw new HttpClientErrorException(status);
+        };
+    }
+
+    private IpInfoCallGuard guard(int maxRetries, CircuitBreaker breaker, TokenBucket rateLimiter) {
+        return new IpInfoCallGuard(maxRetries, 0, 0, breaker, rateLimiter);
+    }
+
+    @DisplayName("성공하면 결과를 반환하고, 실패하면 최대 재시도 횟수까지 다시 호출한 뒤 FAILED 를 반환한다")
+    @Test
+    void retriesUpToMaxRetries() {
+        IpInfoCallGuard guard = IpInfoCallGuard.retriesOnly(2);
+
+        assertThat(guard.call("1.1.1.1", () -> "ok").value()).isEqualTo("ok");
+        assertThat(guard.call("1.1.1.1", failing()).outcome()).isEqualTo(Outcome.FAILED);
+        assertThat(calls).hasValue(3);
+    }
+
+    @DisplayName("차단기가 열리면 호출하지 않고 바로 SKIPPED 를 반환한다")
+    @Test
+    void failsFastWhileOpen() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 10, 4, 50, 30_000, 1, () -> now[0]);
+        IpInfoCallGuard guard = guard(1, breaker, TokenBucket.unlimited());
+        guard.call("a", failing());
+        guard.call("b", failing());
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        calls.set(0);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(guard.call("c", failing()).outcome()).isEqualTo(Outcome.SKIPPED);
+        }
+
+        assertThat(calls).hasValue(0);
+        assertThat(guard.getRejectedByBreaker()).isEqualTo(1000);
+    }
+
+    @DisplayName("재시도 중 차단기가 열리면 남은 재시도를 하지 않고, 이미 호출했으므로 FAILED 를 반환한다")
+    @Test
+    void stopsRetryingOnceOpen() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 10, 2, 50, 30_000, 1, () -> now[0]);
+        IpInfoCallGuard guard = guard(5, breaker, TokenBucket.unlimited());
+
+        assertThat(guard.call("a", failing()).outcome()).isEqualTo(Outcome.FAILED);
+
+        assertThat(calls).hasValue(2);
+    }
+
+    @DisplayName("토큰이 없으면 호출하지 않고 SKIPPED 를 반환하며, 반열림 시험 호출 자리도 쓰지 않는다")
+    @Test
+    void rateLimitRejectsWithoutConsumingProbe() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 10, 1, 50, 1000, 1, () -> now[0]);
+        TokenBucket bucket = new TokenBucket(1, 1, () -> now[0]);
+        IpInfoCallGuard guard = guard(0, breaker, bucket);
+        guard.call("a", failing());
+        now[0] += 1_000_000_000L;
+        bucket.tryAcquire();
+        calls.set(0);
+
+        assertThat(guard.call("b", () -> "ok").outcome()).isEqualTo(Outcome.SKIPPED);
+        assertThat(guard.getRejectedByRateLimit()).isEqualTo(1);
+
+        now[0] += 1_000_000_000L;
+        assertThat(guard.call("c", () -> "ok").value()).isEqualTo("ok");
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @DisplayName("429 를 뺀 4xx 는 재시도하지 않고 차단기 실패로도 세지 않지만, 결과는 FAILED 다")
+    @Test
+    void clientErrorsAreNotRetried() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 10, 1, 50, 30_000, 1, () -> now[0]);
+        IpInfoCallGuard guard = guard(2, breaker, TokenBucket.unlimited());
+
+        assertThat(guard.call("bogus", throwing(HttpStatus.NOT_FOUND)).outcome()).isEqualTo(Outcome.FAILED);
+
+        assertThat(calls).hasValue(1);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @DisplayName("429 는 실패로 세고 재시도한다")
+    @Test
+    void tooManyRequestsIsRetried() {
+        IpInfoCallGuard guard = IpInfoCallGuard.retriesOnly(2);
+
+        guard.call("a", throwing(HttpStatus.TOO_MANY_REQUESTS));
+
+        assertThat(calls).hasValue(3);
+    }
+
+    @DisplayName("재시도 사이 대기는 지수 백오프 상한을 넘지 않는다")
+    @Test
+    void backoffStaysUnderCap() {
+        IpInfoCallGuard guard = new IpInfoCallGuard(3, 10, 20, CircuitBreaker.disabled(), TokenBucket.unlimited());
+
+        long start = System.nanoTime();
+        guard.call("a", failing());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // 대기 상한 10 + 20 + 20ms
+        assertThat(calls).hasValue(4);
+        assertThat(elapsedMs).isLessThan(1000);
+    }
+}
@@ -1,21 +1,50 @@
 package benny.accessloganalyzer.client;
 
+import benny.accessloganalyzer.model.GeoDistribution;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseCreator;
 import org.springframework.web.client.RestClient;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 class IpInfoClientTest {
@@ -135,16 +164,16 @@ class IpInfoClientTest {
     @Test
     void lookupTopIpsOnlyLooksUpTopN() {
         Map<String, Long> ipCounts = Map.of(
-                "10.0.0.1", 100L,
-                "10.0.0.2", 50L,
-                "10.0.0.3", 10L
+                "11.0.0.1", 100L,
+                "11.0.0.2", 50L,
+                "11.0.0.3", 10L
         );
 
-        mockServer.expect(requestTo("https://ipinfo.io/10.0.0.1?token=test-token"))
+        mockServer.expect(requestTo("https://ipinfo.io/11.0.0.1?token=test-token"))
                 .andRespond(withSuccess("""
                         {"country":"KR","region":"Seoul","city":"Seoul","org":"KT"}
                         """, MediaType.APPLICATION_JSON));
-        mockServer.expect(requestTo("https://ipinfo.io/10.0.0.2?token=test-token"))
+        mockServer.expect(requestTo("https://ipinfo.io/11.0.0.2?token=test-token"))
                 .andRespond(withSuccess("""
                         {"country":"US","region":"Virginia","city":"Ashburn","org":"AWS"}
                         """, MediaType.APPLICATION_JSON));
@@ -152,9 +181,9 @@ class IpInfoClientTest {
         Map<String, IpInfo> result = client.lookupTopIps(ipCounts, 2);
 
         assertThat(result).hasSize(2);
-        assertThat(result.get("10.0.0.1").country()).isEqualTo("KR");
-        assertThat(result.get("10.0.0.2").country()).isEqualTo("US");
-        assertThat(result).doesNotContainKey("10.0.0.3");
+        assertThat(result.get("11.0.0.1").country()).isEqualTo("KR");
+        assertThat(result.get("11.0.0.2").country()).isEqualTo("US");
+        assertThat(result).doesNotContainKey("11.0.0.3");
         mockServer.verify();
     }
 
@@ -162,27 +191,693 @@ class IpInfoClientTest {
     @Test
     void lookupTopIpsPartialFailure() {
         Map<String, Long> ipCounts = Map.of(
-                "10.0.1.1", 80L,
-                "10.0.1.2", 20L
+                "11.0.1.1", 80L,
+                "11.0.1.2", 20L
         );
 
-        mockServer.expect(requestTo("https://ipinfo.io/10.0.1.1?token=test-token"))
+        mockServer.expect(requestTo("https://ipinfo.io/11.0.1.1?token=test-token"))
                 .andRespond(withSuccess("""
                         {"country":"JP","region":"Tokyo","city":"Tokyo","org":"NTT"}
                         """, MediaType.APPLICATION_JSON));
-        // 10.0.1.2는 3번 모두 실패
-        mockServer.expect(requestTo("https://ipinfo.io/10.0.1.2?token=test-token"))
+        // 11.0.1.2는 3번 모두 실패
+        mockServer.expect(requestTo("https://ipinfo.io/11.0.1.2?token=test-token"))
                 .andRespond(withServerError());
-        mockServer.expect(requestTo("https://ipinfo.io/10.0.1.2?token=test-token"))
+        mockServer.expect(requestTo("https://ipinfo.io/11.0.1.2?token=test-token"))
                 .andRespond(withServerError());
-        mockServer.expect(requestTo("https://ipinfo.io/10.0.1.2?token=test-token"))
+        mockServer.expect(requestTo("https://ipinfo.io/11.0.1.2?token=test-token"))
                 .andRespond(withServerError());
 
         Map<String, IpInfo> result = client.lookupTopIps(ipCounts, 2);
 
         assertThat(result).hasSize(2);
-        assertThat(result.get("10.0.1.1").country()).isEqualTo("JP");
-        assertThat(result.get("10.0.1.2")).isEqualTo(IpInfo.unknown());
+        assertThat(result.get("11.0.1.1").country()).isEqualTo("JP");
+        assertThat(result.get("11.0.1.2")).isEqualTo(IpInfo.unknown());
         mockServer.verify();
     }
+
+    // --- 동시 조회와 마감 ---
+
+    @Nested
+    @DisplayName("lookupTopIps 동시 조회")
+    class ConcurrentLookupTest {
+
+        private final ExecutorService lookupExecutor = Executors.newFixedThreadPool(4);
+        private MockRestServiceServer concurrentServer;
+        private RestClient concurrentRestClient;
+
+        @BeforeEach
+        void setUp() {
+            RestClient.Builder builder = RestClient.builder().baseUrl("https://ipinfo.io");
+            concurrentServer = MockRestServiceServer.bindTo(builder).ignoreExpectOrder(true).build();
+            concurrentRestClient = builder.build();
+        }
+
+        @AfterEach
+        void tearDown() {
+            lookupExecutor.shutdownNow();
+        }
+
+        private ResponseCreator respondAfter(CountDownLatch latch, String country) {
+            return request -> {
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return withSuccess("{\"country\":\"" + country + "\"}", MediaType.APPLICATION_JSON)
+                        .createResponse(request);
+            };
+        }
+
+        @DisplayName("캐시에 없는 IP들을 동시에 조회한다")
+        @Test
+        void looksUpConcurrently() {
+            // 네 요청이 모두 동시에 진행 중이어야 래치가 열린다
+            CountDownLatch allInFlight = new CountDownLatch(4);
+            for (int i = 1; i <= 4; i++) {
+                concurrentServer.expect(requestTo("https://ipinfo.io/11.0.2." + i + "?token=test-token"))
+                        .andRespond(request -> {
+                            allInFlight.countDown();
+                            return respondAfter(allInFlight, "KR").createResponse(request);
+                        });
+            }
+            IpInfoClient concurrentClient = new IpInfoClient(
+                    concurrentRestClient, cache, "test-token", 0, lookupExecutor, 3_000, 1);
+
+            Map<String, IpInfo> result = concurrentClient.lookupTopIps(Map.of(
+                    "11.0.2.1", 40L, "11.0.2.2", 30L, "11.0.2.3", 20L, "11.0.2.4", 10L), 4);
+
+            // 응답 순서는 조회 완료 순서와 무관하게 요청 수 내림차순이다
+            assertThat(result.keySet()).containsExactly("11.0.2.1", "11.0.2.2", "11.0.2.3", "11.0.2.4");
+            assertThat(result.values()).extracting(IpInfo::country).containsOnly("KR");
+        }
+
+        @DisplayName("마감까지 끝나지 않은 IP는 UNKNOWN으로 응답하고, 조회가 끝나면 캐시에 저장된다")
+        @Test
+        void returnsUnknownAfterDeadlineAndCachesLater() throws Exception {
+            CountDownLatch slowRelease = new CountDownLatch(1);
+            concurrentServer.expect(requestTo("https://ipinfo.io/11.0.3.1?token=test-token"))
+                    .andRespond(withSuccess("{\"country\":\"JP\"}", MediaType.APPLICATION_JSON));
+            concurrentServer.expect(requestTo("https://ipinfo.io/11.0.3.2?token=test-token"))
+                    .andRespond(respondAfter(slowRelease, "US"));
+            IpInfoClient deadlineClient = new IpInfoClient(
+                    concurrentRestClient, cache, "test-token", 0, lookupExecutor, 200, 1);
+
+            long start = System.nanoTime();
+            Map<String, IpInfo> result = deadlineClient.lookupTopIps(Map.of("11.0.3.1", 9L, "11.0.3.2", 1L), 2);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            assertThat(elapsedMs).isLessThan(2_000);
+            assertThat(result.get("11.0.3.1").country()).isEqualTo("JP");
+            assertThat(result.get("11.0.3.2")).isEqualTo(IpInfo.unknown());
+
+            slowRelease.countDown();
+            long waitUntil = System.currentTimeMillis() + 5_000;
+            while (cache.getIfPresent("11.0.3.2") == null && System.currentTimeMillis() < waitUntil) {
+                Thread.sleep(10);
+            }
+            assertThat(cache.getIfPresent("11.0.3.2").country()).isEqualTo("US");
+        }
+
+        @DisplayName("모두 캐시에 있으면 조회 없이 바로 반환한다")
+        @Test
+        void skipsLookupWhenAllCached() {
+            cache.put("11.0.4.1", new IpInfo("KR", "Seoul", "Seoul", "KT"));
+            IpInfoClient cachedClient = new IpInfoClient(
+                    concurrentRestClient, cache, "test-token", 0, lookupExecutor, 200, 1);
+
+            Map<String, IpInfo> result = cachedClient.lookupTopIps(Map.of("11.0.4.1", 1L), 1);
+
+            assertThat(result.get("11.0.4.1").country()).isEqualTo("KR");
+            concurrentServer.verify();
+        }
+    }
+
+    // --- 배치 조회 ---
+
+    @Nested
+    @DisplayName("lookupTopIps 배치 조회")
+    class BatchLookupTest {
+
+        private static final Pattern QUOTED = Pattern.compile("\"([^\"]+)\"");
+
+        private HttpServer server;
+        private final AtomicInteger batchCalls = new AtomicInteger();
+        private final AtomicInteger singleCalls = new AtomicInteger();
+        // 배치 응답에서 빼거나 오류로 돌려줄 IP
+        private final Set<String> omitted = ConcurrentHashMap.newKeySet();
+        private final Set<String> errored = ConcurrentHashMap.newKeySet();
+        private volatile boolean batchDown;
+        private final ExecutorService lookupExecutor = Executors.newFixedThreadPool(4);
+
+        @BeforeEach
+        void startServer() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                String path = exchange.getRequestURI().getPath();
+                if (path.equals("/batch")) {
+                    batchCalls.incrementAndGet();
+                    String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                    if (batchDown) {
+                        respond(exchange, 503, "{}");
+                        return;
+                    }
+                    respond(exchange, 200, batchResponse(body));
+                } else {
+                    singleCalls.incrementAndGet();
+                    respond(exchange, 200, ipJson(path.substring(1)));
+                }
+            });
+            server.start();
+        }
+
+        @AfterEach
+        void stopServer() {
+            server.stop(0);
+            lookupExecutor.shutdownNow();
+        }
+
+        private String batchResponse(String requestBody) {
+            List<String> entries = new ArrayList<>();
+            Matcher matcher = QUOTED.matcher(requestBody);
+            while (matcher.find()) {
+                String ip = matcher.group(1);
+                if (omitted.contains(ip)) {
+                    continue;
+                }
+                String value = errored.contains(ip) ? "{\"error\":{\"title\":\"Wrong ip\"}}" : ipJson(ip);
+                entries.add("\"" + ip + "\":" + value);
+            }
+            return "{" + String.join(",", entries) + "}";
+        }
+
+        private static String ipJson(String ip) {
+            return "{\"ip\":\"" + ip + "\",\"country\":\"KR\",\"region\":\"Seoul\",\"city\":\"Seoul\",\"org\":\"AS" + ip.hashCode() + "\"}";
+        }
+
+        private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+
+        private IpInfoClient client(int batchSize) {
+            RestClient restClient = RestClient.builder()
+                    .baseUrl("http://localhost:" + server.getAddress().getPort())
+                    .build();
+            return new IpInfoClient(restClient, cache, "test-token", 0, lookupExecutor, 5_000, batchSize);
+        }
+
+        private Map<String, Long> ipCounts(int count) {
+            Map<String, Long> counts = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                counts.put("11.1." + (i / 256) + "." + (i % 256), (long) (count - i));
+            }
+            return counts;
+        }
+
+        @DisplayName("캐시에 없는 상위 100개 IP를 배치 호출 한 번으로 조회하고 캐시에 넣는다")
+        @Test
+        void resolvesTop100InOneRoundTrip() {
+            Map<String, IpInfo> result = client(100).lookupTopIps(ipCounts(100), 100);
+
+            assertThat(result).hasSize(100);
+            assertThat(result.values()).extracting(IpInfo::country).containsOnly("KR");
+            assertThat(batchCalls).hasValue(1);
+            assertThat(singleCalls).hasValue(0);
+            assertThat(cache.getIfPresent("11.1.0.99")).isNotNull();
+        }
+
+        @DisplayName("배치 크기를 넘으면 여러 배치로 나눠 조회한다")
+        @Test
+        void splitsIntoBatches() {
+            Map<String, IpInfo> result = client(40).lookupTopIps(ipCounts(100), 100);
+
+            assertThat(result.values()).doesNotContain(IpInfo.unknown());
+            assertThat(batchCalls).hasValue(3);
+            assertThat(singleCalls).hasValue(0);
+        }
+
+        @DisplayName("배치 응답에 빠졌거나 오류로 온 IP만 개별 조회로 대체한다")
+        @Test
+        void fallsBackPerIpOnPartialFailure() {
+            omitted.add("11.1.0.3");
+            errored.add("11.1.0.7");
+
+            Map<String, IpInfo> result = client(100).lookupTopIps(ipCounts(10), 10);
+
+            assertThat(result.values()).doesNotContain(IpInfo.unknown());
+            assertThat(batchCalls).hasValue(1);
+            assertThat(singleCalls).hasValue(2);
+        }
+
+        @DisplayName("배치 호출이 실패하면 모든 IP를 개별 조회로 대체한다")
+        @Test
+        void fallsBackPerIpWhenBatchFails() {
+            batchDown = true;
+
+            Map<String, IpInfo> result = client(100).lookupTopIps(ipCounts(5), 5);
+
+            assertThat(result.values()).extracting(IpInfo::country).containsOnly("KR");
+            assertThat(singleCalls).hasValue(5);
+        }
+
+        @DisplayName("이미 캐시에 있는 IP는 배치 요청에 넣지 않는다")
+        @Test
+        void skipsCachedIps() {
+            cache.put("11.1.0.0", new IpInfo("US", "Virginia", "Ashburn", "AWS"));
+
+            Map<String, IpInfo> result = client(100).lookupTopIps(ipCounts(3), 3);
+
+            assertThat(result.get("11.1.0.0").country()).isEqualTo("US");
+            assertThat(batchCalls).hasValue(1);
+        }
+    }
+
+    // --- 동시 조회 합치기 ---
+
+    @Nested
+    @DisplayName("같은 IP 동시 조회 합치기")
+    class SingleFlightTest {
+
+        private HttpServer server;
+        private final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+        private final ExecutorService callers = Executors.newFixedThreadPool(16);
+        private final Map<String, AtomicInteger> singleCalls = new ConcurrentHashMap<>();
+        private final AtomicInteger batchCalls = new AtomicInteger();
+        // 응답을 붙잡아 두는 동안 들어온 조회가 모두 같은 호출을 기다리게 한다
+        private final CountDownLatch arrived = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile boolean failing;
+
+        @BeforeEach
+        void startServer() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(serverExecutor);
+            server.createContext("/", exchange -> {
+                String path = exchange.getRequestURI().getPath();
+                String body;
+                if (path.equals("/batch")) {
+                    batchCalls.incrementAndGet();
+                    String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                    List<String> entries = new ArrayList<>();
+                    Matcher matcher = BatchLookupTest.QUOTED.matcher(request);
+                    while (matcher.find()) {
+                        entries.add("\"" + matcher.group(1) + "\":" + BatchLookupTest.ipJson(matcher.group(1)));
+                    }
+                    body = "{" + String.join(",", entries) + "}";
+                } else {
+                    String ip = path.substring(1);
+                    singleCalls.computeIfAbsent(ip, key -> new AtomicInteger()).incrementAndGet();
+                    body = BatchLookupTest.ipJson(ip);
+                }
+                arrived.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                BatchLookupTest.respond(exchange, failing ? 500 : 200, failing ? "{}" : body);
+            });
+            server.start();
+        }
+
+        @AfterEach
+        void stopServer() {
+            release.countDown();
+            server.stop(0);
+            serverExecutor.shutdownNow();
+            callers.shutdownNow();
+        }
+
+        private IpInfoClient client() {
+            RestClient restClient = RestClient.builder()
+                    .baseUrl("http://localhost:" + server.getAddress().getPort())
+                    .build();
+            return new IpInfoClient(restClient, cache, "test-token", 0, Runnable::run, Long.MAX_VALUE, 100);
+        }
+
+        private List<Future<IpInfo>> lookupConcurrently(IpInfoClient client, String ip, int count) throws Exception {
+            List<Future<IpInfo>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                futures.add(callers.submit(() -> client.lookup(ip)));
+            }
+            assertThat(arrived.await(5, TimeUnit.SECONDS)).isTrue();
+            // 나머지 호출이 캐시 미스로 들어와 진행 중인 조회에 붙을 시간을 준다
+            Thread.sleep(200);
+            return futures;
+        }
+
+        private int singleCallsFor(String ip) {
+            AtomicInteger count = singleCalls.get(ip);
+            return count == null ? 0 : count.get();
+        }
+
+        @DisplayName("같은 IP를 동시에 16번 조회해도 원격 호출은 한 번이고 모두 같은 결과를 받는다")
+        @Test
+        void coalescesConcurrentMisses() throws Exception {
+            IpInfoClient client = client();
+            List<Future<IpInfo>> futures = lookupConcurrently(client, "11.2.0.1", 16);
+
+            release.countDown();
+
+            for (Future<IpInfo> future : futures) {
+                assertThat(future.get(5, TimeUnit.SECONDS).country()).isEqualTo("KR");
+            }
+            assertThat(singleCallsFor("11.2.0.1")).isEqualTo(1);
+            assertThat(cache.getIfPresent("11.2.0.1")).isNotNull();
+        }
+
+        @DisplayName("배치로 조회 중인 IP를 개별 조회하면 배치 결과를 기다린다")
+        @Test
+        void singleLookupJoinsInFlightBatch() throws Exception {
+            IpInfoClient client = client();
+            Future<Map<String, IpInfo>> batch = callers.submit(() -> client.lookupBatch(List.of("11.2.0.1", "11.2.0.2")));
+            assertThat(arrived.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<IpInfo> single = callers.submit(() -> client.lookup("11.2.0.1"));
+            Thread.sleep(200);
+
+            release.countDown();
+
+            assertThat(single.get(5, TimeUnit.SECONDS).country()).isEqualTo("KR");
+            assertThat(batch.get(5, TimeUnit.SECONDS)).hasSize(2);
+            assertThat(batchCalls).hasValue(1);
+            assertThat(singleCallsFor("11.2.0.1")).isZero();
+        }
+
+        @DisplayName("합쳐진 조회가 실패하면 모두 UNKNOWN 을 받고, 실패는 캐시하지 않아 다음 조회는 다시 호출한다")
+        @Test
+        void failureIsSharedButNotCached() throws Exception {
+            failing = true;
+            IpInfoClient client = client();
+            List<Future<IpInfo>> futures = lookupConcurrently(client, "11.2.0.1", 8);
+
+            release.countDown();
+
+            for (Future<IpInfo> future : futures) {
+                assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo(IpInfo.unknown());
+            }
+            assertThat(singleCallsFor("11.2.0.1")).isEqualTo(1);
+
+            failing = false;
+            assertThat(client.lookup("11.2.0.1").country()).isEqualTo("KR");
+            assertThat(singleCallsFor("11.2.0.1")).isEqualTo(2);
+        }
+    }
+
+    // --- 예약 대역, 조회 실패 캐시 ---
+
+    @Nested
+    @DisplayName("예약 대역과 조회 실패 캐시")
+    class ReservedAndFailureTest {
+
+        private final AtomicLong ticker = new AtomicLong();
+        private RestClient.Builder builder;
+        private MockRestServiceServer failureServer;
+        private Cache<String, IpInfo> failureCache;
+        private IpInfoClient failureClient;
+
+        @BeforeEach
+        void setUp() {
+            builder = RestClient.builder().baseUrl("https://ipinfo.io");
+            failureServer = MockRestServiceServer.bindTo(builder).build();
+            failureCache = Caffeine.newBuilder()
+                    .expireAfterWrite(Duration.ofSeconds(60))
+                    .ticker(ticker::get)
+                    .build();
+            failureClient = new IpInfoClient(builder.build(), cache, failureCache, "test-token",
+                    IpInfoCallGuard.retriesOnly(0), Runnable::run, Long.MAX_VALUE, 100, LocalGeoDatabase.empty());
+        }
+
+        @DisplayName("사설망·루프백·CGNAT 주소는 ipinfo 를 호출하지 않고 RESERVED 로 답한다")
+        @Test
+        void answersReservedRangesLocally() {
+            Map<String, IpInfo> result = failureClient.lookupTopIps(
+                    Map.of("10.0.0.1", 3L, "192.168.1.10", 2L, "100.64.0.1", 1L), 3);
+
+            assertThat(result.values()).extracting(IpInfo::country).containsOnly("RESERVED");
+            assertThat(failureClient.lookup("127.0.0.1").org()).isEqualTo("Loopback");
+            assertThat(failureClient.uncached(List.of("172.16.0.1", "::1", "1.1.1.1"))).containsExactly("1.1.1.1");
+            assertThat(cache.asMap()).isEmpty();
+            failureServer.verify();
+        }
+
+        @DisplayName("조회에 실패한 IP는 실패 TTL 동안 다시 호출하지 않고, TTL 이 지나면 다시 조회한다")
+        @Test
+        void cachesFailureForShortTtl() {
+            failureServer.expect(requestTo("https://ipinfo.io/1.1.1.1?token=test-token"))
+                    .andRespond(withServerError());
+
+            assertThat(failureClient.lookup("1.1.1.1")).isEqualTo(IpInfo.unknown());
+            assertThat(failureClient.lookup("1.1.1.1")).isEqualTo(IpInfo.unknown());
+            assertThat(failureClient.uncached(List.of("1.1.1.1"))).isEmpty();
+            assertThat(cache.getIfPresent("1.1.1.1")).isNull();
+            failureServer.verify();
+
+            failureServer.reset();
+            failureServer.expect(requestTo("https://ipinfo.io/1.1.1.1?token=test-token"))
+                    .andRespond(withSuccess("""
+                            {"country": "AU", "region": "New South Wales", "city": "Sydney", "org": "AS13335"}
+                            """, MediaType.APPLICATION_JSON));
+            ticker.addAndGet(TimeUnit.SECONDS.toNanos(61));
+
+            assertThat(failureClient.lookup("1.1.1.1").country()).isEqualTo("AU");
+            failureServer.verify();
+        }
+
+        @DisplayName("미리 조회는 캐시에 들어간 IP 수만 반환하고 실패한 IP는 세지 않는다")
+        @Test
+        void prefetchCountsOnlyCachedIps() {
+            failureServer.expect(requestTo("https://ipinfo.io/1.1.1.1?token=test-token"))
+                    .andRespond(withServerError());
+            failureServer.expect(requestTo("https://ipinfo.io/8.8.8.8?token=test-token"))
+                    .andRespond(withSuccess("""
+                            {"country": "US", "region": "California", "city": "Mountain View", "org": "AS15169"}
+                            """, MediaType.APPLICATION_JSON));
+
+            assertThat(failureClient.prefetch(List.of("1.1.1.1"))).isZero();
+            assertThat(failureClient.prefetch(List.of("8.8.8.8"))).isEqualTo(1);
+            failureServer.verify();
+        }
+
+        @DisplayName("429 를 뺀 4xx 응답도 실패 캐시에 넣는다")
+        @Test
+        void cachesClientErrors() {
+            failureServer.expect(requestTo("https://ipinfo.io/1.1.1.1?token=test-token"))
+                    .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+            assertThat(failureClient.lookup("1.1.1.1")).isEqualTo(IpInfo.unknown());
+
+            assertThat(failureCache.getIfPresent("1.1.1.1")).isEqualTo(IpInfo.unknown());
+            failureServer.verify();
+        }
+
+        @DisplayName("호출 한도로 생략된 조회는 UNKNOWN 으로 답하되 실패 캐시에 넣지 않아, 토큰이 차면 바로 다시 조회한다")
+        @Test
+        void rateLimitedLookupIsNotCachedAsFailure() {
+            long[] now = {0};
+            TokenBucket bucket = new TokenBucket(1, 1, () -> now[0]);
+            IpInfoClient limited = new IpInfoClient(builder.build(), cache, failureCache, "test-token",
+                    new IpInfoCallGuard(0, 0, 0, CircuitBreaker.disabled(), bucket),
+                    Runnable::run, Long.MAX_VALUE, 1, LocalGeoDatabase.empty());
+            failureServer.expect(requestTo("https://ipinfo.io/1.1.1.1?token=test-token"))
+                    .andRespond(withSuccess("""
+                            {"country": "AU", "region": "New South Wales", "city": "Sydney", "org": "AS13335"}
+                            """, MediaType.APPLICATION_JSON));
+            failureServer.expect(requestTo("https://ipinfo.io/8.8.8.8?token=test-token"))
+                    .andRespond(withSuccess("""
+                            {"country": "US", "region": "California", "city": "Mountain View", "org": "AS15169"}
+                            """, MediaType.APPLICATION_JSON));
+
+            assertThat(limited.lookup("1.1.1.1").country()).isEqualTo("AU");
+            assertThat(limited.lookup("8.8.8.8")).isEqualTo(IpInfo.unknown());
+
+            assertThat(failureCache.getIfPresent("8.8.8.8")).isNull();
+            assertThat(limited.uncached(List.of("8.8.8.8"))).containsExactly("8.8.8.8");
+
+            now[0] += TimeUnit.SECONDS.toNanos(1);
+            assertThat(limited.lookup("8.8.8.8").country()).isEqualTo("US");
+            failureServer.verify();
+        }
+
+        @DisplayName("실패 캐시에 있는 IP는 분포에서 미해결로 센다")
+        @Test
+        void countsFailuresAsUnresolved() {
+            failureServer.expect(requestTo("https://ipinfo.io/1.1.1.1?token=test-token"))
+                    .andRespond(withServerError());
+            failureClient.lookup("1.1.1.1");
+
+            GeoDistribution distribution = failureClient.geoDistribution(Map.of("1.1.1.1", 5L, "10.0.0.1", 2L));
+
+            assertThat(distribution.unresolvedRequests()).isEqualTo(5);
+            assertThat(distribution.countryCounts()).containsOnly(Map.entry("UNKNOWN", 5L), Map.entry("RESERVED", 2L));
+        }
+    }
+
+    // --- 로컬 지리정보 DB ---
+
+    @Nested
+    @DisplayName("로컬 지리정보 DB 우선 조회")
+    class LocalGeoDatabaseLookupTest {
+
+        private MockRestServiceServer localServer;
+        private IpInfoClient localClient;
+
+        @BeforeEach
+        void setUp() throws IOException {
+            LocalGeoDatabase database = LocalGeoDatabase.load(new BufferedReader(new StringReader("""
+                    10.0.0.0/16,KR,Seoul,Seoul,AS4766 Korea Telecom
+                    10.1.0.0/16,JP,Tokyo,Tokyo,AS2516 KDDI
+                    """)));
+            RestClient.Builder builder = RestClient.builder().baseUrl("https://ipinfo.io");
+            localServer = MockRestServiceServer.bindTo(builder).build();
+            localClient = new IpInfoClient(builder.build(), cache, "test-token", 0, Runnable::run, Long.MAX_VALUE, 100,
+                    database);
+        }
+
+        @DisplayName("로컬 DB에 있는 IP는 API를 호출하지 않고 캐시에도 넣지 않는다")
+        @Test
+        void localHitSkipsApiCall() {
+            IpInfo result = localClient.lookup("10.0.3.4");
+
+            assertThat(result.country()).isEqualTo("KR");
+            assertThat(cache.getIfPresent("10.0.3.4")).isNull();
+            localServer.verify();
+        }
+
+        @DisplayName("로컬 DB에 없는 IP만 원격으로 조회한다")
+        @Test
+        void fallsBackToRemoteOnMiss() {
+            localServer.expect(requestTo("https://ipinfo.io/1.1.1.1?token=test-token"))
+                    .andRespond(withSuccess("""
+                            {"country": "AU", "region": "New South Wales", "city": "Sydney", "org": "AS13335"}
+                            """, MediaType.APPLICATION_JSON));
+
+            Map<String, IpInfo> result = localClient.lookupTopIps(
+                    Map.of("10.0.0.1", 30L, "10.1.0.1", 20L, "1.1.1.1", 10L), 3);
+
+            assertThat(result.keySet()).containsExactly("10.0.0.1", "10.1.0.1", "1.1.1.1");
+            assertThat(result.values()).extracting(IpInfo::country).containsExactly("KR", "JP", "AU");
+            localServer.verify();
+        }
+
+        @DisplayName("원격 조회 대상에서 로컬 DB에 있는 IP를 뺀다")
+        @Test
+        void uncachedExcludesLocalHits() {
+            assertThat(localClient.uncached(List.of("10.0.0.1", "1.1.1.1"))).containsExactly("1.1.1.1");
+        }
+    }
+
+    // --- 국가·ASN 분포 ---
+
+    @Nested
+    @DisplayName("전체 IP 국가·ASN 분포")
+    class GeoDistributionTest {
+
+        private IpInfoClient distributionClient;
+
+        @BeforeEach
+        void setUp() throws IOException {
+            LocalGeoDatabase database = LocalGeoDatabase.load(new BufferedReader(new StringReader("""
+                    10.0.0.0/9,KR,Seoul,Seoul,AS4766 Korea Telecom
+                    10.128.0.0/9,JP,Tokyo,Tokyo,AS2516 KDDI
+                    """)));
+            distributionClient = new IpInfoClient(RestClient.builder().baseUrl("https://ipinfo.io").build(), cache,
+                    "test-token", 0, Runnable::run, Long.MAX_VALUE, 100, database);
+        }
+
+        @DisplayName("로컬 DB와 캐시로 매핑한 국가·ASN 별 요청 수를 세고, 나머지는 원격 조회 없이 UNKNOWN 으로 센다")
+        @Test
+        void countsByCountryAndAsn() {
+            cache.put("1.1.1.1", new IpInfo("AU", "New South Wales", "Sydney", "AS13335 Cloudflare, Inc."));
+            Map<String, Long> ipCounts = Map.of(
+                    "10.0.0.1", 50L,
+                    "10.1.0.1", 10L,
+                    "10.200.0.1", 30L,
+                    "1.1.1.1", 7L,
+                    "8.8.8.8", 3L);
+
+            GeoDistribution distribution = distributionClient.geoDistribution(ipCounts);
+
+            assertThat(distribution.distinctIps()).isEqualTo(5);
+            assertThat(distribution.totalRequests()).isEqualTo(100);
+            assertThat(distribution.unresolvedRequests()).isEqualTo(3);
+            assertThat(distribution.countryCounts())
+                    .containsOnly(Map.entry("KR", 60L), Map.entry("JP", 30L), Map.entry("AU", 7L),
+                            Map.entry("UNKNOWN", 3L));
+            assertThat(distribution.asnCounts())
+                    .containsOnly(Map.entry("AS4766", 60L), Map.entry("AS2516", 30L), Map.entry("AS13335", 7L),
+                            Map.entry("UNKNOWN", 3L));
+        }
+
+        @DisplayName("여러 구간으로 나눠 병렬로 세도 합계가 정확하다")
+        @Test
+        void parallelSlicesAddUp() {
+            Map<String, Long> ipCounts = new HashMap<>();
+            for (int i = 0; i < 200_000; i++) {
+                ipCounts.put("10." + (i >>> 16) * 64 + "." + ((i >>> 8) & 0xFF) + "." + (i & 0xFF), (long) (i % 3 + 1));
+            }
+            long expectedTotal = ipCounts.values().stream().mapToLong(Long::longValue).sum();
+
+            GeoDistribution distribution = distributionClient.geoDistribution(ipCounts);
+
+            assertThat(distribution.distinctIps()).isEqualTo(200_000);
+            assertThat(distribution.totalRequests()).isEqualTo(expectedTotal);
+            assertThat(distribution.unresolvedRequests()).isZero();
+            assertThat(distribution.countryCounts().values().stream().mapToLong(Long::longValue).sum())
+                    .isEqualTo(expectedTotal);
+        }
+
+        @DisplayName("빈 IP 집계는 빈 분포를 반환한다")
+        @Test
+        void emptyCounts() {
+            assertThat(distributionClient.geoDistribution(Map.of())).isEqualTo(GeoDistribution.empty());
+        }
+
+        @DisplayName("org 앞의 AS 번호만 ASN 으로 쓰고, AS 번호가 없으면 org 전체를 쓴다")
+        @Test
+        void extractsAsn() {
+            assertThat(IpInfoClient.asnOf("AS4766 Korea Telecom")).isEqualTo("AS4766");
+            assertThat(IpInfoClient.asnOf("AS13335")).isEqualTo("AS13335");
+            assertThat(IpInfoClient.asnOf("ASUS Cloud")).isEqualTo("ASUS Cloud");
+            assertThat(IpInfoClient.asnOf(null)).isEqualTo("UNKNOWN");
+            assertThat(IpInfoClient.asnOf("")).isEqualTo("UNKNOWN");
+        }
+    }
+
+    // --- 차단기 ---
+
+    @Nested
+    @DisplayName("ipinfo 장애 시 차단기")
+    class CircuitBreakerLookupTest {
+
+        @DisplayName("실패율이 임계치를 넘으면 이후 조회는 ipinfo 를 호출하지 않고 바로 UNKNOWN 을 반환하며 캐시하지 않는다")
+        @Test
+        void failsFastWhileUpstreamIsDown() {
+            RestClient.Builder builder = RestClient.builder().baseUrl("https://ipinfo.io");
+            MockRestServiceServer downServer = MockRestServiceServer.bindTo(builder).build();
+            CircuitBreaker breaker = new CircuitBreaker("ipinfo", 10, 3, 50, 60_000, 1);
+            IpInfoClient guarded = new IpInfoClient(builder.build(), cache, IpInfoClient.noFailureCache(), "test-token",
+                    new IpInfoCallGuard(0, 0, 0, breaker, TokenBucket.unlimited()),
+                    Runnable::run, Long.MAX_VALUE, 1, LocalGeoDatabase.empty());
+            for (int i = 1; i <= 3; i++) {
+                downServer.expect(requestTo("https://ipinfo.io/11.9.0." + i + "?token=test-token"))
+                        .andRespond(withServerError());
+            }
+            for (int i = 1; i <= 3; i++) {
+                assertThat(guarded.lookup("11.9.0." + i)).isEqualTo(IpInfo.unknown());
+            }
+            assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+            for (int i = 0; i < 100; i++) {
+                assertThat(guarded.lookup("11.9.1." + i)).isEqualTo(IpInfo.unknown());
+            }
+
+            downServer.verify();
+            assertThat(cache.asMap()).isEmpty();
+        }
+    }
 }
@@ -0,0 +1,211 @@
+package benny.accessloganalyzer.client;
+
+import benny.accessloganalyzer.global.config.IpInfoConfig;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ipinfo 연동 전송 계층 비교용. 로컬 TLS 스텁 서버(자체 서명 인증서)에 대해 기존 HttpURLConnection 팩토리와
+ * IpInfoConfig 의 JDK HttpClient 팩토리로 캐시 미스 조회를 동시에 보내 지연 백분위와 처리량을 잰다.
+ * JDK HttpsServer 는 HTTP/1.1 만 말하므로 여기서는 연결 재사용과 TLS 핸드셰이크 비용 차이를 보고,
+ * HTTP/2 다중화는 ALPN 을 지원하는 실제 ipinfo 에서 협상된다. 루프백에는 왕복 지연이 없어 핸드셰이크 절감 효과는
+ * 실제 네트워크보다 작게 나온다.
+ *
+ * 실행: ./gradlew test -Pbenchmark --tests "*.IpInfoTransportBenchmark" -i
+ */
+@Tag("benchmark")
+class IpInfoTransportBenchmark {
+
+    private static final char[] PASSWORD = "changeit".toCharArray();
+    private static final int CONCURRENCY = 16;
+    private static final int WARMUP = 500;
+    private static final int LOOKUPS = 4_000;
+    private static final int ROUNDS = 3;
+    private static final String NO_DELAY = "sun.net.httpserver.nodelay";
+
+    @Test
+    void compareTransports(@TempDir Path dir) throws Exception {
+        // 스텁의 작은 응답이 Nagle·지연 ACK 에 걸려 수십 ms 씩 늦어지지 않게 한다 (첫 HttpServer 생성 전에만 적용)
+        String previousNoDelay = System.setProperty(NO_DELAY, "true");
+        SSLContext tls = selfSignedContext(dir.resolve("stub.p12"));
+        ExecutorService serverExecutor = Executors.newFixedThreadPool(CONCURRENCY * 2);
+        HttpsServer server = stubServer(tls, serverExecutor);
+        String baseUrl = "https://localhost:" + server.getAddress().getPort();
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(4);
+
+        // 자체 서명 인증서는 두 클라이언트에만 신뢰시키고 JVM 기본 SSLContext 는 건드리지 않는다
+        try (HttpClient httpClient = IpInfoConfig.ipInfoHttpClientBuilder(HttpClient.Version.HTTP_2, 5000, httpExecutor)
+                .sslContext(tls)
+                .build()) {
+            SimpleClientHttpRequestFactory urlConnection = new TrustingUrlConnectionFactory(tls.getSocketFactory());
+            urlConnection.setConnectTimeout(Duration.ofMillis(5000));
+            urlConnection.setReadTimeout(Duration.ofMillis(5000));
+            RestClient urlConnectionClient = RestClient.builder().baseUrl(baseUrl).requestFactory(urlConnection).build();
+            RestClient jdkClient = new IpInfoConfig().ipInfoRestClient(baseUrl, 5000, httpClient);
+
+            System.out.println("=== ipinfo 전송 계층 벤치마크 ===");
+            System.out.printf("로컬 TLS 스텁, 동시 %d, 캐시 미스 조회 %,d건 × %d회%n", CONCURRENCY, LOOKUPS, ROUNDS);
+            AtomicInteger ipSequence = new AtomicInteger();
+            for (int round = 0; round < ROUNDS; round++) {
+                run("HttpURLConnection", urlConnectionClient, ipSequence, round);
+                run("JDK HttpClient   ", jdkClient, ipSequence, round);
+            }
+        } finally {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+            httpExecutor.shutdownNow();
+            if (previousNoDelay == null) {
+                System.clearProperty(NO_DELAY);
+            } else {
+                System.setProperty(NO_DELAY, previousNoDelay);
+            }
+        }
+    }
+
+    private static void run(String name, RestClient restClient, AtomicInteger ipSequence, int round) throws Exception {
+        // 매 조회가 원격 호출이 되도록 IP를 겹치지 않게 만들고 실패도 기억하지 않는다
+        IpInfoClient client = new IpInfoClient(restClient, Caffeine.newBuilder().<String, IpInfo>build(),
+                IpInfoClient.noFailureCache(), "bench", IpInfoCallGuard.retriesOnly(0), Runnable::run,
+                Long.MAX_VALUE, 1, LocalGeoDatabase.empty());
+        measure(client, ipSequence, WARMUP);
+        long start = System.nanoTime();
+        long[] latencies = measure(client, ipSequence, LOOKUPS);
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        System.out.printf("[round %d] %s p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms, %,.0f lookups/s%n", round, name,
+                percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99),
+                latencies[latencies.length - 1] / 1e6, LOOKUPS * 1e9 / elapsed);
+    }
+
+    private static long[] measure(IpInfoClient client, AtomicInteger ipSequence, int lookups) throws Exception {
+        long[] latencies = new long[lookups];
+        AtomicInteger next = new AtomicInteger();
+        try (ExecutorService callers = Executors.newFixedThreadPool(CONCURRENCY)) {
+            Future<?>[] workers = new Future<?>[CONCURRENCY];
+            for (int w = 0; w < CONCURRENCY; w++) {
+                workers[w] = callers.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < lookups; i = next.getAndIncrement()) {
+                        int n = ipSequence.incrementAndGet();
+                        String ip = "1." + ((n >>> 16) & 0xFF) + "." + ((n >>> 8) & 0xFF) + "." + (n & 0xFF);
+                        long begin = System.nanoTime();
+                        if (IpInfo.unknown().equals(client.lookup(ip))) {
+                            throw new IllegalStateException("스텁 조회 실패: " + ip);
+                        }
+                        latencies[i] = System.nanoTime() - begin;
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+        return latencies;
+    }
+
+    private static double percentile(long[] sorted, int percent) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * percent / 100.0) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static HttpsServer stubServer(SSLContext tls, ExecutorService executor) throws IOException {
+        HttpsServer server = HttpsServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setHttpsConfigurator(new HttpsConfigurator(tls));
+        server.setExecutor(executor);
+        server.createContext("/", IpInfoTransportBenchmark::respond);
+        server.start();
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            in.readAllBytes();
+        }
+        String ip = exchange.getRequestURI().getPath().substring(1);
+        byte[] body = ("{\"ip\":\"" + ip + "\",\"country\":\"AU\",\"region\":\"Queensland\",\"city\":\"Brisbane\","
+                + "\"org\":\"AS13335 Cloudflare, Inc.\"}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * HTTPS 연결에만 주어진 소켓 팩토리를 쓰는 HttpURLConnection 팩토리.
+     */
+    private static final class TrustingUrlConnectionFactory extends SimpleClientHttpRequestFactory {
+
+        private final SSLSocketFactory socketFactory;
+
+        TrustingUrlConnectionFactory(SSLSocketFactory socketFactory) {
+            this.socketFactory = socketFactory;
+        }
+
+        @Override
+        protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+            if (connection instanceof HttpsURLConnection https) {
+                https.setSSLSocketFactory(socketFactory);
+            }
+            super.prepareConnection(connection, httpMethod);
+        }
+    }
+
+    /**
+     * keytool 로 localhost 용 자체 서명 인증서를 만들고, 서버 키와 클라이언트 신뢰 저장소로 함께 쓴다.
+     */
+    private static SSLContext selfSignedContext(Path keystore) throws Exception {
+        Path keytool = Path.of(System.getProperty("java.home"), "bin", "keytool");
+        Process process = new ProcessBuilder(keytool.toString(), "-genkeypair", "-alias", "stub",
+                "-keyalg", "RSA", "-keysize", "2048", "-validity", "1", "-dname", "CN=localhost",
+                "-ext", "SAN=dns:localhost,ip:127.0.0.1", "-storetype", "PKCS12",
+                "-keystore", keystore.toString(), "-storepass", new String(PASSWORD), "-keypass", new String(PASSWORD))
+                .redirectErrorStream(true)
+                .start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("keytool 실패: " + output);
+        }
+
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(keystore)) {
+            store.load(in, PASSWORD);
+        }
+        KeyManagerFactory keys = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keys.init(store, PASSWORD);
+        TrustManagerFactory trust = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trust.init(store);
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(keys.getKeyManagers(), trust.getTrustManagers(), null);
+        return context;
+    }
+}
@@ -0,0 +1,94 @@
+package benny.accessloganalyzer.client;
+
+import benny.accessloganalyzer.model.GeoDistribution;
+import benny.accessloganalyzer.model.SortedCounts;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 로컬 지리정보 DB 조회 처리량 측정용. 20만 개 /24 대역에서 무작위 IP 문자열을 파싱·탐색하고,
+ * 고유 IP 50만 개의 국가·ASN 분포 집계 시간을 잰다.
+ *
+ * 실행: ./gradlew test -Pbenchmark --tests "*.LocalGeoDatabaseBenchmark" -i
+ */
+@Tag("benchmark")
+class LocalGeoDatabaseBenchmark {
+
+    private static final int RANGES = 200_000;
+    private static final int QUERIES = 1 << 16;
+    private static final int ROUNDS = 5;
+
+    @Test
+    void lookupThroughput() throws Exception {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < RANGES; i++) {
+            csv.append(i >>> 16).append('.').append((i >>> 8) & 0xFF).append('.').append(i & 0xFF)
+                    .append(".0/24,C").append(i % 200).append(",R").append(i % 50).append(",City").append(i % 1000)
+                    .append(",AS").append(i % 5000).append('\n');
+        }
+        long loadStart = System.nanoTime();
+        LocalGeoDatabase database = LocalGeoDatabase.load(new BufferedReader(new StringReader(csv.toString())));
+        long loadMs = (System.nanoTime() - loadStart) / 1_000_000;
+
+        Random random = new Random(42);
+        String[] ips = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            int range = random.nextInt(RANGES * 2);
+            ips[i] = (range >>> 16) + "." + ((range >>> 8) & 0xFF) + "." + (range & 0xFF) + "." + random.nextInt(256);
+        }
+
+        System.out.println("=== 로컬 지리정보 DB 벤치마크 ===");
+        System.out.printf("대역 %,d개 로드 %,dms, 조회 %,d건 × %d회 (절반은 미스)%n", database.size(), loadMs, QUERIES, ROUNDS);
+        for (int round = 0; round < ROUNDS; round++) {
+            int hits = 0;
+            long start = System.nanoTime();
+            for (int repeat = 0; repeat < 16; repeat++) {
+                for (String ip : ips) {
+                    if (database.find(ip) != null) {
+                        hits++;
+                    }
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            long lookups = (long) QUERIES * 16;
+            System.out.printf("[round %d] %,.0f lookups/s, hits=%,d%n", round, lookups * 1e9 / elapsed, hits);
+        }
+    }
+
+    @Test
+    void distributionOf500kIps() throws Exception {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 4096; i++) {
+            csv.append("10.").append(i >>> 4).append('.').append((i & 0xF) << 4).append(".0/20,C").append(i % 200)
+                    .append(",R,City,AS").append(i % 5000).append(" Org\n");
+        }
+        LocalGeoDatabase database = LocalGeoDatabase.load(new BufferedReader(new StringReader(csv.toString())));
+        IpInfoClient client = new IpInfoClient(RestClient.builder().build(),
+                Caffeine.newBuilder().<String, IpInfo>build(), "", 0, Runnable::run, Long.MAX_VALUE, 100, database);
+
+        Random random = new Random(42);
+        Map<String, Long> ipCounts = new HashMap<>();
+        while (ipCounts.size() < 500_000) {
+            ipCounts.put("10." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256),
+                    (long) random.nextInt(100) + 1);
+        }
+        SortedCounts counts = SortedCounts.of(ipCounts);
+
+        System.out.println("=== 국가·ASN 분포 벤치마크 ===");
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            GeoDistribution distribution = client.geoDistribution(counts);
+            System.out.printf("[round %d] IP %,d개 → 국가 %d개, ASN %,d개: %,dms%n", round, distribution.distinctIps(),
+                    distribution.countryCounts().size(), distribution.asnCounts().size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package benny.accessloganalyzer.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalGeoDatabaseTest {
+
+    /**
+     * 10.0.0.0/8 을 /16 256개로 나눠 국가를 번갈아 붙인 데이터셋.
+     */
+    static String generatedCsv() {
+        StringBuilder sb = new StringBuilder("network,country,region,city,org\n");
+        for (int i = 0; i < 256; i++) {
+            String country = i % 2 == 0 ? "KR" : "JP";
+            sb.append("10.").append(i).append(".0.0/16,").append(country).append(",Region").append(i % 4)
+                    .append(",City").append(i).append(",AS").append(64_512 + i % 8).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static LocalGeoDatabase load(String csv) throws Exception {
+        return LocalGeoDatabase.load(new BufferedReader(new StringReader(csv)));
+    }
+
+    @Nested
+    @DisplayName("조회")
+    class FindTest {
+
+        @DisplayName("IP가 속한 CIDR 대역의 지리정보를 반환한다")
+        @Test
+        void findsContainingRange() throws Exception {
+            LocalGeoDatabase database = load(generatedCsv());
+
+            assertThat(database.size()).isEqualTo(256);
+            assertThat(database.find("10.0.0.1")).isEqualTo(new IpInfo("KR", "Region0", "City0", "AS64512"));
+            assertThat(database.find("10.1.255.255").country()).isEqualTo("JP");
+            assertThat(database.find("10.255.0.0").city()).isEqualTo("City255");
+        }
+
+        @DisplayName("대역 밖의 IP, IPv6, 잘못된 표기는 null 을 반환한다")
+        @Test
+        void returnsNullOnMiss() throws Exception {
+            LocalGeoDatabase database = load(generatedCsv());
+
+            assertThat(database.find("9.255.255.255")).isNull();
+            assertThat(database.find("11.0.0.0")).isNull();
+            assertThat(database.find("2001:db8::1")).isNull();
+            assertThat(database.find("10.0.0")).isNull();
+            assertThat(database.find("10.0.0.256")).isNull();
+            assertThat(database.find("10.0.0.1.")).isNull();
+            assertThat(database.find("")).isNull();
+        }
+
+        @DisplayName("최상위 비트가 켜진 주소 대역도 부호 없는 순서로 찾는다")
+        @Test
+        void handlesHighAddresses() throws Exception {
+            LocalGeoDatabase database = load("""
+                    1.0.0.0,1.0.0.255,AU,Queensland,Brisbane,AS13335
+                    200.0.0.0,200.0.0.255,BR,Sao Paulo,Sao Paulo,AS4230
+                    255.255.255.0/24,ZZ,,,
+                    """);
+
+            assertThat(database.find("1.0.0.9").country()).isEqualTo("AU");
+            assertThat(database.find("200.0.0.200").country()).isEqualTo("BR");
+            assertThat(database.find("255.255.255.255").country()).isEqualTo("ZZ");
+            assertThat(database.find("128.0.0.1")).isNull();
+        }
+
+        @DisplayName("같은 값의 대역은 하나의 IpInfo 인스턴스를 공유해 조회 때 객체를 만들지 않는다")
+        @Test
+        void sharesValueInstances() throws Exception {
+            LocalGeoDatabase database = load("""
+                    10.0.0.0/24,KR,Seoul,Seoul,AS4766
+                    10.0.2.0/24,KR,Seoul,Seoul,AS4766
+                    """);
+
+            assertThat(database.find("10.0.0.1")).isSameAs(database.find("10.0.2.1"));
+            assertThat(database.find("10.0.0.1")).isSameAs(database.find("10.0.0.2"));
+        }
+    }
+
+    @Nested
+    @DisplayName("로드")
+    class LoadTest {
+
+        @DisplayName("헤더, 주석, IPv6 대역, 형식이 맞지 않는 줄은 건너뛴다")
+        @Test
+        void skipsUnsupportedLines() throws Exception {
+            LocalGeoDatabase database = load("""
+                    network,country,region,city,org
+                    # 주석
+
+                    2001:db8::/32,US,,,
+                    10.0.0.0/33,KR,,,
+                    10.0.0.0/24,KR,Seoul
+                    10.0.1.0/24,KR,Seoul,Seoul,AS4766
+                    """);
+
+            assertThat(database.size()).isEqualTo(1);
+            assertThat(database.find("10.0.1.1").org()).isEqualTo("AS4766");
+        }
+
+        @DisplayName("CIDR 의 호스트 비트는 무시하고 네트워크 주소로 맞춘다")
+        @Test
+        void alignsCidrToNetwork() throws Exception {
+            LocalGeoDatabase database = load("10.0.0.77/24,KR,Seoul,Seoul,AS4766\n");
+
+            assertThat(database.find("10.0.0.0")).isNotNull();
+            assertThat(database.find("10.0.0.255")).isNotNull();
+            assertThat(database.find("10.0.1.0")).isNull();
+        }
+
+        @DisplayName("다른 대역 안에 들어가는 대역은 가장 구체적인 대역이 이긴다")
+        @Test
+        void mostSpecificRangeWins() throws Exception {
+            LocalGeoDatabase database = load("""
+                    10.0.0.0/16,KR,Seoul,Seoul,AS4766
+                    10.1.0.0/16,JP,Tokyo,Tokyo,AS2516
+                    10.0.5.0/24,JP,Osaka,Osaka,AS2516
+                    10.0.5.128/25,US,Virginia,Ashburn,AS16509
+                    """);
+
+            assertThat(database.find("10.0.4.255").country()).isEqualTo("KR");
+            assertThat(database.find("10.0.5.1").city()).isEqualTo("Osaka");
+            assertThat(database.find("10.0.5.200").country()).isEqualTo("US");
+            assertThat(database.find("10.0.6.0").country()).isEqualTo("KR");
+            assertThat(database.find("10.0.255.255").country()).isEqualTo("KR");
+            assertThat(database.find("10.1.0.1").country()).isEqualTo("JP");
+            // KR 앞 | Osaka | US | KR 뒤 | JP
+            assertThat(database.size()).isEqualTo(5);
+        }
+
+        @DisplayName("같은 주소에서 시작하는 대역도 파일 순서와 관계없이 좁은 대역이 이긴다")
+        @Test
+        void nestedRangeSharingStartWins() throws Exception {
+            LocalGeoDatabase childFirst = load("""
+                    10.0.0.0/24,JP,Tokyo,Tokyo,AS2516
+                    10.0.0.0/16,KR,Seoul,Seoul,AS4766
+                    """);
+            LocalGeoDatabase parentFirst = load("""
+                    10.0.0.0/16,KR,Seoul,Seoul,AS4766
+                    10.0.0.0/24,JP,Tokyo,Tokyo,AS2516
+                    """);
+
+            for (LocalGeoDatabase database : new LocalGeoDatabase[]{childFirst, parentFirst}) {
+                assertThat(database.find("10.0.0.1").country()).isEqualTo("JP");
+                assertThat(database.find("10.0.1.1").country()).isEqualTo("KR");
+            }
+        }
+
+        @DisplayName("일부만 겹치는 대역은 시작 주소가 앞선 것을, 완전히 같은 대역은 파일에서 먼저 나온 것을 남긴다")
+        @Test
+        void dropsPartialOverlapsAndDuplicates() throws Exception {
+            LocalGeoDatabase database = load("""
+                    10.0.0.0,10.0.0.99,KR,Seoul,Seoul,AS4766
+                    10.0.0.50,10.0.0.150,JP,Tokyo,Tokyo,AS2516
+                    10.0.1.0/24,US,Virginia,Ashburn,AS16509
+                    10.0.1.0/24,JP,Tokyo,Tokyo,AS2516
+                    """);
+
+            assertThat(database.size()).isEqualTo(2);
+            assertThat(database.find("10.0.0.60").country()).isEqualTo("KR");
+            assertThat(database.find("10.0.0.120")).isNull();
+            assertThat(database.find("10.0.1.1").country()).isEqualTo("US");
+        }
+
+        @DisplayName("일부만 겹치는 대역은 파일에서 나중에 나와도 시작 주소가 앞선 대역이 남는다")
+        @Test
+        void partialOverlapKeepsEarlierStartRegardlessOfFileOrder() throws Exception {
+            LocalGeoDatabase database = load("""
+                    10.0.0.50,10.0.0.150,JP,Tokyo,Tokyo,AS2516
+                    10.0.0.0,10.0.0.99,KR,Seoul,Seoul,AS4766
+                    """);
+
+            assertThat(database.size()).isEqualTo(1);
+            assertThat(database.find("10.0.0.60").country()).isEqualTo("KR");
+            assertThat(database.find("10.0.0.120")).isNull();
+        }
+
+        @DisplayName("큰따옴표로 감싼 값의 쉼표는 구분자로 보지 않는다")
+        @Test
+        void parsesQuotedFields() throws Exception {
+            LocalGeoDatabase database = load("""
+                    1.0.0.0/24,AU,Queensland,Brisbane,"AS13335 Cloudflare, Inc."
+                    "8.8.8.0/24",US,"California","Mountain View","AS15169 Google ""LLC""\"
+                    """);
+
+            assertThat(database.find("1.0.0.1").org()).isEqualTo("AS13335 Cloudflare, Inc.");
+            assertThat(database.find("8.8.8.8")).isEqualTo(
+                    new IpInfo("US", "California", "Mountain View", "AS15169 Google \"LLC\""));
+        }
+
+        @DisplayName("파일에서 로드한다")
+        @Test
+        void loadsFromFile(@TempDir Path dir) throws Exception {
+            Path csv = Files.writeString(dir.resolve("geo.csv"), generatedCsv());
+
+            assertThat(LocalGeoDatabase.load(csv).find("10.42.1.1").city()).isEqualTo("City42");
+        }
+
+        @DisplayName("빈 DB는 항상 null 을 반환한다")
+        @Test
+        void emptyDatabase() {
+            assertThat(LocalGeoDatabase.empty().find("10.0.0.1")).isNull();
+            assertThat(LocalGeoDatabase.empty().size()).isZero();
+        }
+    }
+}
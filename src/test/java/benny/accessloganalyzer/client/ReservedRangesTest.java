@@ -0,0 +1,55 @@
+package benny.accessloganalyzer.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReservedRangesTest {
+
+    @DisplayName("사설망, 루프백, CGNAT, 링크 로컬 IPv4 주소는 대역 이름과 함께 RESERVED 로 답한다")
+    @Test
+    void matchesReservedIpv4() {
+        assertThat(ReservedRanges.match("10.20.30.40").org()).isEqualTo("Private network (RFC 1918)");
+        assertThat(ReservedRanges.match("172.31.255.255").org()).isEqualTo("Private network (RFC 1918)");
+        assertThat(ReservedRanges.match("192.168.0.1").org()).isEqualTo("Private network (RFC 1918)");
+        assertThat(ReservedRanges.match("100.127.255.254").org()).isEqualTo("Carrier-grade NAT (RFC 6598)");
+        assertThat(ReservedRanges.match("127.0.0.1").org()).isEqualTo("Loopback");
+        assertThat(ReservedRanges.match("169.254.169.254").org()).isEqualTo("Link-local");
+        assertThat(ReservedRanges.match("255.255.255.255").country()).isEqualTo(ReservedRanges.RESERVED);
+    }
+
+    @DisplayName("대역 경계 바로 바깥의 공인 주소는 null 을 반환한다")
+    @Test
+    void skipsPublicNeighbours() {
+        assertThat(ReservedRanges.match("9.255.255.255")).isNull();
+        assertThat(ReservedRanges.match("11.0.0.0")).isNull();
+        assertThat(ReservedRanges.match("100.63.255.255")).isNull();
+        assertThat(ReservedRanges.match("100.128.0.0")).isNull();
+        assertThat(ReservedRanges.match("172.15.255.255")).isNull();
+        assertThat(ReservedRanges.match("172.32.0.0")).isNull();
+        assertThat(ReservedRanges.match("1.1.1.1")).isNull();
+        assertThat(ReservedRanges.match("223.255.255.255")).isNull();
+    }
+
+    @DisplayName("IPv6 는 루프백, 고유 로컬, 링크 로컬, IPv4 매핑 주소만 예약 대역으로 본다")
+    @Test
+    void matchesReservedIpv6() {
+        assertThat(ReservedRanges.match("::1").org()).isEqualTo("Loopback");
+        assertThat(ReservedRanges.match("fd12:3456::1").org()).isEqualTo("Unique local (RFC 4193)");
+        assertThat(ReservedRanges.match("FE80::1").org()).isEqualTo("Link-local");
+        assertThat(ReservedRanges.match("::ffff:192.168.0.1").org()).isEqualTo("Private network (RFC 1918)");
+        assertThat(ReservedRanges.match("::ffff:8.8.8.8")).isNull();
+        assertThat(ReservedRanges.match("2001:4860::8888")).isNull();
+        assertThat(ReservedRanges.match("fec0::1")).isNull();
+    }
+
+    @DisplayName("IP 형식이 아니면 null 을 반환한다")
+    @Test
+    void ignoresMalformed() {
+        assertThat(ReservedRanges.match(null)).isNull();
+        assertThat(ReservedRanges.match("")).isNull();
+        assertThat(ReservedRanges.match("10.0.0")).isNull();
+        assertThat(ReservedRanges.match("localhost")).isNull();
+    }
+}
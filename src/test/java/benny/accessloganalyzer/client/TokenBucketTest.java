@@ -0,0 +1,54 @@
+package benny.accessloganalyzer.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private final long[] now = {0};
+
+    @DisplayName("burst 만큼 연속으로 허용한 뒤 거절한다")
+    @Test
+    void allowsBurstThenRejects() {
+        TokenBucket bucket = new TokenBucket(10, 3, () -> now[0]);
+
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @DisplayName("초당 속도만큼 다시 채워지고 burst 를 넘게 쌓이지 않는다")
+    @Test
+    void refillsAtRateUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 3, () -> now[0]);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire();
+        }
+
+        now[0] += TimeUnit.MILLISECONDS.toNanos(100);
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+
+        now[0] += TimeUnit.SECONDS.toNanos(10);
+        int granted = 0;
+        while (bucket.tryAcquire()) {
+            granted++;
+        }
+        assertThat(granted).isEqualTo(3);
+    }
+
+    @DisplayName("unlimited 버킷은 항상 허용한다")
+    @Test
+    void unlimitedAlwaysAllows() {
+        TokenBucket bucket = TokenBucket.unlimited();
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(bucket.tryAcquire()).isTrue();
+        }
+    }
+}
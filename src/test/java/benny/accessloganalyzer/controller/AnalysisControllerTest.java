@@ -4,10 +4,16 @@ import benny.accessloganalyzer.client.IpInfo;
 import benny.accessloganalyzer.client.IpInfoClient;
 import benny.accessloganalyzer.global.exception.BusinessException;
 import benny.accessloganalyzer.global.exception.GlobalExceptionHandler;
+import benny.accessloganalyzer.model.AnalysisDiff;
 import benny.accessloganalyzer.model.AnalysisEntry;
 import benny.accessloganalyzer.model.AnalysisResult;
 import benny.accessloganalyzer.model.AnalysisStatus;
+import benny.accessloganalyzer.model.MergedAnalysis;
+import benny.accessloganalyzer.service.AnalysisComparisonService;
+import benny.accessloganalyzer.service.AnalysisEventService;
 import benny.accessloganalyzer.service.AnalysisService;
+import benny.accessloganalyzer.service.StreamingAnalysisService;
+import benny.accessloganalyzer.service.SyncAnalysisService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -18,23 +24,33 @@ import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(AnalysisController.class)
-@Import(GlobalExceptionHandler.class)
+@Import({GlobalExceptionHandler.class, CompletedResultCache.class})
 class AnalysisControllerTest {
 
     private static final LocalDateTime FIXED_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
@@ -45,6 +61,18 @@ class AnalysisControllerTest {
     @MockitoBean
     private AnalysisService analysisService;
 
+    @MockitoBean
+    private AnalysisComparisonService comparisonService;
+
+    @MockitoBean
+    private StreamingAnalysisService streamingAnalysisService;
+
+    @MockitoBean
+    private AnalysisEventService eventService;
+
+    @MockitoBean
+    private SyncAnalysisService syncAnalysisService;
+
     @MockitoBean
     private IpInfoClient ipInfoClient;
 
@@ -87,7 +115,7 @@ class AnalysisControllerTest {
         @Test
         void uploadReturns202WithQueued() throws Exception {
             AnalysisEntry queuedEntry = new AnalysisEntry("test-uuid-1234");
-            given(analysisService.submitAnalysis(any(Path.class))).willReturn("test-uuid-1234");
+            given(analysisService.submitAnalysis(any(Path.class), anyString())).willReturn("test-uuid-1234");
             given(analysisService.getEntry("test-uuid-1234")).willReturn(queuedEntry);
             given(analysisService.getQueuePosition(queuedEntry)).willReturn(1);
 
@@ -102,6 +130,28 @@ class AnalysisControllerTest {
                     .andExpect(jsonPath("$.queuePosition").value(1));
         }
 
+        @DisplayName("X-API-Key 헤더가 있으면 키 단위로, 없으면 원격 주소 단위로 스케줄링한다")
+        @Test
+        void passesClientKeyToScheduler() throws Exception {
+            AnalysisEntry queuedEntry = new AnalysisEntry("test-uuid-1234");
+            given(analysisService.submitAnalysis(any(Path.class), anyString())).willReturn("test-uuid-1234");
+            given(analysisService.getEntry("test-uuid-1234")).willReturn(queuedEntry);
+
+            MockMultipartFile file = new MockMultipartFile(
+                    "file", "test.csv", "text/csv", "header\ndata".getBytes());
+
+            mockMvc.perform(multipart("/analysis").file(file).header("X-API-Key", "team-a"))
+                    .andExpect(status().isAccepted());
+            mockMvc.perform(multipart("/analysis").file(file).with(request -> {
+                        request.setRemoteAddr("10.0.0.7");
+                        return request;
+                    }))
+                    .andExpect(status().isAccepted());
+
+            verify(analysisService).submitAnalysis(any(Path.class), eq("key:team-a"));
+            verify(analysisService).submitAnalysis(any(Path.class), eq("addr:10.0.0.7"));
+        }
+
         @DisplayName("빈 파일 업로드 시 400과 INVALID_LOG_FILE 코드를 반환한다")
         @Test
         void rejectsEmptyFile() throws Exception {
@@ -116,7 +166,7 @@ class AnalysisControllerTest {
         @DisplayName("큐가 가득 찼을 때 503을 반환한다")
         @Test
         void returns503WhenQueueFull() throws Exception {
-            given(analysisService.submitAnalysis(any(Path.class)))
+            given(analysisService.submitAnalysis(any(Path.class), anyString()))
                     .willThrow(BusinessException.analysisQueueFull("분석 큐가 가득 찼습니다"));
 
             MockMultipartFile file = new MockMultipartFile(
@@ -126,6 +176,110 @@ class AnalysisControllerTest {
                     .andExpect(status().isServiceUnavailable())
                     .andExpect(jsonPath("$.code").value("ANALYSIS_QUEUE_FULL"));
         }
+
+        @DisplayName("mode=sync 이면 작은 파일을 바로 분석해 200과 결과를 반환한다")
+        @Test
+        void syncModeReturnsResult() throws Exception {
+            AnalysisEntry entry = createEntryWithStatus("test-uuid-1234", AnalysisStatus.COMPLETED);
+            given(syncAnalysisService.tryAnalyze(anyLong(), any())).willReturn(Optional.of(entry));
+            given(ipInfoClient.lookupTopIps(anyMap(), anyInt())).willReturn(Map.of());
+
+            MockMultipartFile file = new MockMultipartFile(
+                    "file", "test.csv", "text/csv", "header\ndata".getBytes());
+
+            mockMvc.perform(multipart("/analysis").file(file).param("mode", "sync"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.analysisId").value("test-uuid-1234"))
+                    .andExpect(jsonPath("$.status").value("COMPLETED"))
+                    .andExpect(jsonPath("$.totalRequests").value(100));
+        }
+
+        @DisplayName("mode=sync 라도 동기 레인에 들어가지 못하면 202로 비동기 접수한다")
+        @Test
+        void syncModeFallsBackToQueue() throws Exception {
+            AnalysisEntry queuedEntry = new AnalysisEntry("test-uuid-1234");
+            given(syncAnalysisService.tryAnalyze(anyLong(), any())).willReturn(Optional.empty());
+            given(analysisService.submitAnalysis(any(Path.class), anyString())).willReturn("test-uuid-1234");
+            given(analysisService.getEntry("test-uuid-1234")).willReturn(queuedEntry);
+            given(analysisService.getQueuePosition(queuedEntry)).willReturn(1);
+
+            MockMultipartFile file = new MockMultipartFile(
+                    "file", "test.csv", "text/csv", "header\ndata".getBytes());
+
+            mockMvc.perform(multipart("/analysis").file(file).param("mode", "sync"))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.status").value("QUEUED"));
+        }
+
+        @DisplayName("지원하지 않는 mode면 400을 반환한다")
+        @Test
+        void rejectsUnknownMode() throws Exception {
+            MockMultipartFile file = new MockMultipartFile(
+                    "file", "test.csv", "text/csv", "header\ndata".getBytes());
+
+            mockMvc.perform(multipart("/analysis").file(file).param("mode", "fast"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("INVALID_PARAMETER"));
+        }
+    }
+
+    // --- POST /analysis (streaming) ---
+
+    @Nested
+    @DisplayName("POST /analysis (text/csv 스트리밍)")
+    class StreamAnalysisTest {
+
+        @DisplayName("CSV 본문을 보내면 업로드 종료와 함께 200과 분석 결과를 반환한다")
+        @Test
+        void returnsResultWhenUploadEnds() throws Exception {
+            AnalysisEntry entry = createEntryWithStatus("test-uuid-1234", AnalysisStatus.COMPLETED);
+            given(streamingAnalysisService.analyze(any(InputStream.class))).willReturn(entry);
+            given(ipInfoClient.lookupTopIps(anyMap(), anyInt())).willReturn(Map.of());
+
+            mockMvc.perform(post("/analysis").contentType("text/csv").content("header\ndata"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.analysisId").value("test-uuid-1234"))
+                    .andExpect(jsonPath("$.status").value("COMPLETED"))
+                    .andExpect(jsonPath("$.totalRequests").value(100));
+        }
+
+        @DisplayName("동시 스트리밍 분석 수를 초과하면 503을 반환한다")
+        @Test
+        void returns503WhenSlotsFull() throws Exception {
+            given(streamingAnalysisService.analyze(any(InputStream.class)))
+                    .willThrow(BusinessException.analysisQueueFull("동시 스트리밍 분석 수를 초과했습니다"));
+
+            mockMvc.perform(post("/analysis").contentType(MediaType.APPLICATION_OCTET_STREAM).content("header\ndata"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.code").value("ANALYSIS_QUEUE_FULL"));
+        }
+    }
+
+    // --- GET /analysis/{analysisId}/events ---
+
+    @Nested
+    @DisplayName("GET /analysis/{analysisId}/events")
+    class AnalysisEventsTest {
+
+        @DisplayName("구독 시 SSE 스트림을 비동기로 연다")
+        @Test
+        void opensEventStream() throws Exception {
+            given(eventService.subscribe("test-uuid-1234")).willReturn(new SseEmitter());
+
+            mockMvc.perform(get("/analysis/test-uuid-1234/events").accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(request().asyncStarted());
+        }
+
+        @DisplayName("존재하지 않는 분석이면 404를 반환한다")
+        @Test
+        void returns404WhenNotFound() throws Exception {
+            given(eventService.subscribe("missing"))
+                    .willThrow(BusinessException.analysisNotFound("분석 결과를 찾을 수 없습니다: missing"));
+
+            mockMvc.perform(get("/analysis/missing/events"))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.code").value("ANALYSIS_NOT_FOUND"));
+        }
     }
 
     // --- GET /analysis/{analysisId} ---
@@ -182,6 +336,25 @@ class AnalysisControllerTest {
                     .andExpect(jsonPath("$.errorInfo.errorCount").value(0));
         }
 
+        @DisplayName("COMPLETED 응답에는 ETag가 붙고, If-None-Match가 일치하면 304를 반환한다")
+        @Test
+        void returns304WhenEtagMatches() throws Exception {
+            AnalysisEntry entry = createEntryWithStatus("test-uuid-1234", AnalysisStatus.COMPLETED);
+            given(analysisService.getEntry("test-uuid-1234")).willReturn(entry);
+            given(ipInfoClient.lookupTopIps(anyMap(), anyInt())).willReturn(Map.of());
+
+            String etag = mockMvc.perform(get("/analysis/test-uuid-1234"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists("ETag"))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            mockMvc.perform(get("/analysis/test-uuid-1234").header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", etag))
+                    .andExpect(content().string(""));
+            verify(ipInfoClient, times(1)).lookupTopIps(anyMap(), anyInt());
+        }
+
         @DisplayName("FAILED 상태이면 에러 메시지를 반환한다")
         @Test
         void returnsFailedWithMessage() throws Exception {
@@ -268,4 +441,106 @@ class AnalysisControllerTest {
                     .andExpect(jsonPath("$.topIps[0].org").value("Cloudflare"));
         }
     }
+
+    // --- DELETE /analysis/{analysisId} ---
+
+    @Nested
+    @DisplayName("DELETE /analysis/{analysisId}")
+    class CancelAnalysisTest {
+
+        @DisplayName("대기 중인 분석을 취소하면 200과 CANCELLED 상태를 반환한다")
+        @Test
+        void cancelsQueuedAnalysis() throws Exception {
+            AnalysisEntry entry = new AnalysisEntry("test-uuid-1234");
+            entry.cancel();
+            given(analysisService.cancelAnalysis("test-uuid-1234")).willReturn(entry);
+
+            mockMvc.perform(delete("/analysis/test-uuid-1234"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("CANCELLED"));
+        }
+
+        @DisplayName("실행 중인 분석은 취소를 요청하고 202와 IN_PROGRESS 상태를 반환한다")
+        @Test
+        void requestsCancelForRunningAnalysis() throws Exception {
+            AnalysisEntry entry = createEntryWithStatus("test-uuid-1234", AnalysisStatus.IN_PROGRESS);
+            given(analysisService.cancelAnalysis("test-uuid-1234")).willReturn(entry);
+
+            mockMvc.perform(delete("/analysis/test-uuid-1234"))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.status").value("IN_PROGRESS"));
+        }
+
+        @DisplayName("이미 완료된 분석을 취소하면 409를 반환한다")
+        @Test
+        void rejectsFinishedAnalysis() throws Exception {
+            given(analysisService.cancelAnalysis("test-uuid-1234"))
+                    .willThrow(BusinessException.analysisNotCancellable("이미 종료된 분석은 취소할 수 없습니다: test-uuid-1234"));
+
+            mockMvc.perform(delete("/analysis/test-uuid-1234"))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.code").value("ANALYSIS_NOT_CANCELLABLE"));
+        }
+    }
+
+    // --- GET /analysis/merge, /analysis/diff ---
+
+    @Nested
+    @DisplayName("GET /analysis/merge, /analysis/diff")
+    class CompareAnalysisTest {
+
+        @DisplayName("여러 분석 ID를 병합한 Top-N 결과를 반환한다")
+        @Test
+        void returnsMergedResult() throws Exception {
+            MergedAnalysis merged = new MergedAnalysis(
+                    List.of("id-1", "id-2"), 200, 210, 10,
+                    Map.of("2xx", 150L, "4xx", 50L),
+                    Map.of("/a", 120L),
+                    Map.of("200", 150L),
+                    Map.of("1.1.1.1", 200L)
+            );
+            given(comparisonService.merge(List.of("id-1", "id-2"), 1)).willReturn(merged);
+            given(ipInfoClient.lookupTopIps(anyMap(), anyInt())).willReturn(
+                    Map.of("1.1.1.1", new IpInfo("AU", "New South Wales", "Sydney", "Cloudflare")));
+
+            mockMvc.perform(get("/analysis/merge").param("ids", "id-1,id-2").param("top", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.analysisIds.length()").value(2))
+                    .andExpect(jsonPath("$.totalRequests").value(200))
+                    .andExpect(jsonPath("$.statusGroupRatios.2xx").value(75.0))
+                    .andExpect(jsonPath("$.topPaths[0].path").value("/a"))
+                    .andExpect(jsonPath("$.topPaths[0].percentage").value(60.0))
+                    .andExpect(jsonPath("$.topIps[0].country").value("AU"));
+        }
+
+        @DisplayName("완료되지 않은 분석을 병합하면 409를 반환한다")
+        @Test
+        void mergeRejectsIncompleteAnalysis() throws Exception {
+            given(comparisonService.merge(anyList(), anyInt()))
+                    .willThrow(BusinessException.analysisNotCompleted("완료되지 않은 분석입니다: id-1"));
+
+            mockMvc.perform(get("/analysis/merge").param("ids", "id-1"))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.code").value("ANALYSIS_NOT_COMPLETED"));
+        }
+
+        @DisplayName("두 분석의 차이와 변동 상위 항목을 반환한다")
+        @Test
+        void returnsDiff() throws Exception {
+            AnalysisDiff.DimensionDiff paths = new AnalysisDiff.DimensionDiff(1, 0, 1, List.of(
+                    new AnalysisDiff.CountDelta("/b", 0, 40),
+                    new AnalysisDiff.CountDelta("/a", 50, 30)));
+            AnalysisDiff.DimensionDiff empty = new AnalysisDiff.DimensionDiff(0, 0, 0, List.of());
+            given(comparisonService.diff("base-id", "target-id", 10))
+                    .willReturn(new AnalysisDiff("base-id", "target-id", 50, 70, paths, empty, empty));
+
+            mockMvc.perform(get("/analysis/diff").param("base", "base-id").param("target", "target-id"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalRequestsDelta").value(20))
+                    .andExpect(jsonPath("$.paths.addedKeys").value(1))
+                    .andExpect(jsonPath("$.paths.topMovers[0].key").value("/b"))
+                    .andExpect(jsonPath("$.paths.topMovers[0].delta").value(40))
+                    .andExpect(jsonPath("$.paths.topMovers[1].delta").value(-20));
+        }
+    }
 }
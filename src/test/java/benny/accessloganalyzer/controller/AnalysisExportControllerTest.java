@@ -0,0 +1,82 @@
+package benny.accessloganalyzer.controller;
+
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.global.exception.GlobalExceptionHandler;
+import benny.accessloganalyzer.model.ExportPage;
+import benny.accessloganalyzer.model.SortedCounts;
+import benny.accessloganalyzer.service.AnalysisExportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Map;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AnalysisExportController.class)
+@Import(GlobalExceptionHandler.class)
+class AnalysisExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AnalysisExportService exportService;
+
+    @DisplayName("순위 순서의 NDJSON과 다음 커서 헤더를 내려준다")
+    @Test
+    void streamsNdjsonWithCursor() throws Exception {
+        SortedCounts counts = SortedCounts.of(Map.of("/a", 1L, "/b", 5L, "/c", 3L));
+        given(exportService.page("test-uuid-1234", "paths", null, 2))
+                .willReturn(new ExportPage(counts, 0, 2, "2"));
+
+        MvcResult result = mockMvc.perform(get("/analysis/test-uuid-1234/export/paths").param("limit", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string("X-Next-Cursor", "2"))
+                .andExpect(content().string("""
+                        {"rank":1,"key":"/b","count":5}
+                        {"rank":2,"key":"/c","count":3}
+                        """));
+    }
+
+    @DisplayName("마지막 페이지에는 다음 커서 헤더가 없다")
+    @Test
+    void omitsCursorOnLastPage() throws Exception {
+        SortedCounts counts = SortedCounts.of(Map.of("/a", 1L));
+        given(exportService.page("test-uuid-1234", "paths", null, 100000))
+                .willReturn(new ExportPage(counts, 0, 1, null));
+
+        MvcResult result = mockMvc.perform(get("/analysis/test-uuid-1234/export/paths"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @DisplayName("지원하지 않는 항목이면 400을 반환한다")
+    @Test
+    void returns400ForUnknownDimension() throws Exception {
+        given(exportService.page("test-uuid-1234", "agents", null, 100000))
+                .willThrow(BusinessException.invalidParameter("지원하지 않는 내보내기 항목입니다: agents"));
+
+        mockMvc.perform(get("/analysis/test-uuid-1234/export/agents"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_PARAMETER"));
+    }
+}
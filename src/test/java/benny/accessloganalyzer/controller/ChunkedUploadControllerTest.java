@@ -0,0 +1,115 @@
+package benny.accessloganalyzer.controller;
+
+import benny.accessloganalyzer.client.IpInfoClient;
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.global.exception.GlobalExceptionHandler;
+import benny.accessloganalyzer.model.AnalysisEntry;
+import benny.accessloganalyzer.model.AnalysisResult;
+import benny.accessloganalyzer.model.UploadStatus;
+import benny.accessloganalyzer.service.ChunkedUploadService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ChunkedUploadController.class)
+@Import(GlobalExceptionHandler.class)
+class ChunkedUploadControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ChunkedUploadService chunkedUploadService;
+
+    @MockitoBean
+    private IpInfoClient ipInfoClient;
+
+    @DisplayName("세션 생성 시 201과 업로드/분석 ID를 반환한다")
+    @Test
+    void createsSession() throws Exception {
+        given(chunkedUploadService.createSession())
+                .willReturn(new UploadStatus("upload-1", "analysis-1", 0, 0, 8_388_608));
+
+        mockMvc.perform(post("/analysis/uploads"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.uploadId").value("upload-1"))
+                .andExpect(jsonPath("$.analysisId").value("analysis-1"))
+                .andExpect(jsonPath("$.nextChunkIndex").value(0));
+    }
+
+    @DisplayName("청크 업로드 시 다음 청크 인덱스를 반환한다")
+    @Test
+    void putsChunk() throws Exception {
+        given(chunkedUploadService.putChunk(eq("upload-1"), eq(0), any(InputStream.class)))
+                .willReturn(new UploadStatus("upload-1", "analysis-1", 1, 4, 8_388_608));
+
+        mockMvc.perform(put("/analysis/uploads/upload-1/chunks/0")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content("data"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextChunkIndex").value(1))
+                .andExpect(jsonPath("$.receivedBytes").value(4));
+    }
+
+    @DisplayName("순서가 맞지 않는 청크는 409를 반환한다")
+    @Test
+    void returns409WhenOutOfOrder() throws Exception {
+        given(chunkedUploadService.putChunk(eq("upload-1"), eq(3), any(InputStream.class)))
+                .willThrow(BusinessException.chunkOutOfOrder("청크 순서가 올바르지 않습니다"));
+
+        mockMvc.perform(put("/analysis/uploads/upload-1/chunks/3")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content("data"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("CHUNK_OUT_OF_ORDER"));
+    }
+
+    @DisplayName("존재하지 않는 세션 조회 시 404를 반환한다")
+    @Test
+    void returns404ForUnknownSession() throws Exception {
+        given(chunkedUploadService.getStatus("missing"))
+                .willThrow(BusinessException.uploadNotFound("업로드 세션을 찾을 수 없습니다: missing"));
+
+        mockMvc.perform(get("/analysis/uploads/missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("UPLOAD_NOT_FOUND"));
+    }
+
+    @DisplayName("업로드 완료 시 분석 결과를 반환한다")
+    @Test
+    void completesUpload() throws Exception {
+        AnalysisEntry entry = new AnalysisEntry("analysis-1");
+        entry.startProcessing();
+        entry.complete(new AnalysisResult("analysis-1", LocalDateTime.of(2024, 1, 1, 0, 0), 10,
+                Map.of("200", 10L), Map.of("2xx", 10L), Map.of("/a", 10L), Map.of("1.1.1.1", 10L),
+                10, 0, List.of()));
+        given(chunkedUploadService.complete("upload-1")).willReturn(entry);
+        given(ipInfoClient.lookupTopIps(anyMap(), anyInt())).willReturn(Map.of());
+
+        mockMvc.perform(post("/analysis/uploads/upload-1/complete"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.analysisId").value("analysis-1"))
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.totalRequests").value(10));
+    }
+}
@@ -0,0 +1,85 @@
+package benny.accessloganalyzer.controller;
+
+import benny.accessloganalyzer.client.IpInfo;
+import benny.accessloganalyzer.client.IpInfoClient;
+import benny.accessloganalyzer.model.AnalysisResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class CompletedResultCacheTest {
+
+    private IpInfoClient ipInfoClient;
+    private CompletedResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        ipInfoClient = mock(IpInfoClient.class);
+        given(ipInfoClient.lookupTopIps(anyMap(), anyInt()))
+                .willReturn(Map.of("1.1.1.1", new IpInfo("KR", "Seoul", "Seoul", "AS1")));
+        cache = new CompletedResultCache(ipInfoClient, JsonMapper.builder().build(), 1024 * 1024, 600, 30);
+    }
+
+    private AnalysisResult result(String analysisId) {
+        return new AnalysisResult(analysisId, LocalDateTime.of(2024, 1, 1, 0, 0), 10,
+                Map.of("200", 10L), Map.of("2xx", 10L), Map.of("/a", 10L), Map.of("1.1.1.1", 10L),
+                10, 0, List.of());
+    }
+
+    @DisplayName("같은 결과와 top이면 렌더링된 바이트를 재사용한다")
+    @Test
+    void reusesRenderedBytes() {
+        AnalysisResult result = result("id-1");
+
+        CompletedResultCache.Rendered first = cache.render(result, 10);
+        CompletedResultCache.Rendered second = cache.render(result, 10);
+
+        assertThat(second).isSameAs(first);
+        assertThat(new String(first.body(), StandardCharsets.UTF_8)).contains("\"analysisId\":\"id-1\"");
+        assertThat(first.etag()).startsWith("\"").endsWith("\"");
+        verify(ipInfoClient, times(1)).lookupTopIps(anyMap(), anyInt());
+    }
+
+    @DisplayName("top이 다르면 별도로 렌더링한다")
+    @Test
+    void rendersPerTop() {
+        AnalysisResult result = result("id-1");
+
+        cache.render(result, 10);
+        cache.render(result, 5);
+
+        verify(ipInfoClient, times(2)).lookupTopIps(anyMap(), anyInt());
+    }
+
+    @DisplayName("같은 ID라도 결과 인스턴스가 바뀌면 다시 렌더링한다")
+    @Test
+    void rerendersWhenResultReplaced() {
+        CompletedResultCache.Rendered first = cache.render(result("id-1"), 10);
+        CompletedResultCache.Rendered second = cache.render(result("id-1"), 10);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.etag()).isEqualTo(first.etag());
+    }
+
+    @DisplayName("ipinfo 조회가 실패한 응답은 degraded로 표시된다")
+    @Test
+    void marksDegradedResponse() {
+        given(ipInfoClient.lookupTopIps(anyMap(), anyInt())).willReturn(Map.of("1.1.1.1", IpInfo.unknown()));
+
+        assertThat(cache.render(result("id-2"), 10).degraded()).isTrue();
+    }
+}
@@ -0,0 +1,65 @@
+package benny.accessloganalyzer.controller;
+
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.global.exception.GlobalExceptionHandler;
+import benny.accessloganalyzer.model.GeoPrefetchProgress;
+import benny.accessloganalyzer.model.GeoPrefetchStats;
+import benny.accessloganalyzer.service.GeoPrefetchService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(GeoPrefetchController.class)
+@Import(GlobalExceptionHandler.class)
+class GeoPrefetchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private GeoPrefetchService geoPrefetchService;
+
+    @DisplayName("분석별 미리 조회 진행 상황을 반환한다")
+    @Test
+    void returnsProgress() throws Exception {
+        given(geoPrefetchService.getProgress("id-1"))
+                .willReturn(new GeoPrefetchProgress("id-1", GeoPrefetchProgress.State.RUNNING, 50, 10, 20));
+
+        mockMvc.perform(get("/analysis/id-1/geo-prefetch"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andExpect(jsonPath("$.requestedIps").value(50))
+                .andExpect(jsonPath("$.fetchedIps").value(20));
+    }
+
+    @DisplayName("미리 조회 기록이 없으면 404를 반환한다")
+    @Test
+    void returnsNotFound() throws Exception {
+        given(geoPrefetchService.getProgress("unknown"))
+                .willThrow(BusinessException.analysisNotFound("지리정보 미리 조회 기록이 없습니다: unknown"));
+
+        mockMvc.perform(get("/analysis/unknown/geo-prefetch"))
+                .andExpect(status().isNotFound());
+    }
+
+    @DisplayName("누적 통계와 캐시 적중률을 반환한다")
+    @Test
+    void returnsStats() throws Exception {
+        given(geoPrefetchService.getStats())
+                .willReturn(new GeoPrefetchStats(50, 3, 3, 0, 120, 30, 40, 38, 95.0));
+
+        mockMvc.perform(get("/analysis/geo-prefetch"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.prefetchedIps").value(120))
+                .andExpect(jsonPath("$.topIpCacheHitRate").value(95.0));
+    }
+}
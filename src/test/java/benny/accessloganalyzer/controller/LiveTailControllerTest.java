@@ -0,0 +1,67 @@
+package benny.accessloganalyzer.controller;
+
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.global.exception.GlobalExceptionHandler;
+import benny.accessloganalyzer.model.TailWindow;
+import benny.accessloganalyzer.service.LiveTailService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(LiveTailController.class)
+@Import(GlobalExceptionHandler.class)
+class LiveTailControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private LiveTailService liveTailService;
+
+    @DisplayName("최근 구간 집계를 반환한다")
+    @Test
+    void returnsWindow() throws Exception {
+        LocalDateTime to = LocalDateTime.of(2026, 1, 29, 5, 45);
+        given(liveTailService.window(15, 10)).willReturn(new TailWindow("/var/log/access.csv", 15,
+                to.minusMinutes(15), to, 3,
+                Map.of("2xx", 2L, "5xx", 1L), Map.of("200", 2L, "500", 1L),
+                Map.of("/api", 3L), Map.of("1.1.1.1", 3L)));
+
+        mockMvc.perform(get("/analysis/tail").param("window", "15"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.windowMinutes").value(15))
+                .andExpect(jsonPath("$.totalRequests").value(3))
+                .andExpect(jsonPath("$.statusGroupCounts['5xx']").value(1))
+                .andExpect(jsonPath("$.topPaths['/api']").value(3));
+    }
+
+    @DisplayName("추적이 설정되지 않았으면 404를 반환한다")
+    @Test
+    void returnsNotFoundWhenDisabled() throws Exception {
+        given(liveTailService.window(5, 10))
+                .willThrow(BusinessException.tailNotEnabled("실시간 추적 파일이 설정되지 않았습니다"));
+
+        mockMvc.perform(get("/analysis/tail"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("TAIL_NOT_ENABLED"));
+    }
+
+    @DisplayName("top이 1 미만이면 400을 반환한다")
+    @Test
+    void rejectsInvalidTop() throws Exception {
+        mockMvc.perform(get("/analysis/tail").param("top", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
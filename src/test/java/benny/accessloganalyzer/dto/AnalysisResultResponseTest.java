@@ -3,6 +3,7 @@ package benny.accessloganalyzer.dto;
 import benny.accessloganalyzer.client.IpInfo;
 import benny.accessloganalyzer.model.AnalysisResult;
 import benny.accessloganalyzer.model.AnalysisStatus;
+import benny.accessloganalyzer.model.GeoDistribution;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -222,4 +223,43 @@ class AnalysisResultResponseTest {
         assertThat(response.topIps().get(0).city()).isEqualTo("UNKNOWN");
         assertThat(response.topIps().get(0).org()).isEqualTo("UNKNOWN");
     }
+
+    @DisplayName("geoDistribution 은 국가·ASN 별 요청 수 상위 N개와 전체 대비 비율을 담는다")
+    @Test
+    void geoDistributionSharesAreCountWeighted() {
+        AnalysisResult result = createResult(
+                1000, Map.of("200", 1000L), Map.of("2xx", 1000L),
+                Map.of("/api", 1000L), Map.of("1.1.1.1", 1000L),
+                1000, 0, List.of()
+        );
+        GeoDistribution distribution = new GeoDistribution(500_000, 1000, 100,
+                Map.of("KR", 600L, "US", 250L, "JP", 50L, "UNKNOWN", 100L),
+                Map.of("AS4766", 500L, "AS15169", 300L, "AS2516", 100L, "UNKNOWN", 100L));
+
+        AnalysisResultResponse response = AnalysisResultResponse.from(result, 2, Map.of(), distribution);
+
+        AnalysisResultResponse.GeoDistributionInfo geo = response.geoDistribution();
+        assertThat(geo.distinctIps()).isEqualTo(500_000);
+        assertThat(geo.unresolvedRequests()).isEqualTo(100);
+        assertThat(geo.resolvedPercentage()).isEqualTo(90.0);
+        assertThat(geo.countries()).containsExactly(
+                new AnalysisResultResponse.GeoShare("KR", 600, 60.0),
+                new AnalysisResultResponse.GeoShare("US", 250, 25.0));
+        assertThat(geo.asns()).extracting(AnalysisResultResponse.GeoShare::key).containsExactly("AS4766", "AS15169");
+    }
+
+    @DisplayName("분포가 없으면 빈 geoDistribution 을 담는다")
+    @Test
+    void emptyGeoDistributionWhenMissing() {
+        AnalysisResult result = createResult(
+                100, Map.of("200", 100L), Map.of("2xx", 100L),
+                Map.of("/api", 100L), Map.of("1.1.1.1", 100L),
+                100, 0, List.of()
+        );
+
+        AnalysisResultResponse response = AnalysisResultResponse.from(result, 10, Map.of(), null);
+
+        assertThat(response.geoDistribution().countries()).isEmpty();
+        assertThat(response.geoDistribution().resolvedPercentage()).isEqualTo(0.0);
+    }
 }
@@ -1,11 +1,16 @@
 package benny.accessloganalyzer.global.config;
 
 import benny.accessloganalyzer.client.IpInfo;
+import benny.accessloganalyzer.client.LocalGeoDatabase;
 import com.github.benmanes.caffeine.cache.Cache;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.web.client.RestClient;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class IpInfoConfigTest {
@@ -15,11 +20,24 @@ class IpInfoConfigTest {
     @DisplayName("ipInfoRestClient 빈은 RestClient 인스턴스를 반환한다")
     @Test
     void createsRestClient() {
-        RestClient restClient = config.ipInfoRestClient("https://ipinfo.io", 5000);
+        HttpClient httpClient = config.ipInfoHttpClient(HttpClient.Version.HTTP_2, 2000, Runnable::run);
+        RestClient restClient = config.ipInfoRestClient("https://ipinfo.io", 5000, httpClient);
 
         assertThat(restClient).isNotNull();
     }
 
+    @DisplayName("ipInfoHttpClient 빈은 설정한 HTTP 버전, 연결 타임아웃, executor 를 쓴다")
+    @Test
+    void createsHttpClient() {
+        Executor executor = Runnable::run;
+        HttpClient httpClient = config.ipInfoHttpClient(HttpClient.Version.HTTP_2, 2000, executor);
+
+        assertThat(httpClient.version()).isEqualTo(HttpClient.Version.HTTP_2);
+        assertThat(httpClient.connectTimeout()).contains(Duration.ofMillis(2000));
+        assertThat(httpClient.executor()).contains(executor);
+        assertThat(httpClient.followRedirects()).isEqualTo(HttpClient.Redirect.NEVER);
+    }
+
     @DisplayName("ipInfoCache 빈은 Caffeine Cache 인스턴스를 반환한다")
     @Test
     void createsCaffeineCache() {
@@ -29,4 +47,12 @@ class IpInfoConfigTest {
         cache.put("test", new IpInfo("KR", "Seoul", "Seoul", "KT"));
         assertThat(cache.getIfPresent("test")).isNotNull();
     }
+
+    @DisplayName("localGeoDatabase 빈은 경로가 비어 있으면 빈 DB를 반환한다")
+    @Test
+    void createsEmptyLocalGeoDatabaseWithoutPath() throws Exception {
+        LocalGeoDatabase database = config.localGeoDatabase("");
+
+        assertThat(database.size()).isZero();
+    }
 }
@@ -0,0 +1,145 @@
+package benny.accessloganalyzer.global.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskExecutorsTest {
+
+    @Nested
+    @DisplayName("플랫폼 스레드 풀")
+    class PlatformPoolTest {
+
+        @DisplayName("이름 접두사가 붙은 플랫폼 스레드에서 실행한다")
+        @Test
+        void runsOnPlatformThreads() throws Exception {
+            ThreadPoolTaskExecutor executor = TaskExecutors.platformPool("analysis", 1, 2, 10);
+            try {
+                Thread thread = CompletableFuture.supplyAsync(Thread::currentThread, executor).get(5, TimeUnit.SECONDS);
+
+                assertThat(thread.isVirtual()).isFalse();
+                assertThat(thread.getName()).startsWith("analysis-");
+                assertThat(executor.getCorePoolSize()).isEqualTo(1);
+                assertThat(executor.getMaxPoolSize()).isEqualTo(2);
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("CPU executor")
+    class CpuExecutorTest {
+
+        @DisplayName("가상 스레드 모드가 아니면 호출 스레드에서 바로 실행한다")
+        @Test
+        void runsOnCallerWithoutVirtualThreads() {
+            Executor executor = TaskExecutors.cpuExecutor("inline-analysis", 2, 10, false);
+            Thread[] ran = new Thread[1];
+
+            executor.execute(() -> ran[0] = Thread.currentThread());
+
+            assertThat(ran[0]).isSameAs(Thread.currentThread());
+        }
+
+        @DisplayName("가상 스레드 모드에서는 가상 스레드가 넘긴 작업도 플랫폼 스레드 풀에서 실행한다")
+        @Test
+        void handsOffToPlatformPoolWithVirtualThreads() throws Exception {
+            ThreadPoolTaskExecutor executor =
+                    (ThreadPoolTaskExecutor) TaskExecutors.cpuExecutor("inline-analysis", 2, 10, true);
+            try {
+                CompletableFuture<Thread> ran = new CompletableFuture<>();
+                Thread.ofVirtual().start(() -> executor.execute(() -> ran.complete(Thread.currentThread()))).join();
+
+                Thread thread = ran.get(5, TimeUnit.SECONDS);
+                assertThat(thread.isVirtual()).isFalse();
+                assertThat(thread.getName()).startsWith("inline-analysis-");
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("I/O executor")
+    class IoExecutorTest {
+
+        @DisplayName("가상 스레드 모드가 아니면 플랫폼 스레드 풀을 쓴다")
+        @Test
+        void usesPlatformPoolWithoutVirtualThreads() {
+            Executor executor = TaskExecutors.ioExecutor("ipinfo", 2, 10, false);
+
+            assertThat(executor).isInstanceOf(ThreadPoolTaskExecutor.class);
+            ((ThreadPoolTaskExecutor) executor).shutdown();
+        }
+
+        @DisplayName("가상 스레드 모드에서는 작업마다 가상 스레드를 만들고 동시 실행 수를 제한한다")
+        @Test
+        void limitsConcurrencyOnVirtualThreads() throws Exception {
+            try (TaskExecutors.BoundedVirtualThreadExecutor executor =
+                         (TaskExecutors.BoundedVirtualThreadExecutor) TaskExecutors.ioExecutor("ipinfo", 2, 100, true)) {
+                AtomicInteger active = new AtomicInteger();
+                AtomicInteger maxActive = new AtomicInteger();
+                AtomicInteger virtual = new AtomicInteger();
+                CountDownLatch done = new CountDownLatch(20);
+                for (int i = 0; i < 20; i++) {
+                    executor.execute(() -> {
+                        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                        if (Thread.currentThread().isVirtual()) {
+                            virtual.incrementAndGet();
+                        }
+                        sleep(10);
+                        active.decrementAndGet();
+                        done.countDown();
+                    });
+                }
+
+                assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+                assertThat(maxActive.get()).isLessThanOrEqualTo(2);
+                assertThat(virtual).hasValue(20);
+            }
+        }
+
+        @DisplayName("가상 스레드 모드에서도 실행 중 + 대기 수가 한도를 넘으면 거절한다")
+        @Test
+        void rejectsBeyondQueueCapacity() {
+            try (TaskExecutors.BoundedVirtualThreadExecutor executor =
+                         (TaskExecutors.BoundedVirtualThreadExecutor) TaskExecutors.ioExecutor("prefetch", 1, 1, true)) {
+                CountDownLatch release = new CountDownLatch(1);
+                executor.execute(() -> await(release));
+                executor.execute(() -> await(release));
+
+                assertThatThrownBy(() -> executor.execute(() -> {}))
+                        .isInstanceOf(RejectedExecutionException.class);
+                release.countDown();
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,7 +1,16 @@
 package benny.accessloganalyzer.global.exception;
 
 import benny.accessloganalyzer.client.IpInfoClient;
+import benny.accessloganalyzer.controller.CompletedResultCache;
+import benny.accessloganalyzer.service.AnalysisComparisonService;
+import benny.accessloganalyzer.service.AnalysisEventService;
+import benny.accessloganalyzer.service.AnalysisExportService;
 import benny.accessloganalyzer.service.AnalysisService;
+import benny.accessloganalyzer.service.ChunkedUploadService;
+import benny.accessloganalyzer.service.GeoPrefetchService;
+import benny.accessloganalyzer.service.LiveTailService;
+import benny.accessloganalyzer.service.StreamingAnalysisService;
+import benny.accessloganalyzer.service.SyncAnalysisService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,9 +37,36 @@ class GlobalExceptionHandlerTest {
     @MockitoBean
     private AnalysisService analysisService;
 
+    @MockitoBean
+    private AnalysisComparisonService analysisComparisonService;
+
+    @MockitoBean
+    private StreamingAnalysisService streamingAnalysisService;
+
+    @MockitoBean
+    private AnalysisEventService eventService;
+
+    @MockitoBean
+    private ChunkedUploadService chunkedUploadService;
+
     @MockitoBean
     private IpInfoClient ipInfoClient;
 
+    @MockitoBean
+    private CompletedResultCache completedResultCache;
+
+    @MockitoBean
+    private AnalysisExportService analysisExportService;
+
+    @MockitoBean
+    private SyncAnalysisService syncAnalysisService;
+
+    @MockitoBean
+    private LiveTailService liveTailService;
+
+    @MockitoBean
+    private GeoPrefetchService geoPrefetchService;
+
     @RestController
     static class TestController {
 
@@ -49,6 +85,11 @@ class GlobalExceptionHandlerTest {
             throw BusinessException.externalApiError("ipinfo API 호출 실패");
         }
 
+        @GetMapping("/test/queue-full-retry")
+        void queueFullWithRetryAfter() {
+            throw BusinessException.analysisQueueFull("분석 메모리 예산이 부족합니다", 12);
+        }
+
         @GetMapping("/test/unexpected-error")
         void unexpectedError() {
             throw new RuntimeException("예상치 못한 오류");
@@ -96,6 +137,22 @@ class GlobalExceptionHandlerTest {
                 .andExpect(jsonPath("$.timestamp").exists());
     }
 
+    @DisplayName("재시도 시점이 있는 예외는 Retry-After 헤더를 함께 반환한다")
+    @Test
+    void handleRetryAfter() throws Exception {
+        mockMvc.perform(get("/test/queue-full-retry"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "12"))
+                .andExpect(jsonPath("$.code").value("ANALYSIS_QUEUE_FULL"));
+    }
+
+    @DisplayName("Retry-After가 없는 예외는 헤더를 붙이지 않는다")
+    @Test
+    void omitsRetryAfterByDefault() throws Exception {
+        mockMvc.perform(get("/test/analysis-not-found"))
+                .andExpect(header().doesNotExist("Retry-After"));
+    }
+
     @DisplayName("예상치 못한 RuntimeException 발생 시 500과 INTERNAL_SERVER_ERROR 코드를 반환한다")
     @Test
     void handleUnexpectedException() throws Exception {
@@ -0,0 +1,74 @@
+package benny.accessloganalyzer.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SortedCountsTest {
+
+    @DisplayName("of()는 키 오름차순으로 정렬된 카운트를 만든다")
+    @Test
+    void sortsByKey() {
+        SortedCounts counts = SortedCounts.of(Map.of("/c", 3L, "/a", 1L, "/b", 2L));
+
+        assertThat(counts.size()).isEqualTo(3);
+        assertThat(counts.keyAt(0)).isEqualTo("/a");
+        assertThat(counts.keyAt(1)).isEqualTo("/b");
+        assertThat(counts.keyAt(2)).isEqualTo("/c");
+        assertThat(counts.countAt(2)).isEqualTo(3L);
+        assertThat(counts.keySet()).containsExactly("/a", "/b", "/c");
+    }
+
+    @DisplayName("Map 조회 API가 이진 탐색으로 동작한다")
+    @Test
+    void behavesAsMap() {
+        SortedCounts counts = SortedCounts.of(Map.of("200", 90L, "404", 10L));
+
+        assertThat(counts).containsEntry("200", 90L).containsEntry("404", 10L);
+        assertThat(counts.get("500")).isNull();
+        assertThat(counts.containsKey("404")).isTrue();
+        assertThat(counts).isEqualTo(new HashMap<>(Map.of("200", 90L, "404", 10L)));
+    }
+
+    @DisplayName("이미 SortedCounts인 입력은 복사하지 않고 그대로 반환한다")
+    @Test
+    void reusesSortedInstance() {
+        SortedCounts counts = SortedCounts.of(Map.of("a", 1L));
+
+        assertThat(SortedCounts.of(counts)).isSameAs(counts);
+    }
+
+    @DisplayName("수정 연산은 지원하지 않는다")
+    @Test
+    void isImmutable() {
+        SortedCounts counts = SortedCounts.of(Map.of("a", 1L));
+
+        assertThatThrownBy(() -> counts.put("b", 2L)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @DisplayName("순위는 카운트 내림차순, 동률이면 키 오름차순이다")
+    @Test
+    void ranksByCountThenKey() {
+        SortedCounts counts = SortedCounts.of(Map.of("/c", 5L, "/a", 1L, "/b", 5L, "/d", 9L));
+
+        assertThat(counts.keyAt(counts.indexAtRank(0))).isEqualTo("/d");
+        assertThat(counts.keyAt(counts.indexAtRank(1))).isEqualTo("/b");
+        assertThat(counts.keyAt(counts.indexAtRank(2))).isEqualTo("/c");
+        assertThat(counts.keyAt(counts.indexAtRank(3))).isEqualTo("/a");
+    }
+
+    @DisplayName("int 범위를 넘는 카운트도 올바르게 순위를 매긴다")
+    @Test
+    void ranksLargeCounts() {
+        SortedCounts counts = SortedCounts.of(Map.of("a", 1L, "b", 3_000_000_000L, "c", 3_000_000_001L));
+
+        assertThat(counts.keyAt(counts.indexAtRank(0))).isEqualTo("c");
+        assertThat(counts.keyAt(counts.indexAtRank(1))).isEqualTo("b");
+        assertThat(counts.keyAt(counts.indexAtRank(2))).isEqualTo("a");
+    }
+}
@@ -10,10 +10,12 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class AccessLogCsvParserTest {
 
@@ -213,4 +215,62 @@ class AccessLogCsvParserTest {
             assertThat(result.errorSamples()).hasSize(10);
         }
     }
+
+    @Nested
+    @DisplayName("증분 파싱 세션")
+    class IncrementalSession {
+
+        @Test
+        @DisplayName("라인을 나눠 넣어도 한 번에 파싱한 결과와 같다")
+        void matchesStreamParse() {
+            String csv = HEADER + "\n" + VALID_LINE + "\n\nbad,line\n" + VALID_LINE;
+
+            List<AccessLogEntry> captured = new ArrayList<>();
+            ParseSession session = parser.newSession(captured::add);
+            for (String line : csv.split("\n", -1)) {
+                session.acceptLine(line);
+            }
+            ParseResult incremental = session.finish();
+
+            ParseResult streamed = parser.parse(toInputStream(csv), entry -> {});
+            assertThat(incremental).isEqualTo(streamed);
+            assertThat(captured).hasSize(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("취소")
+    class Cancellation {
+
+        private String csvWithLines(int lines) {
+            return HEADER + "\n" + IntStream.range(0, lines)
+                    .mapToObj(i -> VALID_LINE)
+                    .collect(Collectors.joining("\n"));
+        }
+
+        @Test
+        @DisplayName("파싱 도중 취소되면 다음 확인 지점에서 CancellationException 으로 멈춘다")
+        void stopsSoonAfterCancel() {
+            ParseMonitor monitor = new ParseMonitor();
+            int[] consumed = {0};
+
+            assertThatThrownBy(() -> parser.parse(toInputStream(csvWithLines(10_000)), entry -> {
+                if (++consumed[0] == 1_000) {
+                    monitor.cancel();
+                }
+            }, monitor)).isInstanceOf(CancellationException.class);
+
+            assertThat(consumed[0]).isBetween(1_000, 1_000 + 256);
+        }
+
+        @Test
+        @DisplayName("확인 지점 전에 입력이 끝나도 취소된 세션은 결과를 내지 않는다")
+        void finishRejectsCancelledSession() {
+            ParseMonitor monitor = new ParseMonitor();
+            monitor.cancel();
+
+            assertThatThrownBy(() -> parser.parse(toInputStream(csvWithLines(3)), entry -> {}, monitor))
+                    .isInstanceOf(CancellationException.class);
+        }
+    }
 }
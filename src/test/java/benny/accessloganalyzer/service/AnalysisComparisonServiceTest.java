@@ -0,0 +1,144 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.model.AnalysisDiff;
+import benny.accessloganalyzer.model.MergedAnalysis;
+import benny.accessloganalyzer.parser.AccessLogCsvParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AnalysisComparisonServiceTest {
+
+    private static final String HEADER = "timestamp,clientIp,httpMethod,requestUri,userAgent,httpStatus,httpVersion,receivedBytes,sentBytes,clientResponseTime,sslProtocol,originalRequestUriWithArgs";
+    private static final Executor SYNC_EXECUTOR = Runnable::run;
+
+    private AnalysisService analysisService;
+    private AnalysisComparisonService comparisonService;
+
+    @BeforeEach
+    void setUp() {
+        analysisService = new AnalysisService(new AccessLogCsvParser(), 200_000, SYNC_EXECUTOR);
+        comparisonService = new AnalysisComparisonService(analysisService);
+    }
+
+    private String submit(String... lines) throws IOException {
+        Path tempFile = Files.createTempFile("test-log-", ".csv");
+        Files.writeString(tempFile, HEADER + "\n" + String.join("\n", lines));
+        return analysisService.submitAnalysis(tempFile);
+    }
+
+    private String csvLine(String ip, String path, int status) {
+        return String.format("2024-01-01T00:00:00,%s,GET,%s,Mozilla/5.0,%d,HTTP/1.1,100,200,0.5,TLSv1.3,%s",
+                ip, path, status, path);
+    }
+
+    @Nested
+    @DisplayName("병합")
+    class MergeTest {
+
+        @DisplayName("여러 분석의 카운트를 합산하고 Top-N을 내림차순으로 반환한다")
+        @Test
+        void mergesCounts() throws Exception {
+            String id1 = submit(csvLine("1.1.1.1", "/a", 200), csvLine("1.1.1.1", "/b", 404));
+            String id2 = submit(csvLine("2.2.2.2", "/a", 200), csvLine("1.1.1.1", "/c", 500),
+                    csvLine("2.2.2.2", "/a", 200));
+
+            MergedAnalysis merged = comparisonService.merge(List.of(id1, id2), 2);
+
+            assertThat(merged.totalRequests()).isEqualTo(5);
+            assertThat(merged.statusGroupCounts())
+                    .containsEntry("2xx", 3L).containsEntry("4xx", 1L).containsEntry("5xx", 1L);
+            assertThat(merged.topPathCounts()).containsExactly(
+                    java.util.Map.entry("/a", 3L), java.util.Map.entry("/b", 1L));
+            assertThat(merged.topIpCounts()).containsExactly(
+                    java.util.Map.entry("1.1.1.1", 3L), java.util.Map.entry("2.2.2.2", 2L));
+        }
+
+        @DisplayName("중복된 ID는 한 번만 병합한다")
+        @Test
+        void ignoresDuplicateIds() throws Exception {
+            String id = submit(csvLine("1.1.1.1", "/a", 200));
+
+            MergedAnalysis merged = comparisonService.merge(List.of(id, id), 10);
+
+            assertThat(merged.analysisIds()).containsExactly(id);
+            assertThat(merged.totalRequests()).isEqualTo(1);
+        }
+
+        @DisplayName("ID 목록이 비어 있으면 INVALID_PARAMETER 예외가 발생한다")
+        @Test
+        void rejectsEmptyIds() {
+            assertThatThrownBy(() -> comparisonService.merge(List.of(), 10))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("1개 이상");
+        }
+
+        @DisplayName("완료되지 않은 분석이 포함되면 ANALYSIS_NOT_COMPLETED 예외가 발생한다")
+        @Test
+        void rejectsIncompleteAnalysis() throws Exception {
+            String failedId = submit("bad,line");
+
+            assertThatThrownBy(() -> comparisonService.merge(List.of(failedId), 10))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("완료되지 않은 분석입니다");
+        }
+    }
+
+    @Nested
+    @DisplayName("비교")
+    class DiffTest {
+
+        @DisplayName("키별 증감과 추가/삭제/변경 수를 계산하고 변동 폭 순으로 정렬한다")
+        @Test
+        void computesDeltas() throws Exception {
+            String base = submit(csvLine("1.1.1.1", "/a", 200), csvLine("1.1.1.1", "/a", 200),
+                    csvLine("1.1.1.1", "/a", 200), csvLine("1.1.1.1", "/old", 200),
+                    csvLine("1.1.1.1", "/same", 200));
+            String target = submit(csvLine("2.2.2.2", "/a", 500), csvLine("2.2.2.2", "/new", 500),
+                    csvLine("2.2.2.2", "/new", 500), csvLine("2.2.2.2", "/new", 500),
+                    csvLine("2.2.2.2", "/new", 500), csvLine("2.2.2.2", "/same", 500));
+
+            AnalysisDiff diff = comparisonService.diff(base, target, 10);
+
+            assertThat(diff.baseTotalRequests()).isEqualTo(5);
+            assertThat(diff.targetTotalRequests()).isEqualTo(6);
+
+            AnalysisDiff.DimensionDiff paths = diff.paths();
+            assertThat(paths.addedKeys()).isEqualTo(1);
+            assertThat(paths.removedKeys()).isEqualTo(1);
+            assertThat(paths.changedKeys()).isEqualTo(1);
+            assertThat(paths.topMovers()).extracting(AnalysisDiff.CountDelta::key)
+                    .containsExactly("/new", "/a", "/old");
+            assertThat(paths.topMovers()).extracting(AnalysisDiff.CountDelta::delta)
+                    .containsExactly(4L, -2L, -1L);
+
+            assertThat(diff.statusCodes().topMovers()).extracting(AnalysisDiff.CountDelta::key)
+                    .containsExactly("500", "200");
+            assertThat(diff.ips().addedKeys()).isEqualTo(1);
+            assertThat(diff.ips().removedKeys()).isEqualTo(1);
+        }
+
+        @DisplayName("topN으로 변동 상위 항목 수를 제한한다")
+        @Test
+        void limitsTopMovers() throws Exception {
+            String base = submit(csvLine("1.1.1.1", "/a", 200));
+            String target = submit(csvLine("1.1.1.1", "/b", 200), csvLine("1.1.1.1", "/c", 200));
+
+            AnalysisDiff diff = comparisonService.diff(base, target, 1);
+
+            assertThat(diff.paths().topMovers()).hasSize(1);
+            assertThat(diff.paths().addedKeys()).isEqualTo(2);
+        }
+    }
+}
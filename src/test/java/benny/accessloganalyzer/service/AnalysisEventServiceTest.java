@@ -0,0 +1,142 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.model.AnalysisEntry;
+import benny.accessloganalyzer.model.AnalysisProgressSnapshot;
+import benny.accessloganalyzer.model.AnalysisStatus;
+import benny.accessloganalyzer.model.PartialResult;
+import benny.accessloganalyzer.parser.AccessLogCsvParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AnalysisEventServiceTest {
+
+    private static final String HEADER = "timestamp,clientIp,httpMethod,requestUri,userAgent,httpStatus,httpVersion,receivedBytes,sentBytes,clientResponseTime,sslProtocol,originalRequestUriWithArgs";
+
+    private final List<Runnable> pending = new ArrayList<>();
+    private AnalysisService analysisService;
+    private AnalysisEventService eventService;
+
+    @BeforeEach
+    void setUp() {
+        analysisService = new AnalysisService(new AccessLogCsvParser(), 200_000, pending::add);
+        eventService = new AnalysisEventService(analysisService, 60_000, 2);
+    }
+
+    private String csv(int lines) {
+        StringBuilder sb = new StringBuilder(HEADER);
+        for (int i = 0; i < lines; i++) {
+            sb.append('\n').append(String.format(
+                    "2024-01-01T00:00:00,1.1.1.%d,GET,/p%d,Mozilla/5.0,200,HTTP/1.1,100,200,0.5,TLSv1.3,/p%d?q=1",
+                    i % 4, i % 3, i % 3));
+        }
+        return sb.toString();
+    }
+
+    private Path toTempFile(String csv) throws IOException {
+        Path tempFile = Files.createTempFile("test-", ".csv");
+        Files.writeString(tempFile, csv);
+        return tempFile;
+    }
+
+    @DisplayName("QUEUED 분석의 스냅샷에는 큐 위치가 담긴다")
+    @Test
+    void queuedSnapshotHasPosition() throws Exception {
+        analysisService.submitAnalysis(toTempFile(csv(1)));
+        String second = analysisService.submitAnalysis(toTempFile(csv(1)));
+
+        AnalysisProgressSnapshot snapshot = eventService.snapshot(analysisService.getEntry(second));
+
+        assertThat(snapshot.status()).isEqualTo(AnalysisStatus.QUEUED);
+        assertThat(snapshot.queuePosition()).isEqualTo(2);
+    }
+
+    @DisplayName("완료된 분석을 구독하면 완료 이벤트 후 구독이 정리된다")
+    @Test
+    void completedSubscriptionIsClosed() throws Exception {
+        String analysisId = analysisService.submitAnalysis(toTempFile(csv(3)));
+        pending.forEach(Runnable::run);
+
+        eventService.subscribe(analysisId);
+
+        assertThat(eventService.subscriberCount()).isZero();
+        assertThat(eventService.snapshot(analysisService.getEntry(analysisId)).status())
+                .isEqualTo(AnalysisStatus.COMPLETED);
+    }
+
+    @DisplayName("진행 중인 분석은 완료될 때까지 구독이 유지된다")
+    @Test
+    void queuedSubscriptionStaysOpen() throws Exception {
+        String analysisId = analysisService.submitAnalysis(toTempFile(csv(3)));
+
+        eventService.subscribe(analysisId);
+        eventService.broadcast();
+        assertThat(eventService.subscriberCount()).isEqualTo(1);
+
+        pending.forEach(Runnable::run);
+        eventService.broadcast();
+        assertThat(eventService.subscriberCount()).isZero();
+    }
+
+    @DisplayName("구독 수 상한을 넘으면 503을 던진다")
+    @Test
+    void rejectsTooManySubscribers() throws Exception {
+        String analysisId = analysisService.submitAnalysis(toTempFile(csv(1)));
+        eventService.subscribe(analysisId);
+        eventService.subscribe(analysisId);
+
+        assertThatThrownBy(() -> eventService.subscribe(analysisId))
+                .isInstanceOf(BusinessException.class)
+                .extracting("code").isEqualTo("ANALYSIS_QUEUE_FULL");
+    }
+
+    @DisplayName("존재하지 않는 분석은 구독할 수 없다")
+    @Test
+    void rejectsUnknownAnalysis() {
+        assertThatThrownBy(() -> eventService.subscribe("missing"))
+                .isInstanceOf(BusinessException.class)
+                .extracting("code").isEqualTo("ANALYSIS_NOT_FOUND");
+    }
+
+    @DisplayName("진행 스냅샷은 파서가 공개한 바이트/라인 수와 남은 시간을 담는다")
+    @Test
+    void progressSnapshotReflectsParserCounters() {
+        byte[] data = csv(1000).getBytes(StandardCharsets.UTF_8);
+        AnalysisProgress progress = new AnalysisProgress("id", data.length * 2L);
+
+        new AccessLogCsvParser().parse(new ByteArrayInputStream(data), entry -> {}, progress.getMonitor());
+        AnalysisProgressSnapshot snapshot = progress.snapshot();
+
+        assertThat(snapshot.status()).isEqualTo(AnalysisStatus.IN_PROGRESS);
+        assertThat(snapshot.bytesRead()).isEqualTo(data.length);
+        assertThat(snapshot.totalBytes()).isEqualTo(data.length * 2L);
+        assertThat(snapshot.linesProcessed()).isEqualTo(1000);
+        assertThat(snapshot.etaSeconds()).isNotNull();
+    }
+
+    @DisplayName("부분 Top-N 스냅샷은 집계 중인 카운트를 순위 순서로 담는다")
+    @Test
+    void aggregatorSnapshotIsRanked() {
+        LogAggregator aggregator = new LogAggregator();
+        new AccessLogCsvParser().parse(new ByteArrayInputStream(csv(10).getBytes(StandardCharsets.UTF_8)), aggregator);
+
+        PartialResult partial = aggregator.snapshot(2);
+
+        assertThat(partial.processedRequests()).isEqualTo(10);
+        assertThat(partial.topPaths()).containsExactly(
+                Map.entry("/p0", 4L), Map.entry("/p1", 3L));
+    }
+}
@@ -0,0 +1,78 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.model.ExportPage;
+import benny.accessloganalyzer.parser.AccessLogCsvParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AnalysisExportServiceTest {
+
+    private static final String HEADER = "timestamp,clientIp,httpMethod,requestUri,userAgent,httpStatus,httpVersion,receivedBytes,sentBytes,clientResponseTime,sslProtocol,originalRequestUriWithArgs";
+
+    private AnalysisService analysisService;
+    private AnalysisExportService exportService;
+    private String analysisId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        analysisService = new AnalysisService(new AccessLogCsvParser(), 200_000, Runnable::run);
+        exportService = new AnalysisExportService(analysisService, 100);
+
+        StringBuilder csv = new StringBuilder(HEADER);
+        String[] paths = {"/a", "/b", "/b", "/c", "/c", "/c"};
+        for (String path : paths) {
+            csv.append('\n').append(String.format(
+                    "2024-01-01T00:00:00,1.1.1.1,GET,%s,Mozilla/5.0,200,HTTP/1.1,100,200,0.5,TLSv1.3,%s?q=1", path, path));
+        }
+        Path tempFile = Files.createTempFile("test-", ".csv");
+        Files.writeString(tempFile, csv);
+        analysisId = analysisService.submitAnalysis(tempFile);
+    }
+
+    @DisplayName("limit 단위로 순위 구간을 자르고 다음 커서를 돌려준다")
+    @Test
+    void pagesInRankOrder() {
+        ExportPage first = exportService.page(analysisId, "paths", null, 2);
+
+        assertThat(first.fromRank()).isZero();
+        assertThat(first.toRank()).isEqualTo(2);
+        assertThat(first.nextCursor()).isEqualTo("2");
+        assertThat(first.counts().keyAt(first.counts().indexAtRank(0))).isEqualTo("/c");
+
+        ExportPage last = exportService.page(analysisId, "paths", first.nextCursor(), 2);
+        assertThat(last.fromRank()).isEqualTo(2);
+        assertThat(last.toRank()).isEqualTo(3);
+        assertThat(last.nextCursor()).isNull();
+    }
+
+    @DisplayName("지원하지 않는 항목이나 잘못된 커서/limit은 400을 던진다")
+    @Test
+    void rejectsInvalidParameters() {
+        assertThatThrownBy(() -> exportService.page(analysisId, "agents", null, 10))
+                .isInstanceOf(BusinessException.class).extracting("code").isEqualTo("INVALID_PARAMETER");
+        assertThatThrownBy(() -> exportService.page(analysisId, "paths", "abc", 10))
+                .isInstanceOf(BusinessException.class).extracting("code").isEqualTo("INVALID_PARAMETER");
+        assertThatThrownBy(() -> exportService.page(analysisId, "paths", "99", 10))
+                .isInstanceOf(BusinessException.class).extracting("code").isEqualTo("INVALID_PARAMETER");
+        assertThatThrownBy(() -> exportService.page(analysisId, "paths", null, 101))
+                .isInstanceOf(BusinessException.class).extracting("code").isEqualTo("INVALID_PARAMETER");
+    }
+
+    @DisplayName("완료되지 않은 분석은 409를 던진다")
+    @Test
+    void rejectsIncompleteAnalysis() throws Exception {
+        AnalysisService queuedService = new AnalysisService(new AccessLogCsvParser(), 200_000, task -> {});
+        String queuedId = queuedService.submitAnalysis(Files.createTempFile("test-", ".csv"));
+
+        assertThatThrownBy(() -> new AnalysisExportService(queuedService, 100).page(queuedId, "ips", null, 10))
+                .isInstanceOf(BusinessException.class).extracting("code").isEqualTo("ANALYSIS_NOT_COMPLETED");
+    }
+}
@@ -0,0 +1,132 @@
+package benny.accessloganalyzer.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private AnalysisJournal open() throws Exception {
+        return AnalysisJournal.open(dir.resolve("journal.log"), 64, 1024 * 1024);
+    }
+
+    @DisplayName("완료/실패 기록이 없는 제출 작업은 재시작 시 제출 순서대로 복구된다")
+    @Test
+    void recoversUnfinishedJobsInOrder() throws Exception {
+        Path file1 = Files.createFile(dir.resolve("a.csv"));
+        Path file2 = Files.createFile(dir.resolve("b.csv"));
+        Path file3 = Files.createFile(dir.resolve("c.csv"));
+
+        try (AnalysisJournal journal = open()) {
+            journal.submitted("id-2", 2, file2).join();
+            journal.submitted("id-1", 1, file1).join();
+            journal.submitted("id-3", 3, file3).join();
+            journal.started("id-3").join();
+            journal.completed("id-3").join();
+        }
+
+        try (AnalysisJournal reopened = open()) {
+            assertThat(reopened.recoveredJobs())
+                    .extracting(AnalysisJournal.PendingJob::analysisId)
+                    .containsExactly("id-1", "id-2");
+            assertThat(reopened.recoveredJobs().getFirst().tempFile()).isEqualTo(file1.toAbsolutePath());
+        }
+    }
+
+    @DisplayName("완료된 작업의 남은 임시 파일은 복구 시 정리된다")
+    @Test
+    void deletesTempFilesOfFinishedJobs() throws Exception {
+        Path leftover = Files.createFile(dir.resolve("done.csv"));
+
+        try (AnalysisJournal journal = open()) {
+            journal.submitted("id-1", 1, leftover).join();
+            journal.failed("id-1").join();
+        }
+
+        try (AnalysisJournal reopened = open()) {
+            assertThat(reopened.recoveredJobs()).isEmpty();
+        }
+        assertThat(leftover).doesNotExist();
+    }
+
+    @DisplayName("복구 후 저널은 미완료 SUBMIT 레코드만 남도록 압축된다")
+    @Test
+    void compactsOnOpen() throws Exception {
+        Path file = Files.createFile(dir.resolve("a.csv"));
+        try (AnalysisJournal journal = open()) {
+            for (int i = 0; i < 100; i++) {
+                journal.submitted("done-" + i, i, file);
+                journal.completed("done-" + i);
+            }
+            journal.submitted("pending", 1000, file).join();
+        }
+
+        try (AnalysisJournal reopened = open()) {
+            assertThat(Files.readAllLines(dir.resolve("journal.log"))).hasSize(1);
+            assertThat(reopened.recoveredJobs()).extracting(AnalysisJournal.PendingJob::analysisId)
+                    .containsExactly("pending");
+        }
+    }
+
+    @DisplayName("잘린 마지막 레코드는 무시한다")
+    @Test
+    void ignoresTornRecord() throws Exception {
+        Path file = Files.createFile(dir.resolve("a.csv"));
+        try (AnalysisJournal journal = open()) {
+            journal.submitted("id-1", 1, file).join();
+        }
+        Files.writeString(dir.resolve("journal.log"), "SUBMIT\tid-2\t2",
+                java.nio.file.StandardOpenOption.APPEND);
+
+        try (AnalysisJournal reopened = open()) {
+            assertThat(reopened.recoveredJobs()).extracting(AnalysisJournal.PendingJob::analysisId)
+                    .containsExactly("id-1");
+        }
+    }
+
+    @DisplayName("동시에 기록된 레코드가 모두 fsync 후 완료된다")
+    @Test
+    void concurrentAppendsAreAllDurable() throws Exception {
+        Path file = Files.createFile(dir.resolve("a.csv"));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try (AnalysisJournal journal = open()) {
+            List<CompletableFuture<Void>> writes = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                long order = i;
+                writes.add(CompletableFuture.supplyAsync(
+                        () -> journal.submitted("id-" + order, order, file), pool).thenCompose(f -> f));
+            }
+            CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            pool.shutdown();
+        }
+
+        try (AnalysisJournal reopened = open()) {
+            assertThat(reopened.recoveredJobs()).hasSize(500);
+            assertThat(reopened.recoveredJobs().getFirst().submittedOrder()).isZero();
+        }
+    }
+
+    @DisplayName("비활성 저널은 아무것도 기록하지 않는다")
+    @Test
+    void disabledJournalIsNoop() throws Exception {
+        try (AnalysisJournal journal = AnalysisJournal.disabled()) {
+            assertThat(journal.isEnabled()).isFalse();
+            assertThat(journal.submitted("id", 1, dir.resolve("x.csv"))).isCompleted();
+            assertThat(journal.recoveredJobs()).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package benny.accessloganalyzer.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisSchedulerTest {
+
+    private static final long MB = 1024 * 1024;
+    private static final Path FILE = Path.of("unused.csv");
+
+    private long nowNanos;
+    private long order;
+    // 1MB 당 1초, 작업당 기본 100ms
+    private final AnalysisScheduler scheduler = new AnalysisScheduler(1000, 100, () -> nowNanos);
+
+    private void offer(String id, String client, long sizeBytes) {
+        scheduler.offer(id, ++order, FILE, client, sizeBytes);
+    }
+
+    private List<String> drain() {
+        List<String> ids = new ArrayList<>();
+        AnalysisScheduler.Job job;
+        while ((job = scheduler.poll()) != null) {
+            ids.add(job.analysisId());
+        }
+        return ids;
+    }
+
+    private void advanceSeconds(long seconds) {
+        nowNanos += seconds * 1_000_000_000L;
+    }
+
+    @Nested
+    @DisplayName("크기 기반 순서")
+    class ShortestJobFirstTest {
+
+        @DisplayName("먼저 도착한 큰 작업보다 뒤에 온 작은 작업을 먼저 실행한다")
+        @Test
+        void smallJobOvertakesLargeJob() {
+            offer("large", "a", 50 * MB);
+            offer("small", "b", 100 * 1024);
+
+            assertThat(scheduler.position("small")).isEqualTo(1);
+            assertThat(scheduler.position("large")).isEqualTo(2);
+            assertThat(drain()).containsExactly("small", "large");
+        }
+
+        @DisplayName("큰 작업도 충분히 기다리면 새로 온 작은 작업보다 앞선다")
+        @Test
+        void largeJobAgesAheadOfNewArrivals() {
+            offer("large", "a", 50 * MB);
+            advanceSeconds(60);
+            offer("small", "b", 100 * 1024);
+
+            assertThat(drain()).containsExactly("large", "small");
+        }
+
+        @DisplayName("1MB 당 1ms 처럼 작은 비용 설정에서도 크기 차이가 순서에 반영된다")
+        @Test
+        void smallCostSettingStillOrdersBySize() {
+            AnalysisScheduler cheap = new AnalysisScheduler(1, 0, () -> nowNanos);
+            cheap.offer("large", 1, FILE, "a", 10 * MB);
+            cheap.offer("small", 2, FILE, "b", MB);
+
+            assertThat(cheap.poll().analysisId()).isEqualTo("small");
+            assertThat(cheap.poll().analysisId()).isEqualTo("large");
+        }
+
+        @DisplayName("같은 크기, 같은 클라이언트면 제출 순서를 지킨다")
+        @Test
+        void keepsFifoForEqualJobs() {
+            offer("1", "a", MB);
+            offer("2", "a", MB);
+            offer("3", "a", MB);
+
+            assertThat(drain()).containsExactly("1", "2", "3");
+        }
+    }
+
+    @Nested
+    @DisplayName("클라이언트 공정성")
+    class FairnessTest {
+
+        @DisplayName("한 클라이언트가 작업을 몰아 넣어도 다른 클라이언트의 작업이 번갈아 실행된다")
+        @Test
+        void interleavesClients() {
+            for (int i = 1; i <= 4; i++) {
+                offer("a" + i, "a", MB);
+            }
+            offer("b1", "b", MB);
+            offer("b2", "b", MB);
+
+            assertThat(scheduler.position("b1")).isEqualTo(2);
+            assertThat(drain()).containsExactly("a1", "b1", "a2", "b2", "a3", "a4");
+        }
+    }
+
+    @Nested
+    @DisplayName("큐 관리")
+    class QueueManagementTest {
+
+        @DisplayName("제거된 작업은 순서 계산과 실행에서 빠진다")
+        @Test
+        void removedJobIsSkipped() {
+            offer("1", "a", MB);
+            offer("2", "a", MB);
+            offer("3", "a", MB);
+
+            assertThat(scheduler.remove("2").analysisId()).isEqualTo("2");
+            assertThat(scheduler.remove("2")).isNull();
+            assertThat(scheduler.position("3")).isEqualTo(2);
+            assertThat(drain()).containsExactly("1", "3");
+        }
+
+        @DisplayName("대기 중이 아닌 작업의 위치는 0이다")
+        @Test
+        void positionOfUnknownJobIsZero() {
+            offer("1", "a", MB);
+            scheduler.poll();
+
+            assertThat(scheduler.position("1")).isZero();
+            assertThat(scheduler.size()).isZero();
+        }
+    }
+}
@@ -1,22 +1,33 @@
 package benny.accessloganalyzer.service;
 
 import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.model.AccessLogEntry;
 import benny.accessloganalyzer.model.AnalysisEntry;
 import benny.accessloganalyzer.model.AnalysisStatus;
 import benny.accessloganalyzer.parser.AccessLogCsvParser;
+import benny.accessloganalyzer.parser.ParseMonitor;
+import benny.accessloganalyzer.parser.ParseResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
 
 class AnalysisServiceTest {
 
@@ -123,6 +134,292 @@ class AnalysisServiceTest {
             assertThat(noopService.getQueuePosition(entry2)).isEqualTo(2);
             assertThat(noopService.getQueuePosition(entry3)).isEqualTo(3);
         }
+
+        @DisplayName("앞선 분석이 시작되면 뒤의 큐 위치가 당겨진다")
+        @Test
+        void queuePositionShiftsWhenEarlierJobStarts() throws Exception {
+            List<Runnable> pending = new ArrayList<>();
+            AnalysisService manualService = new AnalysisService(
+                    new AccessLogCsvParser(), 200_000, pending::add);
+
+            String csv = HEADER + "\n" + csvLine("1.1.1.1", "GET", "/a", 200);
+            String id1 = manualService.submitAnalysis(toTempFile(csv));
+            String id2 = manualService.submitAnalysis(toTempFile(csv));
+            String id3 = manualService.submitAnalysis(toTempFile(csv));
+
+            pending.get(0).run();
+
+            assertThat(manualService.getEntry(id1).getStatus()).isEqualTo(AnalysisStatus.COMPLETED);
+            assertThat(manualService.getQueuePosition(manualService.getEntry(id2))).isEqualTo(1);
+            assertThat(manualService.getQueuePosition(manualService.getEntry(id3))).isEqualTo(2);
+        }
+
+        @DisplayName("큐 거부된 분석은 큐 위치 계산에서 제외된다")
+        @Test
+        void rejectedJobIsNotCounted() throws Exception {
+            List<Runnable> pending = new ArrayList<>();
+            boolean[] reject = {false};
+            AnalysisService service = new AnalysisService(new AccessLogCsvParser(), 200_000, task -> {
+                if (reject[0]) {
+                    throw new RejectedExecutionException("queue full");
+                }
+                pending.add(task);
+            });
+
+            String csv = HEADER + "\n" + csvLine("1.1.1.1", "GET", "/a", 200);
+            reject[0] = true;
+            assertThatThrownBy(() -> service.submitAnalysis(toTempFile(csv)))
+                    .isInstanceOf(BusinessException.class);
+            reject[0] = false;
+            String id = service.submitAnalysis(toTempFile(csv));
+
+            assertThat(service.getQueuePosition(service.getEntry(id))).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("메모리 예산 접수 제어")
+    class AdmissionTest {
+
+        private static final long BUDGET_BYTES = HeapEstimator.BASE_BYTES + HeapEstimator.BASE_BYTES / 2;
+
+        private AnalysisService budgetedService(Executor executor) {
+            return new AnalysisService(new AccessLogCsvParser(), 200_000, executor, AnalysisJournal.disabled(),
+                    new AnalysisScheduler(1000, 100, System::nanoTime),
+                    new HeapBudget(BUDGET_BYTES, System::nanoTime));
+        }
+
+        @DisplayName("예산이 차면 Retry-After 와 함께 거절하고 임시 파일을 지운다")
+        @Test
+        void rejectsWithRetryAfterWhenBudgetExhausted() throws Exception {
+            AnalysisService service = budgetedService(task -> {});
+            String csv = HEADER + "\n" + csvLine("1.1.1.1", "GET", "/a", 200);
+            service.submitAnalysis(toTempFile(csv));
+            Path rejected = toTempFile(csv);
+
+            assertThatThrownBy(() -> service.submitAnalysis(rejected))
+                    .isInstanceOfSatisfying(BusinessException.class, e -> {
+                        assertThat(e.getCode()).isEqualTo("ANALYSIS_QUEUE_FULL");
+                        assertThat(e.getRetryAfterSeconds()).isPositive();
+                    })
+                    .hasMessageContaining("메모리 여유가 없습니다");
+            assertThat(rejected).doesNotExist();
+        }
+
+        @DisplayName("앞선 분석이 끝나 예산이 반납되면 다시 접수한다")
+        @Test
+        void acceptsAgainAfterRelease() throws Exception {
+            List<Runnable> pending = new ArrayList<>();
+            AnalysisService service = budgetedService(pending::add);
+            String csv = HEADER + "\n" + csvLine("1.1.1.1", "GET", "/a", 200);
+            String first = service.submitAnalysis(toTempFile(csv));
+
+            pending.get(0).run();
+            String second = service.submitAnalysis(toTempFile(csv));
+
+            assertThat(service.getEntry(first).getStatus()).isEqualTo(AnalysisStatus.COMPLETED);
+            assertThat(service.getEntry(second).getStatus()).isEqualTo(AnalysisStatus.QUEUED);
+        }
+    }
+
+    @Nested
+    @DisplayName("완료 이벤트")
+    class CompletionEventTest {
+
+        private final List<Object> events = new ArrayList<>();
+
+        private AnalysisService publishingService() {
+            return new AnalysisService(new AccessLogCsvParser(), 200_000, SYNC_EXECUTOR, AnalysisJournal.disabled(),
+                    new AnalysisScheduler(1000, 100, System::nanoTime), HeapBudget.unlimited(), events::add);
+        }
+
+        @DisplayName("큐를 거친 분석이 완료되면 결과와 함께 완료 이벤트를 발행한다")
+        @Test
+        void publishesOnCompletion() throws Exception {
+            String csv = HEADER + "\n" + csvLine("1.1.1.1", "GET", "/a", 200);
+
+            String analysisId = publishingService().submitAnalysis(toTempFile(csv));
+
+            assertThat(events).singleElement()
+                    .isInstanceOfSatisfying(AnalysisCompletedEvent.class, event -> {
+                        assertThat(event.analysisId()).isEqualTo(analysisId);
+                        assertThat(event.result().ipCounts()).containsEntry("1.1.1.1", 1L);
+                    });
+        }
+
+        @DisplayName("실패한 분석은 이벤트를 발행하지 않는다")
+        @Test
+        void doesNotPublishOnFailure() throws Exception {
+            publishingService().submitAnalysis(toTempFile(HEADER + "\n" + "bad,line,only"));
+
+            assertThat(events).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("인라인 분석 실행 스레드")
+    class InlineExecutionTest {
+
+        private AnalysisService inlineService(Executor inlineExecutor) {
+            return new AnalysisService(new AccessLogCsvParser(), 200_000, SYNC_EXECUTOR, AnalysisJournal.disabled(),
+                    new AnalysisScheduler(1000, 100, System::nanoTime), HeapBudget.unlimited(), event -> {},
+                    inlineExecutor);
+        }
+
+        private InputStream csvStream(String csv) {
+            return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @DisplayName("파싱은 인라인 executor 의 플랫폼 스레드에서 하고 호출 스레드는 결과를 받는다")
+        @Test
+        void parsesOnInlineExecutor() throws Exception {
+            List<Thread> parseThreads = new ArrayList<>();
+            Executor platform = task -> {
+                Thread thread = Thread.ofPlatform().name("inline-analysis-test").unstarted(task);
+                parseThreads.add(thread);
+                thread.start();
+            };
+            AnalysisService service = inlineService(platform);
+            String csv = HEADER + "\n" + csvLine("1.1.1.1", "GET", "/a", 200);
+
+            AnalysisEntry entry = service.analyzeInline(csvStream(csv));
+
+            assertThat(entry.getStatus()).isEqualTo(AnalysisStatus.COMPLETED);
+            assertThat(parseThreads).singleElement().satisfies(thread -> assertThat(thread.isVirtual()).isFalse());
+        }
+
+        @DisplayName("파싱 중 검증 실패는 감싸지 않은 BusinessException 으로 전달하고 FAILED 로 기록한다")
+        @Test
+        void propagatesValidationFailure() {
+            AnalysisService service = inlineService(task -> Thread.ofPlatform().start(task));
+
+            assertThatThrownBy(() -> service.analyzeInline(csvStream(HEADER + "\n")))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("유효한 로그 데이터가 없습니다");
+        }
+
+        @DisplayName("인라인 executor 가 가득 차면 큐 초과로 거절하고 FAILED 로 기록한다")
+        @Test
+        void rejectsWhenInlineExecutorIsFull() {
+            AnalysisService service = inlineService(task -> {
+                throw new RejectedExecutionException("full");
+            });
+            String csv = HEADER + "\n" + csvLine("1.1.1.1", "GET", "/a", 200);
+
+            assertThatThrownBy(() -> service.analyzeInline(csvStream(csv)))
+                    .isInstanceOfSatisfying(BusinessException.class,
+                            e -> assertThat(e.getCode()).isEqualTo("ANALYSIS_QUEUE_FULL"));
+        }
+
+        @DisplayName("파싱 중 취소되면 FAILED 가 아닌 CANCELLED 로 기록하고 취소 응답을 던진다")
+        @Test
+        void recordsCancellation() {
+            // 1,000번째 엔트리를 집계할 때 다른 요청의 DELETE 가 파서에 취소를 알린 상황을 재현한다
+            AccessLogCsvParser cancellingParser = new AccessLogCsvParser() {
+                @Override
+                public ParseResult parse(InputStream inputStream, Consumer<AccessLogEntry> entryConsumer,
+                                         ParseMonitor monitor) {
+                    int[] seen = {0};
+                    return super.parse(inputStream, logEntry -> {
+                        entryConsumer.accept(logEntry);
+                        if (++seen[0] == 1_000) {
+                            monitor.cancel();
+                        }
+                    }, monitor);
+                }
+            };
+            AnalysisService service = new AnalysisService(cancellingParser, 200_000, SYNC_EXECUTOR,
+                    AnalysisJournal.disabled(), new AnalysisScheduler(1000, 100, System::nanoTime),
+                    HeapBudget.unlimited(), event -> {}, task -> Thread.ofPlatform().start(task));
+            StringBuilder csv = new StringBuilder(HEADER + "\n");
+            for (int i = 0; i < 10_000; i++) {
+                csv.append(csvLine("1.1.1.1", "GET", "/a", 200)).append("\n");
+            }
+
+            BusinessException thrown = catchThrowableOfType(BusinessException.class,
+                    () -> service.analyzeInline(csvStream(csv.toString())));
+
+            assertThat(thrown.getCode()).isEqualTo("ANALYSIS_CANCELLED");
+            String analysisId = thrown.getMessage().substring(thrown.getMessage().lastIndexOf(' ') + 1);
+            AnalysisEntry entry = service.getEntry(analysisId);
+            assertThat(entry.getStatus()).isEqualTo(AnalysisStatus.CANCELLED);
+            assertThat(entry.getErrorMessage()).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("취소")
+    class CancellationTest {
+
+        @DisplayName("대기 중인 분석은 큐에서 빠지고 임시 파일이 지워진다")
+        @Test
+        void cancelsQueuedAnalysis() throws Exception {
+            List<Runnable> pending = new ArrayList<>();
+            AnalysisService service = new AnalysisService(new AccessLogCsvParser(), 200_000, pending::add);
+            String csv = HEADER + "\n" + csvLine("1.1.1.1", "GET", "/a", 200);
+            Path cancelledFile = toTempFile(csv);
+            String cancelled = service.submitAnalysis(cancelledFile);
+            String next = service.submitAnalysis(toTempFile(csv));
+
+            AnalysisEntry entry = service.cancelAnalysis(cancelled);
+
+            assertThat(entry.getStatus()).isEqualTo(AnalysisStatus.CANCELLED);
+            assertThat(cancelledFile).doesNotExist();
+            assertThat(service.getQueuePosition(service.getEntry(next))).isEqualTo(1);
+
+            // 취소된 작업의 실행 토큰은 다음 대기 작업을 실행한다
+            pending.get(0).run();
+            assertThat(service.getEntry(next).getStatus()).isEqualTo(AnalysisStatus.COMPLETED);
+            assertThat(service.getEntry(cancelled).getStatus()).isEqualTo(AnalysisStatus.CANCELLED);
+        }
+
+        @DisplayName("실행 중인 분석은 파서가 멈춘 뒤 CANCELLED 가 되고 임시 파일이 지워진다")
+        @Test
+        void cancelsRunningAnalysis() throws Exception {
+            List<Runnable> pending = new ArrayList<>();
+            AnalysisService[] holder = new AnalysisService[1];
+            String[] analysisId = new String[1];
+            // 1,000번째 엔트리를 집계할 때 다른 요청이 취소한 상황을 같은 스레드에서 재현한다
+            AccessLogCsvParser cancellingParser = new AccessLogCsvParser() {
+                @Override
+                public ParseResult parse(InputStream inputStream, Consumer<AccessLogEntry> entryConsumer,
+                                         ParseMonitor monitor) {
+                    int[] seen = {0};
+                    return super.parse(inputStream, logEntry -> {
+                        entryConsumer.accept(logEntry);
+                        if (++seen[0] == 1_000) {
+                            holder[0].cancelAnalysis(analysisId[0]);
+                        }
+                    }, monitor);
+                }
+            };
+            holder[0] = new AnalysisService(cancellingParser, 200_000, pending::add);
+
+            StringBuilder csv = new StringBuilder(HEADER + "\n");
+            for (int i = 0; i < 10_000; i++) {
+                csv.append(csvLine("1.1.1.1", "GET", "/a", 200)).append("\n");
+            }
+            Path tempFile = toTempFile(csv.toString());
+            analysisId[0] = holder[0].submitAnalysis(tempFile);
+
+            pending.get(0).run();
+
+            AnalysisEntry entry = holder[0].getEntry(analysisId[0]);
+            assertThat(entry.getStatus()).isEqualTo(AnalysisStatus.CANCELLED);
+            assertThat(entry.getResult()).isNull();
+            assertThat(tempFile).doesNotExist();
+        }
+
+        @DisplayName("이미 완료된 분석은 취소할 수 없다")
+        @Test
+        void rejectsCompletedAnalysis() throws Exception {
+            String csv = HEADER + "\n" + csvLine("1.1.1.1", "GET", "/a", 200);
+            String analysisId = analysisService.submitAnalysis(toTempFile(csv));
+
+            assertThatThrownBy(() -> analysisService.cancelAnalysis(analysisId))
+                    .isInstanceOfSatisfying(BusinessException.class,
+                            e -> assertThat(e.getCode()).isEqualTo("ANALYSIS_NOT_CANCELLABLE"));
+        }
     }
 
     @Nested
@@ -306,4 +603,110 @@ class AnalysisServiceTest {
                     .hasMessageContaining("분석 결과를 찾을 수 없습니다");
         }
     }
+
+    @Nested
+    @DisplayName("저널 복구")
+    class JournalRecoveryTest {
+
+        @TempDir
+        Path dir;
+
+        @DisplayName("재시작 전 큐에 남아 있던 분석을 같은 ID로 다시 실행한다")
+        @Test
+        void rerunsQueuedAnalysisAfterRestart() throws Exception {
+            Path journalFile = dir.resolve("journal.log");
+            String csv = HEADER + "\n" + csvLine("1.1.1.1", "GET", "/a", 200);
+            Path tempFile = toTempFile(csv);
+
+            String analysisId;
+            try (AnalysisJournal journal = AnalysisJournal.open(journalFile, 16, 1024 * 1024)) {
+                // 실행되지 않는 executor: 재시작 전에 큐에 머물러 있던 상황
+                AnalysisService beforeRestart = new AnalysisService(
+                        new AccessLogCsvParser(), 200_000, task -> {}, journal);
+                analysisId = beforeRestart.submitAnalysis(tempFile);
+            }
+
+            try (AnalysisJournal journal = AnalysisJournal.open(journalFile, 16, 1024 * 1024)) {
+                AnalysisService afterRestart = new AnalysisService(
+                        new AccessLogCsvParser(), 200_000, SYNC_EXECUTOR, journal);
+                afterRestart.recoverJournaledAnalyses();
+
+                AnalysisEntry entry = afterRestart.getEntry(analysisId);
+                assertThat(entry.getStatus()).isEqualTo(AnalysisStatus.COMPLETED);
+                assertThat(entry.getResult().totalRequests()).isEqualTo(1);
+                assertThat(tempFile).doesNotExist();
+            }
+
+            try (AnalysisJournal journal = AnalysisJournal.open(journalFile, 16, 1024 * 1024)) {
+                assertThat(journal.recoveredJobs()).isEmpty();
+            }
+        }
+
+        @DisplayName("복구 중 executor 가 가득 차도 작업을 버리지 않고, 앞선 분석이 끝나면 실행한다")
+        @Test
+        void defersRecoveredJobWhenExecutorIsFull() throws Exception {
+            Path journalFile = dir.resolve("journal.log");
+            Path first = toTempFile(HEADER + "\n" + csvLine("1.1.1.1", "GET", "/a", 200));
+            Path second = toTempFile(HEADER + "\n" + csvLine("2.2.2.2", "GET", "/b", 200));
+
+            String firstId;
+            String secondId;
+            try (AnalysisJournal journal = AnalysisJournal.open(journalFile, 16, 1024 * 1024)) {
+                AnalysisService beforeRestart = new AnalysisService(
+                        new AccessLogCsvParser(), 200_000, task -> {}, journal);
+                firstId = beforeRestart.submitAnalysis(first);
+                secondId = beforeRestart.submitAnalysis(second);
+            }
+
+            // 대기열 1칸짜리 executor: 두 번째 복구 작업의 실행 토큰은 거절된다
+            List<Runnable> queue = new ArrayList<>();
+            Executor boundedExecutor = task -> {
+                if (!queue.isEmpty()) {
+                    throw new RejectedExecutionException("queue full");
+                }
+                queue.add(task);
+            };
+            try (AnalysisJournal journal = AnalysisJournal.open(journalFile, 16, 1024 * 1024)) {
+                AnalysisService afterRestart = new AnalysisService(
+                        new AccessLogCsvParser(), 200_000, boundedExecutor, journal);
+                afterRestart.recoverJournaledAnalyses();
+
+                assertThat(afterRestart.getEntry(secondId).getStatus()).isEqualTo(AnalysisStatus.QUEUED);
+                assertThat(second).exists();
+
+                while (!queue.isEmpty()) {
+                    queue.removeFirst().run();
+                }
+
+                assertThat(afterRestart.getEntry(firstId).getStatus()).isEqualTo(AnalysisStatus.COMPLETED);
+                assertThat(afterRestart.getEntry(secondId).getStatus()).isEqualTo(AnalysisStatus.COMPLETED);
+            }
+
+            try (AnalysisJournal journal = AnalysisJournal.open(journalFile, 16, 1024 * 1024)) {
+                assertThat(journal.recoveredJobs()).isEmpty();
+            }
+        }
+
+        @DisplayName("임시 파일이 사라진 복구 대상은 FAILED로 등록된다")
+        @Test
+        void marksMissingFileAsFailed() throws Exception {
+            Path journalFile = dir.resolve("journal.log");
+            Path tempFile = toTempFile(HEADER);
+
+            String analysisId;
+            try (AnalysisJournal journal = AnalysisJournal.open(journalFile, 16, 1024 * 1024)) {
+                analysisId = new AnalysisService(new AccessLogCsvParser(), 200_000, task -> {}, journal)
+                        .submitAnalysis(tempFile);
+            }
+            Files.delete(tempFile);
+
+            try (AnalysisJournal journal = AnalysisJournal.open(journalFile, 16, 1024 * 1024)) {
+                AnalysisService afterRestart = new AnalysisService(
+                        new AccessLogCsvParser(), 200_000, SYNC_EXECUTOR, journal);
+                afterRestart.recoverJournaledAnalyses();
+
+                assertThat(afterRestart.getEntry(analysisId).getStatus()).isEqualTo(AnalysisStatus.FAILED);
+            }
+        }
+    }
 }
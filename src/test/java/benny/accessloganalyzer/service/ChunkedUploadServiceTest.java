@@ -0,0 +1,226 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.model.AnalysisEntry;
+import benny.accessloganalyzer.model.AnalysisStatus;
+import benny.accessloganalyzer.model.UploadStatus;
+import benny.accessloganalyzer.parser.AccessLogCsvParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChunkedUploadServiceTest {
+
+    private static final String HEADER = "timestamp,clientIp,httpMethod,requestUri,userAgent,httpStatus,httpVersion,receivedBytes,sentBytes,clientResponseTime,sslProtocol,originalRequestUriWithArgs";
+
+    private AnalysisService analysisService;
+    private ChunkedUploadService uploadService;
+
+    @BeforeEach
+    void setUp() {
+        analysisService = new AnalysisService(new AccessLogCsvParser(), 200_000, task -> {});
+        uploadService = new ChunkedUploadService(analysisService, new AccessLogCsvParser(),
+                64, 2, 1_000, Duration.ofMinutes(30));
+    }
+
+    private String csvLine(String ip, String path, int status) {
+        return String.format("2024-01-01T00:00:00,%s,GET,%s,Mozilla/5.0,%d,HTTP/1.1,100,200,0.5,TLSv1.3,%s?q=1",
+                ip, path, status, path);
+    }
+
+    private InputStream bytes(byte[] data, int from, int to) {
+        return new ByteArrayInputStream(Arrays.copyOfRange(data, from, to));
+    }
+
+    private void uploadInChunks(String uploadId, byte[] data, int chunkSize) {
+        int index = 0;
+        for (int offset = 0; offset < data.length; offset += chunkSize) {
+            uploadService.putChunk(uploadId, index++, bytes(data, offset, Math.min(data.length, offset + chunkSize)));
+        }
+    }
+
+    @Nested
+    @DisplayName("청크 파싱")
+    class ChunkParsingTest {
+
+        @DisplayName("청크 경계에서 잘린 라인을 다음 청크와 이어 붙여 파싱한다")
+        @Test
+        void carriesPartialLineAcrossChunks() {
+            String csv = HEADER + "\r\n" + csvLine("1.1.1.1", "/가나다", 200) + "\r\n"
+                    + csvLine("2.2.2.2", "/b", 404) + "\r\n" + csvLine("1.1.1.1", "/가나다", 500);
+            byte[] data = csv.getBytes(StandardCharsets.UTF_8);
+
+            UploadStatus status = uploadService.createSession();
+            // 7바이트 단위로 잘라 멀티바이트 문자와 \r\n 도 경계에 걸리게 한다
+            uploadInChunks(status.uploadId(), data, 7);
+            AnalysisEntry entry = uploadService.complete(status.uploadId());
+
+            assertThat(entry.getStatus()).isEqualTo(AnalysisStatus.COMPLETED);
+            assertThat(entry.getResult().totalRequests()).isEqualTo(3);
+            assertThat(entry.getResult().errorCount()).isZero();
+            assertThat(entry.getResult().pathCounts()).containsEntry("/가나다", 2L);
+            assertThat(analysisService.getEntry(status.analysisId())).isSameAs(entry);
+        }
+
+        @DisplayName("업로드 중에는 분석이 IN_PROGRESS 상태로 조회된다")
+        @Test
+        void entryIsInProgressWhileUploading() {
+            UploadStatus status = uploadService.createSession();
+            uploadService.putChunk(status.uploadId(), 0, bytes((HEADER + "\n").getBytes(StandardCharsets.UTF_8), 0, 10));
+
+            assertThat(analysisService.getEntry(status.analysisId()).getStatus()).isEqualTo(AnalysisStatus.IN_PROGRESS);
+        }
+
+        @DisplayName("최대 청크 크기를 넘으면 400을 던지고 세션은 유지된다")
+        @Test
+        void rejectsOversizedChunk() {
+            UploadStatus status = uploadService.createSession();
+
+            assertThatThrownBy(() -> uploadService.putChunk(status.uploadId(), 0, new ByteArrayInputStream(new byte[65])))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("청크 크기");
+            assertThat(uploadService.getStatus(status.uploadId()).nextChunkIndex()).isZero();
+        }
+
+        @DisplayName("유효한 라인이 없으면 완료 시 400을 던지고 분석은 FAILED가 된다")
+        @Test
+        void failsOnCompleteWithoutValidLines() {
+            UploadStatus status = uploadService.createSession();
+            uploadService.putChunk(status.uploadId(), 0,
+                    new ByteArrayInputStream((HEADER.substring(0, 60)).getBytes(StandardCharsets.UTF_8)));
+
+            assertThatThrownBy(() -> uploadService.complete(status.uploadId()))
+                    .isInstanceOf(BusinessException.class);
+            assertThat(analysisService.getEntry(status.analysisId()).getStatus()).isEqualTo(AnalysisStatus.FAILED);
+        }
+    }
+
+    @Nested
+    @DisplayName("재개")
+    class ResumeTest {
+
+        @DisplayName("이미 반영된 청크를 다시 보내면 무시하고 같은 상태를 반환한다")
+        @Test
+        void ignoresDuplicateChunk() {
+            byte[] data = (HEADER + "\n" + csvLine("1.1.1.1", "/a", 200) + "\n").getBytes(StandardCharsets.UTF_8);
+            UploadStatus status = uploadService.createSession();
+            uploadService.putChunk(status.uploadId(), 0, bytes(data, 0, 64));
+
+            UploadStatus resent = uploadService.putChunk(status.uploadId(), 0, bytes(data, 0, 64));
+            assertThat(resent.nextChunkIndex()).isEqualTo(1);
+            assertThat(resent.receivedBytes()).isEqualTo(64);
+
+            for (int index = 1, offset = 64; offset < data.length; index++, offset += 64) {
+                uploadService.putChunk(status.uploadId(), index, bytes(data, offset, Math.min(data.length, offset + 64)));
+            }
+            assertThat(uploadService.complete(status.uploadId()).getResult().totalRequests()).isEqualTo(1);
+        }
+
+        @DisplayName("다음 순서가 아닌 청크는 409로 거부한다")
+        @Test
+        void rejectsOutOfOrderChunk() {
+            UploadStatus status = uploadService.createSession();
+
+            assertThatThrownBy(() -> uploadService.putChunk(status.uploadId(), 1, new ByteArrayInputStream(new byte[1])))
+                    .isInstanceOf(BusinessException.class)
+                    .extracting("code").isEqualTo("CHUNK_OUT_OF_ORDER");
+        }
+
+        @DisplayName("전송 중 끊긴 청크는 반영되지 않아 같은 인덱스로 다시 보낼 수 있다")
+        @Test
+        void droppedChunkIsNotApplied() {
+            UploadStatus status = uploadService.createSession();
+            InputStream broken = new InputStream() {
+                private int sent;
+
+                @Override
+                public int read() throws IOException {
+                    if (sent++ < 10) {
+                        return 'a';
+                    }
+                    throw new IOException("connection reset");
+                }
+            };
+
+            assertThatThrownBy(() -> uploadService.putChunk(status.uploadId(), 0, broken))
+                    .isInstanceOf(BusinessException.class);
+
+            UploadStatus current = uploadService.getStatus(status.uploadId());
+            assertThat(current.nextChunkIndex()).isZero();
+            assertThat(current.receivedBytes()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("세션 관리")
+    class SessionTest {
+
+        @DisplayName("동시 세션 수를 초과하면 503을 던진다")
+        @Test
+        void rejectsWhenTooManySessions() {
+            uploadService.createSession();
+            uploadService.createSession();
+
+            assertThatThrownBy(() -> uploadService.createSession())
+                    .isInstanceOf(BusinessException.class)
+                    .extracting("code").isEqualTo("ANALYSIS_QUEUE_FULL");
+        }
+
+        @DisplayName("유휴 시간이 지난 세션은 만료되고 분석은 FAILED가 된다")
+        @Test
+        void expiresIdleSessions() {
+            ChunkedUploadService expiring = new ChunkedUploadService(analysisService, new AccessLogCsvParser(),
+                    64, 2, 1_000, Duration.ZERO);
+            UploadStatus status = expiring.createSession();
+
+            expiring.expireIdleSessions();
+
+            assertThatThrownBy(() -> expiring.getStatus(status.uploadId()))
+                    .isInstanceOf(BusinessException.class)
+                    .extracting("code").isEqualTo("UPLOAD_NOT_FOUND");
+            assertThat(analysisService.getEntry(status.analysisId()).getStatus()).isEqualTo(AnalysisStatus.FAILED);
+        }
+
+        @DisplayName("분석을 취소하면 세션이 닫혀 CANCELLED 가 되고 세션 자리가 반납된다")
+        @Test
+        void closesSessionOnCancel() {
+            byte[] data = (HEADER + "\n" + csvLine("1.1.1.1", "/a", 200) + "\n").getBytes(StandardCharsets.UTF_8);
+            UploadStatus status = uploadService.createSession();
+            uploadService.createSession();
+            uploadInChunks(status.uploadId(), data, 64);
+
+            AnalysisEntry entry = analysisService.cancelAnalysis(status.analysisId());
+
+            assertThat(entry.getStatus()).isEqualTo(AnalysisStatus.CANCELLED);
+            assertThatThrownBy(() -> uploadService.putChunk(status.uploadId(), 1, new ByteArrayInputStream(new byte[1])))
+                    .isInstanceOf(BusinessException.class)
+                    .extracting("code").isEqualTo("UPLOAD_NOT_FOUND");
+            assertThat(uploadService.createSession().uploadId()).isNotNull();
+        }
+
+        @DisplayName("완료된 세션에는 더 이상 청크를 보낼 수 없다")
+        @Test
+        void rejectsChunkAfterComplete() {
+            byte[] data = (HEADER + "\n" + csvLine("1.1.1.1", "/a", 200)).getBytes(StandardCharsets.UTF_8);
+            UploadStatus status = uploadService.createSession();
+            uploadInChunks(status.uploadId(), data, 64);
+            int lastIndex = uploadService.getStatus(status.uploadId()).nextChunkIndex();
+            uploadService.complete(status.uploadId());
+
+            assertThatThrownBy(() -> uploadService.putChunk(status.uploadId(), lastIndex, new ByteArrayInputStream(new byte[1])))
+                    .isInstanceOf(BusinessException.class)
+                    .extracting("code").isEqualTo("UPLOAD_NOT_FOUND");
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.model.AnalysisEntry;
+import benny.accessloganalyzer.model.AnalysisStatus;
+import benny.accessloganalyzer.parser.AccessLogCsvParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DirectoryWatchServiceTest {
+
+    private static final String HEADER = "timestamp,clientIp,httpMethod,requestUri,userAgent,httpStatus,httpVersion,receivedBytes,sentBytes,clientResponseTime,sslProtocol,originalRequestUriWithArgs";
+    private static final String ANALYSIS_ID = "watch-rolling";
+
+    @TempDir
+    Path directory;
+
+    private AnalysisService analysisService;
+    private DirectoryWatchService watchService;
+
+    @BeforeEach
+    void setUp() {
+        analysisService = new AnalysisService(new AccessLogCsvParser(), 200_000, task -> {});
+        watchService = new DirectoryWatchService(analysisService, new AccessLogCsvParser(),
+                directory, "*.csv", ANALYSIS_ID);
+    }
+
+    private String csvLine(String ip, String path, int status) {
+        return String.format("2024-01-01T00:00:00,%s,GET,%s,Mozilla/5.0,%d,HTTP/1.1,100,200,0.5,TLSv1.3,%s?q=1",
+                ip, path, status, path);
+    }
+
+    private void append(Path file, String content) throws IOException {
+        Files.writeString(file, content, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private AnalysisEntry rolling() {
+        return analysisService.getEntry(ANALYSIS_ID);
+    }
+
+    @Nested
+    @DisplayName("증분 수집")
+    class IncrementalIngestTest {
+
+        @DisplayName("새 파일을 읽어 롤링 분석에 반영한다")
+        @Test
+        void ingestsNewFile() throws IOException {
+            append(directory.resolve("a.csv"), HEADER + "\n" + csvLine("1.1.1.1", "/a", 200) + "\n");
+
+            watchService.scanOnce();
+
+            assertThat(rolling().getStatus()).isEqualTo(AnalysisStatus.COMPLETED);
+            assertThat(rolling().getResult().totalRequests()).isEqualTo(1);
+        }
+
+        @DisplayName("커지는 파일은 늘어난 부분만 읽는다")
+        @Test
+        void readsOnlyAppendedBytes() throws IOException {
+            Path file = directory.resolve("a.csv");
+            append(file, HEADER + "\n" + csvLine("1.1.1.1", "/a", 200) + "\n");
+            watchService.scanOnce();
+
+            String appended = csvLine("2.2.2.2", "/b", 404) + "\n";
+            append(file, appended);
+            long read = watchService.scanOnce();
+
+            assertThat(read).isEqualTo(appended.getBytes(StandardCharsets.UTF_8).length);
+            assertThat(rolling().getResult().totalRequests()).isEqualTo(2);
+            assertThat(rolling().getResult().statusCodeCounts()).containsEntry("404", 1L);
+        }
+
+        @DisplayName("아직 개행이 오지 않은 마지막 라인은 다음 스캔까지 보류한다")
+        @Test
+        void holdsPartialLineUntilNewline() throws IOException {
+            Path file = directory.resolve("a.csv");
+            String line = csvLine("1.1.1.1", "/a", 200);
+            append(file, HEADER + "\n" + csvLine("3.3.3.3", "/c", 200) + "\n" + line.substring(0, 20));
+            watchService.scanOnce();
+            assertThat(rolling().getResult().totalRequests()).isEqualTo(1);
+
+            append(file, line.substring(20) + "\n");
+            watchService.scanOnce();
+
+            assertThat(rolling().getResult().totalRequests()).isEqualTo(2);
+            assertThat(rolling().getResult().errorCount()).isZero();
+        }
+
+        @DisplayName("변경이 없으면 결과 객체를 다시 만들지 않는다")
+        @Test
+        void keepsResultWhenUnchanged() throws IOException {
+            append(directory.resolve("a.csv"), HEADER + "\n" + csvLine("1.1.1.1", "/a", 200) + "\n");
+            watchService.scanOnce();
+            var before = rolling().getResult();
+
+            assertThat(watchService.scanOnce()).isZero();
+            assertThat(rolling().getResult()).isSameAs(before);
+        }
+
+        @DisplayName("패턴에 맞지 않는 파일은 무시한다")
+        @Test
+        void ignoresNonMatchingFiles() throws IOException {
+            append(directory.resolve("a.tmp"), HEADER + "\n" + csvLine("1.1.1.1", "/a", 200) + "\n");
+
+            assertThat(watchService.scanOnce()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("로테이션")
+    class RotationTest {
+
+        @DisplayName("이름만 바뀐 파일은 다시 세지 않는다")
+        @Test
+        void renamedFileIsNotCountedTwice() throws IOException {
+            Path file = directory.resolve("access.csv");
+            append(file, HEADER + "\n" + csvLine("1.1.1.1", "/a", 200) + "\n");
+            watchService.scanOnce();
+
+            Files.move(file, directory.resolve("access-1.csv"));
+            append(file, HEADER + "\n" + csvLine("2.2.2.2", "/b", 200) + "\n");
+            watchService.scanOnce();
+
+            assertThat(rolling().getResult().totalRequests()).isEqualTo(2);
+        }
+
+        @DisplayName("잘린 파일은 처음부터 다시 읽고 이전 집계는 유지한다")
+        @Test
+        void truncatedFileIsReadFromStart() throws IOException {
+            Path file = directory.resolve("access.csv");
+            append(file, HEADER + "\n" + csvLine("1.1.1.1", "/a", 200) + "\n" + csvLine("1.1.1.1", "/a", 200) + "\n");
+            watchService.scanOnce();
+
+            Files.writeString(file, HEADER + "\n", StandardCharsets.UTF_8, StandardOpenOption.TRUNCATE_EXISTING);
+            watchService.scanOnce();
+            append(file, csvLine("2.2.2.2", "/b", 500) + "\n");
+            watchService.scanOnce();
+
+            assertThat(rolling().getResult().totalRequests()).isEqualTo(3);
+            assertThat(rolling().getResult().totalLines()).isEqualTo(3);
+        }
+
+        @DisplayName("삭제된 파일의 집계는 롤링 분석에 남는다")
+        @Test
+        void deletedFileCountsAreKept() throws IOException {
+            Path file = directory.resolve("access.csv");
+            append(file, HEADER + "\n" + csvLine("1.1.1.1", "/a", 200) + "\n");
+            watchService.scanOnce();
+
+            append(directory.resolve("next.csv"), HEADER + "\n" + csvLine("2.2.2.2", "/b", 200) + "\n");
+            Files.delete(file);
+            watchService.scanOnce();
+
+            assertThat(rolling().getResult().totalRequests()).isEqualTo(2);
+            assertThat(rolling().getResult().totalLines()).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("취소")
+    class CancellationTest {
+
+        @DisplayName("계속 갱신되는 롤링 분석은 취소할 수 없어 409를 던지고 이후 스캔도 반영한다")
+        @Test
+        void rejectsCancellation() throws IOException {
+            Path file = directory.resolve("access.csv");
+            append(file, HEADER + "\n" + csvLine("1.1.1.1", "/a", 200) + "\n");
+            watchService.scanOnce();
+
+            assertThatThrownBy(() -> analysisService.cancelAnalysis(ANALYSIS_ID))
+                    .isInstanceOf(BusinessException.class)
+                    .extracting("code").isEqualTo("ANALYSIS_NOT_CANCELLABLE");
+
+            append(file, csvLine("2.2.2.2", "/b", 200) + "\n");
+            watchService.scanOnce();
+            assertThat(rolling().getResult().totalRequests()).isEqualTo(2);
+        }
+    }
+}
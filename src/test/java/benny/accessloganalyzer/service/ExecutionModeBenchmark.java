@@ -0,0 +1,232 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.client.IpInfo;
+import benny.accessloganalyzer.client.IpInfoCallGuard;
+import benny.accessloganalyzer.client.IpInfoClient;
+import benny.accessloganalyzer.client.LocalGeoDatabase;
+import benny.accessloganalyzer.global.config.AsyncConfig;
+import benny.accessloganalyzer.global.config.IpInfoConfig;
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.parser.AccessLogCsvParser;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 실행 모델 벤치마크 — analysis.execution.virtual-threads 를 끄고 켰을 때 실제 executor 구성으로 GET/업로드를 비교한다.
+ * 요청 스레드는 Tomcat 기본값(플랫폼 200개) 또는 요청당 가상 스레드로 흉내 낸다. GET 은 IpInfoClient.lookupTopIps 로
+ * 캐시 미스 IP 하나를 조회하고(ipinfo 는 지연만 흉내 내는 스텁, 조회 executor 는 IpInfoConfig 의 ipInfoExecutor),
+ * 업로드는 임시 파일 복사 뒤 동기 레인(SyncAnalysisService, 인라인 파싱은 AsyncConfig 의 inlineAnalysisExecutor)에서 분석하고
+ * 레인이 가득 차면 분석 큐(analysisExecutor)에 제출한다. 업로드 파싱과 동시에 GET 을 보내 파싱이 GET 지연을 늘리는지 본다.
+ *
+ * 실행: ./gradlew test -Pbenchmark --tests "*.ExecutionModeBenchmark" -i
+ */
+@Tag("benchmark")
+class ExecutionModeBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int CONCURRENT_GETS = 1_000;
+    private static final long IPINFO_LATENCY_MS = 50;
+    // application.yml 의 ipinfo.lookup.*, analysis.async.*, analysis.inline.*, analysis.sync.* 기본값
+    private static final int LOOKUP_PARALLELISM = 8;
+    private static final int LOOKUP_QUEUE_CAPACITY = 1000;
+    private static final int CONCURRENT_UPLOADS = 40;
+    private static final int UPLOAD_LINES = 5_000;
+    private static final int ROUNDS = 3;
+    private static final String HEADER = "TimeGenerated [UTC],ClientIp,HttpMethod,RequestUri,UserAgent,HttpStatus,HttpVersion,ReceivedBytes,SentBytes,ClientResponseTime,SslProtocol,OriginalRequestUriWithArgs";
+    private static final String LINE = "\"1/29/2026, 5:44:10.000 AM\",121.158.115.86,GET,/api/users,curl/8.1.2,200,HTTP/1.1,176,1138,0,TLSv1.3,/api/users";
+    private static final byte[] IPINFO_BODY = """
+            {"country": "KR", "region": "Seoul", "city": "Seoul", "org": "AS4766 Korea Telecom"}
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicInteger ipSequence = new AtomicInteger();
+
+    @Test
+    void compareExecutionModes() throws Exception {
+        System.out.println("=== 실행 모델 벤치마크 ===");
+        System.out.printf("GET: %,d건 동시 (ipinfo 지연 %dms, 조회 동시 %d), 업로드: %d건 동시 (%,d라인), CPU %d개%n%n",
+                CONCURRENT_GETS, IPINFO_LATENCY_MS, LOOKUP_PARALLELISM, CONCURRENT_UPLOADS, UPLOAD_LINES,
+                Runtime.getRuntime().availableProcessors());
+
+        for (int round = 0; round < ROUNDS; round++) {
+            for (boolean virtualThreads : new boolean[]{false, true}) {
+                run(round, virtualThreads);
+            }
+        }
+    }
+
+    private void run(int round, boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual " : "platform";
+        Executor lookupExecutor = new IpInfoConfig()
+                .ipInfoExecutor(LOOKUP_PARALLELISM, LOOKUP_QUEUE_CAPACITY, virtualThreads);
+        ThreadPoolTaskExecutor analysisExecutor =
+                (ThreadPoolTaskExecutor) new AsyncConfig().analysisExecutor(2, 4, 1000);
+        Executor inlineExecutor = new AsyncConfig().inlineAnalysisExecutor(4, 100, virtualThreads);
+        try {
+            IpInfoClient ipInfoClient = new IpInfoClient(stubIpInfo(), Caffeine.newBuilder().<String, IpInfo>build(),
+                    Caffeine.newBuilder().<String, IpInfo>build(), "bench", IpInfoCallGuard.retriesOnly(0),
+                    lookupExecutor, 60_000, 1, LocalGeoDatabase.empty());
+            AnalysisService analysisService = new AnalysisService(new AccessLogCsvParser(), 200_000, analysisExecutor,
+                    AnalysisJournal.disabled(), new AnalysisScheduler(1000, 100, System::nanoTime),
+                    HeapBudget.unlimited(), event -> {}, inlineExecutor);
+            SyncAnalysisService syncService = new SyncAnalysisService(analysisService, 1_048_576, 4);
+
+            long[] getsOnly = runGets(virtualThreads, ipInfoClient, null);
+            UploadLoad uploads = new UploadLoad(syncService, analysisService);
+            long[] getsDuringUploads = runGets(virtualThreads, ipInfoClient, uploads);
+            analysisExecutor.getThreadPoolExecutor().shutdown();
+            analysisExecutor.getThreadPoolExecutor().awaitTermination(1, TimeUnit.MINUTES);
+
+            System.out.printf("[round %d][%s] GET 단독 p50=%dms p99=%dms 전체 %dms | 업로드와 동시 GET p50=%dms p99=%dms 전체 %dms%n",
+                    round, mode, getsOnly[1], getsOnly[2], getsOnly[0],
+                    getsDuringUploads[1], getsDuringUploads[2], getsDuringUploads[0]);
+            System.out.printf("[round %d][%s] 업로드 동기 %d / 큐 %d / 거절 %d, 전부 끝날 때까지 %dms%n",
+                    round, mode, uploads.inline.get(), uploads.queued.get(), uploads.rejected.get(),
+                    (System.nanoTime() - uploads.startNanos) / 1_000_000);
+        } finally {
+            close(lookupExecutor);
+            close(inlineExecutor);
+            analysisExecutor.shutdown();
+        }
+    }
+
+    /**
+     * CONCURRENT_GETS 건을 동시에 보내고 [전체 ms, p50 ms, p99 ms] 를 반환한다. uploads 가 있으면 같은 요청 스레드에서 함께 보낸다.
+     */
+    private long[] runGets(boolean virtualThreads, IpInfoClient ipInfoClient, UploadLoad uploads)
+            throws InterruptedException {
+        long[] latencies = new long[CONCURRENT_GETS];
+        try (ExecutorService requestThreads = requestThreads(virtualThreads)) {
+            CountDownLatch done = new CountDownLatch(CONCURRENT_GETS);
+            long start = System.nanoTime();
+            if (uploads != null) {
+                uploads.start(requestThreads);
+            }
+            for (int i = 0; i < CONCURRENT_GETS; i++) {
+                int index = i;
+                // 요청 스레드를 기다린 시간(Tomcat 대기열)도 지연에 넣는다
+                long begin = System.nanoTime();
+                requestThreads.execute(() -> {
+                    ipInfoClient.lookupTopIps(Map.of(nextIp(), 1L), 1);
+                    latencies[index] = (System.nanoTime() - begin) / 1_000_000;
+                    done.countDown();
+                });
+            }
+            done.await(5, TimeUnit.MINUTES);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            Arrays.sort(latencies);
+            return new long[]{elapsedMs, latencies[CONCURRENT_GETS / 2], latencies[CONCURRENT_GETS * 99 / 100]};
+        }
+    }
+
+    private String nextIp() {
+        int n = ipSequence.incrementAndGet();
+        return "1." + ((n >>> 16) & 0xFF) + "." + ((n >>> 8) & 0xFF) + "." + (n & 0xFF);
+    }
+
+    /**
+     * ipinfo 대신 IPINFO_LATENCY_MS 만큼 블로킹한 뒤 고정 응답을 돌려주는 RestClient.
+     */
+    private static RestClient stubIpInfo() {
+        return RestClient.builder()
+                .baseUrl("https://ipinfo.io")
+                .requestFactory((uri, method) -> new MockClientHttpRequest(method, uri) {
+                    @Override
+                    protected ClientHttpResponse executeInternal() throws IOException {
+                        sleep(IPINFO_LATENCY_MS);
+                        MockClientHttpResponse response = new MockClientHttpResponse(IPINFO_BODY, HttpStatus.OK);
+                        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                        return response;
+                    }
+                })
+                .build();
+    }
+
+    private static ExecutorService requestThreads(boolean virtualThreads) {
+        return virtualThreads
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+    }
+
+    private static void close(Executor executor) throws Exception {
+        if (executor instanceof ThreadPoolTaskExecutor pool) {
+            pool.shutdown();
+        } else if (executor instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * AnalysisController 의 업로드 경로: 임시 파일로 옮긴 뒤 동기 레인을 시도하고, 자리가 없으면 큐에 제출한다.
+     */
+    private static final class UploadLoad {
+
+        private final SyncAnalysisService syncService;
+        private final AnalysisService analysisService;
+        private final String csv = HEADER + "\n" + (LINE + "\n").repeat(UPLOAD_LINES);
+        private final AtomicInteger inline = new AtomicInteger();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger rejected = new AtomicInteger();
+        private long startNanos;
+
+        private UploadLoad(SyncAnalysisService syncService, AnalysisService analysisService) {
+            this.syncService = syncService;
+            this.analysisService = analysisService;
+        }
+
+        private void start(ExecutorService requestThreads) {
+            startNanos = System.nanoTime();
+            for (int i = 0; i < CONCURRENT_UPLOADS; i++) {
+                requestThreads.execute(this::upload);
+            }
+        }
+
+        private void upload() {
+            try {
+                Path tempFile = Files.createTempFile("bench-upload-", ".csv");
+                Files.writeString(tempFile, csv);
+                Optional<?> completed = syncService.tryAnalyze(Files.size(tempFile), () -> Files.newInputStream(tempFile));
+                if (completed.isPresent()) {
+                    Files.deleteIfExists(tempFile);
+                    inline.incrementAndGet();
+                } else {
+                    analysisService.submitAnalysis(tempFile);
+                    queued.incrementAndGet();
+                }
+            } catch (BusinessException e) {
+                rejected.incrementAndGet();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.client.IpInfoClient;
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.model.AnalysisResult;
+import benny.accessloganalyzer.model.GeoPrefetchProgress;
+import benny.accessloganalyzer.model.GeoPrefetchStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class GeoPrefetchServiceTest {
+
+    private IpInfoClient ipInfoClient;
+
+    @BeforeEach
+    void setUp() {
+        ipInfoClient = mock(IpInfoClient.class);
+        given(ipInfoClient.uncached(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+        given(ipInfoClient.prefetch(anyList())).willAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+    }
+
+    private AnalysisCompletedEvent completed(String analysisId, int ipCount) {
+        Map<String, Long> ipCounts = new HashMap<>();
+        for (int i = 0; i < ipCount; i++) {
+            ipCounts.put("10.0.0." + i, (long) (ipCount - i));
+        }
+        AnalysisResult result = new AnalysisResult(analysisId, LocalDateTime.of(2024, 1, 1, 0, 0), ipCount,
+                Map.of(), Map.of(), Map.of(), ipCounts, ipCount, 0, List.of());
+        return new AnalysisCompletedEvent(analysisId, result);
+    }
+
+    @DisplayName("분석이 완료되면 상위 K개 IP를 요청 수 순서대로 미리 조회한다")
+    @Test
+    void prefetchesTopKOnCompletion() {
+        GeoPrefetchService service = new GeoPrefetchService(ipInfoClient, Runnable::run, 3, 50);
+
+        service.onAnalysisCompleted(completed("id-1", 10));
+
+        verify(ipInfoClient).prefetch(List.of("10.0.0.0", "10.0.0.1", "10.0.0.2"));
+        assertThat(service.getProgress("id-1"))
+                .isEqualTo(new GeoPrefetchProgress("id-1", GeoPrefetchProgress.State.DONE, 3, 0, 3));
+    }
+
+    @DisplayName("이미 캐시에 있는 IP는 다시 조회하지 않는다")
+    @Test
+    void skipsCachedIps() {
+        given(ipInfoClient.uncached(anyList())).willReturn(List.of("10.0.0.1"));
+        GeoPrefetchService service = new GeoPrefetchService(ipInfoClient, Runnable::run, 3, 50);
+
+        service.onAnalysisCompleted(completed("id-1", 10));
+
+        verify(ipInfoClient).prefetch(List.of("10.0.0.1"));
+        GeoPrefetchProgress progress = service.getProgress("id-1");
+        assertThat(progress.alreadyCachedIps()).isEqualTo(2);
+        assertThat(progress.fetchedIps()).isEqualTo(1);
+    }
+
+    @DisplayName("조회에 실패한 IP는 조회 수와 미리 조회 통계에 넣지 않는다")
+    @Test
+    void countsOnlyCachedIps() {
+        given(ipInfoClient.prefetch(anyList())).willReturn(1);
+        GeoPrefetchService service = new GeoPrefetchService(ipInfoClient, Runnable::run, 3, 50);
+
+        service.onAnalysisCompleted(completed("id-1", 10));
+
+        assertThat(service.getProgress("id-1"))
+                .isEqualTo(new GeoPrefetchProgress("id-1", GeoPrefetchProgress.State.DONE, 3, 0, 1));
+        assertThat(service.getStats().prefetchedIps()).isEqualTo(1);
+    }
+
+    @DisplayName("초당 상한을 넘는 IP는 1초 간격의 여러 라운드로 나눠 조회한다")
+    @Test
+    void pacesRoundsByRateLimit() {
+        GeoPrefetchService service = new GeoPrefetchService(ipInfoClient, Runnable::run, 4, 2);
+
+        long start = System.nanoTime();
+        service.onAnalysisCompleted(completed("id-1", 10));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        verify(ipInfoClient).prefetch(List.of("10.0.0.0", "10.0.0.1"));
+        verify(ipInfoClient).prefetch(List.of("10.0.0.2", "10.0.0.3"));
+        assertThat(elapsedMs).isGreaterThanOrEqualTo(900);
+    }
+
+    @DisplayName("top-k 가 0이면 미리 조회하지 않는다")
+    @Test
+    void disabledWhenTopKIsZero() {
+        GeoPrefetchService service = new GeoPrefetchService(ipInfoClient, Runnable::run, 0, 50);
+
+        service.onAnalysisCompleted(completed("id-1", 10));
+
+        verify(ipInfoClient, never()).prefetch(any());
+        assertThatThrownBy(() -> service.getProgress("id-1")).isInstanceOf(BusinessException.class);
+    }
+
+    @DisplayName("대기열이 가득 차면 건너뛰고 건너뛴 수를 센다")
+    @Test
+    void dropsWhenQueueFull() {
+        GeoPrefetchService service = new GeoPrefetchService(ipInfoClient, task -> {
+            throw new RejectedExecutionException("full");
+        }, 3, 50);
+
+        service.onAnalysisCompleted(completed("id-1", 10));
+
+        assertThat(service.getStats().droppedJobs()).isEqualTo(1);
+        assertThatThrownBy(() -> service.getProgress("id-1")).isInstanceOf(BusinessException.class);
+    }
+
+    @DisplayName("통계에 미리 조회 수와 결과 응답의 상위 IP 캐시 적중률을 담는다")
+    @Test
+    void reportsStats() {
+        given(ipInfoClient.getTopIpRequests()).willReturn(30L);
+        given(ipInfoClient.getTopIpCacheHits()).willReturn(27L);
+        GeoPrefetchService service = new GeoPrefetchService(ipInfoClient, Runnable::run, 3, 50);
+        service.onAnalysisCompleted(completed("id-1", 10));
+
+        GeoPrefetchStats stats = service.getStats();
+
+        assertThat(stats.completedJobs()).isEqualTo(1);
+        assertThat(stats.prefetchedIps()).isEqualTo(3);
+        assertThat(stats.topIpCacheHitRate()).isEqualTo(90.0);
+    }
+}
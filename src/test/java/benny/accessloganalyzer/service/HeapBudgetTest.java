@@ -0,0 +1,101 @@
+package benny.accessloganalyzer.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HeapBudgetTest {
+
+    private static final long MB = 1024 * 1024;
+
+    private long nowNanos;
+    private final HeapBudget budget = new HeapBudget(100 * MB, () -> nowNanos);
+
+    private void advanceSeconds(long seconds) {
+        nowNanos += seconds * 1_000_000_000L;
+    }
+
+    @Nested
+    @DisplayName("예약")
+    class ReservationTest {
+
+        @DisplayName("예산 안에서는 작은 작업을 여러 개 받는다")
+        @Test
+        void acceptsManySmallJobs() {
+            for (int i = 0; i < 20; i++) {
+                assertThat(budget.tryReserve("small-" + i, 5 * MB)).isTrue();
+            }
+            assertThat(budget.tryReserve("one-more", 5 * MB)).isFalse();
+        }
+
+        @DisplayName("반납하면 그만큼 다시 받을 수 있다")
+        @Test
+        void releaseFreesBudget() {
+            budget.tryReserve("a", 60 * MB);
+            assertThat(budget.tryReserve("b", 60 * MB)).isFalse();
+
+            budget.release("a");
+
+            assertThat(budget.tryReserve("b", 60 * MB)).isTrue();
+            assertThat(budget.reservedBytes()).isEqualTo(60 * MB);
+        }
+
+        @DisplayName("예산보다 큰 작업은 다른 작업이 없을 때 단독으로 받는다")
+        @Test
+        void oversizedJobRunsAlone() {
+            assertThat(budget.tryReserve("huge", 500 * MB)).isTrue();
+            assertThat(budget.tryReserve("small", MB)).isFalse();
+
+            budget.release("huge");
+            assertThat(budget.reservedBytes()).isZero();
+        }
+
+        @DisplayName("예약하지 않은 ID의 반납은 무시한다")
+        @Test
+        void ignoresUnknownRelease() {
+            budget.tryReserve("a", 10 * MB);
+            budget.release("unknown");
+
+            assertThat(budget.reservedBytes()).isEqualTo(10 * MB);
+        }
+    }
+
+    @Nested
+    @DisplayName("Retry-After 계산")
+    class RetryAfterTest {
+
+        @DisplayName("반납을 관찰하기 전에는 기본값을 쓴다")
+        @Test
+        void usesDefaultBeforeObservation() {
+            budget.tryReserve("a", 100 * MB);
+
+            assertThat(budget.retryAfterSeconds(10 * MB)).isEqualTo(5);
+        }
+
+        @DisplayName("관찰된 반납 속도로 부족분이 풀릴 시간을 계산한다")
+        @Test
+        void computesFromDrainRate() {
+            budget.tryReserve("a", 20 * MB);
+            budget.tryReserve("b", 80 * MB);
+            // 2초에 20MB 반납 → 초당 10MB
+            advanceSeconds(2);
+            budget.release("a");
+            budget.tryReserve("c", 20 * MB);
+
+            // 부족분 30MB / 초당 10MB = 3초
+            assertThat(budget.retryAfterSeconds(30 * MB)).isEqualTo(3);
+        }
+    }
+
+    @DisplayName("제한 없는 예산은 항상 받는다")
+    @Test
+    void unlimitedBudgetAlwaysAccepts() {
+        HeapBudget unlimited = HeapBudget.unlimited();
+
+        assertThat(unlimited.isLimited()).isFalse();
+        assertThat(unlimited.tryReserve("a", Long.MAX_VALUE / 2)).isTrue();
+        assertThat(unlimited.tryReserve("b", Long.MAX_VALUE / 2)).isTrue();
+    }
+}
@@ -0,0 +1,66 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.parser.AccessLogCsvParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HeapEstimatorTest {
+
+    private static final String HEADER = "timestamp,clientIp,httpMethod,requestUri,userAgent,httpStatus,httpVersion,receivedBytes,sentBytes,clientResponseTime,sslProtocol,originalRequestUriWithArgs";
+
+    private final HeapEstimator estimator = new HeapEstimator(new AccessLogCsvParser());
+
+    @TempDir
+    Path dir;
+
+    private String csvLine(String ip, String path) {
+        return String.format("2024-01-01T00:00:00,%s,GET,%s,Mozilla/5.0,200,HTTP/1.1,100,200,0.5,TLSv1.3,%s?q=1",
+                ip, path, path);
+    }
+
+    private Path write(String name, int lines, boolean unique) throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER).append('\n');
+        for (int i = 0; i < lines; i++) {
+            int key = unique ? i : i % 10;
+            csv.append(csvLine("10.0." + (key >> 8 & 255) + "." + (key & 255), "/api/items/" + key)).append('\n');
+        }
+        Path file = dir.resolve(name);
+        Files.writeString(file, csv);
+        return file;
+    }
+
+    @DisplayName("같은 경로/IP가 반복되는 로그는 고유 키가 많은 로그보다 훨씬 작게 추정한다")
+    @Test
+    void repeatedKeysEstimateSmaller() throws Exception {
+        long repeated = estimator.estimate(write("repeated.csv", 20_000, false));
+        long unique = estimator.estimate(write("unique.csv", 20_000, true));
+
+        assertThat(repeated).isLessThan(HeapEstimator.BASE_BYTES + 1024 * 1024);
+        assertThat(unique - HeapEstimator.BASE_BYTES).isGreaterThan(10 * (repeated - HeapEstimator.BASE_BYTES));
+    }
+
+    @DisplayName("표본보다 큰 파일은 크기에 맞춰 외삽한다")
+    @Test
+    void extrapolatesBeyondSample() throws Exception {
+        long small = estimator.estimate(write("small.csv", 1_000, true));
+        long large = estimator.estimate(write("large.csv", 20_000, true));
+
+        assertThat(large).isGreaterThan(small);
+    }
+
+    @DisplayName("유효한 라인이 없으면 고정 비용만 잡는다")
+    @Test
+    void emptyFileUsesBaseBytes() throws Exception {
+        Path file = dir.resolve("empty.csv");
+        Files.writeString(file, HEADER + "\n");
+
+        assertThat(estimator.estimate(file)).isEqualTo(HeapEstimator.BASE_BYTES);
+    }
+}
@@ -0,0 +1,313 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.model.TailWindow;
+import benny.accessloganalyzer.parser.AccessLogCsvParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LiveTailServiceTest {
+
+    private static final String HEADER = "timestamp,clientIp,httpMethod,requestUri,userAgent,httpStatus,httpVersion,receivedBytes,sentBytes,clientResponseTime,sslProtocol,originalRequestUriWithArgs";
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("access.csv");
+        clock = new MutableClock(Instant.parse("2026-01-29T05:00:00Z"));
+    }
+
+    private LiveTailService tail(boolean fromStart) {
+        return new LiveTailService(new AccessLogCsvParser(), file, 1000, fromStart, clock);
+    }
+
+    private String csvLine(String ip, String path, int status) {
+        return String.format("2024-01-01T00:00:00,%s,GET,%s,Mozilla/5.0,%d,HTTP/1.1,100,200,0.5,TLSv1.3,%s?q=1",
+                ip, path, status, path);
+    }
+
+    private void append(Path target, String content) throws IOException {
+        Files.writeString(target, content, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Nested
+    @DisplayName("파일 추적")
+    class FollowTest {
+
+        @DisplayName("기본값은 기존 내용을 건너뛰고 이후에 쓰인 라인만 집계한다")
+        @Test
+        void startsAtEndOfFile() throws IOException {
+            append(file, HEADER + "\n" + csvLine("1.1.1.1", "/old", 200) + "\n");
+            LiveTailService service = tail(false);
+            service.pollOnce();
+
+            append(file, csvLine("2.2.2.2", "/new", 500) + "\n");
+            service.pollOnce();
+
+            TailWindow window = service.window(5, 10);
+            assertThat(window.totalRequests()).isEqualTo(1);
+            assertThat(window.topPaths()).containsOnlyKeys("/new");
+            assertThat(window.statusGroupCounts()).containsEntry("5xx", 1L);
+        }
+
+        @DisplayName("끝에서 시작할 때 쓰이는 중이던 마지막 라인은 완성되면 통째로 집계한다")
+        @Test
+        void resumesPartialTrailingLine() throws IOException {
+            String line = csvLine("2.2.2.2", "/partial", 200);
+            append(file, HEADER + "\n" + csvLine("1.1.1.1", "/old", 200) + "\n" + line.substring(0, 10));
+            LiveTailService service = tail(false);
+            service.pollOnce();
+
+            append(file, line.substring(10) + "\n");
+            service.pollOnce();
+
+            assertThat(service.window(5, 10).topPaths()).containsOnlyKeys("/partial");
+        }
+
+        @DisplayName("from-start이면 헤더를 건너뛰고 처음부터 집계한다")
+        @Test
+        void readsFromStart() throws IOException {
+            append(file, HEADER + "\n" + csvLine("1.1.1.1", "/a", 200) + "\n" + csvLine("1.1.1.1", "/b", 200) + "\n");
+            LiveTailService service = tail(true);
+            service.pollOnce();
+
+            assertThat(service.window(5, 10).totalRequests()).isEqualTo(2);
+        }
+
+        @DisplayName("로테이션되면 이전 파일의 남은 라인을 읽고 새 파일의 처음부터 따라간다")
+        @Test
+        void followsRotation() throws IOException {
+            append(file, HEADER + "\n");
+            LiveTailService service = tail(false);
+            service.pollOnce();
+
+            append(file, csvLine("1.1.1.1", "/before", 200) + "\n");
+            Files.move(file, directory.resolve("access-1.csv"));
+            append(file, HEADER + "\n" + csvLine("2.2.2.2", "/after", 200) + "\n");
+            service.pollOnce();
+
+            assertThat(service.window(5, 10).topPaths()).containsOnlyKeys("/before", "/after");
+        }
+
+        @DisplayName("잘리면 같은 파일의 처음부터 다시 읽는다")
+        @Test
+        void followsTruncation() throws IOException {
+            append(file, HEADER + "\n");
+            LiveTailService service = tail(false);
+            service.pollOnce();
+            append(file, csvLine("1.1.1.1", "/a", 200) + "\n" + csvLine("1.1.1.1", "/a", 200) + "\n");
+            service.pollOnce();
+
+            Files.writeString(file, HEADER + "\n", StandardCharsets.UTF_8, StandardOpenOption.TRUNCATE_EXISTING);
+            service.pollOnce();
+            append(file, csvLine("2.2.2.2", "/b", 200) + "\n");
+            service.pollOnce();
+
+            TailWindow window = service.window(5, 10);
+            assertThat(window.totalRequests()).isEqualTo(3);
+            assertThat(window.topPaths()).containsEntry("/b", 1L);
+        }
+
+        @DisplayName("파일이 아직 없으면 생길 때까지 기다린다")
+        @Test
+        void waitsForMissingFile() throws IOException {
+            LiveTailService service = tail(false);
+            assertThat(service.pollOnce()).isZero();
+
+            append(file, HEADER + "\n" + csvLine("1.1.1.1", "/a", 200) + "\n");
+            service.pollOnce();
+
+            // 처음 보는 파일이 비어 있지 않으면 끝에서 시작한다
+            append(file, csvLine("1.1.1.1", "/b", 200) + "\n");
+            service.pollOnce();
+            assertThat(service.window(5, 10).topPaths()).containsOnlyKeys("/b");
+        }
+    }
+
+    @Nested
+    @DisplayName("읽기 오류 복구")
+    class RecoveryTest {
+
+        private FileChannel lastChannel;
+
+        private LiveTailService failingTail(boolean fromStart) {
+            return new LiveTailService(new AccessLogCsvParser(), file, 1000, fromStart, clock) {
+                @Override
+                FileChannel openChannel() throws IOException {
+                    lastChannel = super.openChannel();
+                    return lastChannel;
+                }
+            };
+        }
+
+        /**
+         * 열려 있는 채널을 닫아 다음 읽기가 ClosedChannelException(IOException) 으로 실패하게 한다.
+         */
+        private void breakChannel() throws IOException {
+            lastChannel.close();
+        }
+
+        @DisplayName("from-start 여도 읽기 오류 뒤에는 처음부터 다시 읽지 않고 읽던 위치부터 이어 집계한다")
+        @Test
+        void resumesFromOffsetWhenReadingFromStart() throws IOException {
+            append(file, HEADER + "\n" + csvLine("1.1.1.1", "/a", 200) + "\n");
+            LiveTailService service = failingTail(true);
+            service.poll();
+
+            breakChannel();
+            append(file, csvLine("2.2.2.2", "/b", 200) + "\n");
+            service.poll();
+            append(file, csvLine("3.3.3.3", "/c", 200) + "\n");
+            service.poll();
+
+            TailWindow window = service.window(5, 10);
+            assertThat(window.totalRequests()).isEqualTo(3);
+            assertThat(window.topPaths()).containsOnly(
+                    Map.entry("/a", 1L), Map.entry("/b", 1L), Map.entry("/c", 1L));
+        }
+
+        @DisplayName("끝에서 시작했어도 읽기 오류 동안 쓰인 라인을 건너뛰지 않는다")
+        @Test
+        void keepsLinesWrittenDuringFailure() throws IOException {
+            append(file, HEADER + "\n" + csvLine("1.1.1.1", "/old", 200) + "\n");
+            LiveTailService service = failingTail(false);
+            service.poll();
+
+            breakChannel();
+            append(file, csvLine("2.2.2.2", "/during", 200) + "\n");
+            service.poll();
+            append(file, csvLine("3.3.3.3", "/after", 200) + "\n");
+            service.poll();
+
+            TailWindow window = service.window(5, 10);
+            assertThat(window.totalRequests()).isEqualTo(2);
+            assertThat(window.topPaths()).containsOnlyKeys("/during", "/after");
+        }
+
+        @DisplayName("읽기 오류 동안 잘렸으면 처음부터 다시 읽는다")
+        @Test
+        void restartsWhenTruncatedDuringFailure() throws IOException {
+            append(file, HEADER + "\n" + csvLine("1.1.1.1", "/a", 200) + "\n" + csvLine("1.1.1.1", "/a", 200) + "\n");
+            LiveTailService service = failingTail(true);
+            service.poll();
+
+            breakChannel();
+            service.poll();
+            Files.writeString(file, HEADER + "\n" + csvLine("2.2.2.2", "/b", 200) + "\n",
+                    StandardCharsets.UTF_8, StandardOpenOption.TRUNCATE_EXISTING);
+            service.poll();
+
+            TailWindow window = service.window(5, 10);
+            assertThat(window.totalRequests()).isEqualTo(3);
+            assertThat(window.topPaths()).containsEntry("/b", 1L);
+        }
+    }
+
+    @Nested
+    @DisplayName("구간 집계")
+    class WindowTest {
+
+        @DisplayName("구간 밖으로 밀려난 분의 집계는 포함하지 않는다")
+        @Test
+        void excludesMinutesOutsideWindow() throws IOException {
+            append(file, HEADER + "\n");
+            LiveTailService service = tail(true);
+
+            append(file, csvLine("1.1.1.1", "/t0", 200) + "\n");
+            service.pollOnce();
+            clock.advance(Duration.ofMinutes(10));
+            append(file, csvLine("1.1.1.1", "/t10", 200) + "\n");
+            service.pollOnce();
+
+            assertThat(service.window(5, 10).topPaths()).containsOnlyKeys("/t10");
+            assertThat(service.window(15, 10).topPaths()).containsOnlyKeys("/t0", "/t10");
+        }
+
+        @DisplayName("60분이 지난 링 버퍼 슬롯은 새 분으로 덮어쓴다")
+        @Test
+        void overwritesExpiredSlot() throws IOException {
+            append(file, HEADER + "\n");
+            LiveTailService service = tail(true);
+
+            append(file, csvLine("1.1.1.1", "/old", 200) + "\n");
+            service.pollOnce();
+            clock.advance(Duration.ofMinutes(60));
+            append(file, csvLine("1.1.1.1", "/new", 200) + "\n");
+            service.pollOnce();
+
+            TailWindow window = service.window(60, 10);
+            assertThat(window.totalRequests()).isEqualTo(1);
+            assertThat(window.topPaths()).containsOnlyKeys("/new");
+        }
+
+        @DisplayName("window가 1~60 범위를 벗어나면 예외가 발생한다")
+        @Test
+        void rejectsInvalidWindow() {
+            assertThatThrownBy(() -> tail(false).window(61, 10))
+                    .isInstanceOf(BusinessException.class);
+        }
+
+        @DisplayName("추적 파일이 설정되지 않았으면 예외가 발생한다")
+        @Test
+        void rejectsWhenDisabled() {
+            LiveTailService disabled = new LiveTailService(new AccessLogCsvParser(), null, 1000, false, clock);
+
+            assertThatThrownBy(() -> disabled.window(5, 10))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("설정되지 않았습니다");
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -22,7 +22,7 @@ import java.util.concurrent.Executor;
 /**
  * 메모리 효율성 벤치마크 — 개선 전후 비교용.
  *
- * 실행: ./gradlew test --tests "*.MemoryEfficiencyBenchmark" -i
+ * 실행: ./gradlew test -Pbenchmark --tests "*.MemoryEfficiencyBenchmark" -i
  */
 @Tag("benchmark")
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
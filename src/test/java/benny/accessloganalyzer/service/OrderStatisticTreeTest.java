@@ -0,0 +1,63 @@
+package benny.accessloganalyzer.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderStatisticTreeTest {
+
+    @DisplayName("rank는 key 이하인 원소 개수를 반환한다")
+    @Test
+    void rankCountsKeysLessThanOrEqual() {
+        OrderStatisticTree<Long> tree = new OrderStatisticTree<>();
+        tree.add(10L);
+        tree.add(20L);
+        tree.add(30L);
+
+        assertThat(tree.rank(5L)).isZero();
+        assertThat(tree.rank(10L)).isEqualTo(1);
+        assertThat(tree.rank(25L)).isEqualTo(2);
+        assertThat(tree.rank(30L)).isEqualTo(3);
+    }
+
+    @DisplayName("중복 삽입과 없는 원소 삭제는 무시된다")
+    @Test
+    void ignoresDuplicatesAndMissingKeys() {
+        OrderStatisticTree<Long> tree = new OrderStatisticTree<>();
+
+        assertThat(tree.add(1L)).isTrue();
+        assertThat(tree.add(1L)).isFalse();
+        assertThat(tree.remove(2L)).isFalse();
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.remove(1L)).isTrue();
+        assertThat(tree.size()).isZero();
+        assertThat(tree.first()).isNull();
+    }
+
+    @DisplayName("무작위 삽입/삭제 후에도 TreeSet과 같은 순위와 최솟값을 유지한다")
+    @Test
+    void matchesTreeSetUnderRandomOperations() {
+        OrderStatisticTree<Long> tree = new OrderStatisticTree<>();
+        TreeSet<Long> expected = new TreeSet<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(2_000);
+            if (random.nextBoolean()) {
+                assertThat(tree.add(key)).isEqualTo(expected.add(key));
+            } else {
+                assertThat(tree.remove(key)).isEqualTo(expected.remove(key));
+            }
+
+            long probe = random.nextInt(2_000);
+            assertThat(tree.rank(probe)).isEqualTo(expected.headSet(probe, true).size());
+        }
+
+        assertThat(tree.size()).isEqualTo(expected.size());
+        assertThat(tree.first()).isEqualTo(expected.isEmpty() ? null : expected.first());
+    }
+}
@@ -0,0 +1,128 @@
+package benny.accessloganalyzer.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 스케줄러 벤치마크 — 작은 업로드와 큰 업로드가 섞인 부하에서 FIFO 대비 평균/최대 완료 시간 비교용.
+ * 실제 파싱 대신 크기에 비례하는 처리 시간을 두고 워커 2개를 이산 사건 시뮬레이션으로 돌린다.
+ *
+ * 실행: ./gradlew test -Pbenchmark --tests "*.SchedulerBenchmark" -i
+ */
+@Tag("benchmark")
+class SchedulerBenchmark {
+
+    private static final long MB = 1024 * 1024;
+    private static final int WORKERS = 2;
+    private static final int JOB_COUNT = 2_000;
+    // 1MB 파싱에 약 40ms
+    private static final double SERVICE_NANOS_PER_BYTE = 40_000_000.0 / MB;
+    private static final long MEAN_INTERARRIVAL_NANOS = 120_000_000L;
+
+    @Test
+    void compareWithFifo() {
+        List<SimJob> workload = generateWorkload();
+
+        System.out.println("=== 스케줄러 벤치마크 ===");
+        System.out.printf("작업 %,d건 (10%%는 20~50MB, 나머지 100KB~1MB), 워커 %d개%n%n", JOB_COUNT, WORKERS);
+
+        // aging 0, 기본 비용 0, 단일 클라이언트면 가상 마감 = 도착 시각이므로 FIFO 와 같다
+        report("FIFO     ", simulate(workload, 0, 0, false));
+        report("scheduler", simulate(workload, 1000, 100, true));
+    }
+
+    private static void report(String name, Map<String, long[]> completions) {
+        System.out.printf("[%s] 전체 평균 %,dms | 작은 작업 평균 %,dms | 큰 작업 평균 %,dms / 최대 %,dms%n",
+                name, avgMs(completions.get("all")), avgMs(completions.get("small")),
+                avgMs(completions.get("large")), maxMs(completions.get("large")));
+    }
+
+    private static Map<String, long[]> simulate(List<SimJob> workload, long agingMsPerMb, long baseCostMs,
+                                                boolean perClient) {
+        long[] clock = {0};
+        AnalysisScheduler scheduler = new AnalysisScheduler(agingMsPerMb, baseCostMs, () -> clock[0]);
+        Map<String, SimJob> byId = new HashMap<>();
+        long[] workerFreeAt = new long[WORKERS];
+        List<Long> all = new ArrayList<>();
+        List<Long> small = new ArrayList<>();
+        List<Long> large = new ArrayList<>();
+
+        int next = 0;
+        while (next < workload.size() || scheduler.size() > 0) {
+            int worker = 0;
+            for (int i = 1; i < WORKERS; i++) {
+                if (workerFreeAt[i] < workerFreeAt[worker]) {
+                    worker = i;
+                }
+            }
+            long now = workerFreeAt[worker];
+            if (scheduler.size() == 0 && workload.get(next).arrivalNanos() > now) {
+                now = workload.get(next).arrivalNanos();
+            }
+            while (next < workload.size() && workload.get(next).arrivalNanos() <= now) {
+                SimJob job = workload.get(next++);
+                clock[0] = job.arrivalNanos();
+                byId.put(job.id(), job);
+                scheduler.offer(job.id(), next, Path.of(job.id()), perClient ? job.client() : "single", job.sizeBytes());
+            }
+
+            clock[0] = now;
+            SimJob job = byId.get(scheduler.poll().analysisId());
+            long finishedAt = now + (long) (job.sizeBytes() * SERVICE_NANOS_PER_BYTE);
+            workerFreeAt[worker] = finishedAt;
+
+            long completion = finishedAt - job.arrivalNanos();
+            all.add(completion);
+            (job.sizeBytes() >= 20 * MB ? large : small).add(completion);
+        }
+
+        return Map.of("all", toArray(all), "small", toArray(small), "large", toArray(large));
+    }
+
+    private static List<SimJob> generateWorkload() {
+        Random random = new Random(42);
+        List<SimJob> jobs = new ArrayList<>(JOB_COUNT);
+        long arrival = 0;
+        for (int i = 0; i < JOB_COUNT; i++) {
+            arrival += (long) (-Math.log(1 - random.nextDouble()) * MEAN_INTERARRIVAL_NANOS);
+            boolean isLarge = random.nextInt(10) == 0;
+            long size = isLarge
+                    ? 20 * MB + (long) (random.nextDouble() * 30 * MB)
+                    : 100 * 1024 + (long) (random.nextDouble() * 900 * 1024);
+            // 큰 파일은 소수의 배치 클라이언트가, 작은 파일은 여러 CI 클라이언트가 올린다
+            String client = isLarge ? "batch-" + random.nextInt(2) : "ci-" + random.nextInt(20);
+            jobs.add(new SimJob("job-" + i, client, size, arrival));
+        }
+        return jobs;
+    }
+
+    private static long[] toArray(List<Long> values) {
+        return values.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long avgMs(long[] nanos) {
+        long sum = 0;
+        for (long n : nanos) {
+            sum += n;
+        }
+        return nanos.length == 0 ? 0 : sum / nanos.length / 1_000_000;
+    }
+
+    private static long maxMs(long[] nanos) {
+        long max = 0;
+        for (long n : nanos) {
+            max = Math.max(max, n);
+        }
+        return max / 1_000_000;
+    }
+
+    private record SimJob(String id, String client, long sizeBytes, long arrivalNanos) {
+    }
+}
@@ -0,0 +1,140 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.model.AnalysisEntry;
+import benny.accessloganalyzer.model.AnalysisStatus;
+import benny.accessloganalyzer.parser.AccessLogCsvParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamingAnalysisServiceTest {
+
+    private static final String HEADER = "timestamp,clientIp,httpMethod,requestUri,userAgent,httpStatus,httpVersion,receivedBytes,sentBytes,clientResponseTime,sslProtocol,originalRequestUriWithArgs";
+    private static final Executor NO_OP_EXECUTOR = task -> {};
+
+    @TempDir
+    Path dir;
+
+    private AnalysisService analysisService;
+
+    @BeforeEach
+    void setUp() {
+        analysisService = new AnalysisService(new AccessLogCsvParser(), 200_000, NO_OP_EXECUTOR);
+    }
+
+    private String csvLine(String ip, String path, int status) {
+        return String.format("2024-01-01T00:00:00,%s,GET,%s,Mozilla/5.0,%d,HTTP/1.1,100,200,0.5,TLSv1.3,%s?q=1",
+                ip, path, status, path);
+    }
+
+    private InputStream body(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @DisplayName("본문을 읽는 동시에 분석해 COMPLETED 엔트리를 반환한다")
+    @Test
+    void analyzesWhileReading() {
+        StreamingAnalysisService service = new StreamingAnalysisService(analysisService, 2, 1024 * 1024, null);
+        String csv = HEADER + "\n" + csvLine("1.1.1.1", "/a", 200) + "\n" + csvLine("2.2.2.2", "/b", 404);
+
+        AnalysisEntry entry = service.analyze(body(csv));
+
+        assertThat(entry.getStatus()).isEqualTo(AnalysisStatus.COMPLETED);
+        assertThat(entry.getResult().totalRequests()).isEqualTo(2);
+        assertThat(analysisService.getEntry(entry.getAnalysisId())).isSameAs(entry);
+    }
+
+    @DisplayName("사본 보관 설정 시 읽은 본문과 동일한 파일이 남는다")
+    @Test
+    void keepsCopyOnDisk() throws Exception {
+        StreamingAnalysisService service = new StreamingAnalysisService(analysisService, 2, 1024 * 1024, dir);
+        String csv = HEADER + "\n" + csvLine("1.1.1.1", "/a", 200);
+
+        service.analyze(body(csv));
+
+        try (var files = Files.list(dir)) {
+            List<Path> copies = files.toList();
+            assertThat(copies).hasSize(1);
+            assertThat(Files.readString(copies.getFirst())).isEqualTo(csv);
+        }
+    }
+
+    @DisplayName("최대 바이트를 초과하면 400을 던지고 엔트리는 FAILED, 사본은 삭제된다")
+    @Test
+    void rejectsOversizedBody() throws Exception {
+        StreamingAnalysisService service = new StreamingAnalysisService(analysisService, 2, 100, dir);
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 10; i++) {
+            csv.append('\n').append(csvLine("1.1.1.1", "/a", 200));
+        }
+
+        assertThatThrownBy(() -> service.analyze(body(csv.toString())))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("파일 크기");
+        try (var files = Files.list(dir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @DisplayName("유효한 라인이 없으면 400을 던진다")
+    @Test
+    void rejectsBodyWithoutValidLines() {
+        StreamingAnalysisService service = new StreamingAnalysisService(analysisService, 2, 1024 * 1024, null);
+
+        assertThatThrownBy(() -> service.analyze(body(HEADER + "\nbroken")))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("유효한 로그 데이터가 없습니다");
+    }
+
+    @DisplayName("동시 실행 슬롯이 모두 사용 중이면 503을 던진다")
+    @Test
+    void rejectsWhenSlotsFull() throws Exception {
+        StreamingAnalysisService service = new StreamingAnalysisService(analysisService, 1, 1024 * 1024, null);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        InputStream slowBody = new InputStream() {
+            @Override
+            public int read() {
+                reading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return -1;
+            }
+        };
+
+        Thread first = Thread.ofPlatform().start(() -> {
+            try {
+                service.analyze(slowBody);
+            } catch (BusinessException ignored) {
+                // 빈 본문이라 400으로 끝난다
+            }
+        });
+        reading.await();
+
+        try {
+            assertThatThrownBy(() -> service.analyze(body(HEADER)))
+                    .isInstanceOf(BusinessException.class)
+                    .extracting("code").isEqualTo("ANALYSIS_QUEUE_FULL");
+        } finally {
+            release.countDown();
+            first.join();
+        }
+    }
+}
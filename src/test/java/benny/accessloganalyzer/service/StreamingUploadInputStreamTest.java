@@ -0,0 +1,40 @@
+package benny.accessloganalyzer.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingUploadInputStreamTest {
+
+    private static final byte[] BODY = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+    @DisplayName("skip 한 바이트도 사본에 기록하고 읽은 바이트 수에 포함한다")
+    @Test
+    void skipCopiesBytes() throws Exception {
+        ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        StreamingUploadInputStream stream = new StreamingUploadInputStream(new ByteArrayInputStream(BODY), 100, copy);
+
+        assertThat(stream.skip(4)).isEqualTo(4);
+        assertThat(stream.readAllBytes()).isEqualTo("456789".getBytes(StandardCharsets.UTF_8));
+        assertThat(copy.toByteArray()).isEqualTo(BODY);
+        assertThat(stream.getBytesRead()).isEqualTo(BODY.length);
+    }
+
+    @DisplayName("0 이하를 skip 하면 아무것도 읽지 않고 0을 반환한다")
+    @Test
+    void skipsNothingForNonPositiveCount() throws Exception {
+        ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        StreamingUploadInputStream stream = new StreamingUploadInputStream(new ByteArrayInputStream(BODY), 100, copy);
+
+        assertThat(stream.skip(0)).isZero();
+        assertThat(stream.skip(-1)).isZero();
+        assertThat(stream.skip(Long.MIN_VALUE)).isZero();
+        assertThat(stream.getBytesRead()).isZero();
+        assertThat(copy.size()).isZero();
+    }
+}
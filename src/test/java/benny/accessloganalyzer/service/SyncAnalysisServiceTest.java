@@ -0,0 +1,104 @@
+package benny.accessloganalyzer.service;
+
+import benny.accessloganalyzer.global.exception.BusinessException;
+import benny.accessloganalyzer.model.AnalysisEntry;
+import benny.accessloganalyzer.model.AnalysisStatus;
+import benny.accessloganalyzer.parser.AccessLogCsvParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SyncAnalysisServiceTest {
+
+    private static final String HEADER = "timestamp,clientIp,httpMethod,requestUri,userAgent,httpStatus,httpVersion,receivedBytes,sentBytes,clientResponseTime,sslProtocol,originalRequestUriWithArgs";
+    private static final String LINE = "2024-01-01T00:00:00,1.1.1.1,GET,/a,Mozilla/5.0,200,HTTP/1.1,100,200,0.5,TLSv1.3,/a?q=1";
+
+    private AnalysisService analysisService;
+
+    @BeforeEach
+    void setUp() {
+        analysisService = new AnalysisService(new AccessLogCsvParser(), 200_000, task -> {});
+    }
+
+    private ByteArrayResource csv(String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @DisplayName("크기 상한 이하 파일은 요청 스레드에서 바로 분석한다")
+    @Test
+    void analyzesSmallFileInline() {
+        SyncAnalysisService service = new SyncAnalysisService(analysisService, 1024, 1);
+        ByteArrayResource source = csv(HEADER + "\n" + LINE);
+
+        Optional<AnalysisEntry> entry = service.tryAnalyze(source.contentLength(), source);
+
+        assertThat(entry).isPresent();
+        assertThat(entry.get().getStatus()).isEqualTo(AnalysisStatus.COMPLETED);
+        assertThat(entry.get().getResult().totalRequests()).isEqualTo(1);
+    }
+
+    @DisplayName("크기 상한을 넘는 파일은 레인에 들어가지 않는다")
+    @Test
+    void skipsLargeFile() {
+        SyncAnalysisService service = new SyncAnalysisService(analysisService, 10, 1);
+        ByteArrayResource source = csv(HEADER + "\n" + LINE);
+
+        assertThat(service.tryAnalyze(source.contentLength(), source)).isEmpty();
+    }
+
+    @DisplayName("레인이 가득 차면 빈 값을 반환해 비동기 큐로 넘긴다")
+    @Test
+    void fallsBackWhenLaneBusy() throws Exception {
+        SyncAnalysisService service = new SyncAnalysisService(analysisService, 1024, 1);
+        CountDownLatch inLane = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Optional<AnalysisEntry>> firstResult = new AtomicReference<>();
+
+        InputStreamSource slowSource = new InputStreamSource() {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                inLane.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return csv(HEADER + "\n" + LINE).getInputStream();
+            }
+        };
+
+        Thread first = Thread.ofPlatform().start(() -> firstResult.set(service.tryAnalyze(1, slowSource)));
+        inLane.await();
+
+        try {
+            ByteArrayResource source = csv(HEADER + "\n" + LINE);
+            assertThat(service.tryAnalyze(source.contentLength(), source)).isEmpty();
+        } finally {
+            release.countDown();
+            first.join();
+        }
+        assertThat(firstResult.get()).isPresent();
+    }
+
+    @DisplayName("유효한 데이터가 없으면 400을 던진다")
+    @Test
+    void rejectsInvalidFile() {
+        SyncAnalysisService service = new SyncAnalysisService(analysisService, 1024, 1);
+        ByteArrayResource source = csv(HEADER + "\nbroken");
+
+        assertThatThrownBy(() -> service.tryAnalyze(source.contentLength(), source))
+                .isInstanceOf(BusinessException.class);
+    }
+}